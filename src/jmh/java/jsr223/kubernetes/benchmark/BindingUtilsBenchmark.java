@@ -0,0 +1,100 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.script.Bindings;
+import javax.script.ScriptContext;
+import javax.script.SimpleBindings;
+import javax.script.SimpleScriptContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jsr223.kubernetes.utils.BindingUtils;
+
+
+/**
+ * Flattening of large bindings (variables and generic information maps, result lists, arrays) into the engine
+ * metadata.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BindingUtilsBenchmark {
+
+    @Param({ "100", "10000" })
+    public int entriesPerBinding;
+
+    private ScriptContext context;
+
+    @Setup
+    public void setUp() {
+        Bindings bindings = new SimpleBindings();
+        Map<String, Object> variables = new HashMap<>();
+        Map<String, Object> genericInformation = new HashMap<>();
+        List<Object> results = new ArrayList<>();
+        Object[] array = new Object[entriesPerBinding];
+        for (int i = 0; i < entriesPerBinding; i++) {
+            variables.put("VAR_" + i, "value-" + i);
+            genericInformation.put("GI_" + i, i);
+            // nested values are flattened with their toString()
+            Map<String, Object> nested = new HashMap<>();
+            nested.put("index", i);
+            results.add(nested);
+            array[i] = i % 7 == 0 ? null : "item-" + i;
+        }
+        bindings.put("variables", variables);
+        bindings.put("genericInformation", genericInformation);
+        bindings.put("results", results);
+        bindings.put("args", array);
+        bindings.put("PA_TASK_NAME", "benchmark-task");
+
+        context = new SimpleScriptContext();
+        context.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+    }
+
+    @Benchmark
+    public Map<String, String> addBindingsAsEngineMetadata() {
+        BindingUtils bindingUtils = new BindingUtils();
+        bindingUtils.addBindingsAsEngineMetadata(context);
+        return bindingUtils.getK8sEngineMetadata();
+    }
+}
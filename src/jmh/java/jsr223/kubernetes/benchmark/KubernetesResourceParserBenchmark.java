@@ -0,0 +1,91 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.utils.KubernetesResourceParser;
+
+
+/**
+ * Parsing of the 'kubectl create -o json' output of manifests with a growing number of resources, each of them with
+ * a realistic Job spec and status.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class KubernetesResourceParserBenchmark {
+
+    @Param({ "1", "100", "1000" })
+    public int resourceCount;
+
+    private String kubectlOutput;
+
+    @Setup
+    public void setUp() {
+        StringBuilder builder = new StringBuilder("{\"apiVersion\":\"v1\",\"kind\":\"List\",\"items\":[");
+        for (int i = 0; i < resourceCount; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"apiVersion\":\"batch/v1\",\"kind\":\"Job\",\"metadata\":{\"name\":\"job-")
+                   .append(i)
+                   .append("\",\"namespace\":\"default\",\"uid\":\"0b1c2d3e-4f50-6172-8394-a5b6c7d8e9f")
+                   .append(i % 10)
+                   .append("\",\"resourceVersion\":\"")
+                   .append(100000 + i)
+                   .append("\",\"creationTimestamp\":\"2026-10-19T06:00:00Z\",\"labels\":{\"app\":\"sweep\",\"index\":\"")
+                   .append(i)
+                   .append("\"}},\"spec\":{\"backoffLimit\":0,\"completions\":1,\"parallelism\":1,\"template\":{")
+                   .append("\"metadata\":{\"labels\":{\"app\":\"sweep\"}},\"spec\":{\"restartPolicy\":\"Never\",")
+                   .append("\"containers\":[{\"name\":\"main\",\"image\":\"python:3.11-slim\",\"command\":[\"python\",")
+                   .append("\"-c\",\"print('hello')\"],\"env\":[{\"name\":\"INDEX\",\"value\":\"")
+                   .append(i)
+                   .append("\"}],\"resources\":{\"requests\":{\"cpu\":\"500m\",\"memory\":\"512Mi\"}}}]}}},")
+                   .append("\"status\":{}}");
+        }
+        kubectlOutput = builder.append("]}").toString();
+    }
+
+    @Benchmark
+    public List<KubernetesResource> parseKubernetesResourceJson() {
+        return KubernetesResourceParser.parseKubernetesResourceJson(kubectlOutput);
+    }
+}
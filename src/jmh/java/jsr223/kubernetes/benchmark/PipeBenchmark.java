@@ -0,0 +1,118 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderUtilities;
+
+
+/**
+ * Throughput of the log pump, from a reader to a writer which only consumes what it gets, for 1 MB of log lines.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PipeBenchmark {
+
+    private static final int LOG_SIZE = 1024 * 1024;
+
+    @Param({ "80", "1000" })
+    public int lineLength;
+
+    private String log;
+
+    @Setup
+    public void setUp() {
+        char[] line = new char[lineLength];
+        Arrays.fill(line, 'x');
+        line[lineLength - 1] = '\n';
+        StringBuilder builder = new StringBuilder(LOG_SIZE + lineLength);
+        while (builder.length() < LOG_SIZE) {
+            builder.append(line);
+        }
+        log = builder.toString();
+    }
+
+    @Benchmark
+    public long pipe(Blackhole blackhole) throws IOException {
+        return KubernetesProcessBuilderUtilities.pipe(new StringReader(log), new BlackholeWriter(blackhole));
+    }
+
+    @Benchmark
+    public long pipeLines(Blackhole blackhole) throws IOException {
+        return KubernetesProcessBuilderUtilities.pipeLines(new StringReader(log),
+                                                           new BlackholeWriter(blackhole),
+                                                           "[job/benchmark] ");
+    }
+
+    private static class BlackholeWriter extends Writer {
+
+        private final Blackhole blackhole;
+
+        BlackholeWriter(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            blackhole.consume(buffer);
+            blackhole.consume(length);
+        }
+
+        @Override
+        public void write(String string) {
+            blackhole.consume(string);
+        }
+
+        @Override
+        public void flush() {
+            // nothing buffered
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+}
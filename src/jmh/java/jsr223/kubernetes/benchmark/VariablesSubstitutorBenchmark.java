@@ -0,0 +1,87 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import jsr223.kubernetes.utils.VariablesSubstitutor;
+
+
+/**
+ * Substitution of the task variables into manifests of growing size, with growing numbers of variables, one
+ * variable being referenced every 10 lines.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VariablesSubstitutorBenchmark {
+
+    @Param({ "100", "10000" })
+    public int manifestLines;
+
+    @Param({ "10", "1000" })
+    public int variableCount;
+
+    private String manifest;
+
+    private Map<String, String> substitutes;
+
+    @Setup
+    public void setUp() {
+        substitutes = new HashMap<>();
+        for (int i = 0; i < variableCount; i++) {
+            substitutes.put("variables_VAR_" + i, "value-" + i);
+        }
+        StringBuilder builder = new StringBuilder();
+        for (int line = 0; line < manifestLines; line++) {
+            if (line % 10 == 0) {
+                builder.append("  key").append(line).append(": ${variables_VAR_").append(line % variableCount).append("}\n");
+            } else {
+                builder.append("  key").append(line).append(": constant-value\n");
+            }
+        }
+        manifest = builder.toString();
+    }
+
+    @Benchmark
+    public String replaceRecursively() {
+        return VariablesSubstitutor.replaceRecursively(manifest, substitutes);
+    }
+}
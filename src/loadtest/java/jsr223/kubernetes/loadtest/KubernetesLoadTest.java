@@ -0,0 +1,364 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import javax.script.Bindings;
+import javax.script.ScriptContext;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+
+import org.apache.log4j.BasicConfigurator;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jsr223.kubernetes.KubernetesScriptEngine;
+import jsr223.kubernetes.metrics.KubernetesEngineMetrics;
+import jsr223.kubernetes.metrics.LatencySnapshot;
+import jsr223.kubernetes.staging.InputStager;
+
+
+/**
+ * Load driver running many Kubernetes tasks at once in this JVM, against a simulated kubectl, to find how many
+ * concurrent tasks a node sustains and with what latency. It reports the throughput, the task latency percentiles,
+ * the thread counts and what is left behind once every task has completed (resources, kubectl commands, manifest
+ * files, threads).
+ *
+ * Options are given as key=value arguments: tasks, concurrency, manifest (a file, defaults to a Job), logLevel, the
+ * {@link SimulatedKubectlSettings} fields (e.g. createLatencyMillis=500, createFailureRate=0.05), and generic
+ * information with a gi. prefix (e.g. gi.K8S_PARALLEL_CREATE=true).
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesLoadTest {
+
+    private static final String DEFAULT_MANIFEST = "apiVersion: batch/v1\n" + "kind: Job\n" + "metadata:\n" +
+                                                   "  name: load-test-${variables_PA_JOB_ID}-${variables_PA_TASK_ID}\n" +
+                                                   "spec:\n" + "  template:\n" + "    spec:\n" +
+                                                   "      containers:\n" + "      - name: main\n" +
+                                                   "        image: busybox\n" +
+                                                   "        command: [\"sh\", \"-c\", \"echo hello\"]\n" +
+                                                   "      restartPolicy: Never\n";
+
+    private static final String GENERIC_INFORMATION_PREFIX = "gi.";
+
+    private static final long THREAD_SAMPLING_PERIOD_MILLIS = 50;
+
+    private static final long SETTLE_TIMEOUT_MILLIS = 5000;
+
+    private final int tasks;
+
+    private final int concurrency;
+
+    private final String manifest;
+
+    private final Map<String, String> genericInformation = new HashMap<>();
+
+    private final SimulatedCluster cluster;
+
+    private final SimulatedKubectlProcessBuilderFactory factory;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final AtomicInteger peakEngineThreads = new AtomicInteger();
+
+    public KubernetesLoadTest(Map<String, String> options) throws IOException {
+        Map<String, String> remaining = new HashMap<>(options);
+        tasks = Integer.parseInt(remaining.getOrDefault("tasks", "200"));
+        concurrency = Integer.parseInt(remaining.getOrDefault("concurrency", "20"));
+        String manifestFile = remaining.remove("manifest");
+        manifest = manifestFile == null ? DEFAULT_MANIFEST
+                                        : new String(Files.readAllBytes(Paths.get(manifestFile)),
+                                                     StandardCharsets.UTF_8);
+        remaining.remove("tasks");
+        remaining.remove("concurrency");
+        remaining.remove("logLevel");
+        options.keySet()
+               .stream()
+               .filter(key -> key.startsWith(GENERIC_INFORMATION_PREFIX))
+               .forEach(key -> genericInformation.put(key.substring(GENERIC_INFORMATION_PREFIX.length()),
+                                                      remaining.remove(key)));
+        cluster = new SimulatedCluster(toSettings(remaining));
+        factory = new SimulatedKubectlProcessBuilderFactory(cluster);
+    }
+
+    private static SimulatedKubectlSettings toSettings(Map<String, String> options) {
+        SimulatedKubectlSettings settings = new SimulatedKubectlSettings();
+        for (Map.Entry<String, String> option : options.entrySet()) {
+            String value = option.getValue();
+            switch (option.getKey()) {
+                case "createLatencyMillis":
+                    settings.setCreateLatencyMillis(Long.parseLong(value));
+                    break;
+                case "deleteLatencyMillis":
+                    settings.setDeleteLatencyMillis(Long.parseLong(value));
+                    break;
+                case "getLatencyMillis":
+                    settings.setGetLatencyMillis(Long.parseLong(value));
+                    break;
+                case "logsReadyDelayMillis":
+                    settings.setLogsReadyDelayMillis(Long.parseLong(value));
+                    break;
+                case "logLines":
+                    settings.setLogLines(Integer.parseInt(value));
+                    break;
+                case "logLineLength":
+                    settings.setLogLineLength(Integer.parseInt(value));
+                    break;
+                case "logLineIntervalMillis":
+                    settings.setLogLineIntervalMillis(Long.parseLong(value));
+                    break;
+                case "createFailureRate":
+                    settings.setCreateFailureRate(Double.parseDouble(value));
+                    break;
+                case "logsFailureRate":
+                    settings.setLogsFailureRate(Double.parseDouble(value));
+                    break;
+                case "logsDropRate":
+                    settings.setLogsDropRate(Double.parseDouble(value));
+                    break;
+                case "podQuota":
+                    settings.setPodQuota(Integer.parseInt(value));
+                    break;
+                case "sidecar":
+                    settings.setSidecar(Boolean.parseBoolean(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown load test option: " + option.getKey());
+            }
+        }
+        return settings;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Load test options are given as key=value, got: " + arg);
+            }
+            options.put(option[0], option[1]);
+        }
+
+        BasicConfigurator.configure();
+        Logger.getRootLogger().setLevel(Level.toLevel(options.getOrDefault("logLevel", "WARN")));
+
+        new KubernetesLoadTest(options).run();
+        // the engine registers shutdown hooks and daemon executors, do not wait for them
+        System.exit(0);
+    }
+
+    public void run() throws InterruptedException {
+        System.out.println("Running " + tasks + " tasks, " + concurrency + " at once, with " + cluster.getSettings() +
+                           (genericInformation.isEmpty() ? "" : " and generic information " + genericInformation));
+
+        int threadsBefore = threads.getThreadCount();
+        List<String> manifestFilesBefore = listManifestFiles();
+        threads.resetPeakThreadCount();
+        KubernetesEngineMetrics.getInstance().reset();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                                .setNameFormat("load-test-sampler")
+                                                                                                                .build());
+        // the simulated kubectl commands run on threads of their own, which a forked kubectl would not need
+        sampler.scheduleAtFixedRate(() -> peakEngineThreads.accumulateAndGet(threads.getThreadCount() -
+                                                                             cluster.getRunningCommands(),
+                                                                             Math::max),
+                                    0,
+                                    THREAD_SAMPLING_PERIOD_MILLIS,
+                                    TimeUnit.MILLISECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency,
+                                                                new ThreadFactoryBuilder().setNameFormat("load-test-task-%d")
+                                                                                          .build());
+        LongAdder outputCharacters = new LongAdder();
+        long start = System.nanoTime();
+        List<Future<Long>> latencies = new ArrayList<>();
+        for (int task = 0; task < tasks; task++) {
+            int taskId = task;
+            latencies.add(executor.submit(() -> runTask(taskId, outputCharacters)));
+        }
+        executor.shutdown();
+
+        long[] succeeded = new long[tasks];
+        int successes = 0;
+        List<String> failures = new ArrayList<>();
+        for (Future<Long> latency : latencies) {
+            try {
+                succeeded[successes] = latency.get();
+                successes++;
+            } catch (ExecutionException e) {
+                failures.add(e.getCause().getMessage());
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        sampler.shutdownNow();
+
+        // let the background kubectl commands (e.g. deletions which do not wait) exit
+        long settleDeadline = System.currentTimeMillis() + SETTLE_TIMEOUT_MILLIS;
+        while (cluster.getRunningCommands() > 0 && System.currentTimeMillis() < settleDeadline) {
+            Thread.sleep(THREAD_SAMPLING_PERIOD_MILLIS);
+        }
+
+        long[] taskLatencies = Arrays.copyOf(succeeded, successes);
+        Arrays.sort(taskLatencies);
+        List<String> leakedManifestFiles = listManifestFiles();
+        leakedManifestFiles.removeAll(manifestFilesBefore);
+
+        System.out.println();
+        System.out.println("Tasks: " + successes + " succeeded, " + failures.size() + " failed in " +
+                           String.format("%.1f", elapsedSeconds) + " s");
+        System.out.println("Throughput: " + String.format("%.2f", successes / elapsedSeconds) + " tasks/s");
+        System.out.println("Task latency (ms): p50 " + percentile(taskLatencies, 50) + ", p99 " +
+                           percentile(taskLatencies, 99) + ", max " + percentile(taskLatencies, 100));
+        System.out.println("Threads: " + threadsBefore + " before, peak " + threads.getPeakThreadCount() +
+                           " (peak without the simulated kubectl threads " + peakEngineThreads.get() + "), " +
+                           threads.getThreadCount() + " after");
+        System.out.println("Output: " + outputCharacters.sum() + " characters, " +
+                           (long) successes * cluster.getSettings().getLogLines() *
+                                                                   cluster.getSettings().getLogLineLength() +
+                           " expected from one log-streamed resource per task");
+        System.out.println("kubectl commands: " + cluster.getCommandCounts());
+        System.out.println("Peak live pods: " + cluster.getPeakPods());
+        printPhases();
+        // The task inputs ConfigMaps are kept on purpose, for the next tasks staging the same inputs
+        List<String> leakedResources = cluster.getLiveResources()
+                                              .stream()
+                                              .filter(resource -> !resource.contains("/configmap/" +
+                                                                                     InputStager.CONFIG_MAP_NAME_PREFIX))
+                                              .collect(Collectors.toList());
+        System.out.println("Leaked resources: " + leakedResources.size() +
+                           (leakedResources.isEmpty() ? "" : " " + leakedResources));
+        System.out.println("Leaked kubectl commands: " + cluster.getRunningCommands());
+        System.out.println("Leaked manifest files: " + leakedManifestFiles.size() +
+                           (leakedManifestFiles.isEmpty() ? "" : " " + leakedManifestFiles));
+        failures.stream().distinct().limit(10).forEach(failure -> System.out.println("Failure: " + failure));
+    }
+
+    private long runTask(int taskId, LongAdder outputCharacters) throws ScriptException {
+        KubernetesScriptEngine engine = new KubernetesScriptEngine(factory);
+        Map<String, String> variables = new HashMap<>();
+        variables.put("PA_JOB_ID", "1");
+        variables.put("PA_TASK_ID", String.valueOf(taskId));
+        variables.put("PA_JOB_NAME", "load-test");
+        variables.put("PA_TASK_NAME", "task");
+        Bindings bindings = engine.createBindings();
+        bindings.put("variables", variables);
+        bindings.put("genericInformation", genericInformation);
+        ScriptContext context = new SimpleScriptContext();
+        context.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+        CountingWriter output = new CountingWriter(outputCharacters);
+        context.setWriter(output);
+        context.setErrorWriter(output);
+        engine.setContext(context);
+
+        long start = System.nanoTime();
+        engine.eval(manifest, context);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private void printPhases() {
+        for (Map.Entry<String, LatencySnapshot> phase : KubernetesEngineMetrics.getInstance()
+                                                                               .getPhaseLatencies()
+                                                                               .entrySet()) {
+            LatencySnapshot latency = phase.getValue();
+            if (latency.getCount() > 0) {
+                System.out.println("Phase " + phase.getKey() + " (ms): p50 " + latency.getP50Millis() + ", p99 " +
+                                   latency.getP99Millis() + ", max " + latency.getMaxMillis());
+            }
+        }
+    }
+
+    private static long percentile(long[] sortedValues, int percentile) {
+        if (sortedValues.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedValues.length) - 1;
+        return sortedValues[Math.max(0, Math.min(index, sortedValues.length - 1))];
+    }
+
+    private static List<String> listManifestFiles() {
+        String[] files = new File(".").list((directory,
+                name) -> name.startsWith(KubernetesScriptEngine.K8S_MANIFEST_FILE_PREFIX));
+        return files == null ? new ArrayList<>() : new ArrayList<>(Arrays.asList(files));
+    }
+
+    // Task output sink, only counting what the engine writes
+    private static class CountingWriter extends Writer {
+
+        private final LongAdder characters;
+
+        CountingWriter(LongAdder characters) {
+            this.characters = characters;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            characters.add(length);
+        }
+
+        @Override
+        public void write(String string) {
+            characters.add(string.length());
+        }
+
+        @Override
+        public void flush() {
+            // nothing buffered
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.loadtest;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+
+
+/**
+ * State of the cluster behind the simulated kubectl: the live resources, with their creation time, and the kubectl
+ * commands run so far. The resources still alive once every task has completed are the leaked ones.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class SimulatedCluster {
+
+    @Getter
+    private final SimulatedKubectlSettings settings;
+
+    // namespace/kind/name -> creation time in milliseconds
+    private final Map<String, Long> resources = new ConcurrentHashMap<>();
+
+    // Resources whose logs have all been sent, which are then considered complete
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, LongAdder> commands = new ConcurrentHashMap<>();
+
+    private final AtomicInteger runningCommands = new AtomicInteger();
+
+    // Highest number of pods alive at once, one per job or pod
+    private final AtomicInteger peakPods = new AtomicInteger();
+
+    public SimulatedCluster(SimulatedKubectlSettings settings) {
+        this.settings = settings;
+    }
+
+    public static String getKey(String namespace, String kind, String name) {
+        return namespace + '/' + kind.toLowerCase() + '/' + name;
+    }
+
+    /**
+     * @return false if the resource already exists
+     */
+    public boolean create(String namespace, String kind, String name) {
+        boolean created = resources.putIfAbsent(getKey(namespace, kind, name), System.currentTimeMillis()) == null;
+        peakPods.accumulateAndGet(getPods(), Math::max);
+        return created;
+    }
+
+    /**
+     * Creates the resource, or updates it when it already exists.
+     */
+    public void apply(String namespace, String kind, String name) {
+        resources.putIfAbsent(getKey(namespace, kind, name), System.currentTimeMillis());
+    }
+
+    /**
+     * @return The creation time of the resource, null if it does not exist
+     */
+    public Long getCreationTime(String namespace, String kind, String name) {
+        return resources.get(getKey(namespace, kind, name));
+    }
+
+    /**
+     * @return false if the resource did not exist
+     */
+    public boolean delete(String namespace, String kind, String name) {
+        completed.remove(getKey(namespace, kind, name));
+        return resources.remove(getKey(namespace, kind, name)) != null;
+    }
+
+    public void complete(String namespace, String kind, String name) {
+        completed.add(getKey(namespace, kind, name));
+    }
+
+    public boolean isComplete(String namespace, String kind, String name) {
+        return completed.contains(getKey(namespace, kind, name));
+    }
+
+    /**
+     * @return The number of pods alive, one per job or pod
+     */
+    public int getPods() {
+        return (int) resources.keySet()
+                              .stream()
+                              .filter(key -> key.contains("/job/") || key.contains("/pod/"))
+                              .count();
+    }
+
+    public int getPeakPods() {
+        return peakPods.get();
+    }
+
+    public Set<String> getLiveResources() {
+        return resources.keySet();
+    }
+
+    void commandStarted(String verb) {
+        commands.computeIfAbsent(verb, key -> new LongAdder()).increment();
+        runningCommands.incrementAndGet();
+    }
+
+    void commandExited() {
+        runningCommands.decrementAndGet();
+    }
+
+    /**
+     * @return The number of simulated kubectl commands which have not exited yet
+     */
+    public int getRunningCommands() {
+        return runningCommands.get();
+    }
+
+    /**
+     * @return The number of kubectl commands run so far, by verb
+     */
+    public Map<String, Long> getCommandCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        commands.forEach((verb, count) -> counts.put(verb, count.sum()));
+        return counts;
+    }
+}
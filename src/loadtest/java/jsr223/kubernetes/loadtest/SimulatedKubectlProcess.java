@@ -0,0 +1,622 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.loadtest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderUtilities;
+import jsr223.kubernetes.processbuilder.MeteredProcess;
+import jsr223.kubernetes.utils.KubernetesManifestParser;
+
+
+/**
+ * A kubectl command emulated in the JVM against a {@link SimulatedCluster}. The command runs on its own thread and
+ * talks to the engine through pipes, just like a forked kubectl would, with the latency, log volume and failure
+ * rates of the cluster settings.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class SimulatedKubectlProcess extends Process {
+
+    private static final int PIPE_SIZE = 64 * 1024;
+
+    private static final String DEFAULT_NAMESPACE = "default";
+
+    private static final List<String> SWITCHES_WITH_VALUE = Arrays.asList("-n", "-f", "-o", "-c", "-l");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final SimulatedCluster cluster;
+
+    private final SimulatedKubectlSettings settings;
+
+    private final String[] command;
+
+    private final PipedInputStream stdout = new PipedInputStream(PIPE_SIZE);
+
+    private final PipedInputStream stderr = new PipedInputStream(PIPE_SIZE);
+
+    private final PipedOutputStream stdin = new PipedOutputStream();
+
+    private final PipedOutputStream stdoutSink;
+
+    private final PipedOutputStream stderrSink;
+
+    private final PipedInputStream stdinSource;
+
+    private final CountDownLatch exited = new CountDownLatch(1);
+
+    private volatile int exitValue;
+
+    private final Thread thread;
+
+    public SimulatedKubectlProcess(SimulatedCluster cluster, String... command) throws IOException {
+        this.cluster = cluster;
+        this.settings = cluster.getSettings();
+        this.command = command;
+        this.stdoutSink = new PipedOutputStream(stdout);
+        this.stderrSink = new PipedOutputStream(stderr);
+        this.stdinSource = new PipedInputStream(stdin, PIPE_SIZE);
+
+        cluster.commandStarted(MeteredProcess.getVerb(command));
+        thread = new Thread(this::run, "simulated-kubectl-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        int exit = 1;
+        try {
+            exit = execute();
+        } catch (InterruptedException e) {
+            // destroyed
+            exit = 137;
+        } catch (IOException | RuntimeException e) {
+            writeQuietly(stderrSink, "error: " + e + '\n');
+        } finally {
+            exitValue = exit;
+            closeQuietly(stdoutSink);
+            closeQuietly(stderrSink);
+            closeQuietly(stdinSource);
+            cluster.commandExited();
+            exited.countDown();
+        }
+    }
+
+    private int execute() throws IOException, InterruptedException {
+        String verb = MeteredProcess.getVerb(command);
+        switch (verb) {
+            case "create":
+                return create();
+            case "apply":
+                return apply();
+            case "logs":
+                return logs();
+            case "get":
+                return get();
+            case "delete":
+                return delete();
+            case "version":
+                Thread.sleep(settings.getGetLatencyMillis());
+                write(stdoutSink, "Client Version: v1.28.0\n");
+                return 0;
+            case "exec":
+                if (Arrays.asList(command).contains("tar")) {
+                    return execTar();
+                }
+                // fall through
+            case "wait":
+                Thread.sleep(settings.getGetLatencyMillis());
+                if (Arrays.asList(command).contains("-i")) {
+                    // e.g. the task inputs streamed into a pod, consumed whole
+                    ByteStreams.exhaust(stdinSource);
+                }
+                return 0;
+            default:
+                write(stderrSink, "error: unknown command \"" + verb + "\" for \"kubectl\"\n");
+                return 1;
+        }
+    }
+
+    // 'kubectl exec ... tar cf -', which can only run in the sidecar: the main container has terminated by then
+    private int execTar() throws IOException, InterruptedException {
+        Thread.sleep(settings.getGetLatencyMillis());
+        if (!settings.isSidecar() || !"sidecar".equals(getOption("-c"))) {
+            write(stderrSink, "error: cannot exec into a container in a completed pod; current phase is Succeeded\n");
+            return 1;
+        }
+        byte[] content = "artifact of the simulated task\n".getBytes(StandardCharsets.UTF_8);
+        byte[] header = new byte[512];
+        putTarField(header, 0, 100, "out/result.txt");
+        putTarField(header, 100, 8, "0000644");
+        putTarField(header, 124, 12, String.format("%011o", content.length));
+        putTarField(header, 136, 12, String.format("%011o", System.currentTimeMillis() / 1000));
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        header[156] = '0';
+        putTarField(header, 257, 6, "ustar");
+        putTarField(header, 263, 2, "00");
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        putTarField(header, 148, 8, String.format("%06o", checksum));
+        stdoutSink.write(header);
+        stdoutSink.write(content);
+        // the content padded to a block, then the two empty blocks ending the archive
+        stdoutSink.write(new byte[512 - content.length % 512 + 1024]);
+        stdoutSink.flush();
+        return 0;
+    }
+
+    private static void putTarField(byte[] header, int offset, int length, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+    }
+
+    private int create() throws IOException, InterruptedException {
+        List<KubernetesManifestDocument> documents = readManifest();
+        Thread.sleep(settings.getCreateLatencyMillis());
+        if (ThreadLocalRandom.current().nextDouble() < settings.getCreateFailureRate()) {
+            write(stderrSink, "Error from server (InternalError): simulated failure\n");
+            return 1;
+        }
+        List<KubernetesManifestDocument> created = new ArrayList<>();
+        for (KubernetesManifestDocument document : documents) {
+            if (!cluster.create(getNamespace(document), document.getKind(), document.getName())) {
+                // kubectl keeps the resources created before the conflict
+                write(stdoutSink, toJsonList(created));
+                write(stderrSink,
+                      "Error from server (AlreadyExists): " + document.getKind() + " \"" + document.getName() +
+                                  "\" already exists\n");
+                return 1;
+            }
+            created.add(document);
+        }
+        write(stdoutSink, toJsonList(created));
+        return 0;
+    }
+
+    private int apply() throws IOException, InterruptedException {
+        List<KubernetesManifestDocument> documents = readManifest();
+        Thread.sleep(settings.getCreateLatencyMillis());
+        for (KubernetesManifestDocument document : documents) {
+            cluster.apply(getNamespace(document), document.getKind(), document.getName());
+        }
+        write(stdoutSink, toJsonList(documents));
+        return 0;
+    }
+
+    private int logs() throws IOException, InterruptedException {
+        String[] resource = getPositionalArguments().get(0).split("/");
+        Long creationTime = cluster.getCreationTime(getNamespaceArgument(), resource[0], resource[1]);
+        if (creationTime == null) {
+            write(stderrSink, "Error from server (NotFound): " + resource[0] + " \"" + resource[1] + "\" not found\n");
+            return 1;
+        }
+        if (System.currentTimeMillis() - creationTime < settings.getLogsReadyDelayMillis()) {
+            write(stderrSink, "Error from server (BadRequest): container \"main\" in pod \"" + resource[1] +
+                              "\" is waiting to start: ContainerCreating\n");
+            return 1;
+        }
+        if (ThreadLocalRandom.current().nextDouble() < settings.getLogsFailureRate()) {
+            write(stderrSink, "error: unexpected EOF\n");
+            return 1;
+        }
+
+        char[] padding = new char[Math.max(0, settings.getLogLineLength() - 20)];
+        Arrays.fill(padding, 'x');
+        String linePadding = new String(padding);
+        boolean timestamps = Arrays.asList(command).contains("--timestamps");
+        // the API server truncates --since-time to the second
+        String sinceTime = getOption("--since-time");
+        long since = sinceTime == null ? 0 : Instant.parse(sinceTime).getEpochSecond() * 1000;
+        // each line has a virtual timestamp, so that resumed log streams get the same lines
+        long start = creationTime + settings.getLogsReadyDelayMillis();
+        int lastLine = settings.getLogLines();
+        if (ThreadLocalRandom.current().nextDouble() < settings.getLogsDropRate()) {
+            lastLine = ThreadLocalRandom.current().nextInt(settings.getLogLines() + 1);
+        }
+        for (int line = 0; line < lastLine; line++) {
+            long timestamp = start + line * settings.getLogLineIntervalMillis();
+            if (timestamp < since) {
+                continue;
+            }
+            String content = String.format("line %-14d%s%n", line, linePadding);
+            write(stdoutSink, timestamps ? Instant.ofEpochMilli(timestamp) + " " + content : content);
+            if (settings.getLogLineIntervalMillis() > 0) {
+                Thread.sleep(settings.getLogLineIntervalMillis());
+            }
+        }
+        if (lastLine == settings.getLogLines()) {
+            cluster.complete(getNamespaceArgument(), resource[0], resource[1]);
+        }
+        return 0;
+    }
+
+    private int get() throws IOException, InterruptedException {
+        String output = getOption("-o");
+        if (getOption("-f") != null) {
+            // live state of the resources of a manifest
+            List<KubernetesManifestDocument> documents = readManifest();
+            Thread.sleep(settings.getGetLatencyMillis());
+            List<KubernetesManifestDocument> existing = new ArrayList<>();
+            for (KubernetesManifestDocument document : documents) {
+                if (cluster.getCreationTime(getNamespace(document), document.getKind(), document.getName()) != null) {
+                    existing.add(document);
+                }
+            }
+            write(stdoutSink, toJsonList(existing));
+            return 0;
+        }
+        Thread.sleep(settings.getGetLatencyMillis());
+        String metricsNamespace = getPodMetricsNamespace();
+        if (metricsNamespace != null) {
+            // the metrics of the pod of each job of the namespace, whose only container uses 50-150m and 64-192Mi
+            write(stdoutSink, getPodMetrics(metricsNamespace));
+            return 0;
+        }
+        List<String> arguments = getPositionalArguments();
+        if ("events".equals(arguments.isEmpty() ? null : arguments.get(0))) {
+            // the image of the pod of each job pulled in 200 ms
+            write(stdoutSink, getPodEvents(getNamespaceArgument(), getOption("--field-selector")));
+            return 0;
+        }
+        if ("resourcequotas".equals(arguments.isEmpty() ? null : arguments.get(0)) && settings.getPodQuota() > 0) {
+            // a quota on the number of pods, used by all the live pods
+            write(stdoutSink,
+                  "{\"apiVersion\":\"v1\",\"kind\":\"List\",\"items\":[{\"status\":{\"hard\":{\"pods\":\"" +
+                              settings.getPodQuota() + "\"},\"used\":{\"pods\":\"" + cluster.getPods() +
+                              "\"}}}]}\n");
+            return 0;
+        }
+        if ("pods".equals(arguments.isEmpty() ? null : arguments.get(0)) && getOption("-l") != null) {
+            // the pods of jobs, one per job: "job-name=job" or "job-name in (job1,job2)"
+            String selector = getOption("-l");
+            List<String> jobs = selector.contains("=") ? Collections.singletonList(selector.substring(selector.indexOf('=') + 1))
+                                                       : Arrays.asList(selector.substring(selector.indexOf('(') + 1,
+                                                                                          selector.lastIndexOf(')'))
+                                                                               .split(","));
+            if ("json".equals(output)) {
+                List<String> pods = new ArrayList<>();
+                for (String job : jobs) {
+                    String pod = getPod(getNamespaceArgument(), "job", job);
+                    if (pod != null) {
+                        pods.add(pod);
+                    }
+                }
+                write(stdoutSink,
+                      "{\"apiVersion\":\"v1\",\"kind\":\"List\",\"items\":[" + String.join(",", pods) + "]}\n");
+            } else {
+                write(stdoutSink, jobs.get(0) + "-pod");
+            }
+            return 0;
+        }
+        if ("json".equals(output) && !arguments.isEmpty() && arguments.get(0).toLowerCase().startsWith("pod/")) {
+            String name = arguments.get(0).substring("pod/".length());
+            String pod = getPod(getNamespaceArgument(), "pod", name);
+            if (pod == null) {
+                write(stderrSink, "Error from server (NotFound): pods \"" + name + "\" not found\n");
+                return 1;
+            }
+            write(stdoutSink, pod + '\n');
+            return 0;
+        }
+        if (output != null && output.contains("initContainerStatuses")) {
+            // the init containers of the pods start right away
+            write(stdoutSink, Instant.now().toString());
+            return 0;
+        }
+        if (output != null && output.startsWith("jsonpath=") && !arguments.isEmpty()) {
+            // the status of a resource, which completes successfully once all its logs have been sent
+            String[] resource = arguments.get(0).split("/");
+            if (cluster.getCreationTime(getNamespaceArgument(), resource[0], resource[1]) == null) {
+                write(stderrSink,
+                      "Error from server (NotFound): " + resource[0] + " \"" + resource[1] + "\" not found\n");
+                return 1;
+            }
+            if (!cluster.isComplete(getNamespaceArgument(), resource[0], resource[1]) || settings.isSidecar()) {
+                write(stdoutSink, "job".equalsIgnoreCase(resource[0]) ? "" : "Running");
+            } else {
+                write(stdoutSink, "job".equalsIgnoreCase(resource[0]) ? "Complete" : "Succeeded");
+            }
+            return 0;
+        }
+        write(stdoutSink, "{\"apiVersion\":\"v1\",\"kind\":\"List\",\"items\":[]}\n");
+        return 0;
+    }
+
+    /**
+     * @return The pod of a pod or of a job, running until all its logs have been sent, or until it is deleted when it
+     * has a sidecar; null if the resource does not exist.
+     */
+    private String getPod(String namespace, String kind, String name) {
+        Long creationTime = cluster.getCreationTime(namespace, kind, name);
+        if (creationTime == null) {
+            return null;
+        }
+        // scheduled after 100 ms, started after 350 ms
+        Instant created = Instant.ofEpochMilli(creationTime);
+        String startedAt = "\"startedAt\":\"" + created.plusMillis(350) + '"';
+        boolean complete = cluster.isComplete(namespace, kind, name);
+        String phase = complete && !settings.isSidecar() ? "Succeeded" : "Running";
+        String mainState = complete ? "{\"terminated\":{\"exitCode\":0," + startedAt + ",\"finishedAt\":\"" +
+                                      Instant.now() + "\"}}"
+                                    : "{\"running\":{" + startedAt + "}}";
+        String containers = "{\"name\":\"main\"}";
+        String containerStatuses = "{\"name\":\"main\",\"state\":" + mainState + '}';
+        if (settings.isSidecar()) {
+            containers += ",{\"name\":\"sidecar\"}";
+            containerStatuses += ",{\"name\":\"sidecar\",\"state\":{\"running\":{" + startedAt + "}}}";
+        }
+        String labels = "job".equals(kind) ? ",\"labels\":{\"job-name\":\"" + name + "\"}" : "";
+        return "{\"kind\":\"Pod\",\"metadata\":{\"name\":\"" + ("job".equals(kind) ? name + "-pod" : name) +
+               "\",\"namespace\":\"" + namespace + '"' + labels + ",\"creationTimestamp\":\"" + created +
+               "\"},\"spec\":{\"containers\":[" + containers + "]},\"status\":{\"phase\":\"" + phase +
+               "\",\"conditions\":[{\"type\":\"PodScheduled\",\"status\":\"True\",\"lastTransitionTime\":\"" +
+               created.plusMillis(100) + "\"}],\"containerStatuses\":[" + containerStatuses + "]}}";
+    }
+
+    // The namespace of a read of the metrics API: "get --raw=/apis/metrics.k8s.io/v1beta1/namespaces/NS/pods"
+    private String getPodMetricsNamespace() {
+        for (String argument : command) {
+            if (argument.startsWith("--raw=/apis/metrics.k8s.io/")) {
+                String[] path = argument.split("/");
+                return path[path.length - 2];
+            }
+        }
+        return null;
+    }
+
+    private String getPodMetrics(String namespace) {
+        List<String> items = new ArrayList<>();
+        for (String key : cluster.getLiveResources()) {
+            String[] resource = key.split("/");
+            if (!resource[0].equals(namespace) || !"job".equals(resource[1])) {
+                continue;
+            }
+            items.add("{\"metadata\":{\"name\":\"" + resource[2] + "-pod\",\"namespace\":\"" + namespace +
+                      "\",\"labels\":{\"job-name\":\"" + resource[2] + "\"}},\"containers\":[{\"name\":\"main\"," +
+                      "\"usage\":{\"cpu\":\"" + ThreadLocalRandom.current().nextInt(50, 150) * 1000000 +
+                      "n\",\"memory\":\"" + ThreadLocalRandom.current().nextInt(64, 192) * 1024 + "Ki\"}}]}");
+        }
+        return "{\"kind\":\"PodMetricsList\",\"apiVersion\":\"metrics.k8s.io/v1beta1\",\"items\":[" +
+               String.join(",", items) + "]}\n";
+    }
+
+    // The events of the pods of the jobs of the namespace, or of a single one: "involvedObject.name=job-pod"
+    private String getPodEvents(String namespace, String fieldSelector) {
+        String podName = null;
+        for (String field : fieldSelector == null ? new String[0] : fieldSelector.split(",")) {
+            if (field.startsWith("involvedObject.name=")) {
+                podName = field.substring("involvedObject.name=".length());
+            }
+        }
+        List<String> items = new ArrayList<>();
+        for (String key : cluster.getLiveResources()) {
+            String[] resource = key.split("/");
+            String pod = resource[2] + "-pod";
+            Long creationTime = cluster.getCreationTime(resource[0], resource[1], resource[2]);
+            if (!resource[0].equals(namespace) || !"job".equals(resource[1]) || creationTime == null ||
+                (podName != null && !podName.equals(pod))) {
+                continue;
+            }
+            Instant created = Instant.ofEpochMilli(creationTime);
+            items.add("{\"kind\":\"Event\",\"reason\":\"Pulling\",\"involvedObject\":{\"kind\":\"Pod\",\"name\":\"" +
+                      pod + "\"},\"firstTimestamp\":\"" + created.plusMillis(120) + "\"}");
+            items.add("{\"kind\":\"Event\",\"reason\":\"Pulled\",\"involvedObject\":{\"kind\":\"Pod\",\"name\":\"" +
+                      pod + "\"},\"lastTimestamp\":\"" + created.plusMillis(320) + "\"}");
+        }
+        return "{\"apiVersion\":\"v1\",\"kind\":\"List\",\"items\":[" + String.join(",", items) + "]}\n";
+    }
+
+    private int delete() throws IOException, InterruptedException {
+        List<String> deleted = new ArrayList<>();
+        if (getOption("-f") != null) {
+            List<KubernetesManifestDocument> documents = readManifest();
+            Thread.sleep(settings.getDeleteLatencyMillis());
+            for (KubernetesManifestDocument document : documents) {
+                if (cluster.delete(getNamespace(document), document.getKind(), document.getName())) {
+                    deleted.add(document.getKind().toLowerCase() + '/' + document.getName());
+                }
+            }
+        } else {
+            Thread.sleep(settings.getDeleteLatencyMillis());
+            for (String argument : getPositionalArguments()) {
+                String[] resource = argument.split("/");
+                if (cluster.delete(getNamespaceArgument(), resource[0], resource[1])) {
+                    deleted.add(resource[0].toLowerCase() + '/' + resource[1]);
+                }
+            }
+        }
+        for (String resource : deleted) {
+            write(stdoutSink, resource + '\n');
+        }
+        return 0;
+    }
+
+    private List<KubernetesManifestDocument> readManifest() throws IOException {
+        String file = getOption("-f");
+        if ("-".equals(file)) {
+            StringWriter manifest = new StringWriter();
+            KubernetesProcessBuilderUtilities.pipe(new InputStreamReader(stdinSource, StandardCharsets.UTF_8),
+                                                   manifest);
+            return KubernetesManifestParser.parse(manifest.toString());
+        }
+        return KubernetesManifestParser.parse(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8));
+    }
+
+    private String toJsonList(List<KubernetesManifestDocument> documents) throws IOException {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (KubernetesManifestDocument document : documents) {
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            metadata.put("name", document.getName());
+            metadata.put("namespace", getNamespace(document));
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("apiVersion", document.getObject().get("apiVersion"));
+            item.put("kind", document.getKind());
+            item.put("metadata", metadata);
+            items.add(item);
+        }
+        Map<String, Object> list = new LinkedHashMap<>();
+        list.put("apiVersion", "v1");
+        list.put("kind", "List");
+        list.put("items", items);
+        return MAPPER.writeValueAsString(list) + '\n';
+    }
+
+    private String getNamespace(KubernetesManifestDocument document) {
+        return document.getNamespace() == null ? DEFAULT_NAMESPACE : document.getNamespace();
+    }
+
+    private String getNamespaceArgument() {
+        String namespace = getOption("-n");
+        return namespace == null ? DEFAULT_NAMESPACE : namespace;
+    }
+
+    // The value of a switch, given either as '-n value' or as '--since-time=value'
+    private String getOption(String option) {
+        for (int i = 1; i < command.length; i++) {
+            if (option.equals(command[i]) && i + 1 < command.length) {
+                return command[i + 1];
+            } else if (command[i].startsWith(option + '=')) {
+                return command[i].substring(option.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    // The arguments after the verb which are neither switches nor switch values, up to the '--' separator
+    private List<String> getPositionalArguments() {
+        List<String> arguments = new ArrayList<>();
+        boolean afterVerb = false;
+        for (int i = 1; i < command.length; i++) {
+            if ("--".equals(command[i])) {
+                break;
+            } else if (SWITCHES_WITH_VALUE.contains(command[i])) {
+                i++;
+            } else if (!command[i].startsWith("-")) {
+                if (afterVerb) {
+                    arguments.add(command[i]);
+                }
+                afterVerb = true;
+            }
+        }
+        return arguments.isEmpty() ? Collections.singletonList("unknown/unknown") : arguments;
+    }
+
+    private static void write(OutputStream stream, String content) throws IOException {
+        stream.write(content.getBytes(StandardCharsets.UTF_8));
+        stream.flush();
+    }
+
+    private static void writeQuietly(OutputStream stream, String content) {
+        try {
+            write(stream, content);
+        } catch (IOException ignored) {
+            // nobody reads the error output anymore
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return stdin;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return stdout;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return stderr;
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        exited.await();
+        return exitValue;
+    }
+
+    @Override
+    public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+        return exited.await(timeout, unit);
+    }
+
+    @Override
+    public int exitValue() {
+        if (exited.getCount() > 0) {
+            throw new IllegalThreadStateException("process hasn't exited");
+        }
+        return exitValue;
+    }
+
+    @Override
+    public void destroy() {
+        thread.interrupt();
+    }
+
+    @Override
+    public boolean isAlive() {
+        return exited.getCount() > 0;
+    }
+}
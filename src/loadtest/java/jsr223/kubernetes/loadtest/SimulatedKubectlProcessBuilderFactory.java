@@ -0,0 +1,66 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.loadtest;
+
+import java.io.IOException;
+
+import jsr223.kubernetes.metrics.FlightRecorderEvent;
+import jsr223.kubernetes.metrics.KubernetesFlightRecorder;
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderFactory;
+import jsr223.kubernetes.processbuilder.MeteredProcess;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Stand-in for the kubectl process builder factory, running the kubectl commands in the JVM against a simulated
+ * cluster. The simulated processes are metered like the forked ones, so that the engine metrics stay meaningful.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class SimulatedKubectlProcessBuilderFactory implements KubernetesProcessBuilderFactory {
+
+    @NonNull
+    @Getter
+    private SimulatedCluster cluster;
+
+    @Override
+    public ProcessBuilder getProcessBuilder(String... command) {
+        throw new UnsupportedOperationException("The simulated kubectl cannot be forked, use start() instead.");
+    }
+
+    @Override
+    public Process start(String... command) throws IOException {
+        long startTime = System.nanoTime();
+        String verb = MeteredProcess.getVerb(command);
+        FlightRecorderEvent event = KubernetesFlightRecorder.beginKubectlProcess(verb,
+                                                                                 MeteredProcess.getResource(command));
+        return new MeteredProcess(new SimulatedKubectlProcess(cluster, command), verb, startTime, event);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.loadtest;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+
+/**
+ * Behavior of the simulated kubectl: how long each command takes, how much its resources log and how often it
+ * fails.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Getter
+@Setter
+@ToString
+public class SimulatedKubectlSettings {
+
+    // Latency of 'kubectl create' and 'kubectl apply'
+    private long createLatencyMillis = 200;
+
+    // Latency of 'kubectl delete'
+    private long deleteLatencyMillis = 100;
+
+    // Latency of the other short commands (get, version, wait...)
+    private long getLatencyMillis = 20;
+
+    // Time after creation during which the logs of a resource are not available yet (ContainerCreating)
+    private long logsReadyDelayMillis = 0;
+
+    // Log volume of each resource
+    private int logLines = 100;
+
+    private int logLineLength = 80;
+
+    private long logLineIntervalMillis = 1;
+
+    // Probability that a 'kubectl create' fails before creating anything
+    private double createFailureRate = 0;
+
+    // Probability that a 'kubectl logs' fails, and is retried by the engine
+    private double logsFailureRate = 0;
+
+    // Probability that a 'kubectl logs -f' ends before all the lines are sent, as after a dropped connection
+    private double logsDropRate = 0;
+
+    // Number of pods allowed by the resource quota of the namespaces, 0 for no quota
+    private int podQuota = 0;
+
+    // Whether the pods run a sidecar container, which keeps them running once their main container has terminated
+    private boolean sidecar = false;
+}
@@ -26,9 +26,19 @@
 package jsr223.kubernetes;
 
 import java.io.*;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.script.AbstractScriptEngine;
 import javax.script.Bindings;
@@ -39,13 +49,47 @@ import javax.script.SimpleBindings;
 
 import org.apache.log4j.Logger;
 
-import com.fasterxml.jackson.core.JsonFactory;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jsr223.kubernetes.admission.AdmissionTicket;
+import jsr223.kubernetes.admission.KubernetesAdmissionController;
+import jsr223.kubernetes.admission.ResourceRequests;
+import jsr223.kubernetes.artifacts.ArtifactRetriever;
+import jsr223.kubernetes.cluster.KubernetesClusterLease;
+import jsr223.kubernetes.cluster.KubernetesClusterRouter;
+import jsr223.kubernetes.logs.ArchivingLogWriter;
+import jsr223.kubernetes.logs.LogResultExtractor;
+import jsr223.kubernetes.logs.ResourceCompletion;
+import jsr223.kubernetes.logs.ResumableLogStream;
+import jsr223.kubernetes.logs.SpillingLogWriter;
+import jsr223.kubernetes.metrics.EnginePhaseTimer;
+import jsr223.kubernetes.metrics.FlightRecorderEvent;
+import jsr223.kubernetes.metrics.KubernetesEngineMetrics;
+import jsr223.kubernetes.metrics.KubernetesFlightRecorder;
+import jsr223.kubernetes.model.KubernetesManifestDocument;
 import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.pool.WarmPodPool;
+import jsr223.kubernetes.pool.WarmPodPoolRegistry;
+import jsr223.kubernetes.prepull.ImagePrePuller;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderFactory;
+import jsr223.kubernetes.processbuilder.KubernetesInterruptWatchdog;
 import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderUtilities;
+import jsr223.kubernetes.processbuilder.KubernetesProcessTracker;
 import jsr223.kubernetes.processbuilder.SingletonKubernetesProcessBuilderFactory;
+import jsr223.kubernetes.sizing.ContainerUsage;
+import jsr223.kubernetes.sizing.ContainerUsageStatistics;
+import jsr223.kubernetes.sizing.PodMetricsSampler;
+import jsr223.kubernetes.sizing.PodUsageSubscription;
+import jsr223.kubernetes.sizing.RequestSizer;
+import jsr223.kubernetes.sizing.ResourceUsageHistory;
+import jsr223.kubernetes.staging.InputArchive;
+import jsr223.kubernetes.staging.InputStager;
+import jsr223.kubernetes.timeline.PodTimeline;
+import jsr223.kubernetes.timeline.TimelineCollector;
 import jsr223.kubernetes.utils.*;
+import jsr223.kubernetes.validation.ManifestValidator;
 import lombok.NoArgsConstructor;
 
 
@@ -58,24 +102,145 @@ public class KubernetesScriptEngine extends AbstractScriptEngine {
 
     private static final Logger log = Logger.getLogger(KubernetesScriptEngine.class);
 
-    // K8S manifest file
-    public static final String K8S_MANIFEST_FILE_NAME = "k8s-manifest.yml";
+    // Resumed log connections in a row ending without new lines before the log following gives up
+    private static final int MAX_IDLE_LOG_RESUMES = 60;
+
+    // K8S manifest file, unique to each engine so that several tasks can run in the same directory
+    public static final String K8S_MANIFEST_FILE_PREFIX = "k8s-manifest-";
+
+    public static final String K8S_MANIFEST_FILE_EXTENSION = ".yml";
+
+    private final String k8sManifestFileName = K8S_MANIFEST_FILE_PREFIX + UUID.randomUUID() +
+                                               K8S_MANIFEST_FILE_EXTENSION;
 
-    private File k8sManifestFile = null;
+    private volatile File k8sManifestFile = null;
+
+    // K8S manifest content, after variables substitution
+    private String k8sManifest = null;
 
     // Kubectl process
     private KubernetesCommandCreator kubernetesCommandCreator = new KubernetesCommandCreator();
 
     private KubernetesProcessBuilderUtilities processBuilderUtilities = new KubernetesProcessBuilderUtilities();
 
+    private KubernetesProcessBuilderFactory sharedProcessBuilderFactory = SingletonKubernetesProcessBuilderFactory.getInstance();
+
+    // Runs the commands of the components shared by the tasks (cluster probes, admission), never cancelled by a task
+    private KubernetesCommandRunner sharedCommandRunner = new KubernetesCommandRunner(sharedProcessBuilderFactory);
+
+    // Kubectl processes of the current eval, destroyed when its thread is interrupted
+    private KubernetesProcessTracker processTracker = null;
+
+    private KubernetesProcessBuilderFactory processBuilderFactory = null;
+
+    private KubernetesCommandRunner commandRunner = null;
+
+    // Whether the resources of the manifest are deleted if the task is interrupted: while they are being created, and
+    // until their deletion in the create-stream-delete mode
+    private volatile boolean k8sResourcesOwned = false;
+
+    // Deletes the resources of the interrupted tasks, without holding their threads
+    private static final ExecutorService CANCELLATION_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                                         .setNameFormat("k8s-cancellation-%d")
+                                                                                                                         .build());
+
+    private KubernetesEngineMetrics metrics = KubernetesEngineMetrics.getInstance();
+
     // GI, bindings and variables
     private BindingUtils bindings = new BindingUtils();
 
     // Optional parameters passed within generic info to customize the script engine behavior
-    private boolean k8sCreateOnly = false, k8sDeleteOnly = false;
+    private boolean k8sCreateOnly = false, k8sDeleteOnly = false, k8sApply = false;
 
     private String k8sResourceToStream = null;
 
+    // Sweep mode: the manifest is expanded once per item, null when the sweep mode is off
+    private List<String> k8sSweepItems = null;
+
+    private int k8sSweepParallelism = DEFAULT_SWEEP_PARALLELISM;
+
+    private boolean k8sParallelCreate = false;
+
+    private int k8sCreateParallelism = DEFAULT_CREATE_PARALLELISM;
+
+    // Warm pool mode: the manifest is a pod template, the task command runs in an idle pod created from it
+    private boolean k8sWarmPool = false;
+
+    private int k8sWarmPoolSize = DEFAULT_WARM_POOL_SIZE;
+
+    private String k8sExecCommand = null;
+
+    private String k8sExecContainer = null;
+
+    private boolean k8sPrePullImages = false;
+
+    private long k8sPrePullTimeout = DEFAULT_PRE_PULL_TIMEOUT_SECONDS;
+
+    // Log sink mode: the full logs go to this file, the task output only gets their head and tail
+    private String k8sLogFile = null;
+
+    private boolean k8sLogFileCompress = false;
+
+    private int k8sLogHeadLines = DEFAULT_LOG_HEAD_LINES;
+
+    private int k8sLogTailLines = DEFAULT_LOG_TAIL_LINES;
+
+    private long k8sLogProgressInterval = DEFAULT_LOG_PROGRESS_INTERVAL_SECONDS;
+
+    // Values found in the logs by their result markers, null when the logs are not scanned
+    private LogResultExtractor logResultExtractor = null;
+
+    // Artifacts mode: these paths are copied out of the task pods before they are deleted
+    private List<String> k8sArtifacts = null;
+
+    private String k8sArtifactsContainer = null;
+
+    private String k8sArtifactsDir = DEFAULT_ARTIFACTS_DIR;
+
+    private int k8sArtifactsParallelism = DEFAULT_ARTIFACTS_PARALLELISM;
+
+    // Input staging: these local files and directories are shipped into the pods before their containers start
+    private List<String> k8sInputs = null;
+
+    private String k8sInputsMountPath = DEFAULT_INPUTS_MOUNT_PATH;
+
+    private long k8sInputsTimeout = DEFAULT_INPUTS_TIMEOUT_SECONDS;
+
+    private InputArchive inputArchive = null;
+
+    private InputStager inputStager = null;
+
+    // The cluster context pinned by the task, null to let the router choose
+    private String k8sCluster = null;
+
+    // The cluster the task runs on
+    private KubernetesClusterLease clusterLease = null;
+
+    // Validation mode: the manifest is checked against the bundled schemas before any kubectl command
+    private boolean k8sValidate = false;
+
+    // Timeline mode: the scheduling and startup steps of the task pods are reported once they have run
+    private boolean k8sTimeline = false;
+
+    // Auto-sizing mode: the requests of the containers are sized from their usage in the previous runs of the task
+    private boolean k8sAutoSize = false;
+
+    private int k8sAutoSizePercentile = DEFAULT_AUTO_SIZE_PERCENTILE;
+
+    private int k8sAutoSizeHeadroom = DEFAULT_AUTO_SIZE_HEADROOM_PERCENT;
+
+    // Resource usage mode: the peak and average usage of the task containers are reported once they have run
+    private boolean k8sResourceUsage = false;
+
+    private PodUsageSubscription usageSubscription = null;
+
+    // Admission mode: the resources are created once the cluster can hold their requests
+    private boolean k8sAdmission = false;
+
+    private long k8sAdmissionTimeout = DEFAULT_ADMISSION_TIMEOUT_SECONDS;
+
+    private AdmissionTicket admissionTicket = null;
+
     // List of the k8s resources created in the current task
     private ArrayList<KubernetesResource> k8sResourcesList = new ArrayList<KubernetesResource>();
 
@@ -84,78 +249,756 @@ public class KubernetesScriptEngine extends AbstractScriptEngine {
 
     public static final String GI_K8S_DELETE_ONLY = "genericInformation_K8S_DELETE_ONLY";
 
+    public static final String GI_K8S_APPLY = "genericInformation_K8S_APPLY";
+
     public static final String GI_K8S_STREAM_LOGS = "genericInformation_K8S_STREAM_LOGS";
 
     public static final String GI_K8S_RESOURCE_TO_STREAM = "genericInformation_K8S_RESOURCE_TO_STREAM";
 
+    public static final String GI_K8S_SWEEP_SIZE = "genericInformation_K8S_SWEEP_SIZE";
+
+    public static final String GI_K8S_SWEEP_ITEMS = "genericInformation_K8S_SWEEP_ITEMS";
+
+    public static final String GI_K8S_SWEEP_PARALLELISM = "genericInformation_K8S_SWEEP_PARALLELISM";
+
+    public static final String GI_K8S_PARALLEL_CREATE = "genericInformation_K8S_PARALLEL_CREATE";
+
+    public static final String GI_K8S_CREATE_PARALLELISM = "genericInformation_K8S_CREATE_PARALLELISM";
+
+    public static final String GI_K8S_WARM_POOL = "genericInformation_K8S_WARM_POOL";
+
+    public static final String GI_K8S_WARM_POOL_SIZE = "genericInformation_K8S_WARM_POOL_SIZE";
+
+    public static final String GI_K8S_EXEC_COMMAND = "genericInformation_K8S_EXEC_COMMAND";
+
+    public static final String GI_K8S_EXEC_CONTAINER = "genericInformation_K8S_EXEC_CONTAINER";
+
+    public static final String GI_K8S_PRE_PULL_IMAGES = "genericInformation_K8S_PRE_PULL_IMAGES";
+
+    public static final String GI_K8S_PRE_PULL_TIMEOUT = "genericInformation_K8S_PRE_PULL_TIMEOUT";
+
+    public static final String GI_K8S_LOG_FILE = "genericInformation_K8S_LOG_FILE";
+
+    public static final String GI_K8S_LOG_FILE_COMPRESS = "genericInformation_K8S_LOG_FILE_COMPRESS";
+
+    public static final String GI_K8S_LOG_HEAD_LINES = "genericInformation_K8S_LOG_HEAD_LINES";
+
+    public static final String GI_K8S_LOG_TAIL_LINES = "genericInformation_K8S_LOG_TAIL_LINES";
+
+    public static final String GI_K8S_LOG_PROGRESS_INTERVAL = "genericInformation_K8S_LOG_PROGRESS_INTERVAL";
+
+    public static final String GI_K8S_EXTRACT_RESULTS = "genericInformation_K8S_EXTRACT_RESULTS";
+
+    public static final String GI_K8S_RESULT_PATTERN = "genericInformation_K8S_RESULT_PATTERN";
+
+    public static final String GI_K8S_ARTIFACTS = "genericInformation_K8S_ARTIFACTS";
+
+    public static final String GI_K8S_ARTIFACTS_CONTAINER = "genericInformation_K8S_ARTIFACTS_CONTAINER";
+
+    public static final String GI_K8S_ARTIFACTS_DIR = "genericInformation_K8S_ARTIFACTS_DIR";
+
+    public static final String GI_K8S_ARTIFACTS_PARALLELISM = "genericInformation_K8S_ARTIFACTS_PARALLELISM";
+
+    public static final String GI_K8S_CLUSTER = "genericInformation_K8S_CLUSTER";
+
+    public static final String GI_K8S_INPUTS = "genericInformation_K8S_INPUTS";
+
+    public static final String GI_K8S_INPUTS_MOUNT_PATH = "genericInformation_K8S_INPUTS_MOUNT_PATH";
+
+    public static final String GI_K8S_INPUTS_TIMEOUT = "genericInformation_K8S_INPUTS_TIMEOUT";
+
+    public static final String GI_K8S_ADMISSION = "genericInformation_K8S_ADMISSION";
+
+    public static final String GI_K8S_ADMISSION_TIMEOUT = "genericInformation_K8S_ADMISSION_TIMEOUT";
+
+    public static final String GI_K8S_VALIDATE = "genericInformation_K8S_VALIDATE";
+
+    public static final String GI_K8S_AUTO_SIZE = "genericInformation_K8S_AUTO_SIZE";
+
+    public static final String GI_K8S_TIMELINE = "genericInformation_K8S_TIMELINE";
+
+    public static final String GI_K8S_AUTO_SIZE_PERCENTILE = "genericInformation_K8S_AUTO_SIZE_PERCENTILE";
+
+    public static final String GI_K8S_AUTO_SIZE_HEADROOM = "genericInformation_K8S_AUTO_SIZE_HEADROOM";
+
+    public static final String GI_K8S_RESOURCE_USAGE = "genericInformation_K8S_RESOURCE_USAGE";
+
+    // Variables binding of the task, where the values found in the logs are published
+    public static final String VARIABLES_BINDING = "variables";
+
+    // Result map binding of the task, and the key of the log archive path in it
+    public static final String RESULT_MAP_BINDING = "resultMap";
+
+    public static final String K8S_LOG_FILE_RESULT = "K8S_LOG_FILE";
+
+    public static final String K8S_ARTIFACTS_DIR_RESULT = "K8S_ARTIFACTS_DIR";
+
+    public static final String K8S_CLUSTER_RESULT = "K8S_CLUSTER";
+
+    public static final String K8S_TIMELINE_RESULT = "K8S_TIMELINE";
+
+    public static final String K8S_RESOURCE_USAGE_RESULT = "K8S_RESOURCE_USAGE";
+
+    private static final String GZIP_EXTENSION = ".gz";
+
+    // Job and task ids, among the task variables
+    public static final String PA_JOB_ID_VARIABLE = "variables_PA_JOB_ID";
+
+    public static final String PA_TASK_ID_VARIABLE = "variables_PA_TASK_ID";
+
+    // Workflow and task names, among the task variables
+    public static final String PA_JOB_NAME_VARIABLE = "variables_PA_JOB_NAME";
+
+    public static final String PA_TASK_NAME_VARIABLE = "variables_PA_TASK_NAME";
+
+    public static final int DEFAULT_SWEEP_PARALLELISM = 8;
+
+    // How long the pre-pull waits for the images before giving up, the task does not wait for it
+    public static final long DEFAULT_PRE_PULL_TIMEOUT_SECONDS = 600;
+
+    public static final int DEFAULT_WARM_POOL_SIZE = 2;
+
+    private static final long WARM_POD_ACQUIRE_TIMEOUT_SECONDS = 300;
+
+    public static final int DEFAULT_CREATE_PARALLELISM = 8;
+
+    public static final int DEFAULT_LOG_HEAD_LINES = 100;
+
+    public static final int DEFAULT_LOG_TAIL_LINES = 100;
+
+    public static final long DEFAULT_LOG_PROGRESS_INTERVAL_SECONDS = 60;
+
+    public static final String DEFAULT_ARTIFACTS_DIR = "artifacts";
+
+    public static final int DEFAULT_ARTIFACTS_PARALLELISM = 4;
+
+    public static final String DEFAULT_INPUTS_MOUNT_PATH = "/inputs";
+
+    public static final long DEFAULT_INPUTS_TIMEOUT_SECONDS = 600;
+
+    public static final long DEFAULT_ADMISSION_TIMEOUT_SECONDS = 3600;
+
+    public static final int DEFAULT_AUTO_SIZE_PERCENTILE = 95;
+
+    public static final int DEFAULT_AUTO_SIZE_HEADROOM_PERCENT = 20;
+
+    /**
+     * Creates an engine running its kubectl commands through the given factory instead of the default one, e.g. a
+     * simulated kubectl.
+     */
+    public KubernetesScriptEngine(KubernetesProcessBuilderFactory processBuilderFactory) {
+        this.sharedProcessBuilderFactory = processBuilderFactory;
+        this.sharedCommandRunner = new KubernetesCommandRunner(processBuilderFactory);
+    }
+
     /****************************************/
     /* Kubernetes script engine main method */
     /****************************************/
 
     @Override
     public Object eval(String k8s_manifest, ScriptContext context) throws ScriptException {
+        return evalManifest(k8s_manifest, null);
+    }
 
-        // Step 0: Populate the bindings and set the behavior of the script engine
-        initializeEngine();
+    /**
+     * Runs a task from its manifest, or from a reader of its manifest. The manifest read from a reader is substituted
+     * and written to the manifest file as it comes, unless a feature of the task needs the whole manifest in memory.
+     */
+    private Object evalManifest(String k8s_manifest, Reader k8s_manifest_reader) throws ScriptException {
 
-        // Write the manifest file
-        writeKubernetesManifestFile(k8s_manifest);
+        EnginePhaseTimer evalTimer = EnginePhaseTimer.start(KubernetesEngineMetrics.PHASE_EVAL);
+        trackProcesses();
+        try {
+            // Step 0: Populate the bindings and set the behavior of the script engine
+            initializeEngine();
 
-        // Mode 1: Only create the k8s resource(s)
-        if (k8sCreateOnly) {
-            createKubernetesResources();
-        }
+            if (k8s_manifest == null && !isManifestStreamable()) {
+                k8s_manifest = readKubernetesManifest(k8s_manifest_reader);
+            }
 
-        // Mode 2: Create, stream logs and delete the k8s resource(s)
-        else if (!k8sCreateOnly && !k8sDeleteOnly) {
-            createKubernetesResources();
-            switch (k8sResourcesList.size()) { // if multiple k8s resources have been created, need to select one for logs streaming
-                case 0:
-                    throw new ScriptException("No k8s resources were created; cannot stream logs.");
-                case 1:
-                    streamKubernetesResourceLogs(k8sResourcesList.get(0));
-                    break;
-                default:
-                    // more than one k8s resources has been created, and we can only stream logs for one
-                    streamKubernetesResourceLogs(chooseKubernetesResourceToStream());
-                    break;
+            // Choose the cluster of the task, all its kubectl commands target it
+            acquireCluster();
+
+            // Mode 0: Run the task command in an idle pod of a warm pool, no resource is created for the task
+            if (k8sWarmPool) {
+                return executeInWarmPod(k8s_manifest);
             }
-            cleanKubernetesResources();
-        }
 
-        // Mode 3: only delete the k8s resource(s)
-        else if (k8sDeleteOnly) {
-            cleanKubernetesResources();
-        }
+            // Write the manifest file
+            if (k8s_manifest == null) {
+                streamKubernetesManifestFile(k8s_manifest_reader);
+            } else {
+                writeKubernetesManifestFile(k8s_manifest);
+            }
 
-        // Delete manifest file
-        deleteKubernetesManifestFile();
+            // Clean exit
+            Object resultValue = true;
+
+            // Mode 1: Only create the k8s resource(s)
+            if (k8sCreateOnly) {
+                admitKubernetesResources();
+                k8sResourcesOwned = true;
+                runClusterPhase(KubernetesEngineMetrics.PHASE_CREATE, this::createKubernetesResources);
+                k8sResourcesOwned = false;
+                if (admissionTicket != null) {
+                    admissionTicket.markCreated();
+                }
+                uploadInputs();
+            }
+
+            // Mode 1 bis: Only apply the k8s resource(s), leaving the unchanged ones untouched
+            else if (k8sApply) {
+                runClusterPhase(KubernetesEngineMetrics.PHASE_APPLY, this::applyKubernetesResources);
+                uploadInputs();
+            }
+
+            // Mode 2: Create, stream logs and delete the k8s resource(s)
+            else if (!k8sCreateOnly && !k8sDeleteOnly) {
+                admitKubernetesResources();
+                k8sResourcesOwned = true;
+                runClusterPhase(KubernetesEngineMetrics.PHASE_CREATE, this::createKubernetesResources);
+                if (admissionTicket != null) {
+                    admissionTicket.markCreated();
+                }
+                uploadInputs();
+                startUsageSampling();
+                if (k8sSweepItems != null) {
+                    // sweep mode: stream the logs of all the created resources and report each item outcome
+                    EnginePhaseTimer streamingTimer = EnginePhaseTimer.start(KubernetesEngineMetrics.PHASE_LOG_STREAMING);
+                    try {
+                        resultValue = streamSweepKubernetesResourcesLogs();
+                    } finally {
+                        streamingTimer.stop();
+                    }
+                } else {
+                    switch (k8sResourcesList.size()) { // if multiple k8s resources have been created, need to select one for logs streaming
+                        case 0:
+                            throw new ScriptException("No k8s resources were created; cannot stream logs.");
+                        case 1:
+                            runPhase(KubernetesEngineMetrics.PHASE_LOG_STREAMING,
+                                     () -> streamKubernetesResourceLogs(k8sResourcesList.get(0)));
+                            break;
+                        default:
+                            // more than one k8s resources has been created, and we can only stream logs for one
+                            KubernetesResource resourceToStream = chooseKubernetesResourceToStream();
+                            runPhase(KubernetesEngineMetrics.PHASE_LOG_STREAMING,
+                                     () -> streamKubernetesResourceLogs(resourceToStream));
+                            break;
+                    }
+                }
+                publishLogResults();
+                recordUsage();
+                if (k8sTimeline) {
+                    runPhase(KubernetesEngineMetrics.PHASE_TIMELINE, this::reportTimeline);
+                }
+                if (k8sArtifacts != null) {
+                    runPhase(KubernetesEngineMetrics.PHASE_ARTIFACTS, this::retrieveArtifacts);
+                }
+                runPhase(KubernetesEngineMetrics.PHASE_DELETE, this::cleanKubernetesResources);
+                k8sResourcesOwned = false;
+                if (admissionTicket != null) {
+                    admissionTicket.markDeleted();
+                }
+            }
+
+            // Mode 3: only delete the k8s resource(s)
+            else if (k8sDeleteOnly) {
+                if (k8sCluster == null && KubernetesClusterRouter.getInstance().getClusters().size() > 1) {
+                    // The cluster the resources were created on is unknown, they are deleted from all the clusters
+                    for (KubernetesCommandCreator commandCreator : KubernetesClusterRouter.getInstance()
+                                                                                          .getCommandCreators()) {
+                        kubernetesCommandCreator = commandCreator;
+                        runPhase(KubernetesEngineMetrics.PHASE_DELETE, this::cleanKubernetesResources);
+                    }
+                } else {
+                    runPhase(KubernetesEngineMetrics.PHASE_DELETE, this::cleanKubernetesResources);
+                }
+            }
+
+            // Delete manifest file
+            deleteKubernetesManifestFile();
 
-        // Clean exit
-        Object resultValue = true;
-        return resultValue;
+            return resultValue;
+        } finally {
+            if (usageSubscription != null) {
+                usageSubscription.close();
+                usageSubscription = null;
+            }
+            if (admissionTicket != null) {
+                admissionTicket.close();
+                admissionTicket = null;
+            }
+            if (clusterLease != null) {
+                clusterLease.close();
+                clusterLease = null;
+            }
+            if (inputArchive != null) {
+                inputArchive.close();
+                inputArchive = null;
+                inputStager = null;
+            }
+            k8sResourcesOwned = false;
+            untrackProcesses();
+            evalTimer.stop();
+            KubernetesFlightRecorder.clearTaskIds();
+        }
     }
 
     /**********************************************/
     /* Kubernetes script engine auxiliary methods */
     /**********************************************/
 
-    private void initializeEngine() {
+    // A step of the script engine whose latency is recorded in the metrics
+    private interface KubernetesEnginePhase {
+        void run() throws ScriptException;
+    }
+
+    // Runs a phase sending requests to the cluster, and reports its outcome to the cluster health
+    private void runClusterPhase(String phase, KubernetesEnginePhase body) throws ScriptException {
+        try {
+            runPhase(phase, body);
+        } catch (ScriptException e) {
+            if (processTracker.isCancelled()) {
+                // the task was interrupted, the cluster did not fail
+                throw e;
+            }
+            try {
+                clusterLease.reportFailure();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            throw e;
+        }
+        clusterLease.reportSuccess();
+    }
+
+    private void runPhase(String phase, KubernetesEnginePhase body) throws ScriptException {
+        EnginePhaseTimer timer = EnginePhaseTimer.start(phase);
+        try {
+            body.run();
+        } finally {
+            timer.stop();
+        }
+    }
+
+    // Tracks the kubectl processes of the eval, and cancels the task as soon as its thread is interrupted
+    private void trackProcesses() {
+        processTracker = new KubernetesProcessTracker(sharedProcessBuilderFactory);
+        processBuilderFactory = processTracker;
+        commandRunner = new KubernetesCommandRunner(processTracker);
+        KubernetesInterruptWatchdog.getInstance().watch(Thread.currentThread(), this::cancelTask);
+    }
+
+    private void untrackProcesses() {
+        KubernetesInterruptWatchdog.getInstance().unwatch(Thread.currentThread());
+        int leftovers = processTracker.destroyAll();
+        if (leftovers > 0) {
+            log.debug("Destroyed " + leftovers + " kubectl commands left running by the task.");
+        }
+    }
+
+    /**
+     * Destroys the kubectl commands of the task, which frees its thread, and deletes the resources it owns without
+     * waiting for them to be gone. Runs once, on the interrupted thread or on the interrupt watchdog.
+     */
+    private synchronized void cancelTask() {
+        if (processTracker.isCancelled()) {
+            return;
+        }
+        int destroyed = processTracker.cancel();
+        metrics.recordCancellation(destroyed);
+        log.info("Task interrupted, " + destroyed + " kubectl commands destroyed.");
+        if (!k8sResourcesOwned) {
+            return;
+        }
+        if (k8sManifest != null) {
+            deleteKubernetesResourcesAsync(kubernetesCommandCreator, k8sManifest, null);
+        } else if (k8sManifestFile != null) {
+            // streamed manifest: the file is deleted once the resources are
+            File manifestFile = k8sManifestFile;
+            k8sManifestFile = null;
+            deleteKubernetesResourcesAsync(kubernetesCommandCreator, null, manifestFile);
+        }
+    }
+
+    /**
+     * @param manifest     The manifest, piped to kubectl, or null to read it from the file.
+     * @param manifestFile The manifest file, deleted with the resources, or null.
+     */
+    private void deleteKubernetesResourcesAsync(KubernetesCommandCreator commandCreator, String manifest,
+            File manifestFile) {
+        KubernetesCommandRunner runner = sharedCommandRunner;
+        CANCELLATION_EXECUTOR.execute(() -> {
+            try {
+                KubernetesCommandResult result = runner.run(manifest,
+                                                            commandCreator.createKubectlDeleteManifestCommand(manifestFile == null ? KubernetesCommandCreator.STDIN_FILENAME
+                                                                                                                                   : manifestFile.getPath()));
+                if (result.isSuccessful()) {
+                    log.info("Deleted the K8S resources of the interrupted task: " +
+                             result.getOutput().replace('\n', ' ').trim());
+                } else {
+                    log.warn("Could not delete the K8S resources of the interrupted task: " + result.getError());
+                }
+            } catch (IOException e) {
+                log.warn("I/O error when trying to delete the kubernetes resources of the interrupted task.\nException: " +
+                         e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (manifestFile != null && !manifestFile.delete()) {
+                    log.warn("File: " + manifestFile.getAbsolutePath() + " was not deleted.");
+                }
+            }
+        });
+    }
+
+    private void initializeEngine() throws ScriptException {
         bindings.addBindingsAsEngineMetadata(context);
         setScriptEngineBehaviorFromEnv();
+        KubernetesFlightRecorder.setTaskIds(bindings.getK8sEngineMetadata().get(PA_JOB_ID_VARIABLE),
+                                            bindings.getK8sEngineMetadata().get(PA_TASK_ID_VARIABLE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void acquireCluster() throws ScriptException {
+        try {
+            clusterLease = KubernetesClusterRouter.getInstance().acquire(k8sCluster, sharedCommandRunner);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted when choosing the cluster of the task. Exiting.\nException: " + e);
+        }
+        kubernetesCommandCreator = clusterLease.getCommandCreator();
+        String clusterContext = kubernetesCommandCreator.getContext();
+        if (clusterContext != null) {
+            log.info("Running the task on the cluster of context " + clusterContext + ".");
+            Object resultMap = context.getBindings(ScriptContext.ENGINE_SCOPE).get(RESULT_MAP_BINDING);
+            if (resultMap instanceof Map) {
+                ((Map<String, Serializable>) resultMap).put(K8S_CLUSTER_RESULT, clusterContext);
+            }
+        }
+    }
+
+    // Waits for the cluster to hold the requests of the resources, behind the tasks which arrived before
+    private void admitKubernetesResources() throws ScriptException {
+        if (!k8sAdmission) {
+            return;
+        }
+        runPhase(KubernetesEngineMetrics.PHASE_ADMISSION, () -> {
+            ResourceRequests requests;
+            try {
+                requests = ResourceRequests.of(KubernetesManifestParser.parse(k8sManifest));
+            } catch (RuntimeException e) {
+                deleteKubernetesManifestFile();
+                throw new ScriptException("Could not parse the kubernetes manifest to admit its resources: " +
+                                          e.getMessage());
+            }
+            if (requests.isEmpty()) {
+                return;
+            }
+            try {
+                admissionTicket = KubernetesAdmissionController.getInstance()
+                                                               .getQueue(sharedCommandRunner, kubernetesCommandCreator)
+                                                               .admit(requests,
+                                                                      TimeUnit.SECONDS.toMillis(k8sAdmissionTimeout));
+            } catch (TimeoutException | IllegalArgumentException e) {
+                deleteKubernetesManifestFile();
+                throw new ScriptException("Kubernetes resources not admitted: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                deleteKubernetesManifestFile();
+                throw new ScriptException("Interrupted while waiting for the admission of the kubernetes resources.");
+            }
+        });
+    }
+
+    private Object executeInWarmPod(String k8s_manifest) throws ScriptException {
+        if (k8sExecCommand == null) {
+            throw new ScriptException("The warm pool mode requires the command to run, given by the K8S_EXEC_COMMAND generic information.");
+        }
+        List<KubernetesManifestDocument> documents;
+        try {
+            documents = KubernetesManifestParser.parse(VariablesSubstitutor.replaceRecursively(k8s_manifest,
+                                                                                               bindings.getK8sEngineMetadata()));
+        } catch (RuntimeException e) {
+            throw new ScriptException("Could not parse the kubernetes manifest: " + e.getMessage());
+        }
+        if (documents.size() != 1 || !"Pod".equalsIgnoreCase(documents.get(0).getKind())) {
+            throw new ScriptException("The warm pool mode requires a manifest made of a single Pod template.");
+        }
+
+        WarmPodPool pool = WarmPodPoolRegistry.getInstance().getPool(documents.get(0),
+                                                                     k8sWarmPoolSize,
+                                                                     kubernetesCommandCreator);
+        String podName;
+        try {
+            podName = pool.acquire(WARM_POD_ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new ScriptException("Could not create a pod of warm pool " + pool.getKey() + ": " +
+                                      e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            throw new ScriptException("Interrupted when waiting for a pod of the warm pool. Exiting.\nException: " + e);
+        }
+        if (podName == null) {
+            throw new ScriptException("No pod of warm pool " + pool.getKey() + " got ready within " +
+                                      WARM_POD_ACQUIRE_TIMEOUT_SECONDS + " seconds.");
+        }
+
+        clusterLease.markStarted();
+        log.info("Running the task command in pod " + podName + " of warm pool " + pool.getKey() + ".");
+        EnginePhaseTimer execTimer = EnginePhaseTimer.start(KubernetesEngineMetrics.PHASE_EXEC);
+        Process process = null;
+        try {
+            String command = VariablesSubstitutor.replaceRecursively(k8sExecCommand, bindings.getK8sEngineMetadata());
+            process = processBuilderFactory.start(kubernetesCommandCreator.createKubectlExecCommand(podName,
+                                                                                                    pool.getNamespace(),
+                                                                                                    k8sExecContainer,
+                                                                                                    false,
+                                                                                                    "sh",
+                                                                                                    "-c",
+                                                                                                    command));
+            Process execProcess = process;
+            Thread errorPump = new Thread(() -> {
+                try {
+                    KubernetesProcessBuilderUtilities.pipe(new InputStreamReader(execProcess.getErrorStream()),
+                                                           context.getErrorWriter());
+                } catch (IOException ignored) {
+                    //The exception is ignored as for native scripts
+                }
+            });
+            errorPump.start();
+            Writer output = openLogWriter();
+            try {
+                metrics.recordPumpedCharacters(KubernetesProcessBuilderUtilities.pipe(new InputStreamReader(process.getInputStream()),
+                                                                                      output));
+            } finally {
+                closeLogWriter(output);
+            }
+            int exitValue = process.waitFor();
+            errorPump.join();
+            if (exitValue != 0) {
+                throw new ScriptException("The task command has failed in pod " + podName + ". Exit code " +
+                                          exitValue + ".");
+            }
+            return true;
+        } catch (IOException e) {
+            throw new ScriptException("I/O error when running the task command in pod " + podName +
+                                      ". Exiting.\nException: " + e);
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            throw new ScriptException("Interrupted when running the task command in pod " + podName +
+                                      ". Exiting.\nException: " + e);
+        } finally {
+            execTimer.stop();
+            pool.release(podName);
+        }
+    }
+
+    // Whether the manifest can be substituted and written as it is read: no feature of the task needs it whole
+    private boolean isManifestStreamable() {
+        if (k8sSweepItems != null || k8sWarmPool) {
+            return false;
+        }
+        return k8sDeleteOnly || (!k8sApply && !k8sParallelCreate && !k8sValidate && !k8sAutoSize && k8sInputs == null &&
+                                 !k8sPrePullImages && !k8sAdmission);
+    }
+
+    private String readKubernetesManifest(Reader reader) {
+        StringWriter stringWriter = new StringWriter();
+
+        try {
+            KubernetesProcessBuilderUtilities.pipe(reader, stringWriter);
+        } catch (IOException e) {
+            log.warn("Failed to convert Reader into StringWriter. Not possible to execute Kubernetes task.");
+            log.debug("Failed to convert Reader into StringWriter. Not possible to execute Kubernetes task.", e);
+        }
+
+        return stringWriter.toString();
     }
 
-    private void writeKubernetesManifestFile(String k8s_manifest) {
+    // Substitutes the variables of the manifest while writing it, the manifest is never held in memory
+    private void streamKubernetesManifestFile(Reader reader) {
+        EnginePhaseTimer timer = EnginePhaseTimer.start(KubernetesEngineMetrics.PHASE_MANIFEST_WRITE);
+        try (Reader substitutedReader = new VariablesSubstitutingReader(reader, bindings.getK8sEngineMetadata())) {
+            k8sManifestFile = new GenericFileWriter().forceFileToDisk(substitutedReader, k8sManifestFileName);
+        } catch (IOException e) {
+            log.error("Failed to write content to kubernetes manifest file: ", e);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private void writeKubernetesManifestFile(String k8s_manifest) throws ScriptException {
         // Substitute workflow/task variable to real values onto the k8s manifest file
-        String k8s_manifest_with_substitution = VariablesSubstitutor.replaceRecursively(k8s_manifest,
-                                                                                        bindings.getK8sEngineMetadata());
-        Map<String, String> environment = bindings.getK8sEngineMetadata();
+        EnginePhaseTimer timer = EnginePhaseTimer.start(KubernetesEngineMetrics.PHASE_SUBSTITUTION);
+        String k8s_manifest_with_substitution;
+        if (k8sSweepItems != null) {
+            log.info("Expanding the kubernetes manifest for " + k8sSweepItems.size() + " sweep items.");
+            k8s_manifest_with_substitution = ManifestSweepExpander.expand(k8s_manifest,
+                                                                          bindings.getK8sEngineMetadata(),
+                                                                          k8sSweepItems);
+        } else {
+            k8s_manifest_with_substitution = VariablesSubstitutor.replaceRecursively(k8s_manifest,
+                                                                                     bindings.getK8sEngineMetadata());
+        }
+        k8sManifest = k8s_manifest_with_substitution;
+        timer.stop();
+        if (k8sValidate && !k8sDeleteOnly) {
+            runPhase(KubernetesEngineMetrics.PHASE_VALIDATION, this::validateKubernetesManifest);
+        }
+        if (k8sAutoSize && !k8sDeleteOnly) {
+            runPhase(KubernetesEngineMetrics.PHASE_SIZING, this::sizeKubernetesResources);
+            k8s_manifest_with_substitution = k8sManifest;
+        }
+        if (k8sInputs != null && !k8sDeleteOnly) {
+            runPhase(KubernetesEngineMetrics.PHASE_INPUT_STAGING, this::prepareInputs);
+            k8s_manifest_with_substitution = k8sManifest;
+        }
+        if (k8sPrePullImages && !k8sDeleteOnly) {
+            startImagePrePull();
+        }
+        timer = EnginePhaseTimer.start(KubernetesEngineMetrics.PHASE_MANIFEST_WRITE);
         try {
             // Writing the newly generated manifest
             k8sManifestFile = new GenericFileWriter().forceFileToDisk(k8s_manifest_with_substitution,
-                                                                      K8S_MANIFEST_FILE_NAME);
+                                                                      k8sManifestFileName);
         } catch (IOException e) {
             log.error("Failed to write content to kubernetes manifest file: ", e);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    private void validateKubernetesManifest() throws ScriptException {
+        List<String> errors = ManifestValidator.getInstance().validate(k8sManifest);
+        if (!errors.isEmpty()) {
+            throw new ScriptException("The kubernetes manifest is not valid:\n" + String.join("\n", errors));
+        }
+    }
+
+    // Sizes the requests of the containers from their usage history
+    private void sizeKubernetesResources() throws ScriptException {
+        try {
+            k8sManifest = new RequestSizer(ResourceUsageHistory.getInstance(),
+                                           bindings.getK8sEngineMetadata().get(PA_JOB_NAME_VARIABLE),
+                                           bindings.getK8sEngineMetadata().get(PA_TASK_NAME_VARIABLE),
+                                           k8sAutoSizePercentile,
+                                           k8sAutoSizeHeadroom).size(k8sManifest);
+        } catch (RuntimeException e) {
+            throw new ScriptException("Could not parse the kubernetes manifest to size its requests: " +
+                                      e.getMessage());
+        }
+    }
+
+    // Samples the resource usage of the task pods, to report it or to size the requests of the next runs
+    private void startUsageSampling() {
+        if (k8sAutoSize || k8sResourceUsage) {
+            usageSubscription = PodMetricsSampler.getInstance().subscribe(sharedCommandRunner,
+                                                                          kubernetesCommandCreator,
+                                                                          k8sResourcesList);
+        }
+    }
+
+    private void recordUsage() throws ScriptException {
+        if (usageSubscription == null) {
+            return;
+        }
+        try {
+            usageSubscription.finish();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted while sampling the resource usage of the kubernetes resources.");
+        }
+        List<ContainerUsageStatistics> statistics = usageSubscription.getStatistics();
+        Map<String, ContainerUsage> peakUsages = usageSubscription.getPeakUsages();
+        usageSubscription = null;
+        if (statistics.isEmpty()) {
+            log.info("No resource usage could be sampled for the task pods, is the metrics server running?");
+            return;
+        }
+        if (k8sResourceUsage) {
+            reportUsage(statistics);
+        }
+        if (k8sAutoSize) {
+            String workflowName = bindings.getK8sEngineMetadata().get(PA_JOB_NAME_VARIABLE);
+            String taskName = bindings.getK8sEngineMetadata().get(PA_TASK_NAME_VARIABLE);
+            Map<String, ContainerUsage> usages = new LinkedHashMap<>();
+            peakUsages.forEach((container, usage) -> usages.put(ResourceUsageHistory.getKey(workflowName,
+                                                                                            taskName,
+                                                                                            container),
+                                                                usage));
+            log.debug("Peak resource usage of the task containers: " + usages);
+            ResourceUsageHistory.getInstance().record(usages);
+        }
+    }
+
+    // Reports the peak and average cpu and memory used by each container of the task pods
+    @SuppressWarnings("unchecked")
+    private void reportUsage(List<ContainerUsageStatistics> statistics) {
+        try {
+            Writer output = context.getWriter();
+            for (ContainerUsageStatistics container : statistics) {
+                output.write(container + System.lineSeparator());
+            }
+            output.flush();
+        } catch (IOException e) {
+            log.warn("Could not write the resource usage of the kubernetes resources to the task output: " + e);
+        }
+        Object resultMap = context.getBindings(ScriptContext.ENGINE_SCOPE).get(RESULT_MAP_BINDING);
+        if (resultMap instanceof Map) {
+            ((Map<String, Serializable>) resultMap).put(K8S_RESOURCE_USAGE_RESULT,
+                                                        statistics.stream()
+                                                                  .map(ContainerUsageStatistics::toMap)
+                                                                  .collect(Collectors.toCollection(ArrayList::new)));
+        }
+    }
+
+    // Archives the task inputs, and adds their staging to the manifest
+    private void prepareInputs() throws ScriptException {
+        try {
+            inputArchive = InputArchive.build(k8sInputs.stream().map(Paths::get).collect(Collectors.toList()));
+            inputStager = new InputStager(processBuilderFactory,
+                                          commandRunner,
+                                          kubernetesCommandCreator,
+                                          inputArchive,
+                                          k8sInputsMountPath,
+                                          k8sInputsTimeout);
+            k8sManifest = inputStager.prepare(k8sManifest);
+        } catch (IOException | InvalidPathException e) {
+            throw new ScriptException("Could not stage the task inputs " + k8sInputs + ". Exiting.\nException: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted while staging the task inputs.");
+        } catch (RuntimeException e) {
+            throw new ScriptException("Could not parse the kubernetes manifest to stage the task inputs: " +
+                                      e.getMessage());
+        }
+    }
+
+    // Streams the task inputs into the created pods, when they were too large for a ConfigMap
+    private void uploadInputs() throws ScriptException {
+        if (inputStager == null || !inputStager.isUploadNeeded()) {
+            return;
+        }
+        runPhase(KubernetesEngineMetrics.PHASE_INPUT_STAGING, () -> {
+            try {
+                inputStager.upload(k8sResourcesList);
+            } catch (IOException e) {
+                throw new ScriptException("Could not stage the task inputs. Exiting.\nException: " + e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ScriptException("Interrupted while staging the task inputs.");
+            }
+        });
+    }
+
+    // The kubelets pull the images of the task pods in parallel, the pre-pull warms the other nodes for the next pods
+    private void startImagePrePull() {
+        try {
+            ImagePrePuller.getInstance().prePull(KubernetesManifestParser.parse(k8sManifest),
+                                                 kubernetesCommandCreator,
+                                                 k8sPrePullTimeout);
+        } catch (RuntimeException e) {
+            log.warn("Could not parse the kubernetes manifest, its images are not pre-pulled: " + e.getMessage());
         }
     }
 
@@ -175,19 +1018,25 @@ public class KubernetesScriptEngine extends AbstractScriptEngine {
         };
         Runtime.getRuntime().addShutdownHook(shutdownHook);
 
+        if (k8sParallelCreate) {
+            try {
+                createKubernetesResourcesByDependencyOrder();
+                return;
+            } finally {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            }
+        }
+
         // Prepare kubectl command
-        String[] kubectlCommand = kubernetesCommandCreator.createKubectlCreateCommand(K8S_MANIFEST_FILE_NAME);
+        String[] kubectlCommand = kubernetesCommandCreator.createKubectlCreateCommand(k8sManifestFileName);
 
         String kubectl_output = null;
 
-        //Create a process builder
         Process process = null;
-        ProcessBuilder processBuilder = SingletonKubernetesProcessBuilderFactory.getInstance()
-                                                                                .getProcessBuilder(kubectlCommand);
 
         try {
             //Run the 'kubectl create' process
-            process = processBuilder.start();
+            process = processBuilderFactory.start(kubectlCommand);
             int exitValue = process.waitFor();
             // Retrieve the process stdout
             try (BufferedReader buffer = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
@@ -204,14 +1053,18 @@ public class KubernetesScriptEngine extends AbstractScriptEngine {
                                           " . \nkubectl output is: " + kubectl_output);
             }
             // Creation was successful, going to parse the json output of 'kubectl' to keep track of the newly created resources
-            parseKubernetesResourceJson(kubectl_output);
+            for (KubernetesResource resource : KubernetesResourceParser.parseKubernetesResourceJson(kubectl_output)) {
+                log.info("Successfully created K8S resource: " + resource.getKind() + '/' + resource.getName() +
+                         " in namespace " + resource.getNamespace() + ".");
+                k8sResourcesList.add(resource);
+            }
         } catch (IOException e) {
             cleanKubernetesResources();
             deleteKubernetesManifestFile();
             throw new ScriptException("I/O error when trying to create kubernetes resources. Exiting.\nException: " +
                                       e);
         } catch (InterruptedException e1) {
-            cleanKubernetesResources();
+            cancelTask();
             deleteKubernetesManifestFile();
             throw new ScriptException("Interrupted when trying to create kubernetes resources. Exiting.\nException: " +
                                       e1);
@@ -222,27 +1075,44 @@ public class KubernetesScriptEngine extends AbstractScriptEngine {
         }
     }
 
-    private void parseKubernetesResourceJson(String resource_json) {
+    private void createKubernetesResourcesByDependencyOrder() throws ScriptException {
+        List<KubernetesManifestDocument> documents;
         try {
-            for (Iterator it = new ObjectMapper().readValues(new JsonFactory().createParser(resource_json),
-                                                             Map.class); it.hasNext();) {
-                // Retrieve created resource(s) info (kind, resource name & namespace)
-                Map<String, Object> jsonObject = (Map<String, Object>) it.next();
-                Map<String, Object> metadataObject = new ObjectMapper().convertValue(jsonObject.get("metadata"),
-                                                                                     Map.class);
-                String kind = jsonObject.get("kind").toString();
-                String name = metadataObject.get("name").toString();
-                String namespace = metadataObject.get("namespace").toString();
-
-                log.info("Successfully created K8S resource: " + kind + '/' + name + " in namespace " + namespace +
-                         ".");
+            documents = KubernetesManifestParser.parse(k8sManifest);
+        } catch (RuntimeException e) {
+            deleteKubernetesManifestFile();
+            throw new ScriptException("Could not parse the kubernetes manifest: " + e.getMessage());
+        }
+        log.info("Creating " + documents.size() + " K8S resources by dependency order, up to " +
+                 k8sCreateParallelism + " at once.");
 
-                k8sResourcesList.add(new KubernetesResource(kind, name, namespace));
-            }
-        } catch (Exception jre) {
-            throw new RuntimeException("Could not parse Kubernetes Json Resource : " + jre.getMessage(), jre);
+        try {
+            k8sResourcesList.addAll(new KubernetesParallelResourceCreator(commandRunner,
+                                                                          kubernetesCommandCreator,
+                                                                          k8sCreateParallelism).create(documents));
+        } catch (ScriptException e) {
+            // the resources created before the failure have already been rolled back
+            deleteKubernetesManifestFile();
+            throw e;
         }
+    }
 
+    private void applyKubernetesResources() throws ScriptException {
+        log.info("Applying Kubernetes resources from manifest.");
+        try {
+            k8sResourcesList.addAll(new KubernetesResourceApplier(commandRunner,
+                                                                  kubernetesCommandCreator).apply(KubernetesManifestParser.parse(k8sManifest)));
+        } catch (IOException e) {
+            throw new ScriptException("I/O error when trying to apply kubernetes resources. Exiting.\nException: " +
+                                      e);
+        } catch (InterruptedException e) {
+            throw new ScriptException("Interrupted when trying to apply kubernetes resources. Exiting.\nException: " +
+                                      e);
+        } catch (RuntimeException e) {
+            throw new ScriptException("Could not parse the kubernetes manifest: " + e.getMessage());
+        } finally {
+            deleteKubernetesManifestFile();
+        }
     }
 
     private KubernetesResource chooseKubernetesResourceToStream() {
@@ -272,59 +1142,309 @@ public class KubernetesScriptEngine extends AbstractScriptEngine {
 
     private void streamKubernetesResourceLogs(KubernetesResource resource) throws ScriptException {
         log.debug("Kubectl logs thread started.");
+        log.info(" ");
+        log.info("[Output from kubernetes resource " + resource.getKind() + '/' + resource.getName() + ": ]");
 
-        while (true) { // In case of early call to logs (e.g. during ContainerCreating state)
+        Writer output = openLogWriter();
+        try {
+            followKubernetesResourceLogs(resource, output);
+        } finally {
+            closeLogWriter(output);
+        }
+    }
+
+    private void followKubernetesResourceLogs(KubernetesResource resource, Writer output) throws ScriptException {
+        try {
+            followKubernetesResourceLogs(resource, output, "");
+            log.info("[End of output]");
+            log.info("");
+        } catch (InterruptedException e) { // TODO: define own exception KubernetesJobCompletedException
+            log.warn("Interrupted when trying to stream kubernetes resources logs. Stopping log streaming.\nException: " +
+                     e);
+            cancelTask();
+            deleteKubernetesManifestFile();
+            throw new ScriptException("Interrupted when trying to stream logs of kubernetes resources. Exiting.\nException: " +
+                                      e);
+        }
+    }
 
+    /**
+     * Follows the logs of a resource until it has completed. 'kubectl logs -f' can end early (API server restart,
+     * idle proxy, kubelet log rotation...), in which case the log stream is resumed from its last timestamp.
+     *
+     * @return Whether the resource has succeeded.
+     */
+    private boolean followKubernetesResourceLogs(KubernetesResource resource, Writer output, String linePrefix)
+            throws InterruptedException {
+        // The first log line tells that the pods of the task have started
+        Consumer<String> lineConsumer = line -> clusterLease.markStarted();
+        if (logResultExtractor != null) {
+            lineConsumer = lineConsumer.andThen(logResultExtractor);
+        }
+        ResumableLogStream logStream = new ResumableLogStream(lineConsumer);
+        // Resumed connections in a row which did not get any new line
+        int idleResumes = 0;
+        long linesBeforeConnection = 0;
+
+        while (true) { // In case of early call to logs (e.g. during ContainerCreating state), or of early end
+            String[] kubectlCommand = kubernetesCommandCreator.createKubectlLogsCommand(resource.getKind(),
+                                                                                        resource.getName(),
+                                                                                        resource.getNamespace(),
+                                                                                        logStream.getSinceTime());
+            StringWriter errorOutput = new StringWriter();
+            int exitValue;
             try {
+                Process process = processBuilderFactory.start(kubectlCommand);
+                FlightRecorderEvent pumpEvent = KubernetesFlightRecorder.beginLogPump(resource.getKind() + '/' +
+                                                                                      resource.getName());
+
+                // Stream the logs as they come; errors only tell that the resource is not ready yet
+                processBuilderUtilities.attachStreamsToProcess(process, null, errorOutput, null);
+                long characters = logStream.pipe(new InputStreamReader(process.getInputStream()), output, linePrefix);
+                metrics.recordPumpedCharacters(characters);
+                pumpEvent.set(KubernetesFlightRecorder.FIELD_CHARACTERS, characters).commit();
+
+                //Wait for the process to exit
+                exitValue = process.waitFor();
+            } catch (InterruptedIOException e) {
+                // the thread was interrupted while reading the logs
+                throw new InterruptedException(e.getMessage());
+            } catch (IOException e) {
+                log.warn("I/O error when trying to stream kubernetes resources logs.\nException: " + e);
+                exitValue = -1;
+            }
 
-                String[] kubectlCommand = kubernetesCommandCreator.createKubectlLogsCommand(resource.getKind(),
-                                                                                            resource.getName(),
-                                                                                            resource.getNamespace());
+            if (exitValue == 0 || logStream.getLines() > 0) {
+                // The log stream has ended: the containers have terminated, or the connection was dropped
+                Boolean completion = getKubernetesResourceCompletion(resource);
+                if (completion != null) {
+                    return completion;
+                }
+                idleResumes = logStream.getLines() > linesBeforeConnection ? 0 : idleResumes + 1;
+                linesBeforeConnection = logStream.getLines();
+                if (idleResumes >= MAX_IDLE_LOG_RESUMES) {
+                    log.warn("Logs of kubernetes resource " + resource.getKind() + '/' + resource.getName() +
+                             " ended " + idleResumes + " times in a row without new lines while its container " +
+                             "did not terminate, stopping to follow them.");
+                    return exitValue == 0;
+                }
+                log.info("Logs of kubernetes resource " + resource.getKind() + '/' + resource.getName() +
+                         " ended before its containers terminated, resuming them since " + logStream.getSinceTime() +
+                         ".");
+                metrics.recordLogResume();
+            } else {
+                log.debug("Kubernetes resource logs are not available yet: " + errorOutput);
+                metrics.recordLogWaitRetry();
+            }
+            Thread.sleep(1000); // wait for the kubernetes resource to be in appropriate state for log streaming
+        }
+    }
 
-                // Override current process builder
-                ProcessBuilder processBuilder = SingletonKubernetesProcessBuilderFactory.getInstance()
-                                                                                        .getProcessBuilder(kubectlCommand);
+    private Map<String, Boolean> streamSweepKubernetesResourcesLogs() throws ScriptException {
+        List<KubernetesResource> streamableResources = k8sResourcesList.stream()
+                                                                       .filter(r -> r.isLogStreamable())
+                                                                       .collect(Collectors.toList());
+        if (streamableResources.isEmpty()) {
+            throw new ScriptException("No log-streamable k8s resources were created; cannot run the sweep.");
+        }
 
-                Process process = processBuilder.start();
+        // Follow the logs of several resources at once, but never fork more than k8sSweepParallelism kubectl
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(k8sSweepParallelism,
+                                                                         streamableResources.size()),
+                                                                new ThreadFactoryBuilder().setDaemon(true)
+                                                                                          .setNameFormat("k8s-sweep-logs-%d")
+                                                                                          .build());
+        Writer output = openLogWriter();
+        Map<KubernetesResource, Future<Boolean>> outcomes = new LinkedHashMap<>();
+        for (KubernetesResource resource : streamableResources) {
+            outcomes.put(resource,
+                         executor.submit(KubernetesFlightRecorder.withTaskIds(() -> followSweepResourceLogs(resource,
+                                                                                                            output))));
+        }
+        executor.shutdown();
 
-                //Wait for the process to exit
-                process.waitFor();
-
-                if (process.exitValue() == 0) {
-                    log.info(" ");
-                    log.info("[Output from kubernetes resource " + resource.getKind() + '/' + resource.getName() +
-                             ": ]");
-                    processBuilderUtilities.attachStreamsToProcess(process,
-                                                                   context.getWriter(),
-                                                                   context.getErrorWriter(),
-                                                                   null);
-                    log.info("[End of output]");
-                    log.info("");
-                    break;
-                } else {
-                    Thread.sleep(1000); // wait for the kubernetes resource to be in appropriate state for log streaming
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<KubernetesResource, Future<Boolean>> outcome : outcomes.entrySet()) {
+                String resourceName = outcome.getKey().getKind() + '/' + outcome.getKey().getName();
+                try {
+                    results.put(resourceName, outcome.getValue().get());
+                } catch (ExecutionException e) {
+                    log.warn("Failed to follow the sweep item " + resourceName + ".", e.getCause());
+                    results.put(resourceName, false);
                 }
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            cancelTask();
+            deleteKubernetesManifestFile();
+            throw new ScriptException("Interrupted when trying to stream logs of the sweep kubernetes resources. Exiting.\nException: " +
+                                      e);
+        } finally {
+            closeLogWriter(output);
+        }
 
-            } catch (InterruptedException e) { // TODO: define own exception KubernetesJobCompletedException
-                log.warn("Interrupted when trying to stream kubernetes resources logs. Stopping log streaming.\nException: " +
-                         e);
-                cleanKubernetesResources();
-                deleteKubernetesManifestFile();
-                throw new ScriptException("Interrupted when trying to stream logs of kubernetes resources. Exiting.\nException: " +
-                                          e);
+        long succeeded = results.values().stream().filter(Boolean::booleanValue).count();
+        log.info("Sweep completed: " + succeeded + '/' + results.size() + " items succeeded.");
+        return results;
+    }
+
+    private boolean followSweepResourceLogs(KubernetesResource resource, Writer output) throws InterruptedException {
+        return followKubernetesResourceLogs(resource,
+                                            output,
+                                            "[" + resource.getKind() + '/' + resource.getName() + "] ");
+    }
+
+    /**
+     * @return Whether a resource has succeeded, or null while its streamed container is still running.
+     */
+    private Boolean getKubernetesResourceCompletion(KubernetesResource resource) throws InterruptedException {
+        return new ResourceCompletion(commandRunner, kubernetesCommandCreator).get(resource);
+    }
+
+    // The task writer, behind a buffer spilling to disk so that a slow log forwarding never blocks the log pumps, or
+    // the log archive in log sink mode
+    private Writer openLogWriter() {
+        if (k8sLogFile != null) {
+            String archive = k8sLogFileCompress && !k8sLogFile.endsWith(GZIP_EXTENSION) ? k8sLogFile + GZIP_EXTENSION
+                                                                                        : k8sLogFile;
+            try {
+                return new ArchivingLogWriter(context.getWriter(),
+                                              Paths.get(archive),
+                                              k8sLogFileCompress,
+                                              k8sLogHeadLines,
+                                              k8sLogTailLines,
+                                              k8sLogProgressInterval);
+            } catch (IOException | InvalidPathException e) {
+                log.warn("Could not open the log archive " + archive + ", writing the logs to the task output: " + e);
+            }
+        }
+        KubernetesPropertyLoader properties = KubernetesPropertyLoader.getInstance();
+        if (properties.getLogBufferMemorySize() <= 0) {
+            return context.getWriter();
+        }
+        return new SpillingLogWriter(context.getWriter(),
+                                     properties.getLogBufferMemorySize(),
+                                     properties.getLogBufferSpillMaxSize(),
+                                     new File(properties.getLogBufferSpillDirectory()));
+    }
+
+    // Waits for the buffered logs to reach the task writer
+    private void closeLogWriter(Writer output) {
+        if (output != context.getWriter()) {
+            try {
+                output.close();
             } catch (IOException e) {
-                log.warn("I/O error when trying to stream kubernetes resources logs. Stopping log streaming.\nException: " +
-                         e);
+                log.warn("Could not write all the logs to the task output: " + e);
             }
         }
+        if (output instanceof ArchivingLogWriter) {
+            publishLogArchive(((ArchivingLogWriter) output).getArchive());
+        }
+    }
 
+    // Publishes the values found in the logs as task variables
+    @SuppressWarnings("unchecked")
+    private void publishLogResults() {
+        if (logResultExtractor == null) {
+            return;
+        }
+        Map<String, String> results = logResultExtractor.getResults();
+        Object variables = context.getBindings(ScriptContext.ENGINE_SCOPE).get(VARIABLES_BINDING);
+        if (variables instanceof Map) {
+            ((Map<String, Serializable>) variables).putAll(results);
+            log.info("Published " + results.size() + " result variables found in the logs: " + results.keySet());
+        } else if (!results.isEmpty()) {
+            log.warn("No variables binding, the results found in the logs are not published: " + results.keySet());
+        }
+    }
+
+    // Copies the artifacts out of the task pods; a failed copy is reported but does not fail the task
+    @SuppressWarnings("unchecked")
+    private void retrieveArtifacts() throws ScriptException {
+        Path artifactsDirectory;
+        try {
+            artifactsDirectory = Paths.get(k8sArtifactsDir).toAbsolutePath();
+        } catch (InvalidPathException e) {
+            log.warn("Invalid artifacts directory, no artifacts retrieved: " + e.getMessage());
+            return;
+        }
+        Map<String, Boolean> copies;
+        try {
+            copies = new ArtifactRetriever(processBuilderFactory,
+                                           commandRunner,
+                                           kubernetesCommandCreator,
+                                           k8sArtifactsParallelism).retrieve(k8sResourcesList,
+                                                                             k8sArtifactsContainer,
+                                                                             k8sArtifacts,
+                                                                             artifactsDirectory);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted while retrieving the artifacts of the kubernetes resources.");
+        }
+        List<String> failedPods = copies.entrySet()
+                                        .stream()
+                                        .filter(copy -> !copy.getValue())
+                                        .map(Map.Entry::getKey)
+                                        .collect(Collectors.toList());
+        if (!failedPods.isEmpty()) {
+            log.warn("The artifacts of " + failedPods.size() + " pods could not be fully retrieved: " + failedPods);
+        }
+        Object resultMap = context.getBindings(ScriptContext.ENGINE_SCOPE).get(RESULT_MAP_BINDING);
+        if (resultMap instanceof Map) {
+            ((Map<String, Serializable>) resultMap).put(K8S_ARTIFACTS_DIR_RESULT, artifactsDirectory.toString());
+        }
+    }
+
+    // Reports when the task pods were queued, scheduled, pulled their images, started and finished
+    @SuppressWarnings("unchecked")
+    private void reportTimeline() throws ScriptException {
+        List<PodTimeline> timelines;
+        try {
+            timelines = new TimelineCollector(commandRunner, kubernetesCommandCreator).collect(k8sResourcesList);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted while reading the timeline of the kubernetes resources.");
+        }
+        if (timelines.isEmpty()) {
+            log.info("No pod timeline could be read for the kubernetes resources.");
+            return;
+        }
+        try {
+            Writer output = context.getWriter();
+            for (PodTimeline timeline : timelines) {
+                output.write(timeline + System.lineSeparator());
+            }
+            output.flush();
+        } catch (IOException e) {
+            log.warn("Could not write the timeline of the kubernetes resources to the task output: " + e);
+        }
+        Object resultMap = context.getBindings(ScriptContext.ENGINE_SCOPE).get(RESULT_MAP_BINDING);
+        if (resultMap instanceof Map) {
+            ((Map<String, Serializable>) resultMap).put(K8S_TIMELINE_RESULT,
+                                                        timelines.stream()
+                                                                 .map(PodTimeline::toMap)
+                                                                 .collect(Collectors.toCollection(ArrayList::new)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void publishLogArchive(Path archive) {
+        String archivePath = archive.toAbsolutePath().toString();
+        Object resultMap = context.getBindings(ScriptContext.ENGINE_SCOPE).get(RESULT_MAP_BINDING);
+        if (resultMap instanceof Map) {
+            ((Map<String, Serializable>) resultMap).put(K8S_LOG_FILE_RESULT, archivePath);
+        }
+        log.info("Kubernetes resource logs archived to " + archivePath + ".");
     }
 
     private String cleanKubernetesResources() {
+        if (processTracker != null && processTracker.isCancelled()) {
+            log.debug("Task interrupted, its K8S resources are already being deleted.");
+            return null;
+        }
         try {
-            Process k8s_delete_process = SingletonKubernetesProcessBuilderFactory.getInstance()
-                                                                                 .getProcessBuilder(kubernetesCommandCreator.createKubectlDeleteCommand(K8S_MANIFEST_FILE_NAME))
-                                                                                 .start();
+            Process k8s_delete_process = processBuilderFactory.start(kubernetesCommandCreator.createKubectlDeleteCommand(k8sManifestFileName));
             k8s_delete_process.waitFor();
             try (BufferedReader buffer = new BufferedReader(new InputStreamReader(k8s_delete_process.getInputStream()))) {
                 String deleted_resource = buffer.lines().collect(Collectors.joining(" "));
@@ -340,7 +1460,7 @@ public class KubernetesScriptEngine extends AbstractScriptEngine {
         return null;
     }
 
-    private void deleteKubernetesManifestFile() {
+    private synchronized void deleteKubernetesManifestFile() {
         if (k8sManifestFile != null) {
             boolean deleted = k8sManifestFile.delete();
             if (!deleted) {
@@ -351,7 +1471,7 @@ public class KubernetesScriptEngine extends AbstractScriptEngine {
         }
     }
 
-    private void setScriptEngineBehaviorFromEnv() {
+    private void setScriptEngineBehaviorFromEnv() throws ScriptException {
         Map<String, String> environment = bindings.getK8sEngineMetadata();
         // Parsing the optional parameters of the script engine provided as generic info
         if (environment != null) {
@@ -361,14 +1481,192 @@ public class KubernetesScriptEngine extends AbstractScriptEngine {
             if (environment.containsKey(GI_K8S_DELETE_ONLY)) {
                 k8sDeleteOnly = Boolean.valueOf(environment.get(GI_K8S_DELETE_ONLY));
             }
+            if (environment.containsKey(GI_K8S_APPLY)) {
+                k8sApply = Boolean.valueOf(environment.get(GI_K8S_APPLY));
+            }
             if (environment.containsKey(GI_K8S_STREAM_LOGS)) {
                 k8sDeleteOnly = Boolean.valueOf(environment.get(GI_K8S_STREAM_LOGS));
             }
             if (environment.containsKey(GI_K8S_RESOURCE_TO_STREAM)) {
                 k8sResourceToStream = environment.get(GI_K8S_RESOURCE_TO_STREAM);
             }
+            if (environment.containsKey(GI_K8S_SWEEP_ITEMS)) {
+                k8sSweepItems = getSweepItems(environment.get(GI_K8S_SWEEP_ITEMS), environment);
+            } else if (environment.containsKey(GI_K8S_SWEEP_SIZE)) {
+                k8sSweepItems = IntStream.range(0, parseInt(environment, GI_K8S_SWEEP_SIZE))
+                                         .mapToObj(String::valueOf)
+                                         .collect(Collectors.toList());
+            }
+            if (k8sSweepItems != null && k8sSweepItems.isEmpty()) {
+                // a sweep over nothing would silently create no resource
+                String key = environment.containsKey(GI_K8S_SWEEP_ITEMS) ? GI_K8S_SWEEP_ITEMS : GI_K8S_SWEEP_SIZE;
+                throw new ScriptException("The sweep of the task has no item, check " + toGenericInformationName(key) +
+                                          '.');
+            }
+            if (environment.containsKey(GI_K8S_PARALLEL_CREATE)) {
+                k8sParallelCreate = Boolean.valueOf(environment.get(GI_K8S_PARALLEL_CREATE));
+            }
+            if (environment.containsKey(GI_K8S_CREATE_PARALLELISM)) {
+                k8sCreateParallelism = Math.max(1, parseInt(environment, GI_K8S_CREATE_PARALLELISM));
+            }
+            if (environment.containsKey(GI_K8S_WARM_POOL)) {
+                k8sWarmPool = Boolean.valueOf(environment.get(GI_K8S_WARM_POOL));
+            }
+            if (environment.containsKey(GI_K8S_WARM_POOL_SIZE)) {
+                k8sWarmPoolSize = Math.max(1, parseInt(environment, GI_K8S_WARM_POOL_SIZE));
+            }
+            if (environment.containsKey(GI_K8S_EXEC_COMMAND)) {
+                k8sExecCommand = environment.get(GI_K8S_EXEC_COMMAND);
+            }
+            if (environment.containsKey(GI_K8S_EXEC_CONTAINER)) {
+                k8sExecContainer = environment.get(GI_K8S_EXEC_CONTAINER);
+            }
+            if (environment.containsKey(GI_K8S_PRE_PULL_IMAGES)) {
+                k8sPrePullImages = Boolean.valueOf(environment.get(GI_K8S_PRE_PULL_IMAGES));
+            }
+            if (environment.containsKey(GI_K8S_PRE_PULL_TIMEOUT)) {
+                k8sPrePullTimeout = parseLong(environment, GI_K8S_PRE_PULL_TIMEOUT);
+            }
+            if (environment.containsKey(GI_K8S_LOG_FILE)) {
+                k8sLogFile = VariablesSubstitutor.replaceRecursively(environment.get(GI_K8S_LOG_FILE), environment);
+            }
+            if (environment.containsKey(GI_K8S_LOG_FILE_COMPRESS)) {
+                k8sLogFileCompress = Boolean.valueOf(environment.get(GI_K8S_LOG_FILE_COMPRESS));
+            }
+            if (environment.containsKey(GI_K8S_LOG_HEAD_LINES)) {
+                k8sLogHeadLines = Math.max(0, parseInt(environment, GI_K8S_LOG_HEAD_LINES));
+            }
+            if (environment.containsKey(GI_K8S_LOG_TAIL_LINES)) {
+                k8sLogTailLines = Math.max(0, parseInt(environment, GI_K8S_LOG_TAIL_LINES));
+            }
+            if (environment.containsKey(GI_K8S_LOG_PROGRESS_INTERVAL)) {
+                k8sLogProgressInterval = parseLong(environment, GI_K8S_LOG_PROGRESS_INTERVAL);
+            }
+            if (environment.containsKey(GI_K8S_CLUSTER)) {
+                k8sCluster = environment.get(GI_K8S_CLUSTER);
+            }
+            if (environment.containsKey(GI_K8S_INPUTS)) {
+                k8sInputs = Arrays.stream(VariablesSubstitutor.replaceRecursively(environment.get(GI_K8S_INPUTS),
+                                                                                  environment)
+                                                              .split(","))
+                                  .map(String::trim)
+                                  .filter(path -> !path.isEmpty())
+                                  .collect(Collectors.toList());
+                if (k8sInputs.isEmpty()) {
+                    k8sInputs = null;
+                }
+            }
+            if (environment.containsKey(GI_K8S_INPUTS_MOUNT_PATH)) {
+                k8sInputsMountPath = environment.get(GI_K8S_INPUTS_MOUNT_PATH);
+            }
+            if (environment.containsKey(GI_K8S_INPUTS_TIMEOUT)) {
+                k8sInputsTimeout = Math.max(1, parseLong(environment, GI_K8S_INPUTS_TIMEOUT));
+            }
+            if (environment.containsKey(GI_K8S_VALIDATE)) {
+                k8sValidate = Boolean.valueOf(environment.get(GI_K8S_VALIDATE));
+            }
+            if (environment.containsKey(GI_K8S_TIMELINE)) {
+                k8sTimeline = Boolean.valueOf(environment.get(GI_K8S_TIMELINE));
+            }
+            if (environment.containsKey(GI_K8S_RESOURCE_USAGE)) {
+                k8sResourceUsage = Boolean.valueOf(environment.get(GI_K8S_RESOURCE_USAGE));
+            }
+            if (environment.containsKey(GI_K8S_AUTO_SIZE)) {
+                k8sAutoSize = Boolean.valueOf(environment.get(GI_K8S_AUTO_SIZE));
+                if (k8sAutoSize &&
+                    (environment.get(PA_JOB_NAME_VARIABLE) == null || environment.get(PA_TASK_NAME_VARIABLE) == null)) {
+                    log.warn("The workflow and task names are unknown, the requests of the task are not sized.");
+                    k8sAutoSize = false;
+                }
+            }
+            if (environment.containsKey(GI_K8S_AUTO_SIZE_PERCENTILE)) {
+                k8sAutoSizePercentile = parseInt(environment, GI_K8S_AUTO_SIZE_PERCENTILE);
+            }
+            if (environment.containsKey(GI_K8S_AUTO_SIZE_HEADROOM)) {
+                k8sAutoSizeHeadroom = parseInt(environment, GI_K8S_AUTO_SIZE_HEADROOM);
+            }
+            if (environment.containsKey(GI_K8S_ADMISSION)) {
+                k8sAdmission = Boolean.valueOf(environment.get(GI_K8S_ADMISSION));
+            }
+            if (environment.containsKey(GI_K8S_ADMISSION_TIMEOUT)) {
+                k8sAdmissionTimeout = Math.max(1, parseLong(environment, GI_K8S_ADMISSION_TIMEOUT));
+            }
+            if (environment.containsKey(GI_K8S_ARTIFACTS)) {
+                k8sArtifacts = Arrays.stream(VariablesSubstitutor.replaceRecursively(environment.get(GI_K8S_ARTIFACTS),
+                                                                                     environment)
+                                                                 .split(","))
+                                     .map(String::trim)
+                                     .filter(path -> !path.isEmpty())
+                                     .collect(Collectors.toList());
+                if (k8sArtifacts.isEmpty()) {
+                    k8sArtifacts = null;
+                }
+            }
+            if (environment.containsKey(GI_K8S_ARTIFACTS_CONTAINER)) {
+                k8sArtifactsContainer = environment.get(GI_K8S_ARTIFACTS_CONTAINER);
+            }
+            if (environment.containsKey(GI_K8S_ARTIFACTS_DIR)) {
+                k8sArtifactsDir = VariablesSubstitutor.replaceRecursively(environment.get(GI_K8S_ARTIFACTS_DIR),
+                                                                          environment);
+            }
+            if (environment.containsKey(GI_K8S_ARTIFACTS_PARALLELISM)) {
+                k8sArtifactsParallelism = Math.max(1,
+                                                   parseInt(environment, GI_K8S_ARTIFACTS_PARALLELISM));
+            }
+            try {
+                if (environment.containsKey(GI_K8S_RESULT_PATTERN)) {
+                    logResultExtractor = LogResultExtractor.withPattern(environment.get(GI_K8S_RESULT_PATTERN));
+                } else if (Boolean.valueOf(environment.get(GI_K8S_EXTRACT_RESULTS))) {
+                    logResultExtractor = LogResultExtractor.withDefaultPattern();
+                }
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid result pattern, the logs are not scanned for results: " + e.getMessage());
+            }
+            if (environment.containsKey(GI_K8S_SWEEP_PARALLELISM)) {
+                k8sSweepParallelism = Math.max(1, parseInt(environment, GI_K8S_SWEEP_PARALLELISM));
+            }
+        }
+
+    }
+
+    private static int parseInt(Map<String, String> environment, String key) throws ScriptException {
+        long value = parseLong(environment, key);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new ScriptException("Invalid " + toGenericInformationName(key) + " '" + environment.get(key) +
+                                      "': out of range.");
         }
+        return (int) value;
+    }
+
+    // A numeric generic information, which fails the task rather than being ignored when it is not a number
+    private static long parseLong(Map<String, String> environment, String key) throws ScriptException {
+        String value = environment.get(key);
+        try {
+            return Long.parseLong(value == null ? "" : value.trim());
+        } catch (NumberFormatException e) {
+            throw new ScriptException("Invalid " + toGenericInformationName(key) + " '" + value +
+                                      "': an integer is expected.");
+        }
+    }
 
+    // K8S_SWEEP_SIZE for genericInformation_K8S_SWEEP_SIZE, as written in the task
+    private static String toGenericInformationName(String key) {
+        return key.substring(key.indexOf('_') + 1);
+    }
+
+    // The sweep items are either a collection/array binding, or a comma-separated variable (e.g. variables_ITEMS)
+    private List<String> getSweepItems(String itemsBindingName, Map<String, String> environment) {
+        Object itemsBinding = context.getBindings(ScriptContext.ENGINE_SCOPE).get(itemsBindingName);
+        if (itemsBinding instanceof Object[]) {
+            itemsBinding = Arrays.asList((Object[]) itemsBinding);
+        }
+        if (itemsBinding instanceof Collection) {
+            return ((Collection<?>) itemsBinding).stream()
+                                                  .map(BindingUtils::toEmptyStringIfNull)
+                                                  .collect(Collectors.toList());
+        }
+        String items = environment.getOrDefault(itemsBindingName, "");
+        return Arrays.stream(items.split(",")).map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toList());
     }
 
     /*********************************/
@@ -377,17 +1675,7 @@ public class KubernetesScriptEngine extends AbstractScriptEngine {
 
     @Override
     public Object eval(Reader reader, ScriptContext context) throws ScriptException {
-
-        StringWriter stringWriter = new StringWriter();
-
-        try {
-            KubernetesProcessBuilderUtilities.pipe(reader, stringWriter);
-        } catch (IOException e) {
-            log.warn("Failed to convert Reader into StringWriter. Not possible to execute Kubernetes task.");
-            log.debug("Failed to convert Reader into StringWriter. Not possible to execute Kubernetes task.", e);
-        }
-
-        return eval(stringWriter.toString(), context);
+        return evalManifest(null, reader);
     }
 
     @Override
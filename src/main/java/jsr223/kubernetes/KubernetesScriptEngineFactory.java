@@ -34,6 +34,8 @@ import java.util.Map;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
 
+import jsr223.kubernetes.discovery.KubectlDiscoveryCache;
+import jsr223.kubernetes.metrics.KubernetesEngineMetrics;
 import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderFactory;
 import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderUtilities;
 import jsr223.kubernetes.processbuilder.SingletonKubernetesProcessBuilderFactory;
@@ -56,6 +58,11 @@ public class KubernetesScriptEngineFactory implements ScriptEngineFactory {
         PARAMETERS.put(ScriptEngine.LANGUAGE, "yaml");
         PARAMETERS.put(ScriptEngine.LANGUAGE_VERSION, kubectlClientVersion);
 
+        // Expose the engine metrics through JMX
+        KubernetesEngineMetrics.register();
+
+        // Download the API discovery of the clusters before the first task needs it
+        KubectlDiscoveryCache.getInstance().start();
     }
 
     @Override
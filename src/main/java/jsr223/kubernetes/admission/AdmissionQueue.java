@@ -0,0 +1,296 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.admission;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.log4j.Logger;
+
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+
+
+/**
+ * Admits the resources of the tasks running on a cluster, in their order of arrival, as long as the quotas of their
+ * namespaces and the free capacity of the cluster can hold their requests.
+ *
+ * The capacity of the cluster is read periodically in the background rather than for each task. Between two reads,
+ * the requests of the tasks admitted since the last one are reserved, so that a burst of tasks does not overflow the
+ * cluster before its pods show up. The first task waiting holds the ones behind it: a large task is not starved by
+ * smaller ones.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class AdmissionQueue {
+
+    private static final Logger log = Logger.getLogger(AdmissionQueue.class);
+
+    // Delay for the controllers to create the pods of the admitted resources, before a snapshot accounts for them
+    private static final long POD_CREATION_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    // Minimum delay between two reads of the capacity, when a released task asks for an early one
+    private static final long MIN_REFRESH_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private final String name;
+
+    private final KubernetesCommandRunner commandRunner;
+
+    private final KubernetesCommandCreator commandCreator;
+
+    private final long refreshIntervalMillis;
+
+    private final Executor refreshExecutor;
+
+    private final Deque<AdmissionTicket> waitingTickets = new ArrayDeque<>();
+
+    // Admitted tickets whose requests may not be accounted for by the snapshot yet
+    private final List<AdmissionTicket> admittedTickets = new ArrayList<>();
+
+    // Namespaces whose quotas are read
+    private final Set<String> namespaces = new HashSet<>();
+
+    // Latest capacity snapshot, null before the first one
+    private ClusterCapacity capacity = null;
+
+    private boolean refreshing = false;
+
+    // Set when resources have been released since the snapshot
+    private boolean refreshRequested = false;
+
+    AdmissionQueue(String name, KubernetesCommandRunner commandRunner, KubernetesCommandCreator commandCreator,
+            long refreshIntervalMillis, Executor refreshExecutor) {
+        this.name = name;
+        this.commandRunner = commandRunner;
+        this.commandCreator = commandCreator;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Waits for the cluster to hold the given requests, behind the tasks which arrived before.
+     *
+     * @param requests      The requests of the resources of the task.
+     * @param timeoutMillis Maximum waiting time.
+     * @return The admission of the task, to be closed when the task ends.
+     * @throws TimeoutException         If the requests could not be admitted in time.
+     * @throws IllegalArgumentException If the requests exceed the quotas or the allocatable resources of the cluster,
+     *                                  they could never be admitted.
+     */
+    public synchronized AdmissionTicket admit(ResourceRequests requests, long timeoutMillis)
+            throws InterruptedException, TimeoutException {
+        AdmissionTicket ticket = new AdmissionTicket(this, requests);
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        namespaces.addAll(requests.getNamespaces());
+        waitingTickets.addLast(ticket);
+        try {
+            boolean logged = false;
+            while (true) {
+                if (waitingTickets.peekFirst() == ticket && isUpToDate(requests)) {
+                    checkAdmissible(requests);
+                    if (fits(requests)) {
+                        admittedTickets.add(ticket);
+                        log.debug("Admitted " + requests + " on " + name + '.');
+                        return ticket;
+                    }
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new TimeoutException("Resources not admitted on " + name + " after " +
+                                               TimeUnit.MILLISECONDS.toSeconds(timeoutMillis) + " seconds, " +
+                                               (waitingTickets.size() - 1) + " other tasks waiting.");
+                }
+                if (!logged) {
+                    log.info("Waiting for the capacity of " + name + " to hold " + requests + ", behind " +
+                             getPosition(ticket) + " tasks.");
+                    logged = true;
+                }
+                wait(Math.min(remaining, MIN_REFRESH_INTERVAL_MILLIS));
+            }
+        } finally {
+            waitingTickets.remove(ticket);
+            // The next task is now first
+            notifyAll();
+        }
+    }
+
+    synchronized void release(AdmissionTicket ticket) {
+        if (ticket.getCreatedTime() == 0 || ticket.isDeleted()) {
+            admittedTickets.remove(ticket);
+        }
+        // Otherwise the ticket is pruned once a snapshot accounts for its pods
+        refreshRequested = true;
+        notifyAll();
+    }
+
+    synchronized int getWaitingTasks() {
+        return waitingTickets.size();
+    }
+
+    // Whether the snapshot can be used to admit the requests, otherwise a new one is read in the background
+    private boolean isUpToDate(ResourceRequests requests) {
+        long now = System.currentTimeMillis();
+        boolean upToDate = capacity != null && requests.getNamespaces().stream().allMatch(capacity::hasNamespace);
+        boolean stale = !upToDate || now - capacity.getTime() >= refreshIntervalMillis ||
+                        (refreshRequested && now - capacity.getTime() >= MIN_REFRESH_INTERVAL_MILLIS);
+        if (stale && !refreshing) {
+            refreshing = true;
+            refreshRequested = false;
+            List<String> snapshotNamespaces = new ArrayList<>(namespaces);
+            refreshExecutor.execute(() -> refresh(snapshotNamespaces));
+        }
+        return upToDate;
+    }
+
+    private void refresh(List<String> snapshotNamespaces) {
+        ClusterCapacity snapshot = null;
+        try {
+            snapshot = ClusterCapacity.fetch(commandRunner, commandCreator, snapshotNamespaces);
+        } catch (IOException | RuntimeException e) {
+            // e.g. a quota quantity which cannot be parsed
+            log.warn("Could not read the capacity of " + name + ", the tasks are admitted without checking it: " + e);
+            snapshot = ClusterCapacity.unknown(snapshotNamespaces);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            synchronized (this) {
+                if (snapshot != null) {
+                    capacity = snapshot;
+                    pruneAdmittedTickets();
+                }
+                refreshing = false;
+                notifyAll();
+            }
+        }
+    }
+
+    // Forgets the released tickets whose pods are accounted for by the snapshot
+    private void pruneAdmittedTickets() {
+        Iterator<AdmissionTicket> iterator = admittedTickets.iterator();
+        while (iterator.hasNext()) {
+            AdmissionTicket ticket = iterator.next();
+            if (ticket.isReleased() && !isReserved(ticket)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    // Whether the requests of an admitted ticket are not accounted for by the snapshot yet
+    private boolean isReserved(AdmissionTicket ticket) {
+        return ticket.getCreatedTime() == 0 || ticket.getCreatedTime() + POD_CREATION_DELAY_MILLIS > capacity.getTime();
+    }
+
+    private void checkAdmissible(ResourceRequests requests) {
+        for (String namespace : requests.getNamespaces()) {
+            checkWithin(requests.getRequests(namespace),
+                        capacity.getHardQuota(namespace),
+                        "the quota of namespace " + (namespace == null ? "of the context" : namespace));
+        }
+        checkWithin(requests.getTotal(), capacity.getTotalCapacity(), "the allocatable resources of " + name);
+    }
+
+    private static void checkWithin(Map<String, BigDecimal> requests, Map<String, BigDecimal> limits,
+            String description) {
+        requests.forEach((resource, quantity) -> {
+            BigDecimal limit = limits.get(resource);
+            if (limit != null && quantity.compareTo(limit) > 0) {
+                throw new IllegalArgumentException("The resources request " + resource + '=' +
+                                                   quantity.stripTrailingZeros().toPlainString() + " exceeds " +
+                                                   description + ": " + limit.stripTrailingZeros().toPlainString());
+            }
+        });
+    }
+
+    private boolean fits(ResourceRequests requests) {
+        Map<String, Map<String, BigDecimal>> reservedByNamespace = new LinkedHashMap<>();
+        Map<String, BigDecimal> reservedTotal = new LinkedHashMap<>();
+        for (AdmissionTicket ticket : admittedTickets) {
+            if (!isReserved(ticket)) {
+                continue;
+            }
+            for (String namespace : ticket.getRequests().getNamespaces()) {
+                ResourceRequests.add(reservedByNamespace.computeIfAbsent(namespace, k -> new LinkedHashMap<>()),
+                                     ticket.getRequests().getRequests(namespace),
+                                     BigDecimal.ONE);
+            }
+            ResourceRequests.add(reservedTotal, ticket.getRequests().getTotal(), BigDecimal.ONE);
+        }
+        for (String namespace : requests.getNamespaces()) {
+            if (!isFree(requests.getRequests(namespace),
+                        capacity.getFreeQuota(namespace),
+                        reservedByNamespace.getOrDefault(namespace, Collections.emptyMap()))) {
+                return false;
+            }
+        }
+        return isFree(requests.getTotal(), capacity.getFreeCapacity(), reservedTotal);
+    }
+
+    private static boolean isFree(Map<String, BigDecimal> requests, Map<String, BigDecimal> free,
+            Map<String, BigDecimal> reserved) {
+        for (Map.Entry<String, BigDecimal> request : requests.entrySet()) {
+            BigDecimal available = free.get(request.getKey());
+            if (available == null) {
+                // Unconstrained resource
+                continue;
+            }
+            available = available.subtract(reserved.getOrDefault(request.getKey(), BigDecimal.ZERO));
+            if (request.getValue().compareTo(available) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int getPosition(AdmissionTicket ticket) {
+        int position = 0;
+        for (AdmissionTicket waitingTicket : waitingTickets) {
+            if (waitingTicket == ticket) {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.admission;
+
+import java.io.Closeable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * The admission of the resources of a task by an {@link AdmissionQueue}. Its requests are reserved on the cluster
+ * until a capacity snapshot, taken after the creation of the resources, accounts for their pods.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class AdmissionTicket implements Closeable {
+
+    private final AdmissionQueue queue;
+
+    @Getter
+    private final ResourceRequests requests;
+
+    // When the resources were created, 0 before
+    @Getter(AccessLevel.PACKAGE)
+    private volatile long createdTime = 0;
+
+    // Whether the resources were deleted by the task, their requests are then no longer reserved
+    @Getter(AccessLevel.PACKAGE)
+    private volatile boolean deleted = false;
+
+    @Getter(AccessLevel.PACKAGE)
+    private volatile boolean released = false;
+
+    /**
+     * Tells the queue the resources of the task have been created: the next capacity snapshots account for them.
+     */
+    public void markCreated() {
+        createdTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Tells the queue the resources of the task have been deleted.
+     */
+    public void markDeleted() {
+        deleted = true;
+    }
+
+    /**
+     * Releases the admission, once the task is over.
+     */
+    @Override
+    public void close() {
+        if (!released) {
+            released = true;
+            queue.release(this);
+        }
+    }
+}
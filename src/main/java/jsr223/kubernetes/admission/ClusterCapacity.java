@@ -0,0 +1,245 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.admission;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * A snapshot of the free capacity of a cluster: the resources left by the quotas of some namespaces, and the
+ * allocatable resources of the schedulable nodes minus the requests of the pods which have not terminated, pending
+ * ones included.
+ *
+ * A constraint which cannot be read (e.g. the nodes cannot be listed with the permissions of the kubeconfig) is
+ * missing from the snapshot, and does not hold any task.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ClusterCapacity {
+
+    private static final Logger log = Logger.getLogger(ClusterCapacity.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String REQUESTS_PREFIX = "requests.";
+
+    // When the snapshot was taken
+    @Getter
+    private final long time;
+
+    // Resources left by the quotas, by namespace then resource; the lowest one when several quotas set a resource
+    private final Map<String, Map<String, BigDecimal>> freeQuotas;
+
+    // Resources set by the quotas, by namespace then resource
+    private final Map<String, Map<String, BigDecimal>> hardQuotas;
+
+    // Resources left on the schedulable nodes, empty if unknown
+    @Getter
+    private final Map<String, BigDecimal> freeCapacity;
+
+    // Allocatable resources of the schedulable nodes, empty if unknown
+    @Getter
+    private final Map<String, BigDecimal> totalCapacity;
+
+    /**
+     * Reads the free capacity of the cluster, and the quotas of the given namespaces.
+     */
+    public static ClusterCapacity fetch(KubernetesCommandRunner commandRunner, KubernetesCommandCreator commandCreator,
+            Collection<String> namespaces) throws IOException, InterruptedException {
+        long time = System.currentTimeMillis();
+        Map<String, Map<String, BigDecimal>> freeQuotas = new LinkedHashMap<>();
+        Map<String, Map<String, BigDecimal>> hardQuotas = new LinkedHashMap<>();
+        for (String namespace : namespaces) {
+            fetchQuotas(commandRunner,
+                        commandCreator,
+                        namespace,
+                        freeQuotas.computeIfAbsent(namespace, k -> new LinkedHashMap<>()),
+                        hardQuotas.computeIfAbsent(namespace, k -> new LinkedHashMap<>()));
+        }
+        Map<String, BigDecimal> freeCapacity = new LinkedHashMap<>();
+        Map<String, BigDecimal> totalCapacity = new LinkedHashMap<>();
+        fetchCapacity(commandRunner, commandCreator, freeCapacity, totalCapacity);
+        return new ClusterCapacity(time, freeQuotas, hardQuotas, freeCapacity, totalCapacity);
+    }
+
+    /**
+     * @return A snapshot without any constraint, when the capacity of the cluster cannot be read.
+     */
+    public static ClusterCapacity unknown(Collection<String> namespaces) {
+        Map<String, Map<String, BigDecimal>> noQuotas = new LinkedHashMap<>();
+        namespaces.forEach(namespace -> noQuotas.put(namespace, Collections.emptyMap()));
+        return new ClusterCapacity(System.currentTimeMillis(),
+                                   noQuotas,
+                                   noQuotas,
+                                   Collections.emptyMap(),
+                                   Collections.emptyMap());
+    }
+
+    /**
+     * @return The resources left by the quotas of a namespace, empty if it has no quota or the quotas are unknown.
+     */
+    public Map<String, BigDecimal> getFreeQuota(String namespace) {
+        return freeQuotas.getOrDefault(namespace, Collections.emptyMap());
+    }
+
+    public Map<String, BigDecimal> getHardQuota(String namespace) {
+        return hardQuotas.getOrDefault(namespace, Collections.emptyMap());
+    }
+
+    /**
+     * @return Whether the snapshot has read the quotas of a namespace.
+     */
+    public boolean hasNamespace(String namespace) {
+        return freeQuotas.containsKey(namespace);
+    }
+
+    private static void fetchQuotas(KubernetesCommandRunner commandRunner, KubernetesCommandCreator commandCreator,
+            String namespace, Map<String, BigDecimal> freeQuota, Map<String, BigDecimal> hardQuota)
+            throws IOException, InterruptedException {
+        KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlGetResourceQuotasCommand(namespace));
+        if (!result.isSuccessful()) {
+            log.debug("Could not read the resource quotas of namespace " + namespace + ": " + result.getError());
+            return;
+        }
+        for (Map<String, Object> quota : getItems(result.getOutput())) {
+            Map<String, Object> status = getMap(quota, "status");
+            Map<String, Object> hardLimits = getMap(status, "hard");
+            Map<String, Object> used = getMap(status, "used");
+            if (hardLimits == null) {
+                continue;
+            }
+            for (Map.Entry<String, Object> limit : hardLimits.entrySet()) {
+                // Only the requests are admitted: "cpu" and "requests.cpu" are the same quota
+                String resource = limit.getKey().startsWith(REQUESTS_PREFIX) ? limit.getKey()
+                                                                                    .substring(REQUESTS_PREFIX.length())
+                                                                             : limit.getKey();
+                if (resource.startsWith("limits.") || resource.contains("count/")) {
+                    continue;
+                }
+                BigDecimal hard = ResourceQuantity.parse(String.valueOf(limit.getValue()));
+                BigDecimal free = hard;
+                if (used != null && used.get(limit.getKey()) != null) {
+                    free = free.subtract(ResourceQuantity.parse(String.valueOf(used.get(limit.getKey()))));
+                }
+                freeQuota.merge(resource, free, BigDecimal::min);
+                hardQuota.merge(resource, hard, BigDecimal::min);
+            }
+        }
+    }
+
+    private static void fetchCapacity(KubernetesCommandRunner commandRunner, KubernetesCommandCreator commandCreator,
+            Map<String, BigDecimal> freeCapacity, Map<String, BigDecimal> totalCapacity)
+            throws IOException, InterruptedException {
+        KubernetesCommandResult nodesResult = commandRunner.run(commandCreator.createKubectlGetNodesCommand());
+        if (!nodesResult.isSuccessful()) {
+            log.debug("Could not read the allocatable resources of the nodes: " + nodesResult.getError());
+            return;
+        }
+        Set<String> schedulableNodes = new HashSet<>();
+        for (Map<String, Object> node : getItems(nodesResult.getOutput())) {
+            Map<String, Object> spec = getMap(node, "spec");
+            Map<String, Object> status = getMap(node, "status");
+            if ((spec != null && Boolean.TRUE.equals(spec.get("unschedulable"))) || !isReady(status)) {
+                continue;
+            }
+            schedulableNodes.add(String.valueOf(getMap(node, "metadata").get("name")));
+            Map<String, Object> allocatable = getMap(status, "allocatable");
+            if (allocatable != null) {
+                allocatable.forEach((resource, quantity) -> freeCapacity.merge(resource,
+                                                                               ResourceQuantity.parse(String.valueOf(quantity)),
+                                                                               BigDecimal::add));
+            }
+        }
+        if (freeCapacity.isEmpty()) {
+            return;
+        }
+
+        KubernetesCommandResult podsResult = commandRunner.run(commandCreator.createKubectlGetActivePodsCommand());
+        if (!podsResult.isSuccessful()) {
+            log.debug("Could not read the requests of the pods: " + podsResult.getError());
+            freeCapacity.clear();
+            return;
+        }
+        totalCapacity.putAll(freeCapacity);
+        for (Map<String, Object> pod : getItems(podsResult.getOutput())) {
+            Map<String, Object> spec = getMap(pod, "spec");
+            Object nodeName = spec == null ? null : spec.get("nodeName");
+            // Pods of the other nodes do not use the capacity counted above, pending pods will use some of it
+            if (spec == null || (nodeName != null && !schedulableNodes.contains(nodeName.toString()))) {
+                continue;
+            }
+            Map<String, BigDecimal> podRequests = ResourceRequests.getPodRequests(spec);
+            podRequests.put(ResourceRequests.PODS, BigDecimal.ONE);
+            podRequests.forEach((resource, quantity) -> freeCapacity.computeIfPresent(resource,
+                                                                                      (k, free) -> free.subtract(quantity)));
+        }
+    }
+
+    private static boolean isReady(Map<String, Object> status) {
+        Object conditions = status == null ? null : status.get("conditions");
+        if (!(conditions instanceof List)) {
+            return true;
+        }
+        for (Object condition : (List<?>) conditions) {
+            if (condition instanceof Map && "Ready".equals(((Map<?, ?>) condition).get("type"))) {
+                return "True".equals(((Map<?, ?>) condition).get("status"));
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getItems(String json) throws IOException {
+        Object items = MAPPER.readValue(json, Map.class).get("items");
+        return items instanceof List ? (List<Map<String, Object>>) items : Collections.emptyList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Map<String, Object> parent, String field) {
+        return parent != null && parent.get(field) instanceof Map ? (Map<String, Object>) parent.get(field) : null;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesPropertyLoader;
+
+
+/**
+ * JVM-wide registry of the admission queues, one per cluster context. The capacity of the clusters is read by a
+ * background thread, every 'admission.refresh.interval' seconds while tasks are admitted.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesAdmissionController {
+
+    private final Map<String, AdmissionQueue> queues = new ConcurrentHashMap<>();
+
+    private final ExecutorService refreshExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                            .setNameFormat("k8s-admission-refresh-%d")
+                                                                                                            .build());
+
+    private KubernetesAdmissionController() {
+    }
+
+    public static KubernetesAdmissionController getInstance() {
+        return KubernetesAdmissionControllerHolder.INSTANCE;
+    }
+
+    /**
+     * Returns the admission queue of the cluster the given command creator targets, creating it if needed.
+     *
+     * @param commandRunner  Runs the commands reading the capacity of the cluster.
+     * @param commandCreator Creates the commands targeting the cluster.
+     */
+    public AdmissionQueue getQueue(KubernetesCommandRunner commandRunner, KubernetesCommandCreator commandCreator) {
+        String context = commandCreator.getContext();
+        return queues.computeIfAbsent(String.valueOf(context),
+                                      k -> new AdmissionQueue(context == null ? "the current context"
+                                                                              : "the cluster of context " + context,
+                                                              commandRunner,
+                                                              commandCreator,
+                                                              TimeUnit.SECONDS.toMillis(KubernetesPropertyLoader.getInstance()
+                                                                                                                .getAdmissionRefreshInterval()),
+                                                              refreshExecutor));
+    }
+
+    /**
+     * Initializes KubernetesAdmissionController on the first execution of KubernetesAdmissionController.getInstance(),
+     * not before.
+     **/
+    private static class KubernetesAdmissionControllerHolder {
+        private static final KubernetesAdmissionController INSTANCE = new KubernetesAdmissionController();
+
+        private KubernetesAdmissionControllerHolder() {
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.admission;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Parses the Kubernetes resource quantities ("500m", "1.5", "128Mi", "2G", "1e3"...) into plain numbers: cores for
+ * cpu, bytes for memory, units for the others.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ResourceQuantity {
+
+    // Longest suffixes first, so that "Mi" is not read as "M"
+    private static final List<String> BINARY_SUFFIXES = Arrays.asList("Ki", "Mi", "Gi", "Ti", "Pi", "Ei");
+
+    private static final String DECIMAL_SUFFIXES = "num kMGTPE";
+
+    private ResourceQuantity() {
+    }
+
+    /**
+     * @throws NumberFormatException If the quantity is not valid.
+     */
+    public static BigDecimal parse(String quantity) {
+        String value = quantity.trim();
+        if (value.isEmpty()) {
+            throw new NumberFormatException("Empty resource quantity");
+        }
+
+        for (int i = 0; i < BINARY_SUFFIXES.size(); i++) {
+            if (value.endsWith(BINARY_SUFFIXES.get(i))) {
+                return new BigDecimal(value.substring(0, value.length() - 2)).multiply(BigDecimal.valueOf(1024)
+                                                                                                 .pow(i + 1));
+            }
+        }
+
+        // A quantity ending with 'E' is in exa, an exponent always ends with digits (1e3, 1E3)
+        char last = value.charAt(value.length() - 1);
+        int decimalSuffix = DECIMAL_SUFFIXES.indexOf(last);
+        if (decimalSuffix >= 0 && last != ' ') {
+            // n, u and m are the powers -9, -6 and -3, k, M, G... the powers 3, 6, 9...
+            return new BigDecimal(value.substring(0, value.length() - 1)).scaleByPowerOfTen(3 * (decimalSuffix - 3));
+        }
+        return new BigDecimal(value);
+    }
+}
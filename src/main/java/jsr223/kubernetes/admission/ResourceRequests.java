@@ -0,0 +1,170 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.admission;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+
+
+/**
+ * The resources requested by the pods of a manifest, by namespace: cpu (cores), memory (bytes), the extended
+ * resources (e.g. nvidia.com/gpu), and the number of pods. A workload requests the resources of all the pods it runs
+ * at once: the parallelism of a Job, the replicas of a Deployment or a StatefulSet.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ResourceRequests {
+
+    public static final String PODS = "pods";
+
+    // Workloads whose pods are not created right away, or whose number of pods depends on the nodes
+    private static final List<String> NOT_ADMITTED_KINDS = Arrays.asList("cronjob", "daemonset");
+
+    // Requests by namespace (null for the namespace of the context), then by resource
+    private final Map<String, Map<String, BigDecimal>> requestsByNamespace = new LinkedHashMap<>();
+
+    private ResourceRequests() {
+    }
+
+    /**
+     * @throws NumberFormatException If a quantity of the manifest is not valid.
+     */
+    public static ResourceRequests of(List<KubernetesManifestDocument> documents) {
+        ResourceRequests requests = new ResourceRequests();
+        for (KubernetesManifestDocument document : documents) {
+            Map<String, Object> podSpec = document.getPodSpec();
+            if (podSpec == null || NOT_ADMITTED_KINDS.contains(document.getKind().toLowerCase())) {
+                continue;
+            }
+            int pods = getPodCount(document);
+            Map<String, BigDecimal> namespaceRequests = requests.requestsByNamespace.computeIfAbsent(document.getNamespace(),
+                                                                                                     k -> new LinkedHashMap<>());
+            add(namespaceRequests, getPodRequests(podSpec), BigDecimal.valueOf(pods));
+            namespaceRequests.merge(PODS, BigDecimal.valueOf(pods), BigDecimal::add);
+        }
+        return requests;
+    }
+
+    /**
+     * @return The requests of a pod: for each resource, the largest of the sum of its containers requests and of each
+     * of its init containers requests, as computed by the scheduler. A container without request for a resource but
+     * with a limit requests its limit.
+     */
+    public static Map<String, BigDecimal> getPodRequests(Map<String, Object> podSpec) {
+        Map<String, BigDecimal> podRequests = new LinkedHashMap<>();
+        for (Map<String, Object> container : getList(podSpec, "containers")) {
+            add(podRequests, getContainerRequests(container), BigDecimal.ONE);
+        }
+        for (Map<String, Object> initContainer : getList(podSpec, "initContainers")) {
+            getContainerRequests(initContainer).forEach((resource, quantity) -> podRequests.merge(resource,
+                                                                                                  quantity,
+                                                                                                  BigDecimal::max));
+        }
+        return podRequests;
+    }
+
+    public Set<String> getNamespaces() {
+        return requestsByNamespace.keySet();
+    }
+
+    public Map<String, BigDecimal> getRequests(String namespace) {
+        return requestsByNamespace.getOrDefault(namespace, Collections.emptyMap());
+    }
+
+    /**
+     * @return The requests of all the namespaces.
+     */
+    public Map<String, BigDecimal> getTotal() {
+        Map<String, BigDecimal> total = new LinkedHashMap<>();
+        requestsByNamespace.values().forEach(requests -> add(total, requests, BigDecimal.ONE));
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return requestsByNamespace.isEmpty();
+    }
+
+    static void add(Map<String, BigDecimal> total, Map<String, BigDecimal> requests, BigDecimal multiplier) {
+        requests.forEach((resource, quantity) -> total.merge(resource, quantity.multiply(multiplier), BigDecimal::add));
+    }
+
+    private static Map<String, BigDecimal> getContainerRequests(Map<String, Object> container) {
+        Map<String, BigDecimal> requests = new LinkedHashMap<>();
+        Map<String, Object> resources = getMap(container, "resources");
+        // The limits are the default requests
+        for (String field : Arrays.asList("limits", "requests")) {
+            Map<String, Object> quantities = getMap(resources, field);
+            if (quantities != null) {
+                quantities.forEach((resource, quantity) -> requests.put(resource,
+                                                                        ResourceQuantity.parse(String.valueOf(quantity))));
+            }
+        }
+        return requests;
+    }
+
+    private static int getPodCount(KubernetesManifestDocument document) {
+        Map<String, Object> spec = getMap(document.getObject(), "spec");
+        switch (document.getKind().toLowerCase()) {
+            case "pod":
+                return 1;
+            case "job":
+                int parallelism = getInt(spec, "parallelism", 1);
+                return spec != null && spec.get("completions") != null ? Math.min(parallelism,
+                                                                                  getInt(spec, "completions", 1))
+                                                                       : parallelism;
+            default:
+                return getInt(spec, "replicas", 1);
+        }
+    }
+
+    private static int getInt(Map<String, Object> map, String field, int defaultValue) {
+        return map != null && map.get(field) instanceof Number ? ((Number) map.get(field)).intValue() : defaultValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Map<String, Object> parent, String field) {
+        return parent != null && parent.get(field) instanceof Map ? (Map<String, Object>) parent.get(field) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getList(Map<String, Object> parent, String field) {
+        return parent != null && parent.get(field) instanceof List ? (List<Map<String, Object>>) parent.get(field)
+                                                                   : Collections.emptyList();
+    }
+
+    @Override
+    public String toString() {
+        return requestsByNamespace.toString();
+    }
+}
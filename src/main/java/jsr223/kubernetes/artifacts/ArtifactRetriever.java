@@ -0,0 +1,237 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.artifacts;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jsr223.kubernetes.logs.StreamedContainer;
+import jsr223.kubernetes.metrics.KubernetesFlightRecorder;
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderFactory;
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderUtilities;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Copies files out of the pods of the task resources into a local directory, one sub-directory per pod. Each pod
+ * streams the declared paths through 'kubectl exec ... tar cf -', unpacked as the bytes arrive, and several pods are
+ * copied at once.
+ *
+ * The container running tar must still be running: the containers of a completed pod cannot be exec'ed into, so the
+ * artifacts of a Job are usually retrieved from a sidecar container sharing their volume.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class ArtifactRetriever {
+
+    private static final Logger log = Logger.getLogger(ArtifactRetriever.class);
+
+    // Label set by the Job controller on the pods of a Job
+    private static final String JOB_NAME_LABEL = "job-name";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<Map<String, Object>>() {
+    };
+
+    @NonNull
+    private KubernetesProcessBuilderFactory processBuilderFactory;
+
+    @NonNull
+    private KubernetesCommandRunner commandRunner;
+
+    @NonNull
+    private KubernetesCommandCreator commandCreator;
+
+    private final int parallelism;
+
+    /**
+     * @param resources       The task resources; the artifacts are copied from their pods, and from the pods of their
+     *                        Jobs.
+     * @param container       The container running tar, null for the default container of the pods.
+     * @param paths           The paths to copy, in the container.
+     * @param targetDirectory The local directory receiving one sub-directory per pod.
+     * @return Whether the copy from each pod has succeeded, by pod name.
+     */
+    public Map<String, Boolean> retrieve(List<KubernetesResource> resources, String container, List<String> paths,
+            Path targetDirectory) throws InterruptedException {
+        Map<KubernetesResource, Map<String, Object>> pods = getPods(resources);
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        if (pods.isEmpty()) {
+            log.warn("No pod to retrieve the artifacts from.");
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, pods.size()),
+                                                                new ThreadFactoryBuilder().setDaemon(true)
+                                                                                          .setNameFormat("k8s-artifacts-%d")
+                                                                                          .build());
+        Map<String, Future<Boolean>> copies = new LinkedHashMap<>();
+        for (Map.Entry<KubernetesResource, Map<String, Object>> podEntry : pods.entrySet()) {
+            KubernetesResource pod = podEntry.getKey();
+            copies.put(pod.getName(),
+                       executor.submit(KubernetesFlightRecorder.withTaskIds(() -> copyFromPod(pod,
+                                                                                              podEntry.getValue(),
+                                                                                              container,
+                                                                                              paths,
+                                                                                              targetDirectory.resolve(pod.getName())))));
+        }
+        executor.shutdown();
+
+        try {
+            for (Map.Entry<String, Future<Boolean>> copy : copies.entrySet()) {
+                try {
+                    results.put(copy.getKey(), copy.getValue().get());
+                } catch (ExecutionException e) {
+                    log.warn("Failed to retrieve the artifacts of pod " + copy.getKey() + ".", e.getCause());
+                    results.put(copy.getKey(), false);
+                }
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * @return The pods of the resources, with their status; empty if it could not be read.
+     */
+    private Map<KubernetesResource, Map<String, Object>> getPods(List<KubernetesResource> resources)
+            throws InterruptedException {
+        Map<KubernetesResource, Map<String, Object>> pods = new LinkedHashMap<>();
+        for (KubernetesResource resource : resources) {
+            switch (resource.getKind().toLowerCase()) {
+                case "pod":
+                    Map<String, Object> pod = Collections.emptyMap();
+                    try {
+                        KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlGetResourceCommand(resource.getKind(),
+                                                                                                                          resource.getName(),
+                                                                                                                          resource.getNamespace()));
+                        if (result.isSuccessful()) {
+                            pod = MAPPER.readValue(result.getOutput(), JSON_OBJECT);
+                        }
+                    } catch (IOException e) {
+                        log.debug("Could not read the status of pod " + resource.getName() + ": " + e);
+                    }
+                    pods.put(resource, pod);
+                    break;
+                case "job":
+                    String selector = JOB_NAME_LABEL + '=' + resource.getName();
+                    try {
+                        KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlGetPodsCommand(resource.getNamespace(),
+                                                                                                                      selector));
+                        if (result.isSuccessful()) {
+                            Object items = MAPPER.readValue(result.getOutput(), Map.class).get("items");
+                            if (items instanceof List) {
+                                for (Object item : (List<?>) items) {
+                                    @SuppressWarnings("unchecked")
+                                    Map<String, Object> jobPod = (Map<String, Object>) item;
+                                    Map<?, ?> metadata = (Map<?, ?>) jobPod.get("metadata");
+                                    pods.put(new KubernetesResource("Pod",
+                                                                    String.valueOf(metadata.get("name")),
+                                                                    resource.getNamespace()),
+                                             jobPod);
+                                }
+                            }
+                        } else {
+                            log.warn("Could not list the pods of job " + resource.getName() + ": " +
+                                     result.getError().trim());
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        log.warn("Could not list the pods of job " + resource.getName() + ": " + e);
+                    }
+                    break;
+                default:
+                    log.debug("No artifacts retrieved from " + resource.getKind() + '/' + resource.getName() + '.');
+                    break;
+            }
+        }
+        return pods;
+    }
+
+    private boolean copyFromPod(KubernetesResource pod, Map<String, Object> podObject, String container,
+            List<String> paths, Path podDirectory) throws IOException, InterruptedException {
+        // The log following has ended with the streamed container, a sidecar may still be running
+        String tarContainer = container != null ? container : StreamedContainer.getName(podObject);
+        if (!podObject.isEmpty() && !StreamedContainer.isRunning(podObject, tarContainer)) {
+            log.warn("Container " + tarContainer + " of pod " + pod.getName() + " is not running, its artifacts " +
+                     "cannot be copied; K8S_ARTIFACTS_CONTAINER can name a sidecar sharing their volume.");
+            return false;
+        }
+        List<String> tarCommand = new ArrayList<>(Arrays.asList("tar", "cf", "-"));
+        tarCommand.addAll(paths);
+        Process process = processBuilderFactory.start(commandCreator.createKubectlExecCommand(pod.getName(),
+                                                                                              pod.getNamespace(),
+                                                                                              container,
+                                                                                              false,
+                                                                                              tarCommand.toArray(new String[0])));
+        StringWriter errorOutput = new StringWriter();
+        new KubernetesProcessBuilderUtilities().attachStreamsToProcess(process, null, errorOutput, null);
+
+        long files;
+        try (InputStream tarStream = process.getInputStream()) {
+            files = TarStreamExtractor.extract(tarStream, podDirectory);
+        } catch (IOException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+        int exitValue = process.waitFor();
+        if (exitValue != 0) {
+            // tar also fails when only some of the paths are missing, the others have been copied
+            log.warn("Retrieved " + files + " files from pod " + pod.getName() + ", but tar has failed (exit code " +
+                     exitValue + "): " + errorOutput.toString().trim());
+            return false;
+        }
+        log.info("Retrieved " + files + " files from pod " + pod.getName() + " into " + podDirectory + '.');
+        return true;
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.artifacts;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * Unpacks a tar stream (ustar, with the GNU long name and pax path extensions) into a directory as its bytes arrive,
+ * without staging the archive. Only regular files and directories are extracted; links and special files are skipped,
+ * as are entries which would land outside of the target directory.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class TarStreamExtractor {
+
+    private static final Logger log = Logger.getLogger(TarStreamExtractor.class);
+
+    private static final int BLOCK_SIZE = 512;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    // Header fields: offset and length
+    private static final int NAME_OFFSET = 0, NAME_LENGTH = 100;
+
+    private static final int MODE_OFFSET = 100, MODE_LENGTH = 8;
+
+    private static final int SIZE_OFFSET = 124, SIZE_LENGTH = 12;
+
+    private static final int TYPE_OFFSET = 156;
+
+    private static final int MAGIC_OFFSET = 257;
+
+    private static final int PREFIX_OFFSET = 345, PREFIX_LENGTH = 155;
+
+    private static final String USTAR_MAGIC = "ustar";
+
+    private static final String PAX_PATH = "path";
+
+    private TarStreamExtractor() {
+    }
+
+    /**
+     * @param from            The tar stream, read up to its end.
+     * @param targetDirectory Directory where the entries are extracted, created if needed.
+     * @return The number of extracted files.
+     */
+    public static long extract(InputStream from, Path targetDirectory) throws IOException {
+        Path root = targetDirectory.toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        byte[] header = new byte[BLOCK_SIZE];
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        String extendedName = null;
+        long files = 0;
+
+        while (readBlock(from, header)) {
+            if (isEndOfArchive(header)) {
+                break;
+            }
+            String name = extendedName != null ? extendedName : getName(header);
+            extendedName = null;
+            long size = parseNumber(header, SIZE_OFFSET, SIZE_LENGTH);
+            char type = (char) header[TYPE_OFFSET];
+
+            switch (type) {
+                case 'L': // GNU long name of the next entry
+                    extendedName = trimNul(readString(from, size));
+                    break;
+                case 'x': // pax extended header of the next entry
+                    extendedName = getPaxPath(readString(from, size));
+                    break;
+                case '5':
+                    Path directory = resolve(root, name);
+                    if (directory != null) {
+                        Files.createDirectories(directory);
+                    }
+                    skip(from, size);
+                    break;
+                case '0':
+                case '\0':
+                case '7':
+                    Path file = resolve(root, name);
+                    if (file == null) {
+                        skip(from, size);
+                        break;
+                    }
+                    Files.createDirectories(file.getParent());
+                    try (OutputStream to = Files.newOutputStream(file)) {
+                        copy(from, to, size, buffer);
+                    }
+                    if ((parseNumber(header, MODE_OFFSET, MODE_LENGTH) & 0100) != 0) {
+                        file.toFile().setExecutable(true);
+                    }
+                    files++;
+                    break;
+                default:
+                    log.debug("Skipping tar entry " + name + " of type " + type + '.');
+                    skip(from, size);
+                    break;
+            }
+            skip(from, padding(size));
+        }
+
+        // Drain the end of the stream so that the producer is never blocked on a full pipe
+        while (from.read(buffer) != -1) {
+            // discarded
+        }
+        return files;
+    }
+
+    private static Path resolve(Path root, String name) {
+        String relativeName = name;
+        while (relativeName.startsWith("/")) {
+            relativeName = relativeName.substring(1);
+        }
+        if (relativeName.isEmpty()) {
+            return null;
+        }
+        Path path = root.resolve(relativeName).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            log.warn("Skipping tar entry " + name + " which is outside of the target directory.");
+            return null;
+        }
+        return path;
+    }
+
+    private static String getName(byte[] header) {
+        String name = readField(header, NAME_OFFSET, NAME_LENGTH);
+        if (readField(header, MAGIC_OFFSET, USTAR_MAGIC.length()).equals(USTAR_MAGIC)) {
+            String prefix = readField(header, PREFIX_OFFSET, PREFIX_LENGTH);
+            if (!prefix.isEmpty()) {
+                return prefix + '/' + name;
+            }
+        }
+        return name;
+    }
+
+    // pax records are "<length> <key>=<value>\n"
+    private static String getPaxPath(String records) {
+        int position = 0;
+        while (position < records.length()) {
+            int space = records.indexOf(' ', position);
+            if (space < 0) {
+                break;
+            }
+            int length = Integer.parseInt(records.substring(position, space));
+            String record = records.substring(space + 1, Math.min(records.length(), position + length - 1));
+            if (record.startsWith(PAX_PATH + '=')) {
+                return record.substring(PAX_PATH.length() + 1);
+            }
+            position += length;
+        }
+        return null;
+    }
+
+    private static long parseNumber(byte[] header, int offset, int length) {
+        if ((header[offset] & 0x80) != 0) {
+            // GNU base-256 encoding of large sizes
+            long value = header[offset] & 0x7f;
+            for (int i = offset + 1; i < offset + length; i++) {
+                value = (value << 8) | (header[i] & 0xff);
+            }
+            return value;
+        }
+        String octal = readField(header, offset, length).trim();
+        return octal.isEmpty() ? 0 : Long.parseLong(octal, 8);
+    }
+
+    private static String readField(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static String readString(InputStream from, long size) throws IOException {
+        byte[] content = new byte[(int) size];
+        readFully(from, content, content.length);
+        return new String(content, StandardCharsets.UTF_8);
+    }
+
+    private static String trimNul(String value) {
+        int nul = value.indexOf('\0');
+        return nul < 0 ? value : value.substring(0, nul);
+    }
+
+    private static boolean readBlock(InputStream from, byte[] block) throws IOException {
+        int read = 0;
+        while (read < block.length) {
+            int count = from.read(block, read, block.length - read);
+            if (count == -1) {
+                if (read > 0) {
+                    throw new EOFException("Truncated tar stream");
+                }
+                return false;
+            }
+            read += count;
+        }
+        return true;
+    }
+
+    private static void readFully(InputStream from, byte[] buffer, int length) throws IOException {
+        int read = 0;
+        while (read < length) {
+            int count = from.read(buffer, read, length - read);
+            if (count == -1) {
+                throw new EOFException("Truncated tar stream");
+            }
+            read += count;
+        }
+    }
+
+    private static boolean isEndOfArchive(byte[] header) {
+        for (byte b : header) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void copy(InputStream from, OutputStream to, long size, byte[] buffer) throws IOException {
+        long remaining = size;
+        while (remaining > 0) {
+            int count = from.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (count == -1) {
+                throw new EOFException("Truncated tar stream");
+            }
+            to.write(buffer, 0, count);
+            remaining -= count;
+        }
+    }
+
+    private static void skip(InputStream from, long size) throws IOException {
+        long remaining = size;
+        byte[] buffer = new byte[(int) Math.min(COPY_BUFFER_SIZE, Math.max(1, size))];
+        while (remaining > 0) {
+            int count = from.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (count == -1) {
+                throw new EOFException("Truncated tar stream");
+            }
+            remaining -= count;
+        }
+    }
+
+    private static long padding(long size) {
+        return (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+    }
+}
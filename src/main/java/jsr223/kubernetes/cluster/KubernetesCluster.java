@@ -0,0 +1,156 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.cluster;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import lombok.Getter;
+
+
+/**
+ * A cluster the tasks can be routed to: a kubeconfig context, with its routing hints and the load the tasks of this
+ * JVM put on it.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesCluster {
+
+    // The kubeconfig context, null for the current context
+    @Getter
+    private final String context;
+
+    // Share of the tasks relative to the other clusters
+    @Getter
+    private final double weight;
+
+    // Maximum number of tasks running at once on the cluster, 0 for no limit
+    @Getter
+    private final int capacity;
+
+    // Maximum number of tasks waiting for their pods to start on the cluster, 0 for no limit
+    @Getter
+    private final int maxPendingTasks;
+
+    @Getter
+    private final KubernetesCommandCreator commandCreator;
+
+    private final AtomicInteger tasks = new AtomicInteger();
+
+    private final AtomicInteger pendingTasks = new AtomicInteger();
+
+    // Health, guarded by the router
+    private int consecutiveFailures = 0;
+
+    // When an unhealthy cluster may be probed again, 0 while the cluster is healthy
+    private long retryTime = 0;
+
+    KubernetesCluster(String context, String kubeconfig, double weight, int capacity, int maxPendingTasks) {
+        this.context = context;
+        this.weight = weight;
+        this.capacity = capacity;
+        this.maxPendingTasks = maxPendingTasks;
+        this.commandCreator = new KubernetesCommandCreator(context, kubeconfig);
+    }
+
+    /**
+     * @return The number of tasks of this JVM running on the cluster.
+     */
+    public int getTasks() {
+        return tasks.get();
+    }
+
+    /**
+     * @return The number of tasks of this JVM whose pods have not started yet on the cluster.
+     */
+    public int getPendingTasks() {
+        return pendingTasks.get();
+    }
+
+    /**
+     * Tasks waiting for their pods weigh twice: they hint that the cluster is short of capacity.
+     */
+    double getLoad() {
+        return (tasks.get() + pendingTasks.get()) / weight;
+    }
+
+    boolean isSaturated() {
+        return (capacity > 0 && tasks.get() >= capacity) || (maxPendingTasks > 0 && pendingTasks.get() >= maxPendingTasks);
+    }
+
+    void addTask() {
+        tasks.incrementAndGet();
+        pendingTasks.incrementAndGet();
+    }
+
+    void startTask() {
+        pendingTasks.decrementAndGet();
+    }
+
+    void removeTask(boolean started) {
+        if (!started) {
+            pendingTasks.decrementAndGet();
+        }
+        tasks.decrementAndGet();
+    }
+
+    boolean isHealthy() {
+        return retryTime == 0;
+    }
+
+    boolean isRetryDue(long now) {
+        return retryTime != 0 && now >= retryTime;
+    }
+
+    long getRetryTime() {
+        return retryTime;
+    }
+
+    void markUnhealthy(long retryTime) {
+        this.retryTime = retryTime;
+        consecutiveFailures++;
+    }
+
+    // Keeps the cluster out of the routing until the given time, without counting a failure
+    void deferRetry(long retryTime) {
+        this.retryTime = retryTime;
+    }
+
+    int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    void markHealthy() {
+        consecutiveFailures = 0;
+        retryTime = 0;
+    }
+
+    @Override
+    public String toString() {
+        return context == null ? "current context" : "context " + context;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.cluster;
+
+import java.io.Closeable;
+
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * The cluster a task runs on, from its routing until the task ends. Closing the lease removes the task from the load
+ * of the cluster.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class KubernetesClusterLease implements Closeable {
+
+    private final KubernetesClusterRouter router;
+
+    @Getter
+    private final KubernetesCluster cluster;
+
+    // Runs the health probes, through the process builder factory of the task
+    private final KubernetesCommandRunner commandRunner;
+
+    // Read on every log line, without locking once set
+    private volatile boolean started = false;
+
+    private boolean closed = false;
+
+    /**
+     * @return The command creator targeting the cluster.
+     */
+    public KubernetesCommandCreator getCommandCreator() {
+        return cluster.getCommandCreator();
+    }
+
+    /**
+     * Tells that the pods of the task have started, e.g. their logs are coming.
+     */
+    public void markStarted() {
+        if (started) {
+            return;
+        }
+        synchronized (this) {
+            if (!closed && !started) {
+                started = true;
+                cluster.startTask();
+            }
+        }
+    }
+
+    /**
+     * Tells that the cluster has handled a request of the task.
+     */
+    public void reportSuccess() {
+        router.reportSuccess(cluster);
+    }
+
+    /**
+     * Tells that a request of the task has failed; the cluster is probed, and skipped for a while if unreachable.
+     */
+    public void reportFailure() throws InterruptedException {
+        router.reportFailure(cluster, commandRunner);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            cluster.removeTask(started);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.cluster;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.Logger;
+
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesPropertyLoader;
+
+
+/**
+ * Spreads the tasks of the JVM over the clusters of the 'kubectl.contexts' property. Each task goes to the least
+ * loaded healthy cluster, relative to its weight, among the ones which are not saturated; the load of a cluster is made
+ * of the tasks of this JVM running on it, the ones still waiting for their pods counting twice.
+ *
+ * A cluster whose requests fail while its API server is not ready is skipped for a while, twice longer after each
+ * failure, and probed again before getting new tasks. Without contexts configured, all the tasks go to the current
+ * context.
+ *
+ * The clusters are configured with the properties:
+ * <ul>
+ * <li>kubectl.contexts: the kubeconfig contexts, comma-separated;</li>
+ * <li>kubectl.context.[CONTEXT].kubeconfig: the kubeconfig file holding the context, the kubectl default one if
+ * missing;</li>
+ * <li>kubectl.context.[CONTEXT].weight: the share of the tasks relative to the other clusters, 1 by default;</li>
+ * <li>kubectl.context.[CONTEXT].capacity: the maximum number of tasks running at once, unlimited by default;</li>
+ * <li>kubectl.context.[CONTEXT].max.pending.tasks: the maximum number of tasks waiting for their pods, unlimited by
+ * default.</li>
+ * </ul>
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesClusterRouter {
+
+    private static final Logger log = Logger.getLogger(KubernetesClusterRouter.class);
+
+    private static final long PROBE_TIMEOUT_SECONDS = 5;
+
+    private static final long MIN_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    // The configured clusters, by order of preference when equally loaded
+    private final List<KubernetesCluster> clusters;
+
+    // The current context, when no cluster is configured
+    private final KubernetesCluster currentContextCluster = new KubernetesCluster(null, null, 1, 0, 0);
+
+    // The contexts pinned by tasks without being configured
+    private final Map<String, KubernetesCluster> pinnedClusters = new ConcurrentHashMap<>();
+
+    private KubernetesClusterRouter() {
+        clusters = Collections.unmodifiableList(KubernetesPropertyLoader.getInstance()
+                                                                        .getKubectlContexts()
+                                                                        .stream()
+                                                                        .map(KubernetesClusterRouter::createCluster)
+                                                                        .collect(Collectors.toList()));
+        if (!clusters.isEmpty()) {
+            log.info("Routing the Kubernetes tasks over " + clusters.size() + " clusters: " +
+                     KubernetesPropertyLoader.getInstance().getKubectlContexts());
+        }
+    }
+
+    public static KubernetesClusterRouter getInstance() {
+        return KubernetesClusterRouterHolder.INSTANCE;
+    }
+
+    /**
+     * Routes a task to a cluster.
+     *
+     * @param pinnedContext The context the task has to run on, or null to let the router choose.
+     * @param commandRunner Runs the health probes of the clusters.
+     * @return The lease of the chosen cluster, to be closed when the task ends.
+     */
+    public KubernetesClusterLease acquire(String pinnedContext, KubernetesCommandRunner commandRunner)
+            throws InterruptedException {
+        KubernetesCluster cluster;
+        if (pinnedContext != null) {
+            cluster = clusters.stream()
+                              .filter(c -> pinnedContext.equals(c.getContext()))
+                              .findFirst()
+                              .orElseGet(() -> pinnedClusters.computeIfAbsent(pinnedContext,
+                                                                              KubernetesClusterRouter::createCluster));
+            synchronized (this) {
+                cluster.addTask();
+            }
+        } else if (clusters.isEmpty()) {
+            cluster = currentContextCluster;
+            synchronized (this) {
+                cluster.addTask();
+            }
+        } else {
+            probeDueClusters(commandRunner);
+            cluster = selectCluster();
+        }
+        log.debug("Task routed to the cluster of " + cluster + ", which now runs " + cluster.getTasks() +
+                  " tasks, " + cluster.getPendingTasks() + " of them pending.");
+        return new KubernetesClusterLease(this, cluster, commandRunner);
+    }
+
+    /**
+     * @return The command creators of the configured clusters, or of the current context when none is configured.
+     */
+    public List<KubernetesCommandCreator> getCommandCreators() {
+        if (clusters.isEmpty()) {
+            return Collections.singletonList(currentContextCluster.getCommandCreator());
+        }
+        return clusters.stream().map(KubernetesCluster::getCommandCreator).collect(Collectors.toList());
+    }
+
+    public List<KubernetesCluster> getClusters() {
+        return clusters;
+    }
+
+    private synchronized KubernetesCluster selectCluster() {
+        KubernetesCluster best = null;
+        KubernetesCluster bestSaturated = null;
+        for (KubernetesCluster cluster : clusters) {
+            if (!cluster.isHealthy()) {
+                continue;
+            }
+            if (cluster.isSaturated()) {
+                if (bestSaturated == null || cluster.getLoad() < bestSaturated.getLoad()) {
+                    bestSaturated = cluster;
+                }
+            } else if (best == null || cluster.getLoad() < best.getLoad()) {
+                best = cluster;
+            }
+        }
+        if (best == null && bestSaturated != null) {
+            log.info("All the healthy clusters are saturated, routing the task to the least loaded one: " +
+                     bestSaturated + '.');
+            best = bestSaturated;
+        }
+        if (best == null) {
+            // No healthy cluster, the one to be probed first is the most likely to be back
+            best = clusters.stream()
+                           .min((c1, c2) -> Long.compare(c1.getRetryTime(), c2.getRetryTime()))
+                           .orElseThrow(IllegalStateException::new);
+            log.warn("No healthy cluster, routing the task to the " + best + ", unhealthy.");
+        }
+        best.addTask();
+        return best;
+    }
+
+    // Probes the unhealthy clusters whose retry time has come, before they get new tasks
+    private void probeDueClusters(KubernetesCommandRunner commandRunner) throws InterruptedException {
+        for (KubernetesCluster cluster : clusters) {
+            synchronized (this) {
+                if (!cluster.isRetryDue(System.currentTimeMillis())) {
+                    continue;
+                }
+                // The other tasks do not probe the cluster meanwhile
+                cluster.deferRetry(System.currentTimeMillis() + MIN_RETRY_DELAY_MILLIS);
+            }
+            if (probe(cluster, commandRunner)) {
+                synchronized (this) {
+                    cluster.markHealthy();
+                }
+                log.info("Cluster of " + cluster + " is healthy again.");
+            } else {
+                markUnhealthy(cluster);
+            }
+        }
+    }
+
+    void reportSuccess(KubernetesCluster cluster) {
+        synchronized (this) {
+            if (cluster.getConsecutiveFailures() == 0) {
+                return;
+            }
+            cluster.markHealthy();
+        }
+        log.info("Cluster of " + cluster + " is healthy again.");
+    }
+
+    void reportFailure(KubernetesCluster cluster, KubernetesCommandRunner commandRunner) throws InterruptedException {
+        // The failure may come from the task itself, e.g. an invalid manifest, the cluster is only skipped if its API
+        // server is not ready
+        if (!probe(cluster, commandRunner)) {
+            markUnhealthy(cluster);
+        }
+    }
+
+    private void markUnhealthy(KubernetesCluster cluster) {
+        long retryDelay;
+        synchronized (this) {
+            int failures = cluster.getConsecutiveFailures() + 1;
+            retryDelay = Math.min(MIN_RETRY_DELAY_MILLIS << Math.min(failures - 1, 10), MAX_RETRY_DELAY_MILLIS);
+            cluster.markUnhealthy(System.currentTimeMillis() + retryDelay);
+        }
+        log.warn("Cluster of " + cluster + " is unhealthy, no task is routed to it for " +
+                 TimeUnit.MILLISECONDS.toSeconds(retryDelay) + " seconds.");
+    }
+
+    private boolean probe(KubernetesCluster cluster, KubernetesCommandRunner commandRunner)
+            throws InterruptedException {
+        try {
+            return commandRunner.run(cluster.getCommandCreator().createKubectlReadinessCommand(PROBE_TIMEOUT_SECONDS))
+                                .isSuccessful();
+        } catch (IOException e) {
+            log.debug("Could not probe the cluster of " + cluster + ": " + e);
+            return false;
+        }
+    }
+
+    private static KubernetesCluster createCluster(String context) {
+        KubernetesPropertyLoader properties = KubernetesPropertyLoader.getInstance();
+        String kubeconfig = properties.getContextProperty(context, "kubeconfig", null);
+        if (kubeconfig != null && kubeconfig.startsWith("~/")) {
+            // kubectl is not run through a shell, the home directory has to be expanded here
+            kubeconfig = System.getProperty("user.home") + kubeconfig.substring(1);
+        }
+        return new KubernetesCluster(context,
+                                     kubeconfig,
+                                     Math.max(Double.MIN_VALUE,
+                                              properties.getContextDoubleProperty(context, "weight", 1)),
+                                     properties.getContextIntProperty(context, "capacity", 0),
+                                     properties.getContextIntProperty(context, "max.pending.tasks", 0));
+    }
+
+    /**
+     * Initializes KubernetesClusterRouter.
+     *
+     * KubernetesClusterRouterHolder is loaded on the first execution of KubernetesClusterRouter.getInstance(),
+     * not before.
+     **/
+    private static class KubernetesClusterRouterHolder {
+        private static final KubernetesClusterRouter INSTANCE = new KubernetesClusterRouter();
+
+        private KubernetesClusterRouterHolder() {
+        }
+    }
+}
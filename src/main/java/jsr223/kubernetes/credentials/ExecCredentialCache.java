@@ -0,0 +1,318 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.credentials;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jsr223.kubernetes.metrics.KubernetesEngineMetrics;
+import jsr223.kubernetes.processbuilder.SingletonKubernetesProcessBuilderFactory;
+import jsr223.kubernetes.utils.KubernetesPropertyLoader;
+
+
+/**
+ * Caches the tokens of the exec credential plugins of the kubeconfig users (cloud IAM token helpers), which kubectl
+ * would otherwise run on each command.
+ *
+ * The plugin of a context is run in the background, then its token is kept until shortly before it expires, when it
+ * is refreshed in the background again. It is handed to kubectl through a kubeconfig made of the context only,
+ * authenticating with the token: it is written to a file only readable by the current user, so the token never
+ * appears on a command line. The commands built before the first token, and those of a context which does not use an
+ * exec plugin or whose plugin fails, keep their own kubeconfig and kubectl authenticates as usual.
+ *
+ * The contexts given without a kubeconfig are read from the kubeconfig kubectl would use: kubectl.config when it is
+ * set, the KUBECONFIG environment variable or ~/.kube/config otherwise. Unless enabled or disabled in the properties,
+ * the cache is only on when kubectl.config is set, or when it resolves to that kubeconfig.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ExecCredentialCache {
+
+    private static final Logger log = Logger.getLogger(ExecCredentialCache.class);
+
+    // Delay before running again a plugin which has failed
+    private static final long FAILURE_RETRY_DELAY = TimeUnit.SECONDS.toMillis(30);
+
+    // A token expiring sooner than the refresh margin is still used for this time, rather than refreshed on each command
+    private static final long MINIMUM_LIFETIME = TimeUnit.SECONDS.toMillis(5);
+
+    private final boolean enabled;
+
+    private final String defaultKubeconfig;
+
+    private final long refreshMargin;
+
+    private final long defaultTtl;
+
+    private final ExecCredentialPlugin plugin;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                     .setNameFormat("k8s-exec-credential-%d")
+                                                                                                     .build());
+
+    // kubeconfig path and context -> cached credential
+    private final Map<String, CachedCredential> credentials = new ConcurrentHashMap<>();
+
+    private final AtomicInteger cachedKubeconfigs = new AtomicInteger();
+
+    // Directory of the kubeconfig files with the cached tokens, created on the first token
+    private Path directory;
+
+    private ExecCredentialCache() {
+        KubernetesPropertyLoader properties = KubernetesPropertyLoader.getInstance();
+        String configuredKubeconfig = expandHome(properties.getKubectlConfig());
+        String effectiveKubeconfig = getEffectiveKubeconfig();
+        boolean sameKubeconfig = configuredKubeconfig != null && effectiveKubeconfig != null &&
+                                 new File(configuredKubeconfig).getAbsoluteFile()
+                                                               .equals(new File(effectiveKubeconfig).getAbsoluteFile());
+        if (properties.getExecCredentialCacheEnabled() != null) {
+            this.enabled = properties.getExecCredentialCacheEnabled();
+        } else {
+            this.enabled = properties.isKubectlConfigSet() || sameKubeconfig;
+            if (!enabled) {
+                log.debug("The exec credentials are not cached: kubectl.config is not set and the KUBECONFIG " +
+                          "environment variable names another kubeconfig.");
+            }
+        }
+        // A default kubectl.config never replaces the kubeconfig kubectl would use
+        this.defaultKubeconfig = properties.isKubectlConfigSet() ? configuredKubeconfig : effectiveKubeconfig;
+        this.refreshMargin = TimeUnit.SECONDS.toMillis(properties.getExecCredentialRefreshMargin());
+        this.defaultTtl = TimeUnit.SECONDS.toMillis(properties.getExecCredentialDefaultTtl());
+        this.plugin = new ExecCredentialPlugin(SingletonKubernetesProcessBuilderFactory.getInstance(),
+                                               properties.getExecCredentialTimeout());
+    }
+
+    public static ExecCredentialCache getInstance() {
+        return ExecCredentialCacheHolder.INSTANCE;
+    }
+
+    /**
+     * Returns the kubeconfig kubectl has to use for a context. The exec plugin of the context is run in the background
+     * when it has no valid cached token, or when it is about to expire; the call never waits for it.
+     *
+     * @param kubeconfig The kubeconfig file of the context, or null for the default kubeconfig.
+     * @param context    The context, or null for the current context of the kubeconfig.
+     * @return The kubeconfig file with the cached token of the context, or the given kubeconfig if the context does
+     * not use an exec plugin or its token could not be cached.
+     */
+    public String getKubeconfig(String kubeconfig, String context) {
+        if (!enabled || (kubeconfig == null && defaultKubeconfig == null)) {
+            return kubeconfig;
+        }
+        File kubeconfigFile = new File(kubeconfig != null ? kubeconfig : defaultKubeconfig).getAbsoluteFile();
+        String cachedKubeconfig = credentials.computeIfAbsent(kubeconfigFile.getPath() + '#' + context,
+                                                              key -> new CachedCredential(kubeconfigFile, context))
+                                             .getKubeconfig();
+        return cachedKubeconfig != null ? cachedKubeconfig : kubeconfig;
+    }
+
+    /**
+     * @return The kubeconfig kubectl reads when none is given: the KUBECONFIG environment variable, or
+     * ~/.kube/config; null if KUBECONFIG lists several files, which kubectl merges.
+     */
+    private static String getEffectiveKubeconfig() {
+        String kubeconfig = System.getenv("KUBECONFIG");
+        if (kubeconfig == null || kubeconfig.isEmpty()) {
+            return System.getProperty("user.home") + "/.kube/config";
+        }
+        return kubeconfig.contains(File.pathSeparator) ? null : kubeconfig;
+    }
+
+    // kubectl is not run through a shell, the home directory has to be expanded here
+    private static String expandHome(String path) {
+        return path != null && path.startsWith("~/") ? System.getProperty("user.home") + path.substring(1) : path;
+    }
+
+    private synchronized Path getDirectory() throws IOException {
+        if (directory == null) {
+            directory = isPosix() ? Files.createTempDirectory("k8s-credentials-",
+                                                              PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")))
+                                  : Files.createTempDirectory("k8s-credentials-");
+            directory.toFile().deleteOnExit();
+        }
+        return directory;
+    }
+
+    private static boolean isPosix() {
+        return FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    }
+
+    /**
+     * The token of a context, and the kubeconfig file holding it.
+     */
+    private class CachedCredential {
+
+        private final File kubeconfigFile;
+
+        private final String context;
+
+        // Modification time of the kubeconfig when it was last read, a change of the user drops the cached token
+        private long kubeconfigModified = -1;
+
+        // null if the context does not use an exec plugin, or no token could be cached
+        private Path cachedKubeconfig;
+
+        private long expiration;
+
+        private long refreshTime;
+
+        // Whether the plugin is running in the background
+        private boolean refreshing = false;
+
+        private CachedCredential(File kubeconfigFile, String context) {
+            this.kubeconfigFile = kubeconfigFile;
+            this.context = context;
+        }
+
+        private synchronized String getKubeconfig() {
+            long now = System.currentTimeMillis();
+            long modified = kubeconfigFile.lastModified();
+            if (modified != kubeconfigModified) {
+                // the token may belong to another user now
+                expiration = 0;
+                refreshTime = 0;
+                kubeconfigModified = modified;
+            }
+            if (now >= refreshTime && !refreshing) {
+                refreshing = true;
+                executor.execute(() -> refresh(modified));
+            }
+            // the previous token is still used until it expires
+            return cachedKubeconfig != null && now < expiration ? cachedKubeconfig.toString() : null;
+        }
+
+        // Runs the plugin, for the kubeconfig modified at the given time
+        private void refresh(long modified) {
+            long now = System.currentTimeMillis();
+            try {
+                KubeconfigContext kubeconfigContext = kubeconfigFile.isFile() ? KubeconfigContext.load(kubeconfigFile,
+                                                                                                       context)
+                                                                              : null;
+                if (kubeconfigContext == null || kubeconfigContext.getExec() == null ||
+                    ExecCredentialPlugin.isInteractive(kubeconfigContext)) {
+                    // nothing to cache until the kubeconfig changes
+                    update(modified, 0, Long.MAX_VALUE);
+                    return;
+                }
+
+                ExecCredentialPlugin.ExecCredential credential = plugin.run(kubeconfigContext);
+                KubernetesEngineMetrics.getInstance().recordExecCredentialRun(true);
+                long tokenExpiration = credential.getExpiration() == null ? now + defaultTtl
+                                                                          : credential.getExpiration().toEpochMilli();
+                synchronized (this) {
+                    if (modified != kubeconfigModified) {
+                        // read from a kubeconfig changed since, refreshed again by the next command
+                        return;
+                    }
+                    if (cachedKubeconfig == null) {
+                        cachedKubeconfig = getDirectory().resolve("kubeconfig-" + cachedKubeconfigs.incrementAndGet());
+                        cachedKubeconfig.toFile().deleteOnExit();
+                    }
+                    write(cachedKubeconfig, kubeconfigContext.toKubeconfig(credential.getToken()));
+                }
+                long tokenRefreshTime = Math.max(now + MINIMUM_LIFETIME, tokenExpiration - refreshMargin);
+                update(modified, tokenExpiration, tokenRefreshTime);
+                log.debug("Cached the exec credential of context " + describe() + " until " +
+                          Instant.ofEpochMilli(tokenRefreshTime));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not cache the exec credential of context " + describe() + ", kubectl will run the plugin: " +
+                         e.getMessage());
+                KubernetesEngineMetrics.getInstance().recordExecCredentialRun(false);
+                synchronized (this) {
+                    if (modified == kubeconfigModified) {
+                        // the previous token is still used until it expires
+                        refreshTime = now + FAILURE_RETRY_DELAY;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // the JVM is stopping
+                Thread.currentThread().interrupt();
+            } finally {
+                synchronized (this) {
+                    refreshing = false;
+                }
+            }
+        }
+
+        private synchronized void update(long modified, long tokenExpiration, long tokenRefreshTime) {
+            if (modified == kubeconfigModified) {
+                expiration = tokenExpiration;
+                refreshTime = tokenRefreshTime;
+            }
+        }
+
+        private String describe() {
+            return (context != null ? context : "(current)") + " of " + kubeconfigFile;
+        }
+    }
+
+    /**
+     * Replaces a file atomically, the content only being readable by the current user.
+     */
+    private static void write(Path file, String content) throws IOException {
+        FileAttribute<?>[] attributes = isPosix() ? new FileAttribute<?>[] { PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")) }
+                                                  : new FileAttribute<?>[0];
+        Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp", attributes);
+        try {
+            try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                writer.write(content);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Initializes ExecCredentialCache on the first execution of ExecCredentialCache.getInstance(), not before.
+     */
+    private static class ExecCredentialCacheHolder {
+        private static final ExecCredentialCache INSTANCE = new ExecCredentialCache();
+
+        private ExecCredentialCacheHolder() {
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.credentials;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderFactory;
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderUtilities;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Runs the exec credential plugin of a kubeconfig user the way kubectl does (client.authentication.k8s.io), and
+ * reads the bearer token it returns.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class ExecCredentialPlugin {
+
+    public static final String EXEC_INFO_ENVIRONMENT_VARIABLE = "KUBERNETES_EXEC_INFO";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String DEFAULT_API_VERSION = "client.authentication.k8s.io/v1beta1";
+
+    @NonNull
+    private final KubernetesProcessBuilderFactory factory;
+
+    private final long timeoutSeconds;
+
+    /**
+     * A bearer token returned by a plugin.
+     */
+    @AllArgsConstructor
+    public static class ExecCredential {
+
+        @Getter
+        private final String token;
+
+        // null if the plugin did not set an expiration
+        @Getter
+        private final Instant expiration;
+    }
+
+    /**
+     * @return Whether kubectl would only run the plugin of the context with a terminal, which the engine cannot give.
+     */
+    public static boolean isInteractive(KubeconfigContext context) {
+        return "Always".equals(context.getExec().get("interactiveMode"));
+    }
+
+    /**
+     * Runs the plugin of a context and reads its credential.
+     *
+     * @throws IOException if the plugin fails, times out or does not return a token (e.g. a client certificate).
+     */
+    public ExecCredential run(KubeconfigContext context) throws IOException, InterruptedException {
+        Map<String, Object> exec = context.getExec();
+        String apiVersion = exec.get("apiVersion") != null ? exec.get("apiVersion").toString() : DEFAULT_API_VERSION;
+
+        List<String> command = new ArrayList<>();
+        command.add(resolveCommand(String.valueOf(exec.get("command")), context.getKubeconfigFile()));
+        if (exec.get("args") instanceof List) {
+            ((List<?>) exec.get("args")).forEach(arg -> command.add(String.valueOf(arg)));
+        }
+
+        ProcessBuilder processBuilder = factory.getProcessBuilder(command.toArray(new String[0]));
+        Map<String, String> environment = processBuilder.environment();
+        if (exec.get("env") instanceof List) {
+            for (Object variable : (List<?>) exec.get("env")) {
+                if (variable instanceof Map) {
+                    Map<?, ?> entry = (Map<?, ?>) variable;
+                    environment.put(String.valueOf(entry.get("name")), String.valueOf(entry.get("value")));
+                }
+            }
+        }
+        environment.put(EXEC_INFO_ENVIRONMENT_VARIABLE, createExecInfo(apiVersion, exec, context));
+
+        Process process = processBuilder.start();
+        // The plugin is not interactive
+        process.getOutputStream().close();
+        StringWriter output = new StringWriter();
+        StringWriter error = new StringWriter();
+        Thread outputPump = startPump(process.getInputStream(), output);
+        Thread errorPump = startPump(process.getErrorStream(), error);
+        try {
+            if (!process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+                throw new IOException("The exec credential plugin " + command.get(0) + " did not complete within " +
+                                      timeoutSeconds + " seconds");
+            }
+            outputPump.join();
+            errorPump.join();
+        } finally {
+            process.destroyForcibly();
+        }
+        if (process.exitValue() != 0) {
+            throw new IOException("The exec credential plugin " + command.get(0) + " exited with " +
+                                  process.exitValue() + ": " + error.toString().trim());
+        }
+        return parseCredential(output.toString(), command.get(0));
+    }
+
+    private static ExecCredential parseCredential(String output, String plugin) throws IOException {
+        Object status = MAPPER.readValue(output, Map.class).get("status");
+        Object token = status instanceof Map ? ((Map<?, ?>) status).get("token") : null;
+        if (token == null || token.toString().isEmpty()) {
+            throw new IOException("The exec credential plugin " + plugin + " did not return a token");
+        }
+        Object expiration = ((Map<?, ?>) status).get("expirationTimestamp");
+        try {
+            return new ExecCredential(token.toString(),
+                                      expiration == null ? null : Instant.parse(expiration.toString()));
+        } catch (DateTimeParseException e) {
+            throw new IOException("The exec credential plugin " + plugin + " returned an invalid expiration: " +
+                                  expiration, e);
+        }
+    }
+
+    private static String createExecInfo(String apiVersion, Map<String, Object> exec, KubeconfigContext context)
+            throws IOException {
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("interactive", false);
+        if (Boolean.TRUE.equals(exec.get("provideClusterInfo"))) {
+            Map<String, Object> cluster = new LinkedHashMap<>();
+            Map<String, Object> kubeconfigCluster = context.getCluster();
+            cluster.put("server", kubeconfigCluster.get("server"));
+            putIfPresent(cluster, "tls-server-name", kubeconfigCluster.get("tls-server-name"));
+            putIfPresent(cluster, "insecure-skip-tls-verify", kubeconfigCluster.get("insecure-skip-tls-verify"));
+            putIfPresent(cluster, "certificate-authority-data", kubeconfigCluster.get("certificate-authority-data"));
+            putIfPresent(cluster, "proxy-url", kubeconfigCluster.get("proxy-url"));
+            spec.put("cluster", cluster);
+        }
+        Map<String, Object> execInfo = new LinkedHashMap<>();
+        execInfo.put("apiVersion", apiVersion);
+        execInfo.put("kind", "ExecCredential");
+        execInfo.put("spec", spec);
+        return MAPPER.writeValueAsString(execInfo);
+    }
+
+    private static void putIfPresent(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    /**
+     * A command with a path separator is relative to the kubeconfig file, as for kubectl; a bare name is looked up in
+     * the PATH.
+     */
+    private static String resolveCommand(String command, File kubeconfigFile) {
+        if (command.contains(File.separator) && !new File(command).isAbsolute()) {
+            return new File(kubeconfigFile.getAbsoluteFile().getParentFile(), command).getPath();
+        }
+        return command;
+    }
+
+    private static Thread startPump(InputStream stream, StringWriter sink) {
+        Thread pump = new Thread(() -> {
+            try {
+                KubernetesProcessBuilderUtilities.pipe(new InputStreamReader(stream, StandardCharsets.UTF_8), sink);
+            } catch (IOException ignored) {
+                // The plugin is failing anyway, its exit value will tell
+            }
+        }, "k8s-exec-credential-pump");
+        pump.setDaemon(true);
+        pump.start();
+        return pump;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.credentials;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.DumperOptions;
+
+import jsr223.kubernetes.utils.KubernetesYaml;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * A context of a kubeconfig file, with its cluster and user. The relative paths of the cluster and user are resolved
+ * against the directory of the kubeconfig file, as kubectl does, so that the context can be written to another file.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class KubeconfigContext {
+
+    private static final List<String> CLUSTER_PATHS = Collections.singletonList("certificate-authority");
+
+    private static final List<String> USER_PATHS = Arrays.asList("client-certificate", "client-key", "tokenFile");
+
+    @Getter
+    private final File kubeconfigFile;
+
+    @Getter
+    private final String name;
+
+    private final Map<String, Object> context;
+
+    @Getter
+    private final String clusterName;
+
+    @Getter
+    private final Map<String, Object> cluster;
+
+    @Getter
+    private final String userName;
+
+    @Getter
+    private final Map<String, Object> user;
+
+    /**
+     * Reads a context of a kubeconfig file.
+     *
+     * @param contextName The context, or null for the current context of the file.
+     * @return The context, or null if the file does not define it.
+     */
+    public static KubeconfigContext load(File kubeconfigFile, String contextName) throws IOException {
+        Object document;
+        try (InputStream input = Files.newInputStream(kubeconfigFile.toPath())) {
+            document = KubernetesYaml.create().load(input);
+        } catch (RuntimeException e) {
+            throw new IOException("Could not parse the kubeconfig file " + kubeconfigFile + ": " + e.getMessage(), e);
+        }
+        if (!(document instanceof Map)) {
+            return null;
+        }
+        Map<?, ?> kubeconfig = (Map<?, ?>) document;
+
+        String name = contextName != null ? contextName : (String) kubeconfig.get("current-context");
+        Map<String, Object> context = getNamedEntry(kubeconfig, "contexts", name, "context");
+        if (context == null) {
+            return null;
+        }
+        String clusterName = (String) context.get("cluster");
+        String userName = (String) context.get("user");
+        Map<String, Object> cluster = getNamedEntry(kubeconfig, "clusters", clusterName, "cluster");
+        Map<String, Object> user = getNamedEntry(kubeconfig, "users", userName, "user");
+        if (cluster == null || user == null) {
+            return null;
+        }
+        File directory = kubeconfigFile.getAbsoluteFile().getParentFile();
+        return new KubeconfigContext(kubeconfigFile,
+                                     name,
+                                     context,
+                                     clusterName,
+                                     resolvePaths(cluster, CLUSTER_PATHS, directory),
+                                     userName,
+                                     resolvePaths(user, USER_PATHS, directory));
+    }
+
+    /**
+     * @return The exec credential plugin of the user, or null if the user does not authenticate with one.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getExec() {
+        Object exec = user.get("exec");
+        return exec instanceof Map ? (Map<String, Object>) exec : null;
+    }
+
+    /**
+     * @return A kubeconfig made of this context only, its user authenticating with the given token instead of its
+     * exec credential plugin.
+     */
+    public String toKubeconfig(String token) {
+        Map<String, Object> tokenUser = new LinkedHashMap<>(user);
+        tokenUser.remove("exec");
+        tokenUser.put("token", token);
+
+        Map<String, Object> kubeconfig = new LinkedHashMap<>();
+        kubeconfig.put("apiVersion", "v1");
+        kubeconfig.put("kind", "Config");
+        kubeconfig.put("clusters", Collections.singletonList(namedEntry(clusterName, "cluster", cluster)));
+        kubeconfig.put("users", Collections.singletonList(namedEntry(userName, "user", tokenUser)));
+        kubeconfig.put("contexts", Collections.singletonList(namedEntry(name, "context", context)));
+        kubeconfig.put("current-context", name);
+
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        return KubernetesYaml.create(options).dump(kubeconfig);
+    }
+
+    private static Map<String, Object> getNamedEntry(Map<?, ?> kubeconfig, String section, String name,
+            String field) {
+        Object entries = kubeconfig.get(section);
+        if (name == null || !(entries instanceof List)) {
+            return null;
+        }
+        for (Object entry : (List<?>) entries) {
+            if (entry instanceof Map && name.equals(((Map<?, ?>) entry).get("name"))) {
+                Object value = ((Map<?, ?>) entry).get(field);
+                if (!(value instanceof Map)) {
+                    return new LinkedHashMap<>();
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> namedEntry = (Map<String, Object>) value;
+                return namedEntry;
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, Object> namedEntry(String name, String field, Map<String, Object> value) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", name);
+        entry.put(field, value);
+        return entry;
+    }
+
+    private static Map<String, Object> resolvePaths(Map<String, Object> entry, List<String> pathFields,
+            File directory) {
+        Map<String, Object> resolved = new LinkedHashMap<>(entry);
+        for (String field : pathFields) {
+            Object path = resolved.get(field);
+            if (path instanceof String && !((String) path).isEmpty() && !new File((String) path).isAbsolute()) {
+                resolved.put(field, new File(directory, (String) path).getPath());
+            }
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.discovery;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jsr223.kubernetes.cluster.KubernetesClusterRouter;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.processbuilder.SingletonKubernetesProcessBuilderFactory;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesPropertyLoader;
+
+
+/**
+ * A node-local kubectl cache directory, shared by all the kubectl commands of the engine instead of the cache of the
+ * user, and kept warm in the background.
+ *
+ * kubectl reads the API discovery of a cluster (its groups and resources) from this cache, and downloads it again
+ * once it is older than its time to live. The engine lists the API resources of its clusters when it is loaded, then
+ * on the refresh interval, so that the commands of the tasks always find a fresh discovery cache. The HTTP responses
+ * of the API server (e.g. the OpenAPI documents) are cached in the same directory.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubectlDiscoveryCache {
+
+    private static final Logger log = Logger.getLogger(KubectlDiscoveryCache.class);
+
+    private static final long REFRESH_TIMEOUT_SECONDS = 30;
+
+    // null to let kubectl use the cache directory of the user
+    private final String directory;
+
+    private final long refreshInterval;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                                           .setNameFormat("k8s-discovery-cache-%d")
+                                                                                                                           .build());
+
+    private KubectlDiscoveryCache() {
+        KubernetesPropertyLoader properties = KubernetesPropertyLoader.getInstance();
+        this.directory = createDirectory(properties.getKubectlCacheDirectory());
+        this.refreshInterval = properties.getKubectlCacheRefreshInterval();
+    }
+
+    public static KubectlDiscoveryCache getInstance() {
+        return KubectlDiscoveryCacheHolder.INSTANCE;
+    }
+
+    /**
+     * @return The cache directory given to kubectl, or null if the engine does not manage one.
+     */
+    public String getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Warms the cache asynchronously, then refreshes it on the refresh interval. Only the first call has an effect.
+     */
+    public void start() {
+        if (directory == null || !started.compareAndSet(false, true)) {
+            return;
+        }
+        if (refreshInterval > 0) {
+            executor.scheduleWithFixedDelay(this::refresh, 0, refreshInterval, TimeUnit.SECONDS);
+        } else {
+            executor.execute(this::refresh);
+        }
+    }
+
+    /**
+     * Downloads again the API discovery of the clusters the tasks are routed to.
+     */
+    private void refresh() {
+        KubernetesCommandRunner commandRunner = new KubernetesCommandRunner(SingletonKubernetesProcessBuilderFactory.getInstance());
+        for (KubernetesCommandCreator commandCreator : KubernetesClusterRouter.getInstance().getCommandCreators()) {
+            String cluster = commandCreator.getContext() != null ? commandCreator.getContext() : "current context";
+            long startTime = System.currentTimeMillis();
+            try {
+                KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlApiResourcesCommand(REFRESH_TIMEOUT_SECONDS));
+                if (result.isSuccessful()) {
+                    log.debug("Refreshed the API discovery cache of the " + cluster + " in " +
+                              (System.currentTimeMillis() - startTime) + " ms");
+                } else {
+                    log.debug("Could not refresh the API discovery cache of the " + cluster + ": " +
+                              result.getError().trim());
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Could not refresh the API discovery cache of the " + cluster + ": " + e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Creates the cache directory, only accessible by the current user. A directory which already exists has to be
+     * owned by the current user and not writable by the others, or the engine would use a cache they can alter.
+     *
+     * @return The cache directory, or null if it is disabled or cannot be used.
+     */
+    private static String createDirectory(String configuredDirectory) {
+        if (configuredDirectory == null || configuredDirectory.isEmpty()) {
+            return null;
+        }
+        if (configuredDirectory.startsWith("~/")) {
+            // kubectl is not run through a shell, the home directory has to be expanded here
+            configuredDirectory = System.getProperty("user.home") + configuredDirectory.substring(1);
+        }
+        Path path = Paths.get(configuredDirectory).toAbsolutePath();
+        try {
+            if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                Files.createDirectories(path);
+                return path.toString();
+            }
+            if (!Files.isDirectory(path)) {
+                Files.createDirectories(path,
+                                        PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            }
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path);
+            String owner = Files.getOwner(path).getName();
+            if (!owner.equals(System.getProperty("user.name")) ||
+                permissions.contains(PosixFilePermission.GROUP_WRITE) ||
+                permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+                log.warn("The kubectl cache directory " + path + " is owned by " + owner + " with permissions " +
+                         PosixFilePermissions.toString(permissions) +
+                         ", kubectl will use the cache directory of the user");
+                return null;
+            }
+            return path.toString();
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("Could not create the kubectl cache directory " + path +
+                     ", kubectl will use the cache directory of the user: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Initializes KubectlDiscoveryCache on the first execution of KubectlDiscoveryCache.getInstance(), not before.
+     */
+    private static class KubectlDiscoveryCacheHolder {
+        private static final KubectlDiscoveryCache INSTANCE = new KubectlDiscoveryCache();
+
+        private KubectlDiscoveryCacheHolder() {
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.logs;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import lombok.Getter;
+
+
+/**
+ * Log sink for large logs: every character goes to an archive file, optionally gzip-compressed on the fly, while the
+ * task writer only gets the first lines, a progress line now and then, and the last lines once the logs are over.
+ *
+ * The archive is buffered: {@link #flush()} does not write to the file, {@link #close()} does, and then writes the
+ * tail of the logs to the task writer, which is left open.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ArchivingLogWriter extends Writer {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Longer lines are truncated in the head and tail, not in the archive
+    private static final int MAX_KEPT_LINE_LENGTH = 4096;
+
+    private final Writer taskWriter;
+
+    @Getter
+    private final Path archive;
+
+    private final int headLines;
+
+    private final int tailLines;
+
+    private final long progressIntervalNanos;
+
+    private final FileChannel fileChannel;
+
+    private final GZIPOutputStream gzipStream;
+
+    private final WritableByteChannel channel;
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                                                                 .onMalformedInput(CodingErrorAction.REPLACE)
+                                                                 .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    // Characters waiting to be encoded, e.g. the first half of a surrogate pair
+    private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE / 4);
+
+    private final ByteBuffer bytes = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private final StringBuilder currentLine = new StringBuilder();
+
+    private final ArrayDeque<String> tail = new ArrayDeque<>();
+
+    @Getter
+    private long lines = 0;
+
+    @Getter
+    private long characters = 0;
+
+    private long lastProgress = System.nanoTime();
+
+    private boolean closed = false;
+
+    /**
+     * @param taskWriter               The task writer.
+     * @param archive                  The archive file, created or truncated.
+     * @param compress                 Whether the archive is gzip-compressed.
+     * @param headLines                Number of first lines written to the task writer.
+     * @param tailLines                Number of last lines written to the task writer.
+     * @param progressIntervalSeconds  Minimum interval between two progress lines written to the task writer.
+     */
+    public ArchivingLogWriter(Writer taskWriter, Path archive, boolean compress, int headLines, int tailLines,
+            long progressIntervalSeconds) throws IOException {
+        this.taskWriter = taskWriter;
+        this.archive = archive;
+        this.headLines = headLines;
+        this.tailLines = tailLines;
+        this.progressIntervalNanos = TimeUnit.SECONDS.toNanos(progressIntervalSeconds);
+        this.fileChannel = FileChannel.open(archive,
+                                            StandardOpenOption.CREATE,
+                                            StandardOpenOption.WRITE,
+                                            StandardOpenOption.TRUNCATE_EXISTING);
+        if (compress) {
+            gzipStream = new GZIPOutputStream(Channels.newOutputStream(fileChannel), BUFFER_SIZE);
+            channel = Channels.newChannel(gzipStream);
+        } else {
+            gzipStream = null;
+            channel = fileChannel;
+        }
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                throw new IOException("Log archive closed: " + archive);
+            }
+            int end = offset + length;
+            while (offset < end) {
+                int count = Math.min(end - offset, chars.remaining());
+                chars.put(buffer, offset, count);
+                trackLines(buffer, offset, count);
+                offset += count;
+                encode(false);
+            }
+            characters += length;
+        }
+    }
+
+    private void encode(boolean endOfInput) throws IOException {
+        chars.flip();
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drainBytes();
+            }
+        } while (result.isOverflow());
+        chars.compact();
+    }
+
+    private void drainBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    private void trackLines(char[] buffer, int offset, int count) throws IOException {
+        for (int i = offset; i < offset + count; i++) {
+            char character = buffer[i];
+            if (character == '\n') {
+                endLine();
+            } else if (character != '\r' && currentLine.length() < MAX_KEPT_LINE_LENGTH) {
+                currentLine.append(character);
+            }
+        }
+    }
+
+    private void endLine() throws IOException {
+        lines++;
+        String line = currentLine.toString();
+        currentLine.setLength(0);
+        if (lines <= headLines) {
+            writeToTask(line);
+            return;
+        }
+        if (tailLines > 0) {
+            if (tail.size() == tailLines) {
+                tail.removeFirst();
+            }
+            tail.addLast(line);
+        }
+        long now = System.nanoTime();
+        if (now - lastProgress >= progressIntervalNanos) {
+            lastProgress = now;
+            writeToTask("[" + lines + " log lines, " + characters + " characters archived to " + archive + "]");
+        }
+    }
+
+    private void writeToTask(String line) throws IOException {
+        taskWriter.write(line);
+        taskWriter.write(System.lineSeparator());
+        taskWriter.flush();
+    }
+
+    /**
+     * Does not write to the archive, which is buffered until it is closed.
+     */
+    @Override
+    public void flush() {
+        // nothing to do
+    }
+
+    /**
+     * Completes the archive, then writes the last lines of the logs to the task writer.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                encode(true);
+                CoderResult result;
+                do {
+                    result = encoder.flush(bytes);
+                    drainBytes();
+                } while (result.isOverflow());
+                if (gzipStream != null) {
+                    gzipStream.finish();
+                }
+            } finally {
+                channel.close();
+                fileChannel.close();
+            }
+
+            if (currentLine.length() > 0) {
+                endLine();
+            }
+            long omitted = lines - Math.min(lines, headLines) - tail.size();
+            if (omitted > 0) {
+                writeToTask("[... " + omitted + " log lines omitted ...]");
+            }
+            for (String line : tail) {
+                writeToTask(line);
+            }
+            writeToTask("[Full log of " + lines + " lines archived to " + archive.toAbsolutePath() + "]");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.logs;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Scans log lines as they are streamed for result markers, e.g. "PA_RESULT score=0.93", and keeps the last value
+ * of each key. Only the matched values are kept, never the logs. The marker pattern is compiled once, its first group
+ * is the key and its second group the value.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class LogResultExtractor implements Consumer<String> {
+
+    public static final String DEFAULT_MARKER = "PA_RESULT";
+
+    public static final String DEFAULT_PATTERN = DEFAULT_MARKER + "\\s+([A-Za-z_][A-Za-z0-9_.-]*)=(.*)";
+
+    private final Pattern pattern;
+
+    // Literal part of every match, checked first so that most lines are skipped without running the pattern
+    private final String marker;
+
+    private final Map<String, String> results = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private LogResultExtractor(Pattern pattern, String marker) {
+        if (pattern.matcher("").groupCount() < 2) {
+            throw new IllegalArgumentException("The result pattern needs a key group and a value group: " + pattern);
+        }
+        this.pattern = pattern;
+        this.marker = marker;
+    }
+
+    /**
+     * @return An extractor of the "PA_RESULT key=value" markers.
+     */
+    public static LogResultExtractor withDefaultPattern() {
+        return new LogResultExtractor(Pattern.compile(DEFAULT_PATTERN), DEFAULT_MARKER);
+    }
+
+    /**
+     * @param regex A regular expression whose first group is the key and second group the value.
+     * @throws IllegalArgumentException if the expression is invalid or does not have two groups.
+     */
+    public static LogResultExtractor withPattern(String regex) {
+        return new LogResultExtractor(Pattern.compile(regex), null);
+    }
+
+    @Override
+    public void accept(String line) {
+        if (marker != null && !line.contains(marker)) {
+            return;
+        }
+        Matcher matcher = pattern.matcher(line);
+        if (matcher.find()) {
+            results.put(matcher.group(1), matcher.group(2).trim());
+        }
+    }
+
+    /**
+     * @return The last value of each key found so far, in the order the keys were first found.
+     */
+    public Map<String, String> getResults() {
+        synchronized (results) {
+            return new LinkedHashMap<>(results);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.logs;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Tells whether a resource whose log stream has ended has completed, or whether the stream was dropped while its
+ * streamed container is still running. A Pod or a Job completes with its streamed container, even when a sidecar
+ * keeps the pod running.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class ResourceCompletion {
+
+    private static final Logger log = Logger.getLogger(ResourceCompletion.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<Map<String, Object>>() {
+    };
+
+    // Label set by the Job controller on the pods of a Job
+    private static final String JOB_NAME_LABEL = "job-name";
+
+    private static final String JOB_CONDITIONS_JSON_PATH = "{.status.conditions[?(@.status==\"True\")].type}";
+
+    @NonNull
+    private KubernetesCommandRunner commandRunner;
+
+    @NonNull
+    private KubernetesCommandCreator commandCreator;
+
+    /**
+     * @return Whether a resource has succeeded, or null while its streamed container is still running.
+     */
+    public Boolean get(KubernetesResource resource) throws InterruptedException {
+        try {
+            switch (resource.getKind().toLowerCase()) {
+                case "job":
+                    return getJobCompletion(resource);
+                case "pod":
+                    return getPodCompletion(resource);
+                default:
+                    // long-running resources (e.g. Deployment) do not complete, their logs ended normally
+                    return true;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not get the status of " + resource.getKind() + '/' + resource.getName() + ": " + e);
+        }
+        // The resource status can also lag behind the end of its logs
+        return null;
+    }
+
+    private Boolean getJobCompletion(KubernetesResource resource) throws IOException, InterruptedException {
+        KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlGetJsonPathCommand(resource.getKind(),
+                                                                                                          resource.getName(),
+                                                                                                          resource.getNamespace(),
+                                                                                                          JOB_CONDITIONS_JSON_PATH));
+        if (!result.isSuccessful()) {
+            return getMissingResourceCompletion(resource, result);
+        }
+        if (result.getOutput().contains("Complete")) {
+            return true;
+        } else if (result.getOutput().contains("Failed")) {
+            return false;
+        }
+
+        // A sidecar keeps the pod, and then the Job, running once the streamed container has terminated. The logs of
+        // a Job are those of its latest pod; only a running one is looked at, a failed pod may be retried by the Job.
+        result = commandRunner.run(commandCreator.createKubectlGetPodsCommand(resource.getNamespace(),
+                                                                              JOB_NAME_LABEL + '=' +
+                                                                                                       resource.getName()));
+        if (!result.isSuccessful()) {
+            return null;
+        }
+        Optional<Map<String, Object>> latestPod = getItems(result.getOutput()).stream()
+                                                                              .max(Comparator.comparing(ResourceCompletion::getCreationTimestamp));
+        if (latestPod.isPresent() && "Running".equals(getPhase(latestPod.get()))) {
+            return StreamedContainer.getTermination(latestPod.get());
+        }
+        return null;
+    }
+
+    private Boolean getPodCompletion(KubernetesResource resource) throws IOException, InterruptedException {
+        KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlGetResourceCommand(resource.getKind(),
+                                                                                                          resource.getName(),
+                                                                                                          resource.getNamespace()));
+        if (!result.isSuccessful()) {
+            return getMissingResourceCompletion(resource, result);
+        }
+        Map<String, Object> pod = MAPPER.readValue(result.getOutput(), JSON_OBJECT);
+        String phase = getPhase(pod);
+        if ("Succeeded".equals(phase)) {
+            return true;
+        } else if ("Failed".equals(phase)) {
+            return false;
+        }
+        return StreamedContainer.getTermination(pod);
+    }
+
+    private static Boolean getMissingResourceCompletion(KubernetesResource resource, KubernetesCommandResult result) {
+        if (result.getError().contains("NotFound")) {
+            log.warn("Kubernetes resource " + resource.getKind() + '/' + resource.getName() +
+                     " was deleted before it completed.");
+            return false;
+        }
+        return null;
+    }
+
+    private static String getPhase(Map<String, Object> pod) {
+        Object status = pod.get("status");
+        return status instanceof Map ? (String) ((Map<?, ?>) status).get("phase") : null;
+    }
+
+    private static String getCreationTimestamp(Map<String, Object> pod) {
+        Object metadata = pod.get("metadata");
+        Object timestamp = metadata instanceof Map ? ((Map<?, ?>) metadata).get("creationTimestamp") : null;
+        // RFC3339 timestamps in UTC sort as strings
+        return timestamp == null ? "" : timestamp.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getItems(String json) throws IOException {
+        Object items = MAPPER.readValue(json, Map.class).get("items");
+        return items instanceof List ? (List<Map<String, Object>>) items : Collections.emptyList();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.logs;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+
+import lombok.Getter;
+
+
+/**
+ * Log stream of a resource followed across several 'kubectl logs --timestamps' connections. The timestamps are
+ * removed from the piped lines and the last one is kept to resume the stream with --since-time after a dropped
+ * connection. Since the API server truncates --since-time to the second, the lines already piped that the new
+ * connection sends again are skipped.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ResumableLogStream {
+
+    // Gets each new line, without its timestamp
+    private final Consumer<String> lineConsumer;
+
+    private Instant lastTimestamp = null;
+
+    // RFC3339 timestamp of the last piped line, as given by kubectl
+    @Getter
+    private String sinceTime = null;
+
+    // Number of lines piped with the last timestamp, which the next connection sends again
+    private int linesAtLastTimestamp = 0;
+
+    @Getter
+    private long lines = 0;
+
+    public ResumableLogStream() {
+        this(line -> {
+        });
+    }
+
+    public ResumableLogStream(Consumer<String> lineConsumer) {
+        this.lineConsumer = lineConsumer;
+    }
+
+    /**
+     * Pipes the lines of a new connection to a writer, without their timestamps and skipping those already piped by
+     * the previous connections. Lines are written atomically with respect to other threads piping to the same
+     * writer.
+     *
+     * @param from       Output of 'kubectl logs --timestamps'.
+     * @param to         Sink of the log lines.
+     * @param linePrefix Prefix added to every line.
+     * @return The number of characters piped, prefixes excluded.
+     * @throws IOException
+     */
+    public long pipe(Reader from, Writer to, String linePrefix) throws IOException {
+        Instant resumeTimestamp = lastTimestamp;
+        int linesToSkip = linesAtLastTimestamp;
+        long count = 0;
+        try (BufferedReader reader = new BufferedReader(from)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(' ');
+                Instant timestamp = separator > 0 ? parseTimestamp(line.substring(0, separator)) : null;
+                String content = line;
+                if (timestamp != null) {
+                    content = line.substring(separator + 1);
+                    if (resumeTimestamp != null) {
+                        int order = timestamp.compareTo(resumeTimestamp);
+                        if (order < 0) {
+                            // already piped by a previous connection
+                            continue;
+                        } else if (order == 0 && linesToSkip > 0) {
+                            linesToSkip--;
+                            continue;
+                        }
+                        resumeTimestamp = null;
+                    }
+                    if (timestamp.equals(lastTimestamp)) {
+                        linesAtLastTimestamp++;
+                    } else {
+                        lastTimestamp = timestamp;
+                        sinceTime = line.substring(0, separator);
+                        linesAtLastTimestamp = 1;
+                    }
+                }
+                lines++;
+                count += content.length() + 1;
+                lineConsumer.accept(content);
+                synchronized (to) {
+                    to.write(linePrefix);
+                    to.write(content);
+                    to.write(System.lineSeparator());
+                    to.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private static Instant parseTimestamp(String text) {
+        try {
+            return Instant.parse(text);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.logs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.log4j.Logger;
+
+import jsr223.kubernetes.metrics.KubernetesEngineMetrics;
+
+
+/**
+ * Decouples the kubectl log pumps from a slow task writer. Written characters go to a fixed-size in-memory ring;
+ * when the ring is full they are spilled to a local file, and a drainer thread writes everything to the task writer
+ * in order. Writers are only blocked when the spill file reaches its own limit, so a slow log forwarding never fills
+ * the kubectl pipe up to the point of timing out the log connection.
+ *
+ * {@link #flush()} does not wait for the task writer, {@link #close()} does: it returns once every character has
+ * been written to the task writer, which is left open.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class SpillingLogWriter extends Writer {
+
+    private static final Logger log = Logger.getLogger(SpillingLogWriter.class);
+
+    private static final int DRAIN_CHUNK_SIZE = 8192;
+
+    private static final String SPILL_FILE_PREFIX = "k8s-logs-";
+
+    private static final String SPILL_FILE_SUFFIX = ".spill";
+
+    private final Writer target;
+
+    // Maximum number of characters waiting in the spill file
+    private final long spillCapacity;
+
+    private final File spillDirectory;
+
+    private final KubernetesEngineMetrics metrics = KubernetesEngineMetrics.getInstance();
+
+    private final char[] ring;
+
+    private int ringStart = 0;
+
+    private int ringSize = 0;
+
+    // Spilled characters are stored in UTF-16, two bytes each, so that their positions in the file are known
+    private FileChannel spillChannel = null;
+
+    private long spillWritten = 0;
+
+    private long spillRead = 0;
+
+    private boolean closed = false;
+
+    private IOException drainFailure = null;
+
+    private final Thread drainer;
+
+    /**
+     * @param target         The task writer.
+     * @param memoryCapacity Size of the in-memory ring, in characters.
+     * @param spillCapacity  Maximum number of characters waiting in the spill file.
+     * @param spillDirectory Directory of the spill file, created when the ring is full for the first time.
+     */
+    public SpillingLogWriter(Writer target, int memoryCapacity, long spillCapacity, File spillDirectory) {
+        this.target = target;
+        this.ring = new char[Math.max(1, memoryCapacity)];
+        this.spillCapacity = spillCapacity;
+        this.spillDirectory = spillDirectory;
+        this.drainer = new Thread(this::drain, "k8s-log-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException {
+        synchronized (lock) {
+            while (length > 0) {
+                if (closed) {
+                    throw new IOException("Log writer closed");
+                }
+                if (drainFailure != null) {
+                    throw drainFailure;
+                }
+                if (spillWritten == spillRead && ringSize < ring.length) {
+                    // nothing spilled: the ring holds the oldest characters
+                    int count = Math.min(length, ring.length - ringSize);
+                    int end = (ringStart + ringSize) % ring.length;
+                    int firstPart = Math.min(count, ring.length - end);
+                    System.arraycopy(buffer, offset, ring, end, firstPart);
+                    System.arraycopy(buffer, offset + firstPart, ring, 0, count - firstPart);
+                    ringSize += count;
+                    offset += count;
+                    length -= count;
+                } else {
+                    // the ring is full, or characters are already spilled: append to the spill file to keep the order
+                    long room = spillCapacity - (spillWritten - spillRead);
+                    if (room <= 0) {
+                        metrics.recordLogBufferStall();
+                        waitForDrainer();
+                        continue;
+                    }
+                    int count = (int) Math.min(length, room);
+                    spill(buffer, offset, count);
+                    offset += count;
+                    length -= count;
+                }
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void spill(char[] buffer, int offset, int count) throws IOException {
+        if (spillChannel == null) {
+            Path spillFile = Files.createTempFile(spillDirectory.toPath(), SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+            log.debug("Task writer is slower than the logs, spilling them to " + spillFile);
+            spillChannel = FileChannel.open(spillFile,
+                                            StandardOpenOption.READ,
+                                            StandardOpenOption.WRITE,
+                                            StandardOpenOption.DELETE_ON_CLOSE);
+        }
+        if (spillWritten == 0) {
+            metrics.recordLogSpill();
+        }
+        ByteBuffer bytes = ByteBuffer.allocate(count * 2);
+        bytes.asCharBuffer().put(buffer, offset, count);
+        long position = spillWritten * 2;
+        while (bytes.hasRemaining()) {
+            position += spillChannel.write(bytes, position);
+        }
+        spillWritten += count;
+        metrics.recordLogSpilledCharacters(count);
+    }
+
+    private void drain() {
+        char[] chunk = new char[DRAIN_CHUNK_SIZE];
+        ByteBuffer bytes = ByteBuffer.allocate(DRAIN_CHUNK_SIZE * 2);
+        try {
+            while (true) {
+                int count;
+                long spillPosition = -1;
+                synchronized (lock) {
+                    while (ringSize == 0 && spillRead == spillWritten && !closed) {
+                        lock.wait();
+                    }
+                    if (ringSize > 0) {
+                        count = Math.min(Math.min(ringSize, DRAIN_CHUNK_SIZE), ring.length - ringStart);
+                        System.arraycopy(ring, ringStart, chunk, 0, count);
+                        ringStart = (ringStart + count) % ring.length;
+                        ringSize -= count;
+                        lock.notifyAll();
+                    } else if (spillRead < spillWritten) {
+                        count = (int) Math.min(spillWritten - spillRead, DRAIN_CHUNK_SIZE);
+                        spillPosition = spillRead;
+                    } else {
+                        // closed and fully drained
+                        return;
+                    }
+                }
+
+                if (spillPosition >= 0) {
+                    // the spilled characters are not written anymore, they can be read without the lock
+                    bytes.clear();
+                    bytes.limit(count * 2);
+                    while (bytes.hasRemaining()) {
+                        spillChannel.read(bytes, spillPosition * 2 + bytes.position());
+                    }
+                    bytes.flip();
+                    bytes.asCharBuffer().get(chunk, 0, count);
+                    synchronized (lock) {
+                        spillRead += count;
+                        if (spillRead == spillWritten) {
+                            // caught up: back to the ring, the spill file is reused from its start
+                            spillRead = 0;
+                            spillWritten = 0;
+                            spillChannel.truncate(0);
+                        }
+                        lock.notifyAll();
+                    }
+                }
+
+                target.write(chunk, 0, count);
+                target.flush();
+            }
+        } catch (IOException e) {
+            synchronized (lock) {
+                drainFailure = e;
+                lock.notifyAll();
+            }
+        } catch (InterruptedException e) {
+            synchronized (lock) {
+                drainFailure = new InterruptedIOException("Log drainer interrupted");
+                lock.notifyAll();
+            }
+        }
+    }
+
+    private void waitForDrainer() throws InterruptedIOException {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted when waiting for the task writer");
+        }
+    }
+
+    /**
+     * Does not wait for the task writer, the drainer flushes it after each write.
+     */
+    @Override
+    public void flush() {
+        // nothing to do
+    }
+
+    /**
+     * Waits until every character has been written to the task writer, then releases the spill file.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            drainer.join();
+        } catch (InterruptedException e) {
+            drainer.interrupt();
+            Thread.currentThread().interrupt();
+        } finally {
+            if (spillChannel != null) {
+                spillChannel.close();
+            }
+        }
+        if (drainFailure != null) {
+            throw drainFailure;
+        }
+    }
+}
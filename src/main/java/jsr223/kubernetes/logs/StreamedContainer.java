@@ -0,0 +1,109 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.logs;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * The container of a pod whose logs 'kubectl logs' streams when no container is given: the one named by the
+ * default-container annotation, or else the first container of the pod.
+ *
+ * A pod with a sidecar keeps running once its streamed container has terminated, so the end of the logs is told by
+ * the state of the streamed container rather than by the phase of the pod.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class StreamedContainer {
+
+    public static final String DEFAULT_CONTAINER_ANNOTATION = "kubectl.kubernetes.io/default-container";
+
+    private StreamedContainer() {
+    }
+
+    /**
+     * @param pod A pod, as returned by 'kubectl get -o json'.
+     * @return The name of the container streamed by 'kubectl logs', or null if the pod has no container.
+     */
+    public static String getName(Map<String, Object> pod) {
+        List<Map<String, Object>> containers = getList(getMap(pod, "spec"), "containers");
+        Object annotation = getMap(getMap(pod, "metadata"), "annotations").get(DEFAULT_CONTAINER_ANNOTATION);
+        if (annotation != null &&
+            containers.stream().anyMatch(container -> annotation.equals(container.get("name")))) {
+            return annotation.toString();
+        }
+        return containers.isEmpty() ? null : String.valueOf(containers.get(0).get("name"));
+    }
+
+    /**
+     * @param pod A pod, as returned by 'kubectl get -o json'.
+     * @return Whether the streamed container has terminated successfully, or null while it has not terminated.
+     */
+    public static Boolean getTermination(Map<String, Object> pod) {
+        String name = getName(pod);
+        for (Map<String, Object> status : getList(getMap(pod, "status"), "containerStatuses")) {
+            if (name != null && name.equals(status.get("name"))) {
+                Map<String, Object> terminated = getMap(getMap(status, "state"), "terminated");
+                if (terminated.isEmpty()) {
+                    return null;
+                }
+                Object exitCode = terminated.get("exitCode");
+                return exitCode instanceof Number && ((Number) exitCode).intValue() == 0;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param pod       A pod, as returned by 'kubectl get -o json'.
+     * @param container A container of the pod, null for the streamed one.
+     * @return Whether the container is running, so that it can be exec'ed into.
+     */
+    public static boolean isRunning(Map<String, Object> pod, String container) {
+        String name = container != null ? container : getName(pod);
+        for (Map<String, Object> status : getList(getMap(pod, "status"), "containerStatuses")) {
+            if (name != null && name.equals(status.get("name"))) {
+                return getMap(status, "state").containsKey("running");
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Map<String, Object> parent, String field) {
+        Object value = parent.get(field);
+        return value instanceof Map ? (Map<String, Object>) value : Collections.emptyMap();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getList(Map<String, Object> parent, String field) {
+        Object value = parent.get(field);
+        return value instanceof List ? (List<Map<String, Object>>) value : Collections.emptyList();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.metrics;
+
+/**
+ * Measures a phase of the script engine: its latency goes to the engine metrics and a JFR event covers it.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class EnginePhaseTimer {
+
+    private final String phase;
+
+    private final long startTime;
+
+    private final FlightRecorderEvent event;
+
+    private EnginePhaseTimer(String phase) {
+        this.phase = phase;
+        this.startTime = System.nanoTime();
+        this.event = KubernetesFlightRecorder.beginEnginePhase(phase);
+    }
+
+    public static EnginePhaseTimer start(String phase) {
+        return new EnginePhaseTimer(phase);
+    }
+
+    public void stop() {
+        KubernetesEngineMetrics.getInstance().recordPhase(phase, System.nanoTime() - startTime);
+        event.commit();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.metrics;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * A Java Flight Recorder event being recorded: it starts when created and is committed by {@link #commit()}. On JVMs
+ * without JFR support, events are no-ops.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class FlightRecorderEvent {
+
+    private static final Logger log = Logger.getLogger(FlightRecorderEvent.class);
+
+    static final FlightRecorderEvent NO_OP = new FlightRecorderEvent(null, null, null, null, null);
+
+    // jdk.jfr.Event instance, null for no-op events
+    private final Object event;
+
+    private final List<String> fieldNames;
+
+    private final Method set;
+
+    private final Method end;
+
+    private final Method commit;
+
+    FlightRecorderEvent(Object event, List<String> fieldNames, Method set, Method end, Method commit) {
+        this.event = event;
+        this.fieldNames = fieldNames;
+        this.set = set;
+        this.end = end;
+        this.commit = commit;
+    }
+
+    public FlightRecorderEvent set(String fieldName, Object value) {
+        int index = event == null ? -1 : fieldNames.indexOf(fieldName);
+        if (index >= 0 && value != null) {
+            try {
+                set.invoke(event, index, value);
+            } catch (ReflectiveOperationException | IllegalArgumentException e) {
+                log.trace("Could not set field " + fieldName + " of JFR event", e);
+            }
+        }
+        return this;
+    }
+
+    public void commit() {
+        if (event != null) {
+            try {
+                end.invoke(event);
+                commit.invoke(event);
+            } catch (ReflectiveOperationException e) {
+                log.trace("Could not commit JFR event", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * JVM-wide counters and latency histograms of the Kubernetes script engine, registered as an MXBean named
+ * {@value #OBJECT_NAME}.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesEngineMetrics implements KubernetesEngineMetricsMXBean {
+
+    private static final Logger log = Logger.getLogger(KubernetesEngineMetrics.class);
+
+    public static final String OBJECT_NAME = "jsr223.kubernetes:type=KubernetesEngineMetrics";
+
+    // Script engine phases
+    public static final String PHASE_EVAL = "eval";
+
+    public static final String PHASE_SUBSTITUTION = "substitution";
+
+    public static final String PHASE_VALIDATION = "validation";
+
+    public static final String PHASE_SIZING = "sizing";
+
+    public static final String PHASE_MANIFEST_WRITE = "manifest-write";
+
+    public static final String PHASE_ADMISSION = "admission";
+
+    public static final String PHASE_CREATE = "create";
+
+    public static final String PHASE_APPLY = "apply";
+
+    public static final String PHASE_LOG_WAIT = "log-wait";
+
+    public static final String PHASE_LOG_STREAMING = "log-streaming";
+
+    public static final String PHASE_EXEC = "exec";
+
+    public static final String PHASE_TIMELINE = "timeline";
+
+    public static final String PHASE_ARTIFACTS = "artifacts";
+
+    public static final String PHASE_INPUT_STAGING = "input-staging";
+
+    public static final String PHASE_DELETE = "delete";
+
+    private static final KubernetesEngineMetrics INSTANCE = new KubernetesEngineMetrics();
+
+    private final Map<String, LatencyHistogram> phaseLatencies = new ConcurrentHashMap<>();
+
+    private final Map<String, LatencyHistogram> kubectlLatencies = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> kubectlFailures = new ConcurrentHashMap<>();
+
+    private final LongAdder forkFailures = new LongAdder();
+
+    private final LongAdder logWaitRetries = new LongAdder();
+
+    private final LongAdder logResumes = new LongAdder();
+
+    private final LongAdder pumpedCharacters = new LongAdder();
+
+    private final LongAdder logSpills = new LongAdder();
+
+    private final LongAdder logSpilledCharacters = new LongAdder();
+
+    private final LongAdder logBufferStalls = new LongAdder();
+
+    private final LongAdder inputUploads = new LongAdder();
+
+    private final LongAdder inputUploadedBytes = new LongAdder();
+
+    private final LongAdder inputCacheHits = new LongAdder();
+
+    private final LongAdder cancellations = new LongAdder();
+
+    private final LongAdder destroyedProcesses = new LongAdder();
+
+    private final LongAdder usageSamplings = new LongAdder();
+
+    private final LongAdder sampledPods = new LongAdder();
+
+    private final LongAdder execCredentialRuns = new LongAdder();
+
+    private final LongAdder execCredentialFailures = new LongAdder();
+
+    private KubernetesEngineMetrics() {
+    }
+
+    public static KubernetesEngineMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, once.
+     */
+    public static synchronized void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException | SecurityException e) {
+            log.warn("Could not register the Kubernetes script engine metrics MBean: " + e);
+        }
+    }
+
+    public void recordPhase(String phase, long nanos) {
+        phaseLatencies.computeIfAbsent(phase, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    public void recordKubectl(String verb, long nanos, int exitValue) {
+        kubectlLatencies.computeIfAbsent(verb, k -> new LatencyHistogram()).record(nanos);
+        if (exitValue != 0) {
+            kubectlFailures.computeIfAbsent(verb, k -> new LongAdder()).increment();
+        }
+    }
+
+    public void recordForkFailure() {
+        forkFailures.increment();
+    }
+
+    public void recordLogWaitRetry() {
+        logWaitRetries.increment();
+    }
+
+    public void recordLogResume() {
+        logResumes.increment();
+    }
+
+    public void recordPumpedCharacters(long characters) {
+        pumpedCharacters.add(characters);
+    }
+
+    public void recordLogSpill() {
+        logSpills.increment();
+    }
+
+    public void recordLogSpilledCharacters(long characters) {
+        logSpilledCharacters.add(characters);
+    }
+
+    public void recordLogBufferStall() {
+        logBufferStalls.increment();
+    }
+
+    public void recordInputUpload(long bytes) {
+        inputUploads.increment();
+        inputUploadedBytes.add(bytes);
+    }
+
+    public void recordInputCacheHit() {
+        inputCacheHits.increment();
+    }
+
+    public void recordCancellation(int processes) {
+        cancellations.increment();
+        destroyedProcesses.add(processes);
+    }
+
+    public void recordUsageSampling(int pods) {
+        usageSamplings.increment();
+        sampledPods.add(pods);
+    }
+
+    public void recordExecCredentialRun(boolean successful) {
+        execCredentialRuns.increment();
+        if (!successful) {
+            execCredentialFailures.increment();
+        }
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getPhaseLatencies() {
+        return snapshot(phaseLatencies);
+    }
+
+    @Override
+    public Map<String, LatencySnapshot> getKubectlLatencies() {
+        return snapshot(kubectlLatencies);
+    }
+
+    @Override
+    public Map<String, Long> getKubectlFailures() {
+        Map<String, Long> failures = new TreeMap<>();
+        kubectlFailures.forEach((verb, count) -> failures.put(verb, count.sum()));
+        return failures;
+    }
+
+    @Override
+    public long getForkFailures() {
+        return forkFailures.sum();
+    }
+
+    @Override
+    public long getLogWaitRetries() {
+        return logWaitRetries.sum();
+    }
+
+    @Override
+    public long getLogResumes() {
+        return logResumes.sum();
+    }
+
+    @Override
+    public long getPumpedCharacters() {
+        return pumpedCharacters.sum();
+    }
+
+    @Override
+    public long getLogSpills() {
+        return logSpills.sum();
+    }
+
+    @Override
+    public long getLogSpilledCharacters() {
+        return logSpilledCharacters.sum();
+    }
+
+    @Override
+    public long getLogBufferStalls() {
+        return logBufferStalls.sum();
+    }
+
+    @Override
+    public long getInputUploads() {
+        return inputUploads.sum();
+    }
+
+    @Override
+    public long getInputUploadedBytes() {
+        return inputUploadedBytes.sum();
+    }
+
+    @Override
+    public long getInputCacheHits() {
+        return inputCacheHits.sum();
+    }
+
+    @Override
+    public long getCancellations() {
+        return cancellations.sum();
+    }
+
+    @Override
+    public long getDestroyedProcesses() {
+        return destroyedProcesses.sum();
+    }
+
+    @Override
+    public long getUsageSamplings() {
+        return usageSamplings.sum();
+    }
+
+    @Override
+    public long getSampledPods() {
+        return sampledPods.sum();
+    }
+
+    @Override
+    public long getExecCredentialRuns() {
+        return execCredentialRuns.sum();
+    }
+
+    @Override
+    public long getExecCredentialFailures() {
+        return execCredentialFailures.sum();
+    }
+
+    @Override
+    public void reset() {
+        phaseLatencies.clear();
+        kubectlLatencies.clear();
+        kubectlFailures.clear();
+        forkFailures.reset();
+        logWaitRetries.reset();
+        logResumes.reset();
+        pumpedCharacters.reset();
+        logSpills.reset();
+        logSpilledCharacters.reset();
+        logBufferStalls.reset();
+        inputUploads.reset();
+        inputUploadedBytes.reset();
+        inputCacheHits.reset();
+        cancellations.reset();
+        destroyedProcesses.reset();
+        usageSamplings.reset();
+        sampledPods.reset();
+        execCredentialRuns.reset();
+        execCredentialFailures.reset();
+    }
+
+    private static Map<String, LatencySnapshot> snapshot(Map<String, LatencyHistogram> histograms) {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+        return snapshots;
+    }
+}
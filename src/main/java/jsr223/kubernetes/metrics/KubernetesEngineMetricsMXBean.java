@@ -0,0 +1,136 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.metrics;
+
+import java.util.Map;
+
+
+/**
+ * JMX view of the Kubernetes script engine metrics.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public interface KubernetesEngineMetricsMXBean {
+
+    /**
+     * @return The latencies of the script engine phases (substitution, manifest write, create, log streaming...).
+     */
+    Map<String, LatencySnapshot> getPhaseLatencies();
+
+    /**
+     * @return The latencies of the kubectl commands, by kubectl verb (create, logs, delete...).
+     */
+    Map<String, LatencySnapshot> getKubectlLatencies();
+
+    /**
+     * @return The number of kubectl commands which exited with a non-zero code, by kubectl verb.
+     */
+    Map<String, Long> getKubectlFailures();
+
+    /**
+     * @return The number of kubectl commands which could not be started at all.
+     */
+    long getForkFailures();
+
+    /**
+     * @return The number of 'kubectl logs' attempts made before the resources were ready to stream their logs.
+     */
+    long getLogWaitRetries();
+
+    /**
+     * @return The number of log streams resumed after they ended before the containers of their resource terminated.
+     */
+    long getLogResumes();
+
+    /**
+     * @return The number of characters pumped from the outputs of the kubectl processes.
+     */
+    long getPumpedCharacters();
+
+    /**
+     * @return The number of times the task writer fell behind the logs by more than the log buffer memory size, so
+     * that the logs were spilled to disk.
+     */
+    long getLogSpills();
+
+    /**
+     * @return The number of log characters spilled to disk.
+     */
+    long getLogSpilledCharacters();
+
+    /**
+     * @return The number of times the log pumps were blocked because the log spill file was full.
+     */
+    long getLogBufferStalls();
+
+    /**
+     * @return The number of task input archives uploaded to the cluster.
+     */
+    long getInputUploads();
+
+    /**
+     * @return The number of compressed bytes of the uploaded task input archives.
+     */
+    long getInputUploadedBytes();
+
+    /**
+     * @return The number of task input archives not uploaded because the cluster already had them.
+     */
+    long getInputCacheHits();
+
+    /**
+     * @return The number of tasks interrupted while they had kubectl commands running.
+     */
+    long getCancellations();
+
+    /**
+     * @return The number of kubectl commands destroyed by the interruption of their task.
+     */
+    long getDestroyedProcesses();
+
+    /**
+     * @return The number of reads of the pod metrics of a namespace, shared by the tasks running in it.
+     */
+    long getUsageSamplings();
+
+    /**
+     * @return The number of pod usage samples dispatched to the tasks.
+     */
+    long getSampledPods();
+
+    /**
+     * @return The number of runs of the exec credential plugins of the kubeconfig users, one per token cached.
+     */
+    long getExecCredentialRuns();
+
+    /**
+     * @return The number of runs of the exec credential plugins which did not return a token.
+     */
+    long getExecCredentialFailures();
+
+    void reset();
+}
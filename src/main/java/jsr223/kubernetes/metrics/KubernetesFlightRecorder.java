@@ -0,0 +1,224 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.metrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.apache.log4j.Logger;
+
+
+/**
+ * Custom Java Flight Recorder events of the Kubernetes script engine: one per kubectl process, one per engine phase
+ * and one per log pump session, each tagged with the ProActive job and task ids. The events are defined at runtime
+ * through the jdk.jfr API, so that the engine still runs (without events) on JVMs which do not provide it.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesFlightRecorder {
+
+    private static final Logger log = Logger.getLogger(KubernetesFlightRecorder.class);
+
+    public static final String FIELD_JOB_ID = "jobId";
+
+    public static final String FIELD_TASK_ID = "taskId";
+
+    public static final String FIELD_VERB = "verb";
+
+    public static final String FIELD_RESOURCE = "resource";
+
+    public static final String FIELD_EXIT_VALUE = "exitValue";
+
+    public static final String FIELD_OUTPUT_BYTES = "outputBytes";
+
+    public static final String FIELD_PHASE = "phase";
+
+    public static final String FIELD_CHARACTERS = "characters";
+
+    private static final EventType KUBECTL_PROCESS = new EventType("jsr223.kubernetes.KubectlProcess",
+                                                                   "Kubectl Process",
+                                                                   new String[] { FIELD_JOB_ID, FIELD_TASK_ID,
+                                                                                  FIELD_VERB, FIELD_RESOURCE,
+                                                                                  FIELD_EXIT_VALUE,
+                                                                                  FIELD_OUTPUT_BYTES },
+                                                                   new Class<?>[] { String.class, String.class,
+                                                                                    String.class, String.class,
+                                                                                    int.class, long.class });
+
+    private static final EventType ENGINE_PHASE = new EventType("jsr223.kubernetes.EnginePhase",
+                                                                "Kubernetes Engine Phase",
+                                                                new String[] { FIELD_JOB_ID, FIELD_TASK_ID,
+                                                                               FIELD_PHASE },
+                                                                new Class<?>[] { String.class, String.class,
+                                                                                 String.class });
+
+    private static final EventType LOG_PUMP = new EventType("jsr223.kubernetes.LogPump",
+                                                            "Kubernetes Log Pump",
+                                                            new String[] { FIELD_JOB_ID, FIELD_TASK_ID,
+                                                                           FIELD_RESOURCE, FIELD_CHARACTERS },
+                                                            new Class<?>[] { String.class, String.class,
+                                                                             String.class, long.class });
+
+    // Job and task ids of the task evaluated by the current thread
+    private static final ThreadLocal<String[]> TASK_IDS = new ThreadLocal<>();
+
+    private KubernetesFlightRecorder() {
+    }
+
+    public static void setTaskIds(String jobId, String taskId) {
+        TASK_IDS.set(new String[] { jobId, taskId });
+    }
+
+    public static void clearTaskIds() {
+        TASK_IDS.remove();
+    }
+
+    /**
+     * Makes the given callable run with the job and task ids of the current thread, e.g. in an executor thread.
+     */
+    public static <T> Callable<T> withTaskIds(Callable<T> callable) {
+        String[] taskIds = TASK_IDS.get();
+        return () -> {
+            String[] previousTaskIds = TASK_IDS.get();
+            TASK_IDS.set(taskIds);
+            try {
+                return callable.call();
+            } finally {
+                TASK_IDS.set(previousTaskIds);
+            }
+        };
+    }
+
+    /**
+     * Makes the given runnable run with the job and task ids of the current thread, e.g. in a scheduled executor.
+     */
+    public static Runnable withTaskIds(Runnable runnable) {
+        String[] taskIds = TASK_IDS.get();
+        return () -> {
+            String[] previousTaskIds = TASK_IDS.get();
+            TASK_IDS.set(taskIds);
+            try {
+                runnable.run();
+            } finally {
+                TASK_IDS.set(previousTaskIds);
+            }
+        };
+    }
+
+    public static FlightRecorderEvent beginKubectlProcess(String verb, String resource) {
+        return KUBECTL_PROCESS.begin().set(FIELD_VERB, verb).set(FIELD_RESOURCE, resource);
+    }
+
+    public static FlightRecorderEvent beginEnginePhase(String phase) {
+        return ENGINE_PHASE.begin().set(FIELD_PHASE, phase);
+    }
+
+    public static FlightRecorderEvent beginLogPump(String resource) {
+        return LOG_PUMP.begin().set(FIELD_RESOURCE, resource);
+    }
+
+    /**
+     * An event type defined through jdk.jfr.EventFactory, or a no-op type if it is not available.
+     */
+    private static class EventType {
+
+        private final List<String> fieldNames;
+
+        private Object eventFactory;
+
+        private Method newEvent;
+
+        private Method begin;
+
+        private Method set;
+
+        private Method end;
+
+        private Method commit;
+
+        @SuppressWarnings("unchecked")
+        EventType(String name, String label, String[] fieldNames, Class<?>[] fieldTypes) {
+            this.fieldNames = Collections.unmodifiableList(Arrays.asList(fieldNames));
+            try {
+                Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+                Constructor<?> annotationElement = annotationElementClass.getConstructor(Class.class, Object.class);
+                List<Object> annotations = new ArrayList<>();
+                annotations.add(annotationElement.newInstance((Class<? extends Annotation>) Class.forName("jdk.jfr.Name"),
+                                                              name));
+                annotations.add(annotationElement.newInstance((Class<? extends Annotation>) Class.forName("jdk.jfr.Label"),
+                                                              label));
+                annotations.add(annotationElement.newInstance((Class<? extends Annotation>) Class.forName("jdk.jfr.Category"),
+                                                              new String[] { "ProActive", "Kubernetes" }));
+
+                Constructor<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class,
+                                                                                                           String.class);
+                List<Object> fields = new ArrayList<>();
+                for (int i = 0; i < fieldNames.length; i++) {
+                    fields.add(valueDescriptor.newInstance(fieldTypes[i], fieldNames[i]));
+                }
+
+                Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory");
+                eventFactory = eventFactoryClass.getMethod("create", List.class, List.class)
+                                                .invoke(null, annotations, fields);
+                newEvent = eventFactoryClass.getMethod("newEvent");
+                Class<?> eventClass = Class.forName("jdk.jfr.Event");
+                begin = eventClass.getMethod("begin");
+                set = eventClass.getMethod("set", int.class, Object.class);
+                end = eventClass.getMethod("end");
+                commit = eventClass.getMethod("commit");
+            } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+                log.debug("Java Flight Recorder events are not supported by this JVM, " + name +
+                          " events are disabled.");
+                eventFactory = null;
+            }
+        }
+
+        FlightRecorderEvent begin() {
+            if (eventFactory == null) {
+                return FlightRecorderEvent.NO_OP;
+            }
+            try {
+                Object event = newEvent.invoke(eventFactory);
+                begin.invoke(event);
+                FlightRecorderEvent recorderEvent = new FlightRecorderEvent(event, fieldNames, set, end, commit);
+                String[] taskIds = TASK_IDS.get();
+                if (taskIds != null) {
+                    recorderEvent.set(FIELD_JOB_ID, taskIds[0]).set(FIELD_TASK_ID, taskIds[1]);
+                }
+                return recorderEvent;
+            } catch (ReflectiveOperationException e) {
+                return FlightRecorderEvent.NO_OP;
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Lock-free latency histogram with fixed, roughly logarithmic, buckets from 1 ms to 10 minutes.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class LatencyHistogram {
+
+    // Upper bounds (inclusive) of the buckets, in milliseconds; the last bucket is unbounded
+    static final long[] BUCKET_BOUNDS_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000,
+                                                 60000, 120000, 300000, 600000 };
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_MILLIS.length + 1);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS_MILLIS.length && millis > BUCKET_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public LatencySnapshot snapshot() {
+        long[] bucketCounts = new long[buckets.length()];
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = buckets.get(i);
+        }
+        long snapshotCount = count.sum();
+        return new LatencySnapshot(snapshotCount,
+                                   snapshotCount == 0 ? 0 : totalNanos.sum() / 1e6 / snapshotCount,
+                                   TimeUnit.NANOSECONDS.toMillis(maxNanos.get()),
+                                   percentile(bucketCounts, 0.5),
+                                   percentile(bucketCounts, 0.9),
+                                   percentile(bucketCounts, 0.99),
+                                   bucketCounts);
+    }
+
+    // Upper bound of the bucket holding the given percentile
+    private long percentile(long[] bucketCounts, double percentile) {
+        long total = 0;
+        for (long bucketCount : bucketCounts) {
+            total += bucketCount;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank && seen > 0) {
+                return i < BUCKET_BOUNDS_MILLIS.length ? BUCKET_BOUNDS_MILLIS[i]
+                                                       : TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.metrics;
+
+import java.beans.ConstructorProperties;
+
+import lombok.Getter;
+
+
+/**
+ * Point-in-time view of a {@link LatencyHistogram}, exposed through JMX as composite data. Percentiles are the upper
+ * bounds of the histogram buckets holding them.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Getter
+public class LatencySnapshot {
+
+    private final long count;
+
+    private final double meanMillis;
+
+    private final long maxMillis;
+
+    private final long p50Millis;
+
+    private final long p90Millis;
+
+    private final long p99Millis;
+
+    private final long[] bucketCounts;
+
+    @ConstructorProperties({ "count", "meanMillis", "maxMillis", "p50Millis", "p90Millis", "p99Millis",
+                             "bucketCounts" })
+    public LatencySnapshot(long count, double meanMillis, long maxMillis, long p50Millis, long p90Millis,
+            long p99Millis, long[] bucketCounts) {
+        this.count = count;
+        this.meanMillis = meanMillis;
+        this.maxMillis = maxMillis;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+        this.bucketCounts = bucketCounts;
+    }
+
+    public long[] getBucketBoundsMillis() {
+        return LatencyHistogram.BUCKET_BOUNDS_MILLIS.clone();
+    }
+}
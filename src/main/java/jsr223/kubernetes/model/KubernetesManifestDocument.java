@@ -0,0 +1,146 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * A single document of a (possibly multi-document) k8s manifest.
+ */
+@AllArgsConstructor
+public class KubernetesManifestDocument {
+
+    // Kinds which other resources depend on, by creation order
+    private static final List<List<String>> CREATION_TIERS = Arrays.asList(Arrays.asList("namespace",
+                                                                                         "customresourcedefinition",
+                                                                                         "priorityclass",
+                                                                                         "storageclass"),
+                                                                           Arrays.asList("serviceaccount",
+                                                                                         "secret",
+                                                                                         "configmap",
+                                                                                         "resourcequota",
+                                                                                         "limitrange",
+                                                                                         "persistentvolume",
+                                                                                         "persistentvolumeclaim",
+                                                                                         "role",
+                                                                                         "clusterrole"),
+                                                                           Arrays.asList("rolebinding",
+                                                                                         "clusterrolebinding",
+                                                                                         "service",
+                                                                                         "networkpolicy"));
+
+    @Getter
+    private String kind;
+
+    @Getter
+    private String name;
+
+    // null when the document does not set it (cluster-scoped resource or kubectl default namespace)
+    @Getter
+    private String namespace;
+
+    // The parsed document
+    @Getter
+    private Map<String, Object> object;
+
+    // The document serialized back to YAML
+    @Getter
+    private String content;
+
+    /**
+     * Documents of a lower tier must be created before documents of a higher tier; documents of a same tier do not
+     * depend on each other. Workloads (Pod, Job, Deployment...) and unknown kinds come last.
+     */
+    public int getCreationTier() {
+        for (int tier = 0; tier < CREATION_TIERS.size(); tier++) {
+            if (CREATION_TIERS.get(tier).contains(kind.toLowerCase())) {
+                return tier;
+            }
+        }
+        return CREATION_TIERS.size();
+    }
+
+    /**
+     * @return The pod spec of the document: the spec of a Pod, the pod template spec of a workload (Job, Deployment,
+     * StatefulSet...), the job template pod spec of a CronJob; or null if the document does not describe pods.
+     */
+    public Map<String, Object> getPodSpec() {
+        Map<String, Object> spec = getMap(object, "spec");
+        if ("pod".equalsIgnoreCase(kind)) {
+            return spec;
+        }
+        if ("cronjob".equalsIgnoreCase(kind)) {
+            spec = getMap(getMap(spec, "jobTemplate"), "spec");
+        }
+        return getMap(getMap(spec, "template"), "spec");
+    }
+
+    /**
+     * @return The containers and init containers of the pod spec of the document.
+     */
+    public List<Map<String, Object>> getContainers() {
+        List<Map<String, Object>> containers = new ArrayList<>();
+        Map<String, Object> podSpec = getPodSpec();
+        if (podSpec != null) {
+            for (String field : Arrays.asList("initContainers", "containers")) {
+                if (podSpec.get(field) instanceof List) {
+                    for (Object container : (List<?>) podSpec.get(field)) {
+                        if (container instanceof Map) {
+                            @SuppressWarnings("unchecked")
+                            Map<String, Object> containerObject = (Map<String, Object>) container;
+                            containers.add(containerObject);
+                        }
+                    }
+                }
+            }
+        }
+        return containers;
+    }
+
+    public Set<String> getContainerImages() {
+        Set<String> images = new LinkedHashSet<>();
+        for (Map<String, Object> container : getContainers()) {
+            if (container.get("image") != null) {
+                images.add(container.get("image").toString());
+            }
+        }
+        return images;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Map<String, Object> parent, String field) {
+        return parent != null && parent.get(field) instanceof Map ? (Map<String, Object>) parent.get(field) : null;
+    }
+}
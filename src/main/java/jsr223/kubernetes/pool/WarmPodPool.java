@@ -0,0 +1,332 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.pool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.log4j.Logger;
+
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesManifestParser;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * A pool of idle, ready pods created from a same pod template. The containers of the pods only wait, the commands of
+ * the tasks are run into them with 'kubectl exec'. A pod serves a single task: once released, it is deleted and the
+ * pool is replenished in the background. Idle pods older than the maximum age are recycled as well, and the whole
+ * pool is closed once no task has used it for a while.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class WarmPodPool {
+
+    private static final Logger log = Logger.getLogger(WarmPodPool.class);
+
+    public static final String WARM_POOL_LABEL = "proactive.activeeon.com/warm-pool";
+
+    // Keeps the containers of a warm pod alive until the pod is deleted
+    private static final List<String> IDLE_CONTAINER_COMMAND = Collections.unmodifiableList(Arrays.asList("sh",
+                                                                                                          "-c",
+                                                                                                          "trap 'exit 0' TERM; while true; do sleep 1; done"));
+
+    private static final long POD_READY_TIMEOUT_SECONDS = 300;
+
+    @Getter
+    private final String key;
+
+    @Getter
+    private final String namespace;
+
+    private final Map<String, Object> podTemplate;
+
+    private final long maxPodAgeMillis;
+
+    private final KubernetesCommandRunner commandRunner;
+
+    private final KubernetesCommandCreator commandCreator;
+
+    private final ExecutorService executor;
+
+    private final LinkedBlockingDeque<WarmPod> idlePods = new LinkedBlockingDeque<>();
+
+    private final AtomicInteger pendingPods = new AtomicInteger();
+
+    // Pods acquired by tasks and not released yet
+    private final AtomicInteger busyPods = new AtomicInteger();
+
+    private volatile int targetSize;
+
+    // When a task last asked for a pod of the pool
+    private volatile long lastUseTime = System.currentTimeMillis();
+
+    private volatile boolean closed = false;
+
+    WarmPodPool(String key, KubernetesManifestDocument podTemplate, int targetSize, long maxPodAgeMillis,
+            KubernetesCommandRunner commandRunner, KubernetesCommandCreator commandCreator, ExecutorService executor) {
+        this.key = key;
+        this.namespace = podTemplate.getNamespace() == null ? "default" : podTemplate.getNamespace();
+        this.podTemplate = podTemplate.getObject();
+        this.targetSize = targetSize;
+        this.maxPodAgeMillis = maxPodAgeMillis;
+        this.commandRunner = commandRunner;
+        this.commandCreator = commandCreator;
+        this.executor = executor;
+    }
+
+    /**
+     * @return What identifies the pods created from a template: the template without its name, in its namespace.
+     */
+    static String getTemplateIdentity(KubernetesManifestDocument podTemplate) {
+        Map<String, Object> template = new LinkedHashMap<>(podTemplate.getObject());
+        if (template.get("metadata") instanceof Map) {
+            Map<String, Object> metadata = copyMap(template.get("metadata"));
+            metadata.remove("name");
+            metadata.remove("generateName");
+            metadata.put("namespace", podTemplate.getNamespace() == null ? "default" : podTemplate.getNamespace());
+            template.put("metadata", metadata);
+        }
+        return KubernetesManifestParser.toManifestDocument(template).getContent();
+    }
+
+    /**
+     * Takes an idle pod out of the pool, waiting for one to be ready if needed.
+     *
+     * @return The name of the pod, or null if no pod got ready within the timeout.
+     * @throws ExecutionException If the pod to wait for could not be created from the template.
+     */
+    public String acquire(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException {
+        WarmPod pod = idlePods.pollFirst();
+        replenish();
+        if (pod == null) {
+            log.info("No idle pod in warm pool " + key + ", waiting for one.");
+            pod = idlePods.pollFirst(timeout, unit);
+        }
+        if (pod == null) {
+            return null;
+        }
+        if (pod.getFailure() != null) {
+            throw new ExecutionException(pod.getFailure());
+        }
+        busyPods.incrementAndGet();
+        return pod.getName();
+    }
+
+    /**
+     * Gives a pod back once its task is done: the pod is deleted and replaced by a fresh one.
+     */
+    public void release(String podName) {
+        busyPods.decrementAndGet();
+        executor.submit(() -> deletePod(podName));
+        replenish();
+    }
+
+    /**
+     * Tells that a task is about to ask for a pod, the pool is not idle anymore.
+     */
+    void touch() {
+        lastUseTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return Whether no task has used the pool since the given time, nor holds one of its pods.
+     */
+    boolean isIdleSince(long time) {
+        return busyPods.get() == 0 && lastUseTime < time;
+    }
+
+    public void ensureTargetSize(int size) {
+        if (size > targetSize) {
+            targetSize = size;
+        }
+        replenish();
+    }
+
+    /**
+     * Replaces the idle pods older than the maximum age.
+     */
+    void recycle() {
+        long now = System.currentTimeMillis();
+        List<WarmPod> expiredPods = new ArrayList<>();
+        for (WarmPod pod : idlePods) {
+            if (now - pod.getCreationTime() > maxPodAgeMillis) {
+                expiredPods.add(pod);
+            }
+        }
+        for (WarmPod pod : expiredPods) {
+            if (idlePods.remove(pod) && pod.getFailure() == null) {
+                log.debug("Recycling pod " + pod.getName() + " of warm pool " + key);
+                executor.submit(() -> deletePod(pod.getName()));
+            }
+        }
+        replenish();
+    }
+
+    /**
+     * Deletes all the idle pods of the pool, without waiting for their termination.
+     */
+    void close() {
+        closed = true;
+        targetSize = 0;
+        List<String> podNames = new ArrayList<>();
+        WarmPod pod;
+        while ((pod = idlePods.pollFirst()) != null) {
+            if (pod.getFailure() == null) {
+                podNames.add("pod/" + pod.getName());
+            }
+        }
+        if (!podNames.isEmpty()) {
+            try {
+                commandRunner.run(commandCreator.createKubectlDeleteResourcesCommand(namespace, podNames, false));
+            } catch (IOException | InterruptedException e) {
+                log.warn("Could not delete the pods of warm pool " + key + ". Exception: " + e);
+            }
+        }
+    }
+
+    private void replenish() {
+        while (idlePods.size() + pendingPods.get() < targetSize) {
+            pendingPods.incrementAndGet();
+            executor.submit(this::createPod);
+        }
+    }
+
+    private void createPod() {
+        String podName = "pa-warm-" + key + '-' + UUID.randomUUID().toString().substring(0, 8);
+        try {
+            KubernetesCommandResult result = commandRunner.run(KubernetesManifestParser.toManifestDocument(createPodObject(podName))
+                                                                                       .getContent(),
+                                                               commandCreator.createKubectlCreateCommand(KubernetesCommandCreator.STDIN_FILENAME));
+            if (!result.isSuccessful()) {
+                log.warn("Could not create a pod for warm pool " + key + ": " + result.getError());
+                return;
+            }
+            result = commandRunner.run(commandCreator.createKubectlWaitCommand("pod",
+                                                                               podName,
+                                                                               namespace,
+                                                                               "condition=Ready",
+                                                                               POD_READY_TIMEOUT_SECONDS));
+            if (!result.isSuccessful()) {
+                log.warn("Pod " + podName + " of warm pool " + key + " did not get ready: " + result.getError());
+                deletePod(podName);
+                return;
+            }
+            if (closed) {
+                // the pool was closed while the pod was getting ready
+                deletePod(podName);
+                return;
+            }
+            log.debug("Pod " + podName + " of warm pool " + key + " is ready.");
+            idlePods.offerLast(new WarmPod(podName, System.currentTimeMillis(), null));
+        } catch (IOException | InterruptedException e) {
+            log.warn("Could not create a pod for warm pool " + key + ". Exception: " + e);
+        } catch (RuntimeException e) {
+            // e.g. a template without containers, handed to the task waiting for the pod rather than lost
+            log.warn("Could not create a pod for warm pool " + key + ". Exception: " + e);
+            idlePods.offerLast(new WarmPod(null, System.currentTimeMillis(), e));
+        } finally {
+            pendingPods.decrementAndGet();
+        }
+    }
+
+    private void deletePod(String podName) {
+        try {
+            commandRunner.run(commandCreator.createKubectlDeleteResourcesCommand(namespace,
+                                                                                 Collections.singletonList("pod/" +
+                                                                                                           podName),
+                                                                                 false));
+        } catch (IOException | InterruptedException e) {
+            log.warn("Could not delete pod " + podName + " of warm pool " + key + ". Exception: " + e);
+        }
+    }
+
+    // Copy of the template, named and labelled for the pool, whose containers only wait
+    private Map<String, Object> createPodObject(String podName) {
+        Map<String, Object> pod = new LinkedHashMap<>(podTemplate);
+
+        Map<String, Object> metadata = copyMap(pod.get("metadata"));
+        Map<String, Object> labels = copyMap(metadata.get("labels"));
+        labels.put(WARM_POOL_LABEL, key);
+        metadata.put("labels", labels);
+        metadata.put("name", podName);
+        metadata.put("namespace", namespace);
+        metadata.remove("generateName");
+        pod.put("metadata", metadata);
+
+        Map<String, Object> spec = copyMap(pod.get("spec"));
+        spec.put("restartPolicy", "Never");
+        List<Object> containers = new ArrayList<>();
+        for (Object container : (List<?>) spec.get("containers")) {
+            Map<String, Object> idleContainer = copyMap(container);
+            idleContainer.put("command", IDLE_CONTAINER_COMMAND);
+            idleContainer.remove("args");
+            containers.add(idleContainer);
+        }
+        spec.put("containers", containers);
+        pod.put("spec", spec);
+        return pod;
+    }
+
+    // A modifiable copy of a YAML mapping, empty if the value is not a mapping
+    private static Map<String, Object> copyMap(Object value) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        if (value instanceof Map) {
+            ((Map<?, ?>) value).forEach((key, entryValue) -> copy.put(String.valueOf(key), entryValue));
+        }
+        return copy;
+    }
+
+    @AllArgsConstructor
+    private static class WarmPod {
+
+        @Getter
+        private final String name;
+
+        @Getter
+        private final long creationTime;
+
+        // Why the pod could not be created, null for a ready pod
+        @Getter
+        private final RuntimeException failure;
+    }
+}
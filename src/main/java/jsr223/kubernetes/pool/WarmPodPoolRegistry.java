@@ -0,0 +1,164 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.pool;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.processbuilder.SingletonKubernetesProcessBuilderFactory;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesPropertyLoader;
+
+
+/**
+ * JVM-wide registry of the warm pod pools, one per pod template and cluster. The pools are maintained by background
+ * threads; the pools no task has used for the maximum idle time are closed, and the pods of all the pools are deleted
+ * when the JVM stops.
+ *
+ * A pool is keyed on the pod template substituted with the variables of the task, its namespace included, so that
+ * a task only runs in pods created from its own template. The name of the template is not part of the key, the pods
+ * of a pool have their own names.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class WarmPodPoolRegistry {
+
+    private static final Logger log = Logger.getLogger(WarmPodPoolRegistry.class);
+
+    private static final long RECYCLE_PERIOD_SECONDS = 60;
+
+    private final Map<String, WarmPodPool> pools = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                     .setNameFormat("k8s-warm-pool-%d")
+                                                                                                     .build());
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                                            .setNameFormat("k8s-warm-pool-recycler")
+                                                                                                                            .build());
+
+    private final long maxIdleTimeMillis = TimeUnit.SECONDS.toMillis(KubernetesPropertyLoader.getInstance()
+                                                                                              .getWarmPoolMaxIdleTime());
+
+    private WarmPodPoolRegistry() {
+        scheduler.scheduleWithFixedDelay(() -> {
+            closeIdlePools();
+            pools.values().forEach(WarmPodPool::recycle);
+        },
+                                         RECYCLE_PERIOD_SECONDS,
+                                         RECYCLE_PERIOD_SECONDS,
+                                         TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> pools.values().forEach(WarmPodPool::close)));
+    }
+
+    public static WarmPodPoolRegistry getInstance() {
+        return WarmPodPoolRegistryHolder.INSTANCE;
+    }
+
+    /**
+     * Returns the pool of the given pod template on a cluster, creating it if needed, and makes sure it keeps at least
+     * the given number of idle pods.
+     *
+     * @param podTemplate    The pod template substituted with the variables of the task.
+     * @param commandCreator Creates the commands of the cluster the task is routed to.
+     */
+    public WarmPodPool getPool(KubernetesManifestDocument podTemplate, int size,
+            KubernetesCommandCreator commandCreator) {
+        String key = Hashing.sha256()
+                            .hashString(commandCreator.getContext() + "\n" + WarmPodPool.getTemplateIdentity(podTemplate),
+                                        StandardCharsets.UTF_8)
+                            .toString()
+                            .substring(0, 10);
+        // Touched atomically with its lookup, so that an idle pool is never closed once returned
+        WarmPodPool pool = pools.compute(key, (k, existingPool) -> {
+            WarmPodPool computedPool = existingPool;
+            if (computedPool == null) {
+                log.info("Creating warm pod pool " + k + " of " + size + " pods" +
+                         (commandCreator.getContext() != null ? " on the cluster of context " +
+                                                                commandCreator.getContext()
+                                                              : "") +
+                         '.');
+                computedPool = new WarmPodPool(k,
+                                               podTemplate,
+                                               size,
+                                               TimeUnit.SECONDS.toMillis(KubernetesPropertyLoader.getInstance()
+                                                                                                 .getWarmPoolPodMaxAge()),
+                                               new KubernetesCommandRunner(SingletonKubernetesProcessBuilderFactory.getInstance()),
+                                               commandCreator,
+                                               executor);
+            }
+            computedPool.touch();
+            return computedPool;
+        });
+        pool.ensureTargetSize(size);
+        return pool;
+    }
+
+    // Closes the pools no task has used for the maximum idle time, deleting their pods
+    private void closeIdlePools() {
+        long idleSince = System.currentTimeMillis() - maxIdleTimeMillis;
+        List<WarmPodPool> idlePools = new ArrayList<>();
+        for (String key : pools.keySet()) {
+            pools.computeIfPresent(key, (k, pool) -> {
+                if (pool.isIdleSince(idleSince)) {
+                    idlePools.add(pool);
+                    return null;
+                }
+                return pool;
+            });
+        }
+        for (WarmPodPool pool : idlePools) {
+            log.info("Closing warm pod pool " + pool.getKey() + ", unused for " +
+                     TimeUnit.MILLISECONDS.toSeconds(maxIdleTimeMillis) + " seconds.");
+            pool.close();
+        }
+    }
+
+    /**
+     * Initializes WarmPodPoolRegistry on the first execution of WarmPodPoolRegistry.getInstance(), not before.
+     **/
+    private static class WarmPodPoolRegistryHolder {
+        private static final WarmPodPoolRegistry INSTANCE = new WarmPodPoolRegistry();
+
+        private WarmPodPoolRegistryHolder() {
+        }
+    }
+}
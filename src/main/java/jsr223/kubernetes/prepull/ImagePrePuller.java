@@ -0,0 +1,315 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.prepull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.processbuilder.SingletonKubernetesProcessBuilderFactory;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesManifestParser;
+
+
+/**
+ * Pre-pulls the container images of a manifest on all the schedulable nodes, through a short-lived DaemonSet whose
+ * containers use these images. The containers are never meant to run, only their images to be pulled: their command
+ * does not exist in any image, so they fail right after the pull, whether or not the image has a shell. The DaemonSet
+ * is deleted once the images of all its pods are pulled. Images already present on every node are skipped, and
+ * concurrent tasks asking for the same images share a single pre-pull.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ImagePrePuller {
+
+    private static final Logger log = Logger.getLogger(ImagePrePuller.class);
+
+    private static final String PRE_PULL_CONTAINER_PREFIX = "pre-pull-";
+
+    // Found in no image, the kubelet pulls the image before failing to start it
+    private static final String PULL_ONLY_COMMAND = "/.pa-pre-pull";
+
+    // Reasons for a container waiting after its image has been pulled
+    private static final Set<String> PULLED_WAITING_REASONS = new HashSet<>(Arrays.asList("CreateContainerConfigError",
+                                                                                            "CreateContainerError",
+                                                                                            "RunContainerError",
+                                                                                            "CrashLoopBackOff"));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final long NODE_IMAGES_TIME_TO_LIVE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long PULL_POLL_INTERVAL_MILLIS = 2000;
+
+    private final KubernetesCommandRunner commandRunner = new KubernetesCommandRunner(SingletonKubernetesProcessBuilderFactory.getInstance());
+
+    // Images of the nodes of each cluster, by kubeconfig context
+    private final Map<String, NodeImageCache> nodeImageCaches = new ConcurrentHashMap<>();
+
+    private final Map<String, CompletableFuture<Void>> pendingPrePulls = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                     .setNameFormat("k8s-image-pre-pull-%d")
+                                                                                                     .build());
+
+    private ImagePrePuller() {
+    }
+
+    public static ImagePrePuller getInstance() {
+        return ImagePrePullerHolder.INSTANCE;
+    }
+
+    /**
+     * Starts pre-pulling the images of the given documents, one DaemonSet per namespace so that the image pull
+     * secrets of the documents can be used.
+     *
+     * @param commandCreator Creates the commands of the cluster the documents are created on.
+     * @param timeout        How long the pulls are awaited before the DaemonSet is deleted, in seconds.
+     * @return A future completed once all the images are pulled, or the pre-pull failed or timed out.
+     */
+    public CompletableFuture<Void> prePull(List<KubernetesManifestDocument> documents,
+            KubernetesCommandCreator commandCreator, long timeout) {
+        NodeImageCache nodeImageCache = nodeImageCaches.computeIfAbsent(String.valueOf(commandCreator.getContext()),
+                                                                        k -> new NodeImageCache(commandRunner,
+                                                                                                commandCreator,
+                                                                                                NODE_IMAGES_TIME_TO_LIVE_MILLIS));
+        Map<String, Set<String>> imagesByNamespace = new LinkedHashMap<>();
+        Map<String, Set<Object>> pullSecretsByNamespace = new LinkedHashMap<>();
+        for (KubernetesManifestDocument document : documents) {
+            if (document.getContainerImages().isEmpty()) {
+                continue;
+            }
+            String namespace = document.getNamespace() == null ? "default" : document.getNamespace();
+            imagesByNamespace.computeIfAbsent(namespace, k -> new TreeSet<>()).addAll(document.getContainerImages());
+            Object pullSecrets = document.getPodSpec().get("imagePullSecrets");
+            if (pullSecrets instanceof List) {
+                pullSecretsByNamespace.computeIfAbsent(namespace, k -> new LinkedHashSet<>())
+                                      .addAll((List<?>) pullSecrets);
+            }
+        }
+
+        List<CompletableFuture<Void>> prePulls = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : imagesByNamespace.entrySet()) {
+            String namespace = entry.getKey();
+            Set<String> images = entry.getValue();
+            String name = "pa-pre-pull-" + Hashing.sha256()
+                                                  .hashString(namespace + images, StandardCharsets.UTF_8)
+                                                  .toString()
+                                                  .substring(0, 10);
+            List<Object> pullSecrets = new ArrayList<>(pullSecretsByNamespace.getOrDefault(namespace,
+                                                                                           Collections.emptySet()));
+            prePulls.add(pendingPrePulls.computeIfAbsent(commandCreator.getContext() + "/" + name,
+                                                         k -> CompletableFuture.runAsync(() -> prePull(name,
+                                                                                                       namespace,
+                                                                                                       images,
+                                                                                                       pullSecrets,
+                                                                                                       commandCreator,
+                                                                                                       nodeImageCache,
+                                                                                                       timeout),
+                                                                                         executor)
+                                                                               .whenCompleteAsync((v, e) -> pendingPrePulls.remove(k),
+                                                                                                  executor)));
+        }
+        return CompletableFuture.allOf(prePulls.toArray(new CompletableFuture<?>[prePulls.size()]));
+    }
+
+    private void prePull(String name, String namespace, Set<String> images, List<Object> pullSecrets,
+            KubernetesCommandCreator commandCreator, NodeImageCache nodeImageCache, long timeout) {
+        try {
+            Set<String> missingImages = nodeImageCache.getMissingImages(images);
+            if (missingImages.isEmpty()) {
+                log.debug("Images " + images + " are already present on all nodes, skipping the pre-pull.");
+                return;
+            }
+            log.info("Pre-pulling images " + missingImages + " with DaemonSet " + name + " in namespace " +
+                     namespace + ".");
+
+            String daemonSet = KubernetesManifestParser.toManifestDocument(createDaemonSetObject(name,
+                                                                                                 namespace,
+                                                                                                 missingImages,
+                                                                                                 pullSecrets))
+                                                       .getContent();
+            KubernetesCommandResult result = commandRunner.run(daemonSet,
+                                                               commandCreator.createKubectlCreateCommand(KubernetesCommandCreator.STDIN_FILENAME));
+            if (!result.isSuccessful()) {
+                log.warn("Could not create the pre-pull DaemonSet " + name + ": " + result.getError());
+                return;
+            }
+            try {
+                long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+                while (!isPulled(name, namespace, commandCreator)) {
+                    if (System.currentTimeMillis() > deadline) {
+                        log.warn("Pre-pull DaemonSet " + name + " did not complete within " + timeout + " seconds.");
+                        return;
+                    }
+                    Thread.sleep(PULL_POLL_INTERVAL_MILLIS);
+                }
+                nodeImageCache.markWarm(missingImages);
+                log.info("Images " + missingImages + " are pre-pulled.");
+            } finally {
+                commandRunner.run(commandCreator.createKubectlDeleteResourcesCommand(namespace,
+                                                                                     Collections.singletonList("daemonset/" +
+                                                                                                               name),
+                                                                                     false));
+            }
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            log.warn("Could not pre-pull images " + images + ". Exception: " + e);
+        }
+    }
+
+    /**
+     * @return Whether the images of all the pods of the DaemonSet are pulled.
+     */
+    private boolean isPulled(String name, String namespace, KubernetesCommandCreator commandCreator)
+            throws IOException, InterruptedException {
+        KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlGetJsonPathCommand("daemonset",
+                                                                                                          name,
+                                                                                                          namespace,
+                                                                                                          "{.status.desiredNumberScheduled}"));
+        if (!result.isSuccessful() || result.getOutput().trim().isEmpty()) {
+            // not seen by the DaemonSet controller yet
+            return false;
+        }
+        int desiredPods = Integer.parseInt(result.getOutput().trim());
+        result = commandRunner.run(commandCreator.createKubectlGetPodsCommand(namespace, "app=" + name));
+        if (!result.isSuccessful()) {
+            return false;
+        }
+        Object pods = MAPPER.readValue(result.getOutput(), Map.class).get("items");
+        int pulledPods = 0;
+        if (pods instanceof List) {
+            for (Object pod : (List<?>) pods) {
+                if (pod instanceof Map && isPulled((Map<?, ?>) pod)) {
+                    pulledPods++;
+                }
+            }
+        }
+        return pulledPods >= desiredPods;
+    }
+
+    // Whether the images of the pre-pull containers of a pod are pulled
+    static boolean isPulled(Map<?, ?> pod) {
+        Object status = pod.get("status");
+        Object containerStatuses = status instanceof Map ? ((Map<?, ?>) status).get("containerStatuses") : null;
+        if (!(containerStatuses instanceof List) || ((List<?>) containerStatuses).isEmpty()) {
+            return false;
+        }
+        for (Object containerStatus : (List<?>) containerStatuses) {
+            if (!(containerStatus instanceof Map)) {
+                return false;
+            }
+            Object imageId = ((Map<?, ?>) containerStatus).get("imageID");
+            if (imageId != null && !imageId.toString().isEmpty()) {
+                continue;
+            }
+            Object state = ((Map<?, ?>) containerStatus).get("state");
+            Object waiting = state instanceof Map ? ((Map<?, ?>) state).get("waiting") : null;
+            if (!(waiting instanceof Map) ||
+                !PULLED_WAITING_REASONS.contains(String.valueOf(((Map<?, ?>) waiting).get("reason")))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // One container per image, which fails to start once its image is pulled
+    private Map<String, Object> createDaemonSetObject(String name, String namespace, Set<String> images,
+            List<Object> pullSecrets) {
+        Map<String, Object> labels = Collections.singletonMap("app", name);
+
+        List<Object> containers = new ArrayList<>();
+        int index = 0;
+        for (String image : images) {
+            Map<String, Object> container = new LinkedHashMap<>();
+            container.put("name", PRE_PULL_CONTAINER_PREFIX + index++);
+            container.put("image", image);
+            container.put("imagePullPolicy", "IfNotPresent");
+            container.put("command", Collections.singletonList(PULL_ONLY_COMMAND));
+            containers.add(container);
+        }
+
+        Map<String, Object> podSpec = new LinkedHashMap<>();
+        podSpec.put("containers", containers);
+        podSpec.put("terminationGracePeriodSeconds", 0);
+        podSpec.put("tolerations", Collections.singletonList(Collections.singletonMap("operator", "Exists")));
+        if (!pullSecrets.isEmpty()) {
+            podSpec.put("imagePullSecrets", pullSecrets);
+        }
+
+        Map<String, Object> template = new LinkedHashMap<>();
+        template.put("metadata", Collections.singletonMap("labels", labels));
+        template.put("spec", podSpec);
+
+        Map<String, Object> spec = new LinkedHashMap<>();
+        spec.put("selector", Collections.singletonMap("matchLabels", labels));
+        spec.put("template", template);
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("name", name);
+        metadata.put("namespace", namespace);
+
+        Map<String, Object> daemonSet = new LinkedHashMap<>();
+        daemonSet.put("apiVersion", "apps/v1");
+        daemonSet.put("kind", "DaemonSet");
+        daemonSet.put("metadata", metadata);
+        daemonSet.put("spec", spec);
+        return daemonSet;
+    }
+
+    /**
+     * Initializes ImagePrePuller on the first execution of ImagePrePuller.getInstance(), not before.
+     **/
+    private static class ImagePrePullerHolder {
+        private static final ImagePrePuller INSTANCE = new ImagePrePuller();
+
+        private ImagePrePullerHolder() {
+        }
+    }
+}
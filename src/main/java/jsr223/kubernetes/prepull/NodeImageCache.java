@@ -0,0 +1,177 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.prepull;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Local cache of the images present on each schedulable node, as reported by the node status. The cache is refreshed
+ * from the cluster at most once per time-to-live, and updated locally when images are known to have been pulled.
+ *
+ * Image names are compared in their normalized form, as the container runtime reports them: with their registry, their
+ * repository namespace and their tag, e.g. 'nginx' and 'docker.io/library/nginx:latest' are the same image.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class NodeImageCache {
+
+    private static final Logger log = Logger.getLogger(NodeImageCache.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String DEFAULT_REGISTRY = "docker.io";
+
+    private static final String DEFAULT_NAMESPACE = "library/";
+
+    private static final String DEFAULT_TAG = ":latest";
+
+    private final KubernetesCommandRunner commandRunner;
+
+    private final KubernetesCommandCreator commandCreator;
+
+    private final long timeToLiveMillis;
+
+    private Map<String, Set<String>> imagesByNode = new HashMap<>();
+
+    private long lastRefresh = 0;
+
+    /**
+     * @return The images, among the given ones, which are missing on at least one schedulable node.
+     */
+    public synchronized Set<String> getMissingImages(Collection<String> images)
+            throws IOException, InterruptedException {
+        if (System.currentTimeMillis() - lastRefresh > timeToLiveMillis) {
+            refresh();
+        }
+        Set<String> missingImages = new LinkedHashSet<>();
+        for (String image : images) {
+            String normalizedImage = normalize(image);
+            if (imagesByNode.isEmpty() ||
+                imagesByNode.values().stream().anyMatch(nodeImages -> !nodeImages.contains(normalizedImage))) {
+                missingImages.add(image);
+            }
+        }
+        return missingImages;
+    }
+
+    /**
+     * Records that the given images are present on all the schedulable nodes.
+     */
+    public synchronized void markWarm(Collection<String> images) {
+        images.forEach(image -> imagesByNode.values().forEach(nodeImages -> nodeImages.add(normalize(image))));
+    }
+
+    /**
+     * @return The image name with its registry, its namespace on Docker Hub, and its tag or else its digest, as the
+     * nodes report it.
+     */
+    static String normalize(String image) {
+        String name = image.trim();
+        String digest = "";
+        int digestIndex = name.indexOf('@');
+        if (digestIndex >= 0) {
+            digest = name.substring(digestIndex);
+            name = name.substring(0, digestIndex);
+        }
+
+        // The first component is a registry if it looks like a host name, as for docker
+        int slash = name.indexOf('/');
+        String registry = slash < 0 ? "" : name.substring(0, slash);
+        if (slash < 0 || !(registry.contains(".") || registry.contains(":") || registry.equals("localhost"))) {
+            registry = DEFAULT_REGISTRY;
+        } else {
+            name = name.substring(slash + 1);
+        }
+        if (registry.equals("index.docker.io")) {
+            registry = DEFAULT_REGISTRY;
+        }
+        if (registry.equals(DEFAULT_REGISTRY) && name.indexOf('/') < 0) {
+            name = DEFAULT_NAMESPACE + name;
+        }
+
+        // The tag is after the last ':' of the last path component, a registry port comes before a '/'
+        boolean tagged = name.lastIndexOf(':') > name.lastIndexOf('/');
+        if (!digest.isEmpty()) {
+            // The digest pins the image, the nodes report it without its tag
+            name = tagged ? name.substring(0, name.lastIndexOf(':')) : name;
+        } else if (!tagged) {
+            name += DEFAULT_TAG;
+        }
+        return registry + '/' + name + digest;
+    }
+
+    private void refresh() throws IOException, InterruptedException {
+        KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlGetNodesCommand());
+        if (!result.isSuccessful()) {
+            log.debug("Could not list the nodes images: " + result.getError());
+            return;
+        }
+        Map<String, Set<String>> refreshedImagesByNode = new HashMap<>();
+        Map<?, ?> nodes = MAPPER.readValue(result.getOutput(), Map.class);
+        for (Object item : (List<?>) nodes.get("items")) {
+            Map<?, ?> node = (Map<?, ?>) item;
+            Map<?, ?> spec = (Map<?, ?>) node.get("spec");
+            if (spec != null && Boolean.TRUE.equals(spec.get("unschedulable"))) {
+                continue;
+            }
+            Set<String> nodeImages = new HashSet<>();
+            Map<?, ?> status = (Map<?, ?>) node.get("status");
+            if (status != null && status.get("images") instanceof List) {
+                for (Object image : (List<?>) status.get("images")) {
+                    Object names = image instanceof Map ? ((Map<?, ?>) image).get("names") : null;
+                    if (names instanceof List) {
+                        for (Object name : (List<?>) names) {
+                            // reported as repository@digest and repository:tag
+                            nodeImages.add(normalize(name.toString()));
+                        }
+                    }
+                }
+            }
+            refreshedImagesByNode.put(((Map<?, ?>) node.get("metadata")).get("name").toString(), nodeImages);
+        }
+        imagesByNode = refreshedImagesByNode;
+        lastRefresh = System.currentTimeMillis();
+    }
+}
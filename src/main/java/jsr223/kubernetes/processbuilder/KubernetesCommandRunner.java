@@ -0,0 +1,110 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.processbuilder;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Runs short-lived kubectl commands (create, get, delete...) to completion and collects their output.
+ * Standard error is drained on a separate thread so that a verbose command can never block on a full pipe.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class KubernetesCommandRunner {
+
+    @NonNull
+    private KubernetesProcessBuilderFactory factory;
+
+    /**
+     * Runs a command and waits for its completion.
+     *
+     * @param command The command and its arguments.
+     * @return The exit value and the outputs of the command.
+     */
+    public KubernetesCommandResult run(String... command) throws IOException, InterruptedException {
+        return run(null, command);
+    }
+
+    /**
+     * Runs a command, feeds the given input to its standard input and waits for its completion.
+     *
+     * @param input   Content written to the standard input of the process. If null, the input is closed right away.
+     * @param command The command and its arguments.
+     * @return The exit value and the outputs of the command.
+     */
+    public KubernetesCommandResult run(String input, String... command) throws IOException, InterruptedException {
+        Process process = factory.start(command);
+
+        StringWriter error = new StringWriter();
+        Thread errorPump = new Thread(() -> {
+            try {
+                KubernetesProcessBuilderUtilities.pipe(new InputStreamReader(process.getErrorStream(),
+                                                                             StandardCharsets.UTF_8),
+                                                       error);
+            } catch (IOException ignored) {
+                // The command is failing anyway, its exit value will tell
+            }
+        });
+        errorPump.setDaemon(true);
+        errorPump.start();
+
+        try (Writer stdin = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8)) {
+            if (input != null) {
+                KubernetesProcessBuilderUtilities.pipe(new StringReader(input), stdin);
+            }
+        }
+
+        StringWriter output = new StringWriter();
+        try {
+            KubernetesProcessBuilderUtilities.pipe(new InputStreamReader(process.getInputStream(),
+                                                                         StandardCharsets.UTF_8),
+                                                   output);
+            int exitValue = process.waitFor();
+            errorPump.join();
+            return new KubernetesCommandResult(exitValue, output.toString(), error.toString());
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            throw e;
+        } catch (InterruptedIOException e) {
+            // the thread was interrupted while reading the output
+            process.destroyForcibly();
+            throw new InterruptedException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.processbuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+
+/**
+ * Notices the interruption of the threads evaluating a task. A thread blocked on the output of a kubectl command
+ * does not see its interruption until the command ends, which can take the whole task duration with 'kubectl logs
+ * -f': the watchdog polls the interrupt status of the watched threads and runs their cancellation right away.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesInterruptWatchdog {
+
+    private static final Logger log = Logger.getLogger(KubernetesInterruptWatchdog.class);
+
+    private static final long POLL_INTERVAL_MILLIS = 20;
+
+    // Watched thread -> cancellation of its task, run once
+    private final Map<Thread, Runnable> cancellations = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                                            .setNameFormat("k8s-interrupt-watchdog-%d")
+                                                                                                                            .build());
+
+    private KubernetesInterruptWatchdog() {
+        scheduler.scheduleWithFixedDelay(this::poll, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public static KubernetesInterruptWatchdog getInstance() {
+        return KubernetesInterruptWatchdogHolder.INSTANCE;
+    }
+
+    /**
+     * Runs the given cancellation as soon as the thread is interrupted, until it is unwatched. The cancellation runs
+     * on the watchdog thread and must not block.
+     */
+    public void watch(Thread thread, Runnable cancellation) {
+        cancellations.put(thread, cancellation);
+    }
+
+    public void unwatch(Thread thread) {
+        cancellations.remove(thread);
+    }
+
+    private void poll() {
+        cancellations.forEach((thread, cancellation) -> {
+            if (thread.isInterrupted() && cancellations.remove(thread, cancellation)) {
+                try {
+                    cancellation.run();
+                } catch (RuntimeException e) {
+                    log.warn("Could not cancel the task of the interrupted thread " + thread.getName() + ".", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Initializes KubernetesInterruptWatchdog on the first execution of KubernetesInterruptWatchdog.getInstance(),
+     * not before.
+     **/
+    private static class KubernetesInterruptWatchdogHolder {
+        private static final KubernetesInterruptWatchdog INSTANCE = new KubernetesInterruptWatchdog();
+
+        private KubernetesInterruptWatchdogHolder() {
+        }
+    }
+}
@@ -25,10 +25,20 @@
  */
 package jsr223.kubernetes.processbuilder;
 
+import java.io.IOException;
+
+
 /**
  * @author ActiveEon Team
  * @since 17/05/2018
  */
 public interface KubernetesProcessBuilderFactory {
     ProcessBuilder getProcessBuilder(String... command);
+
+    /**
+     * Starts a command with a process builder of this factory.
+     */
+    default Process start(String... command) throws IOException {
+        return getProcessBuilder(command).start();
+    }
 }
@@ -25,12 +25,15 @@
  */
 package jsr223.kubernetes.processbuilder;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 
+import jsr223.kubernetes.metrics.KubernetesEngineMetrics;
+
 
 /**
  * @author ActiveEon Team
@@ -40,21 +43,24 @@ public class KubernetesProcessBuilderUtilities {
 
     /**
      * Creates a thread which will constantly pipe data, only active when new data is available, from a source to an attached sink. After
-     * reaching the end of the source stream the @Thread will silently be destroyed.
+     * reaching the end of the source stream the @Thread will silently be destroyed. The thread is a daemon: it ends
+     * when the process is destroyed, and never holds the JVM.
      *
      * @param source       Data source.
      * @param attachedSink Data sink.
      */
     private void attachToInputStream(final Reader source, final Writer attachedSink) {
-        new Thread() {
+        Thread pump = new Thread("k8s-stream-pump") {
             public void run() {
                 try {
-                    pipe(source, attachedSink);
+                    KubernetesEngineMetrics.getInstance().recordPumpedCharacters(pipe(source, attachedSink));
                 } catch (IOException ignored) {
                     //The exception is ignored as for native scripts
                 }
             }
-        }.start();
+        };
+        pump.setDaemon(true);
+        pump.start();
     }
 
     /**
@@ -63,17 +69,49 @@ public class KubernetesProcessBuilderUtilities {
      *
      * @param from Source of data.
      * @param to   Sink of data.
+     * @return The number of characters piped.
      * @throws IOException
      */
-    public static void pipe(Reader from, Writer to) throws IOException {
+    public static long pipe(Reader from, Writer to) throws IOException {
+        long count = 0;
         char[] buff = new char[1024];
         int n = from.read(buff);
         while (n != -1) {
             to.write(buff, 0, n);
             to.flush();
+            count += n;
             n = from.read(buff);
         }
         from.close();
+        return count;
+    }
+
+    /**
+     * Pipes all lines from a reader (source) to a writer (sink), each of them prefixed with the given string, until an
+     * I/O exception occurs or the end of the source is reached. Lines are written atomically with respect to other
+     * threads piping to the same sink, so that several sources can share a single writer without mixing their lines.
+     *
+     * @param from       Source of data.
+     * @param to         Sink of data.
+     * @param linePrefix Prefix added to every line.
+     * @return The number of characters piped, prefixes excluded.
+     * @throws IOException
+     */
+    public static long pipeLines(Reader from, Writer to, String linePrefix) throws IOException {
+        long count = 0;
+        try (BufferedReader reader = new BufferedReader(from)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                count += line.length() + 1;
+                synchronized (to) {
+                    to.write(linePrefix);
+                    to.write(line);
+                    to.write(System.lineSeparator());
+                    to.flush();
+                }
+            }
+        }
+        return count;
     }
 
     /**
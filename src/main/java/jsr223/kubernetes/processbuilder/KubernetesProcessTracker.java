@@ -0,0 +1,110 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.processbuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Keeps track of the kubectl processes started by a task, so that they can all be destroyed when the task is
+ * interrupted. Killing a process also ends the threads pumping its outputs, which read its closed pipes.
+ *
+ * Once cancelled, the tracker refuses to start new processes.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class KubernetesProcessTracker implements KubernetesProcessBuilderFactory {
+
+    // Factory starting the processes, which are not tracked when started through it directly
+    @Getter
+    @NonNull
+    private final KubernetesProcessBuilderFactory delegate;
+
+    private final Set<Process> processes = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean cancelled = false;
+
+    @Override
+    public ProcessBuilder getProcessBuilder(String... command) {
+        return delegate.getProcessBuilder(command);
+    }
+
+    @Override
+    public Process start(String... command) throws IOException {
+        if (cancelled) {
+            throw new IOException("The task has been cancelled, " + String.join(" ", command) + " was not started.");
+        }
+        Process process = delegate.start(command);
+        processes.removeIf(tracked -> !tracked.isAlive());
+        processes.add(process);
+        if (cancelled) {
+            // cancelled while the process was starting
+            process.destroyForcibly();
+        }
+        return process;
+    }
+
+    /**
+     * Destroys the running processes, and refuses to start new ones.
+     *
+     * @return The number of processes destroyed.
+     */
+    public int cancel() {
+        cancelled = true;
+        return destroyAll();
+    }
+
+    /**
+     * Destroys the running processes, the tracker can still start new ones.
+     *
+     * @return The number of processes destroyed.
+     */
+    public int destroyAll() {
+        List<Process> running = new ArrayList<>();
+        processes.removeIf(process -> {
+            if (process.isAlive()) {
+                running.add(process);
+            }
+            return true;
+        });
+        running.forEach(Process::destroyForcibly);
+        return running.size();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.processbuilder;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.io.CountingInputStream;
+
+import jsr223.kubernetes.metrics.FlightRecorderEvent;
+import jsr223.kubernetes.metrics.KubernetesEngineMetrics;
+import jsr223.kubernetes.metrics.KubernetesFlightRecorder;
+
+
+/**
+ * Wraps a kubectl process to record its latency and exit value, by kubectl verb, once it is known to have exited.
+ * A JFR event covers the process lifetime, with the number of output bytes read so far when it exits.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class MeteredProcess extends Process {
+
+    private final Process process;
+
+    private final String verb;
+
+    private final long startTime;
+
+    private final FlightRecorderEvent event;
+
+    private final CountingInputStream inputStream;
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    public MeteredProcess(Process process, String verb, long startTime, FlightRecorderEvent event) {
+        this.process = process;
+        this.verb = verb;
+        this.startTime = startTime;
+        this.event = event;
+        this.inputStream = new CountingInputStream(process.getInputStream());
+    }
+
+    /**
+     * @return The kubectl verb of a command (create, logs...): its first argument which is not a switch.
+     */
+    public static String getVerb(String... command) {
+        for (int i = 1; i < command.length; i++) {
+            if (!command[i].startsWith("-")) {
+                return command[i];
+            }
+        }
+        return "unknown";
+    }
+
+    /**
+     * @return The resource of a command: its first argument after the verb which is not a switch, or the file given
+     * with -f.
+     */
+    public static String getResource(String... command) {
+        boolean afterVerb = false;
+        for (int i = 1; i < command.length; i++) {
+            if ("-f".equals(command[i]) && i + 1 < command.length) {
+                return command[i + 1];
+            }
+            if (!command[i].startsWith("-")) {
+                if (afterVerb) {
+                    return command[i];
+                }
+                afterVerb = true;
+            }
+        }
+        return "";
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return process.getOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return process.getErrorStream();
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        return record(process.waitFor());
+    }
+
+    @Override
+    public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+        boolean exited = process.waitFor(timeout, unit);
+        if (exited) {
+            record(process.exitValue());
+        }
+        return exited;
+    }
+
+    @Override
+    public int exitValue() {
+        return record(process.exitValue());
+    }
+
+    @Override
+    public void destroy() {
+        process.destroy();
+    }
+
+    @Override
+    public Process destroyForcibly() {
+        process.destroyForcibly();
+        return this;
+    }
+
+    @Override
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    private int record(int exitValue) {
+        if (recorded.compareAndSet(false, true)) {
+            KubernetesEngineMetrics.getInstance().recordKubectl(verb, System.nanoTime() - startTime, exitValue);
+            event.set(KubernetesFlightRecorder.FIELD_EXIT_VALUE, exitValue)
+                 .set(KubernetesFlightRecorder.FIELD_OUTPUT_BYTES, inputStream.getCount())
+                 .commit();
+        }
+        return exitValue;
+    }
+}
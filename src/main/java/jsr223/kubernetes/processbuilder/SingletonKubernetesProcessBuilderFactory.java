@@ -25,6 +25,13 @@
  */
 package jsr223.kubernetes.processbuilder;
 
+import java.io.IOException;
+
+import jsr223.kubernetes.metrics.FlightRecorderEvent;
+import jsr223.kubernetes.metrics.KubernetesEngineMetrics;
+import jsr223.kubernetes.metrics.KubernetesFlightRecorder;
+
+
 /**
  * @author ActiveEon Team
  * @since 17/05/2018
@@ -43,4 +50,23 @@ public class SingletonKubernetesProcessBuilderFactory implements KubernetesProce
     public ProcessBuilder getProcessBuilder(String... command) {
         return new ProcessBuilder(command);
     }
+
+    /**
+     * Starts a command and records its latency, exit value and fork failures in the engine metrics and as a JFR
+     * event.
+     */
+    @Override
+    public Process start(String... command) throws IOException {
+        long startTime = System.nanoTime();
+        String verb = MeteredProcess.getVerb(command);
+        FlightRecorderEvent event = KubernetesFlightRecorder.beginKubectlProcess(verb,
+                                                                                 MeteredProcess.getResource(command));
+        try {
+            return new MeteredProcess(getProcessBuilder(command).start(), verb, startTime, event);
+        } catch (IOException e) {
+            KubernetesEngineMetrics.getInstance().recordForkFailure();
+            event.set(KubernetesFlightRecorder.FIELD_EXIT_VALUE, -1).commit();
+            throw e;
+        }
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.sizing;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * The peak and average cpu and memory usage of a container over the samples of a task. The samples of the pods of a
+ * task sharing a container name (e.g. the pods of a Job) are aggregated together.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class ContainerUsageStatistics {
+
+    private static final long MEBIBYTE = 1024 * 1024;
+
+    @Getter
+    private final String containerName;
+
+    @Getter
+    private int samples = 0;
+
+    private long peakCpuMillicores = 0;
+
+    private long peakMemoryBytes = 0;
+
+    private long totalCpuMillicores = 0;
+
+    private long totalMemoryBytes = 0;
+
+    public synchronized void add(ContainerUsage usage) {
+        samples++;
+        peakCpuMillicores = Math.max(peakCpuMillicores, usage.getCpuMillicores());
+        peakMemoryBytes = Math.max(peakMemoryBytes, usage.getMemoryBytes());
+        totalCpuMillicores += usage.getCpuMillicores();
+        totalMemoryBytes += usage.getMemoryBytes();
+    }
+
+    public synchronized ContainerUsage getPeak() {
+        return new ContainerUsage(peakCpuMillicores, peakMemoryBytes);
+    }
+
+    /**
+     * @return The average usage, zero without any sample.
+     */
+    public synchronized ContainerUsage getAverage() {
+        if (samples == 0) {
+            return new ContainerUsage(0, 0);
+        }
+        return new ContainerUsage(totalCpuMillicores / samples, totalMemoryBytes / samples);
+    }
+
+    public synchronized LinkedHashMap<String, Serializable> toMap() {
+        LinkedHashMap<String, Serializable> map = new LinkedHashMap<>();
+        map.put("container", containerName);
+        map.put("samples", samples);
+        map.put("cpuPeakMillicores", peakCpuMillicores);
+        map.put("cpuAverageMillicores", getAverage().getCpuMillicores());
+        map.put("memoryPeakBytes", peakMemoryBytes);
+        map.put("memoryAverageBytes", getAverage().getMemoryBytes());
+        return map;
+    }
+
+    /**
+     * @return A one-line summary, the memory in Mi.
+     */
+    @Override
+    public synchronized String toString() {
+        ContainerUsage average = getAverage();
+        return "Resource usage of container " + containerName + ": cpu peak " + peakCpuMillicores + "m, average " +
+               average.getCpuMillicores() + "m, memory peak " + peakMemoryBytes / MEBIBYTE + "Mi, average " +
+               average.getMemoryBytes() / MEBIBYTE + "Mi (" + samples + (samples == 1 ? " sample)" : " samples)");
+    }
+}
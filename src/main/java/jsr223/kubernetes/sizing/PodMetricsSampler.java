@@ -0,0 +1,247 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.sizing;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jsr223.kubernetes.admission.ResourceQuantity;
+import jsr223.kubernetes.metrics.KubernetesEngineMetrics;
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesPropertyLoader;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Samples periodically the cpu and memory usage of the pods of the running tasks, from the metrics API served by the
+ * metrics server of the cluster. The sampler is shared by the tasks of the JVM: each sampling reads the pod metrics
+ * of a namespace once, whatever the number of tasks running in it, and dispatches them to the subscriptions of the
+ * tasks.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class PodMetricsSampler {
+
+    private static final Logger log = Logger.getLogger(PodMetricsSampler.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<Map<String, Object>> JSON_OBJECT = new TypeReference<Map<String, Object>>() {
+    };
+
+    private static final int SAMPLING_THREADS = 4;
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(SAMPLING_THREADS,
+                                                                                        new ThreadFactoryBuilder().setDaemon(true)
+                                                                                                                  .setNameFormat("k8s-pod-metrics-sampler-%d")
+                                                                                                                  .build());
+
+    // Cluster context and namespace -> subscriptions with pods in this namespace
+    private final Map<String, SamplingGroup> groups = new ConcurrentHashMap<>();
+
+    private final KubernetesEngineMetrics metrics = KubernetesEngineMetrics.getInstance();
+
+    private PodMetricsSampler() {
+        long interval = KubernetesPropertyLoader.getInstance().getSizingSampleInterval();
+        scheduler.scheduleWithFixedDelay(this::sampleAll, interval, interval, TimeUnit.SECONDS);
+    }
+
+    public static PodMetricsSampler getInstance() {
+        return PodMetricsSamplerHolder.INSTANCE;
+    }
+
+    /**
+     * Samples the pods of the Pod and Job resources of a task, until the returned subscription is closed.
+     *
+     * @param commandRunner  Reads the pod metrics of the namespaces no other task samples yet.
+     * @param commandCreator Targets the cluster of the resources.
+     */
+    public PodUsageSubscription subscribe(KubernetesCommandRunner commandRunner,
+            KubernetesCommandCreator commandCreator, List<KubernetesResource> resources) {
+        PodUsageSubscription subscription = new PodUsageSubscription(this, resources);
+        for (String namespace : subscription.getNamespaces()) {
+            groups.compute(getKey(commandCreator, namespace), (key, group) -> {
+                SamplingGroup subscribed = group == null ? new SamplingGroup(commandRunner, commandCreator, namespace)
+                                                         : group;
+                subscribed.subscriptions.add(subscription);
+                return subscribed;
+            });
+        }
+        return subscription;
+    }
+
+    void unsubscribe(PodUsageSubscription subscription) {
+        for (String key : groups.keySet()) {
+            groups.computeIfPresent(key, (k, group) -> {
+                group.subscriptions.remove(subscription);
+                return group.subscriptions.isEmpty() ? null : group;
+            });
+        }
+    }
+
+    /**
+     * Samples the pods of a subscription on the calling thread.
+     */
+    void sampleNow(PodUsageSubscription subscription) throws InterruptedException {
+        for (SamplingGroup group : groups.values()) {
+            if (group.subscriptions.contains(subscription)) {
+                sample(group, Collections.singleton(subscription));
+            }
+        }
+    }
+
+    private void sampleAll() {
+        for (SamplingGroup group : groups.values()) {
+            // A namespace slower to read than the interval is not sampled twice at once
+            if (group.sampling.compareAndSet(false, true)) {
+                scheduler.execute(() -> {
+                    try {
+                        sample(group, group.subscriptions);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        group.sampling.set(false);
+                    }
+                });
+            }
+        }
+    }
+
+    private void sample(SamplingGroup group, Collection<PodUsageSubscription> subscriptions)
+            throws InterruptedException {
+        List<Map<String, Object>> items;
+        try {
+            KubernetesCommandResult result = group.commandRunner.run(group.commandCreator.createKubectlGetPodMetricsCommand(group.namespace));
+            if (!result.isSuccessful()) {
+                // The metrics of a pod are only available a while after it has started
+                log.debug("Could not read the pod metrics of namespace " + group.namespace + ": " +
+                          result.getError());
+                return;
+            }
+            items = getList(MAPPER.readValue(result.getOutput(), JSON_OBJECT), "items");
+        } catch (IOException e) {
+            log.debug("Could not read the pod metrics of namespace " + group.namespace + ": " + e);
+            return;
+        }
+
+        int sampledPods = 0;
+        for (Map<String, Object> item : items) {
+            Map<String, Object> metadata = getMap(item, "metadata");
+            String podName = String.valueOf(metadata.get("name"));
+            Map<String, Object> labels = getMap(metadata, "labels");
+            boolean sampled = false;
+            for (PodUsageSubscription subscription : subscriptions) {
+                if (subscription.matches(group.namespace, podName, labels)) {
+                    addContainerUsages(subscription, item);
+                    sampled = true;
+                }
+            }
+            if (sampled) {
+                sampledPods++;
+            }
+        }
+        metrics.recordUsageSampling(sampledPods);
+    }
+
+    private static void addContainerUsages(PodUsageSubscription subscription, Map<String, Object> podMetrics) {
+        for (Map<String, Object> container : getList(podMetrics, "containers")) {
+            Map<String, Object> usage = getMap(container, "usage");
+            try {
+                subscription.add(String.valueOf(container.get("name")),
+                                 new ContainerUsage(ResourceQuantity.parse(String.valueOf(usage.getOrDefault("cpu",
+                                                                                                             "0")))
+                                                                   .multiply(BigDecimal.valueOf(1000))
+                                                                   .longValue(),
+                                                    ResourceQuantity.parse(String.valueOf(usage.getOrDefault("memory",
+                                                                                                             "0")))
+                                                                    .longValue()));
+            } catch (NumberFormatException e) {
+                log.debug("Unexpected usage of container " + container.get("name") + ": " + usage);
+            }
+        }
+    }
+
+    private static String getKey(KubernetesCommandCreator commandCreator, String namespace) {
+        return commandCreator.getContext() + "/" + namespace;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Map<String, Object> parent, String field) {
+        Object child = parent == null ? null : parent.get(field);
+        return child instanceof Map ? (Map<String, Object>) child : Collections.emptyMap();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getList(Map<String, Object> parent, String field) {
+        Object child = parent == null ? null : parent.get(field);
+        return child instanceof List ? (List<Map<String, Object>>) child : Collections.emptyList();
+    }
+
+    // The subscriptions sampled with a single read of the pod metrics of a namespace
+    @RequiredArgsConstructor
+    private static class SamplingGroup {
+
+        private final KubernetesCommandRunner commandRunner;
+
+        private final KubernetesCommandCreator commandCreator;
+
+        private final String namespace;
+
+        private final Set<PodUsageSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+        private final AtomicBoolean sampling = new AtomicBoolean(false);
+    }
+
+    /**
+     * Initializes PodMetricsSampler on the first execution of PodMetricsSampler.getInstance(), not before.
+     **/
+    private static class PodMetricsSamplerHolder {
+        private static final PodMetricsSampler INSTANCE = new PodMetricsSampler();
+
+        private PodMetricsSamplerHolder() {
+        }
+    }
+}
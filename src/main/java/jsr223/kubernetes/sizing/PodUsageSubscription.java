@@ -0,0 +1,131 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.sizing;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jsr223.kubernetes.model.KubernetesResource;
+
+
+/**
+ * The resource usage of the pods of a task, sampled by the {@link PodMetricsSampler} shared by the tasks of the JVM
+ * until the subscription is closed.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class PodUsageSubscription implements Closeable {
+
+    static final String JOB_NAME_LABEL = "job-name";
+
+    private final PodMetricsSampler sampler;
+
+    // Namespace -> names of the Pod resources, and of the Job resources whose pods are sampled
+    private final Map<String, Set<String>> podNames = new LinkedHashMap<>();
+
+    private final Map<String, Set<String>> jobNames = new LinkedHashMap<>();
+
+    // Container name -> statistics, in sampling order
+    private final Map<String, ContainerUsageStatistics> statistics = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    PodUsageSubscription(PodMetricsSampler sampler, List<KubernetesResource> resources) {
+        this.sampler = sampler;
+        for (KubernetesResource resource : resources) {
+            switch (resource.getKind().toLowerCase()) {
+                case "pod":
+                    podNames.computeIfAbsent(resource.getNamespace(), k -> new LinkedHashSet<>())
+                            .add(resource.getName());
+                    break;
+                case "job":
+                    jobNames.computeIfAbsent(resource.getNamespace(), k -> new LinkedHashSet<>())
+                            .add(resource.getName());
+                    break;
+                default:
+                    // the other resources have no pod of their own
+            }
+        }
+    }
+
+    /**
+     * @return The namespaces of the sampled pods.
+     */
+    Set<String> getNamespaces() {
+        Set<String> namespaces = new LinkedHashSet<>(podNames.keySet());
+        namespaces.addAll(jobNames.keySet());
+        return namespaces;
+    }
+
+    boolean matches(String namespace, String podName, Map<String, Object> labels) {
+        return podNames.getOrDefault(namespace, Collections.emptySet()).contains(podName) ||
+               jobNames.getOrDefault(namespace, Collections.emptySet()).contains(labels.get(JOB_NAME_LABEL));
+    }
+
+    void add(String containerName, ContainerUsage usage) {
+        statistics.computeIfAbsent(containerName, ContainerUsageStatistics::new).add(usage);
+    }
+
+    /**
+     * Samples the pods right away, e.g. for the tasks shorter than the sampling interval, and closes the
+     * subscription.
+     */
+    public void finish() throws InterruptedException {
+        try {
+            sampler.sampleNow(this);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * @return The statistics of each container sampled so far, in sampling order.
+     */
+    public List<ContainerUsageStatistics> getStatistics() {
+        synchronized (statistics) {
+            return new ArrayList<>(statistics.values());
+        }
+    }
+
+    /**
+     * @return The peak usage of each container sampled so far, by container name.
+     */
+    public Map<String, ContainerUsage> getPeakUsages() {
+        Map<String, ContainerUsage> peakUsages = new LinkedHashMap<>();
+        getStatistics().forEach(container -> peakUsages.put(container.getContainerName(), container.getPeak()));
+        return peakUsages;
+    }
+
+    @Override
+    public void close() {
+        sampler.unsubscribe(this);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.sizing;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+import org.apache.log4j.Logger;
+
+import jsr223.kubernetes.admission.ResourceQuantity;
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+import jsr223.kubernetes.utils.KubernetesManifestParser;
+
+
+/**
+ * Rewrites the cpu and memory requests of the containers of a manifest from their usage history: a percentile of
+ * their latest peak usages, plus some headroom. The requests never exceed the limits, and the containers without
+ * enough history are left untouched.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class RequestSizer {
+
+    private static final Logger log = Logger.getLogger(RequestSizer.class);
+
+    // Runs needed before the requests of a container are sized
+    public static final int MIN_SAMPLES = 3;
+
+    private static final long MIN_CPU_MILLICORES = 10;
+
+    private static final long MIN_MEMORY_BYTES = 16L * 1024 * 1024;
+
+    private static final long MEBIBYTE = 1024L * 1024;
+
+    private final ResourceUsageHistory history;
+
+    private final String workflowName;
+
+    private final String taskName;
+
+    private final int percentile;
+
+    private final int headroomPercent;
+
+    public RequestSizer(ResourceUsageHistory history, String workflowName, String taskName, int percentile,
+            int headroomPercent) {
+        this.history = history;
+        this.workflowName = workflowName;
+        this.taskName = taskName;
+        this.percentile = Math.min(100, Math.max(1, percentile));
+        this.headroomPercent = Math.max(0, headroomPercent);
+    }
+
+    /**
+     * @return The manifest with the requests sized, or the given manifest when no container has enough history.
+     */
+    public String size(String manifest) {
+        List<KubernetesManifestDocument> documents = KubernetesManifestParser.parse(manifest);
+        List<KubernetesManifestDocument> sizedDocuments = new ArrayList<>();
+        boolean sized = false;
+        for (KubernetesManifestDocument document : documents) {
+            boolean documentSized = false;
+            for (Map<String, Object> container : document.getContainers()) {
+                documentSized |= sizeContainer(container);
+            }
+            if (documentSized) {
+                sizedDocuments.add(KubernetesManifestParser.toManifestDocument(document.getObject()));
+                sized = true;
+            } else {
+                sizedDocuments.add(document);
+            }
+        }
+        return sized ? KubernetesManifestParser.toManifest(sizedDocuments) : manifest;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean sizeContainer(Map<String, Object> container) {
+        String name = String.valueOf(container.get("name"));
+        List<ContainerUsage> usages = history.getUsages(ResourceUsageHistory.getKey(workflowName, taskName, name));
+        if (usages.size() < MIN_SAMPLES) {
+            return false;
+        }
+        long cpuMillicores = Math.max(MIN_CPU_MILLICORES,
+                                      withHeadroom(getPercentile(usages, ContainerUsage::getCpuMillicores)));
+        long memoryBytes = Math.max(MIN_MEMORY_BYTES,
+                                    withHeadroom(getPercentile(usages, ContainerUsage::getMemoryBytes)));
+
+        Map<String, Object> resources = container.get("resources") instanceof Map ? (Map<String, Object>) container.get("resources")
+                                                                                   : new LinkedHashMap<>();
+        Map<String, Object> requests = resources.get("requests") instanceof Map ? (Map<String, Object>) resources.get("requests")
+                                                                                : new LinkedHashMap<>();
+        Map<String, Object> limits = resources.get("limits") instanceof Map ? (Map<String, Object>) resources.get("limits")
+                                                                            : null;
+        // Memory in mebibytes, rounded up; requests above the limits are rejected by the API server
+        memoryBytes = Math.min((memoryBytes + MEBIBYTE - 1) / MEBIBYTE * MEBIBYTE, getLimit(limits, "memory", 1));
+        cpuMillicores = Math.min(cpuMillicores, getLimit(limits, "cpu", 1000));
+        String cpu = cpuMillicores + "m";
+        String memory = memoryBytes % MEBIBYTE == 0 ? memoryBytes / MEBIBYTE + "Mi" : String.valueOf(memoryBytes);
+
+        log.info("Container " + name + " requests sized from its latest " + usages.size() + " runs: cpu " +
+                 requests.get("cpu") + " -> " + cpu + ", memory " + requests.get("memory") + " -> " + memory + '.');
+        requests.put("cpu", cpu);
+        requests.put("memory", memory);
+        resources.put("requests", requests);
+        container.put("resources", resources);
+        return true;
+    }
+
+    private long getPercentile(List<ContainerUsage> usages, ToLongFunction<ContainerUsage> value) {
+        long[] values = usages.stream().mapToLong(value).sorted().toArray();
+        // Nearest rank
+        int rank = (int) Math.ceil(percentile / 100.0 * values.length);
+        return values[Math.max(0, rank - 1)];
+    }
+
+    private long withHeadroom(long value) {
+        return value + value * headroomPercent / 100;
+    }
+
+    // The limit of a resource in the given unit, or Long.MAX_VALUE if it has none
+    private static long getLimit(Map<String, Object> limits, String resource, long unitsPerQuantity) {
+        if (limits == null || limits.get(resource) == null) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return ResourceQuantity.parse(String.valueOf(limits.get(resource)))
+                                   .multiply(BigDecimal.valueOf(unitsPerQuantity))
+                                   .longValue();
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.sizing;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+
+import jsr223.kubernetes.utils.KubernetesPropertyLoader;
+
+
+/**
+ * JVM-wide history of the peak usage of the task containers, keyed by workflow, task and container names, and kept
+ * in a local file so that it survives the restarts of the node.
+ *
+ * The file holds lines of container usages: the container key, then peak cpu usages in millicores, then peak memory
+ * usages in bytes, oldest first, tab-separated. The usages of each task run are appended to the file, and the lines
+ * of a same container add up when it is loaded. Once the file holds more than twice as many lines as containers, it is
+ * compacted to one line per container. Only the latest 'sizing.history.size' runs of the latest {@value #MAX_KEYS}
+ * containers are kept.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ResourceUsageHistory {
+
+    private static final Logger log = Logger.getLogger(ResourceUsageHistory.class);
+
+    private static final int MAX_KEYS = 10000;
+
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private static final String VALUE_SEPARATOR = ",";
+
+    // Lines appended before the file is compacted, at least
+    private static final int MIN_COMPACTION_LINES = 1000;
+
+    private final Path file;
+
+    private final int maxSamples;
+
+    // Lines in the file, appended ones included
+    private int fileLines = 0;
+
+    // Container key -> latest usages, oldest first; the least recently used containers first
+    private final Map<String, Deque<ContainerUsage>> usages = new LinkedHashMap<String, Deque<ContainerUsage>>(16,
+                                                                                                             0.75f,
+                                                                                                             true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Deque<ContainerUsage>> eldest) {
+            return size() > MAX_KEYS;
+        }
+    };
+
+    private ResourceUsageHistory() {
+        this(Paths.get(KubernetesPropertyLoader.getInstance().getSizingHistoryFile()),
+             KubernetesPropertyLoader.getInstance().getSizingHistorySize());
+    }
+
+    ResourceUsageHistory(Path file, int maxSamples) {
+        this.file = file;
+        this.maxSamples = Math.max(1, maxSamples);
+        load();
+    }
+
+    public static ResourceUsageHistory getInstance() {
+        return ResourceUsageHistoryHolder.INSTANCE;
+    }
+
+    /**
+     * @return The key of a container of a task.
+     */
+    public static String getKey(String workflowName, String taskName, String containerName) {
+        return (workflowName + '/' + taskName + '/' + containerName).replaceAll("[\\t\\r\\n]", " ");
+    }
+
+    /**
+     * @return The latest peak usages of a container, oldest first.
+     */
+    public synchronized List<ContainerUsage> getUsages(String key) {
+        Deque<ContainerUsage> containerUsages = usages.get(key);
+        return containerUsages == null ? Collections.emptyList() : new ArrayList<>(containerUsages);
+    }
+
+    /**
+     * Adds the peak usages of the containers of a task run, and saves the history.
+     */
+    public synchronized void record(Map<String, ContainerUsage> containerUsages) {
+        containerUsages.forEach((key, usage) -> {
+            Deque<ContainerUsage> history = usages.computeIfAbsent(key, k -> new ArrayDeque<>());
+            history.addLast(usage);
+            while (history.size() > maxSamples) {
+                history.removeFirst();
+            }
+        });
+        if (fileLines + containerUsages.size() > Math.max(2 * usages.size(), MIN_COMPACTION_LINES)) {
+            compact();
+        } else {
+            append(containerUsages);
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                fileLines++;
+                String[] fields = line.split(FIELD_SEPARATOR);
+                if (fields.length != 3) {
+                    continue;
+                }
+                String[] cpus = fields[1].split(VALUE_SEPARATOR);
+                String[] memories = fields[2].split(VALUE_SEPARATOR);
+                int samples = Math.min(cpus.length, memories.length);
+                List<ContainerUsage> lineUsages = new ArrayList<>();
+                try {
+                    for (int i = Math.max(0, samples - maxSamples); i < samples; i++) {
+                        lineUsages.add(new ContainerUsage(Long.parseLong(cpus[i]), Long.parseLong(memories[i])));
+                    }
+                } catch (NumberFormatException e) {
+                    // e.g. a line left half written by a crash
+                    log.debug("Skipped an invalid line of the resource usage history " + file + ": " + e);
+                    continue;
+                }
+                // Accessing the container makes it the most recently used one
+                Deque<ContainerUsage> history = usages.computeIfAbsent(fields[0], k -> new ArrayDeque<>());
+                history.addAll(lineUsages);
+                while (history.size() > maxSamples) {
+                    history.removeFirst();
+                }
+            }
+            log.debug("Loaded the resource usage history of " + usages.size() + " containers from " + file);
+        } catch (IOException e) {
+            log.warn("Could not read the resource usage history " + file + ", it is started over: " + e);
+            usages.clear();
+        }
+    }
+
+    private void append(Map<String, ContainerUsage> containerUsages) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(file,
+                                                                 StandardCharsets.UTF_8,
+                                                                 StandardOpenOption.CREATE,
+                                                                 StandardOpenOption.APPEND)) {
+                for (Map.Entry<String, ContainerUsage> entry : containerUsages.entrySet()) {
+                    writeLine(writer, entry.getKey(), Collections.singletonList(entry.getValue()));
+                }
+            }
+            fileLines += containerUsages.size();
+        } catch (IOException e) {
+            log.warn("Could not save the resource usage history " + file + ": " + e);
+        }
+    }
+
+    private void compact() {
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporaryFile = null;
+        try {
+            Files.createDirectories(directory);
+            temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Deque<ContainerUsage>> entry : usages.entrySet()) {
+                    writeLine(writer, entry.getKey(), entry.getValue());
+                }
+            }
+            // The history is replaced at once, a crash cannot leave it half written
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            fileLines = usages.size();
+        } catch (IOException e) {
+            log.warn("Could not save the resource usage history " + file + ": " + e);
+            try {
+                if (temporaryFile != null) {
+                    Files.deleteIfExists(temporaryFile);
+                }
+            } catch (IOException ignored) {
+                // A leftover temporary file does not prevent the next saves
+            }
+        }
+    }
+
+    private static void writeLine(BufferedWriter writer, String key, Iterable<ContainerUsage> containerUsages)
+            throws IOException {
+        StringBuilder cpus = new StringBuilder();
+        StringBuilder memories = new StringBuilder();
+        for (ContainerUsage usage : containerUsages) {
+            if (cpus.length() > 0) {
+                cpus.append(VALUE_SEPARATOR);
+                memories.append(VALUE_SEPARATOR);
+            }
+            cpus.append(usage.getCpuMillicores());
+            memories.append(usage.getMemoryBytes());
+        }
+        writer.write(key + FIELD_SEPARATOR + cpus + FIELD_SEPARATOR + memories);
+        writer.newLine();
+    }
+
+    /**
+     * Initializes ResourceUsageHistory on the first execution of ResourceUsageHistory.getInstance(), not before.
+     **/
+    private static class ResourceUsageHistoryHolder {
+        private static final ResourceUsageHistory INSTANCE = new ResourceUsageHistory();
+
+        private ResourceUsageHistoryHolder() {
+        }
+    }
+}
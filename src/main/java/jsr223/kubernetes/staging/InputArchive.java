@@ -0,0 +1,236 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.staging;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+
+/**
+ * A gzip-compressed tar of the task input files, written to a local temporary file. The archive is reproducible: its
+ * entries are sorted, and carry neither owners nor modification times, so that the same inputs always give the same
+ * content hash.
+ *
+ * Each input is archived under its own file name: the input 'data/sets/' gives the entries 'sets/...'.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class InputArchive implements Closeable {
+
+    private static final Logger log = Logger.getLogger(InputArchive.class);
+
+    private static final int BLOCK_SIZE = 512;
+
+    // Largest size of the 11 octal digits of the ustar size field
+    private static final long MAX_ENTRY_SIZE = 077777777777L;
+
+    private static final String PAX_HEADER_NAME = "././@PaxHeader";
+
+    @Getter
+    private final Path file;
+
+    // SHA-256 of the uncompressed tar, in hexadecimal
+    @Getter
+    private final String hash;
+
+    // Compressed size, in bytes
+    @Getter
+    private final long size;
+
+    @Getter
+    private final int fileCount;
+
+    /**
+     * Archives the given local files and directories.
+     *
+     * @param inputs The files and directories to archive.
+     * @return The archive, to be closed to delete its temporary file.
+     */
+    public static InputArchive build(List<Path> inputs) throws IOException {
+        Path file = Files.createTempFile("pa-inputs-", ".tar.gz");
+        try {
+            HashingOutputStream tar;
+            int fileCount = 0;
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                tar = new HashingOutputStream(Hashing.sha256(), out);
+                for (Path input : inputs) {
+                    fileCount += writeInput(tar, input);
+                }
+                // End of archive: two zero blocks
+                tar.write(new byte[2 * BLOCK_SIZE]);
+            }
+            InputArchive archive = new InputArchive(file, tar.hash().toString(), Files.size(file), fileCount);
+            log.debug("Archived " + fileCount + " input files in " + archive.getSize() + " bytes: " + inputs);
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static int writeInput(OutputStream tar, Path input) throws IOException {
+        if (!Files.exists(input)) {
+            throw new IOException("Task input not found: " + input.toAbsolutePath());
+        }
+        Path root = input.toAbsolutePath().normalize();
+        String rootName = root.getFileName() == null ? "" : root.getFileName().toString();
+        if (!Files.isDirectory(root)) {
+            writeFile(tar, rootName, root);
+            return 1;
+        }
+
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(root)) {
+            paths = walk.sorted().collect(Collectors.toList());
+        }
+        int fileCount = 0;
+        for (Path path : paths) {
+            String name = rootName;
+            for (Path element : root.relativize(path)) {
+                if (!element.toString().isEmpty()) {
+                    name = name.isEmpty() ? element.toString() : name + '/' + element;
+                }
+            }
+            if (Files.isDirectory(path)) {
+                if (!name.isEmpty()) {
+                    writeHeader(tar, name + '/', 0755, 0, '5');
+                }
+            } else if (Files.isRegularFile(path)) {
+                writeFile(tar, name, path);
+                fileCount++;
+            } else {
+                log.debug("Skipped the special file " + path + " of the task inputs.");
+            }
+        }
+        return fileCount;
+    }
+
+    private static void writeFile(OutputStream tar, String name, Path path) throws IOException {
+        long size = Files.size(path);
+        if (size > MAX_ENTRY_SIZE) {
+            throw new IOException("Task input " + path + " is too large to be staged: " + size + " bytes.");
+        }
+        writeHeader(tar, name, Files.isExecutable(path) ? 0755 : 0644, size, '0');
+        Files.copy(path, tar);
+        writePadding(tar, size);
+    }
+
+    private static void writeHeader(OutputStream tar, String name, int mode, long size, char type) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 100) {
+            // The ustar name field is too short, the full name goes in a preceding pax extended header
+            byte[] record = paxRecord("path", name);
+            tar.write(header(PAX_HEADER_NAME.getBytes(StandardCharsets.US_ASCII), 0644, record.length, 'x'));
+            tar.write(record);
+            writePadding(tar, record.length);
+        }
+        tar.write(header(nameBytes, mode, size, type));
+    }
+
+    private static byte[] header(byte[] name, int mode, long size, char type) {
+        byte[] header = new byte[BLOCK_SIZE];
+        System.arraycopy(name, 0, header, 0, Math.min(name.length, 100));
+        writeOctal(header, 100, 8, mode);
+        writeOctal(header, 108, 8, 0); // uid
+        writeOctal(header, 116, 8, 0); // gid
+        writeOctal(header, 124, 12, size);
+        writeOctal(header, 136, 12, 0); // mtime
+        header[156] = (byte) type;
+        System.arraycopy("ustar\00000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+
+        // The checksum is computed with its own field filled with spaces
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        writeOctal(header, 148, 7, checksum);
+        return header;
+    }
+
+    // A pax record is "<length> <key>=<value>\n", its length including the length digits themselves
+    private static byte[] paxRecord(String key, String value) {
+        int length = key.getBytes(StandardCharsets.UTF_8).length + value.getBytes(StandardCharsets.UTF_8).length + 3;
+        int recordLength = length + String.valueOf(length).length();
+        if (String.valueOf(recordLength).length() > String.valueOf(length).length()) {
+            recordLength++;
+        }
+        return (recordLength + " " + key + '=' + value + '\n').getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Writes a zero-terminated octal number, left-padded with zeros
+    private static void writeOctal(byte[] header, int offset, int length, long value) {
+        String octal = Long.toOctalString(value);
+        int digits = length - 1;
+        for (int i = 0; i < digits; i++) {
+            int index = i - (digits - octal.length());
+            header[offset + i] = (byte) (index < 0 ? '0' : octal.charAt(index));
+        }
+        header[offset + digits] = 0;
+    }
+
+    private static void writePadding(OutputStream tar, long size) throws IOException {
+        int remainder = (int) (size % BLOCK_SIZE);
+        if (remainder != 0) {
+            tar.write(new byte[BLOCK_SIZE - remainder]);
+        }
+    }
+
+    /**
+     * Deletes the temporary file of the archive.
+     */
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete the task inputs archive " + file + ": " + e);
+        }
+    }
+}
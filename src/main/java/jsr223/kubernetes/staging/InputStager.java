@@ -0,0 +1,419 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.staging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.log4j.Logger;
+
+import jsr223.kubernetes.metrics.KubernetesEngineMetrics;
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderFactory;
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderUtilities;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesManifestParser;
+import jsr223.kubernetes.utils.KubernetesPropertyLoader;
+import jsr223.kubernetes.utils.ManifestSweepExpander;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Ships the task input files into the pods of the manifest before their containers start. An init container unpacks
+ * the input archive into an emptyDir volume mounted in every container of the pods, and the archive reaches it in
+ * one of two ways, depending on its size:
+ * <ul>
+ * <li>small archives are stored in a ConfigMap named after their content hash. The ConfigMap is kept, so that the
+ * tasks staging the same inputs later in the namespace skip the upload;</li>
+ * <li>larger archives are streamed into the init container through 'kubectl exec', once the pods are created. The
+ * init container waits for them, and fails the pod if they do not come in time. Only the Jobs running a single
+ * pod, with no parallelism nor retries, can be streamed into.</li>
+ * </ul>
+ *
+ * Inputs are staged into the Pods and Jobs of the manifest.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class InputStager {
+
+    private static final Logger log = Logger.getLogger(InputStager.class);
+
+    public static final String INIT_CONTAINER_NAME = "pa-inputs";
+
+    public static final String INPUTS_VOLUME_NAME = "pa-inputs";
+
+    public static final String ARCHIVE_VOLUME_NAME = "pa-inputs-archive";
+
+    public static final String CONFIG_MAP_NAME_PREFIX = "pa-inputs-";
+
+    public static final String CONFIG_MAP_HASH_LABEL = "proactive.activeeon.com/inputs-hash";
+
+    private static final String ARCHIVE_KEY = "inputs.tar.gz";
+
+    private static final String ARCHIVE_MOUNT_PATH = "/pa-inputs-archive";
+
+    // Created by the upload in the inputs volume, once the archive is unpacked
+    private static final String READY_MARKER = ".pa-inputs-ready";
+
+    // Label set by the Job controller on the pods of a Job
+    private static final String JOB_NAME_LABEL = "job-name";
+
+    private static final List<String> STAGED_KINDS = Arrays.asList("pod", "job");
+
+    // ConfigMaps uploaded by the tasks of the JVM, as context/namespace/name
+    private static final Set<String> KNOWN_CONFIG_MAPS = ConcurrentHashMap.newKeySet();
+
+    private final KubernetesEngineMetrics metrics = KubernetesEngineMetrics.getInstance();
+
+    @NonNull
+    private KubernetesProcessBuilderFactory processBuilderFactory;
+
+    @NonNull
+    private KubernetesCommandRunner commandRunner;
+
+    @NonNull
+    private KubernetesCommandCreator commandCreator;
+
+    @NonNull
+    private InputArchive archive;
+
+    // Where the inputs are mounted in the containers
+    @NonNull
+    private String mountPath;
+
+    // How long the pods wait for their streamed inputs, in seconds
+    private final long timeout;
+
+    // Whether the archive has to be streamed into the pods once they are created
+    @Getter
+    private boolean uploadNeeded = false;
+
+    /**
+     * Adds the init container and the volumes unpacking the inputs to the Pods and Jobs of the manifest, and
+     * uploads the archive to a ConfigMap if it is small enough.
+     *
+     * @param manifest The substituted manifest.
+     * @return The manifest staging the inputs.
+     */
+    public String prepare(String manifest) throws IOException, InterruptedException {
+        List<KubernetesManifestDocument> documents = KubernetesManifestParser.parse(manifest);
+        List<KubernetesManifestDocument> stagedDocuments = documents.stream()
+                                                                    .filter(document -> STAGED_KINDS.contains(document.getKind()
+                                                                                                                      .toLowerCase()) &&
+                                                                                        document.getPodSpec() != null)
+                                                                    .collect(Collectors.toList());
+        if (stagedDocuments.isEmpty()) {
+            log.warn("No Pod or Job in the kubernetes manifest, the task inputs are not staged.");
+            return manifest;
+        }
+
+        String configMapName = null;
+        if (archive.getSize() <= KubernetesPropertyLoader.getInstance().getInputStagingConfigMapMaxSize()) {
+            configMapName = CONFIG_MAP_NAME_PREFIX + archive.getHash().substring(0, 16);
+            Set<String> namespaces = new LinkedHashSet<>();
+            for (KubernetesManifestDocument document : stagedDocuments) {
+                namespaces.add(document.getNamespace());
+            }
+            for (String namespace : namespaces) {
+                uploadConfigMap(configMapName, namespace);
+            }
+        } else {
+            for (KubernetesManifestDocument document : stagedDocuments) {
+                checkSinglePodJob(document);
+            }
+            log.info("Task inputs archive of " + archive.getSize() + " bytes is too large for a ConfigMap, it will " +
+                     "be streamed into the pods.");
+            uploadNeeded = true;
+        }
+
+        for (KubernetesManifestDocument document : stagedDocuments) {
+            addInputsStaging(document.getPodSpec(), configMapName);
+        }
+        StringBuilder stagedManifest = new StringBuilder();
+        for (KubernetesManifestDocument document : documents) {
+            String content = KubernetesManifestParser.toManifestDocument(document.getObject()).getContent();
+            stagedManifest.append(ManifestSweepExpander.DOCUMENT_SEPARATOR).append('\n').append(content);
+            if (!content.endsWith("\n")) {
+                stagedManifest.append('\n');
+            }
+        }
+        return stagedManifest.toString();
+    }
+
+    /**
+     * Streams the archive into the pods of the created Pods and Jobs, when it was too large for a ConfigMap.
+     *
+     * @param resources The created resources.
+     */
+    public void upload(List<KubernetesResource> resources) throws IOException, InterruptedException {
+        if (!uploadNeeded) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeout);
+        for (KubernetesResource resource : resources) {
+            if (STAGED_KINDS.contains(resource.getKind().toLowerCase())) {
+                for (String podName : waitForPods(resource, deadline)) {
+                    waitForInitContainer(podName, resource.getNamespace(), deadline);
+                    streamArchive(podName, resource.getNamespace());
+                }
+            }
+        }
+    }
+
+    /**
+     * Streamed inputs only reach the pods of a Job listed once its first pod is created: the Jobs which may create
+     * more pods later, in parallel or to retry a failed one, are rejected.
+     */
+    private void checkSinglePodJob(KubernetesManifestDocument document) throws IOException {
+        if (!"job".equalsIgnoreCase(document.getKind())) {
+            return;
+        }
+        Object spec = document.getObject().get("spec");
+        Map<?, ?> jobSpec = spec instanceof Map ? (Map<?, ?>) spec : Collections.emptyMap();
+        // Kubernetes retries a failed pod of a Job 6 times by default
+        if (getInt(jobSpec, "completions", 1) > 1 || getInt(jobSpec, "parallelism", 1) > 1 ||
+            getInt(jobSpec, "backoffLimit", 6) > 0) {
+            throw new IOException("Task inputs archive of " + archive.getSize() + " bytes is too large for a " +
+                                  "ConfigMap and can only be streamed into a single pod, but job " +
+                                  document.getName() + " may create several. Set its completions and parallelism " +
+                                  "to 1 and its backoffLimit to 0, or raise input.staging.configmap.max.size.");
+        }
+    }
+
+    private static int getInt(Map<?, ?> map, String field, int defaultValue) {
+        Object value = map.get(field);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    private void uploadConfigMap(String name, String namespace) throws IOException, InterruptedException {
+        String key = (namespace == null ? "" : namespace + '/') + name;
+        // The same namespace may exist in several clusters
+        String knownKey = (commandCreator.getContext() == null ? "" : commandCreator.getContext()) + '/' + key;
+        if (KNOWN_CONFIG_MAPS.contains(knownKey)) {
+            if (isConfigMapFound(name, namespace)) {
+                log.debug("Task inputs ConfigMap " + key + " is already in the cluster.");
+                metrics.recordInputCacheHit();
+                return;
+            }
+            log.info("Task inputs ConfigMap " + key + " has been deleted from the cluster, uploading it again.");
+            KNOWN_CONFIG_MAPS.remove(knownKey);
+        }
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("name", name);
+        if (namespace != null) {
+            metadata.put("namespace", namespace);
+        }
+        metadata.put("labels", Collections.singletonMap(CONFIG_MAP_HASH_LABEL, archive.getHash().substring(0, 63)));
+        Map<String, Object> configMap = new LinkedHashMap<>();
+        configMap.put("apiVersion", "v1");
+        configMap.put("kind", "ConfigMap");
+        configMap.put("metadata", metadata);
+        configMap.put("immutable", true);
+        configMap.put("binaryData",
+                      Collections.singletonMap(ARCHIVE_KEY,
+                                               Base64.getEncoder()
+                                                     .encodeToString(Files.readAllBytes(archive.getFile()))));
+
+        KubernetesCommandResult result = commandRunner.run(KubernetesManifestParser.toManifestDocument(configMap)
+                                                                                   .getContent(),
+                                                           commandCreator.createKubectlCreateCommand(KubernetesCommandCreator.STDIN_FILENAME));
+        if (result.isSuccessful()) {
+            log.info("Uploaded " + archive.getFileCount() + " task input files in ConfigMap " + key + '.');
+            metrics.recordInputUpload(archive.getSize());
+            KNOWN_CONFIG_MAPS.add(knownKey);
+        } else if (result.getError().contains("AlreadyExists")) {
+            // Created elsewhere from the same inputs, and maybe being deleted: not remembered, the next tasks try again
+            log.debug("Task inputs ConfigMap " + key + " is already in the cluster.");
+            metrics.recordInputCacheHit();
+            KNOWN_CONFIG_MAPS.remove(knownKey);
+        } else {
+            // NotFound when the namespace is missing
+            KNOWN_CONFIG_MAPS.remove(knownKey);
+            throw new IOException("Could not create the task inputs ConfigMap " + key + ": " +
+                                  result.getError().trim());
+        }
+    }
+
+    /**
+     * @return Whether the ConfigMap is still in the cluster; true when its status could not be read, its pods then
+     * report a missing ConfigMap themselves.
+     */
+    private boolean isConfigMapFound(String name, String namespace) throws IOException, InterruptedException {
+        KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlGetJsonPathCommand("configmap",
+                                                                                                          name,
+                                                                                                          namespace,
+                                                                                                          "{.metadata.name}"));
+        return result.isSuccessful() || !result.getError().contains("NotFound");
+    }
+
+    private void addInputsStaging(Map<String, Object> podSpec, String configMapName) {
+        List<Map<String, Object>> volumes = getList(podSpec, "volumes");
+        volumes.add(volume(INPUTS_VOLUME_NAME, "emptyDir", new LinkedHashMap<>()));
+
+        List<Map<String, Object>> initContainerMounts = new ArrayList<>();
+        initContainerMounts.add(volumeMount(INPUTS_VOLUME_NAME, mountPath));
+        String script;
+        if (configMapName != null) {
+            volumes.add(volume(ARCHIVE_VOLUME_NAME, "configMap", Collections.<String, Object> singletonMap("name", configMapName)));
+            initContainerMounts.add(volumeMount(ARCHIVE_VOLUME_NAME, ARCHIVE_MOUNT_PATH));
+            script = "tar xzf " + ARCHIVE_MOUNT_PATH + '/' + ARCHIVE_KEY + " -C " + quote(mountPath);
+        } else {
+            String marker = quote(mountPath + '/' + READY_MARKER);
+            script = "i=0; while [ ! -f " + marker + " ]; do i=$((i+1)); if [ $i -gt " + timeout + " ]; then " +
+                     "echo 'Timed out waiting for the task inputs' >&2; exit 1; fi; sleep 1; done; rm -f " + marker;
+        }
+
+        // Every container sees the inputs, including the init containers running after the unpacking one
+        for (String field : Arrays.asList("initContainers", "containers")) {
+            for (Map<String, Object> container : getList(podSpec, field)) {
+                getList(container, "volumeMounts").add(volumeMount(INPUTS_VOLUME_NAME, mountPath));
+            }
+        }
+
+        Map<String, Object> initContainer = new LinkedHashMap<>();
+        initContainer.put("name", INIT_CONTAINER_NAME);
+        initContainer.put("image", KubernetesPropertyLoader.getInstance().getInputStagingImage());
+        initContainer.put("command", Arrays.asList("sh", "-c", script));
+        initContainer.put("volumeMounts", initContainerMounts);
+        getList(podSpec, "initContainers").add(0, initContainer);
+    }
+
+    private List<String> waitForPods(KubernetesResource resource, long deadline)
+            throws IOException, InterruptedException {
+        if ("pod".equalsIgnoreCase(resource.getKind())) {
+            return Collections.singletonList(resource.getName());
+        }
+        // The pods of a Job are created asynchronously by the Job controller
+        String selector = JOB_NAME_LABEL + '=' + resource.getName();
+        while (true) {
+            KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlGetPodNamesCommand(resource.getNamespace(),
+                                                                                                              selector));
+            if (result.isSuccessful() && !result.getOutput().trim().isEmpty()) {
+                return Arrays.asList(result.getOutput().trim().split("\\s+"));
+            }
+            checkDeadline(deadline, "the pods of job " + resource.getName());
+            Thread.sleep(1000);
+        }
+    }
+
+    private void waitForInitContainer(String podName, String namespace, long deadline)
+            throws IOException, InterruptedException {
+        String jsonPath = "{.status.initContainerStatuses[?(@.name==\"" + INIT_CONTAINER_NAME +
+                          "\")].state.running.startedAt}";
+        while (true) {
+            KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlGetJsonPathCommand("pod",
+                                                                                                              podName,
+                                                                                                              namespace,
+                                                                                                              jsonPath));
+            if (result.isSuccessful() && !result.getOutput().trim().isEmpty()) {
+                return;
+            }
+            checkDeadline(deadline, "the inputs init container of pod " + podName);
+            Thread.sleep(1000);
+        }
+    }
+
+    private void streamArchive(String podName, String namespace) throws IOException, InterruptedException {
+        String script = "tar xzf - -C " + quote(mountPath) + " && touch " + quote(mountPath + '/' + READY_MARKER);
+        Process process = processBuilderFactory.start(commandCreator.createKubectlExecCommand(podName,
+                                                                                              namespace,
+                                                                                              INIT_CONTAINER_NAME,
+                                                                                              true,
+                                                                                              "sh",
+                                                                                              "-c",
+                                                                                              script));
+        StringWriter output = new StringWriter();
+        new KubernetesProcessBuilderUtilities().attachStreamsToProcess(process, output, output, null);
+        try (OutputStream stdin = process.getOutputStream()) {
+            Files.copy(archive.getFile(), stdin);
+        } catch (IOException e) {
+            process.destroyForcibly();
+            throw new IOException("Could not stream the task inputs into pod " + podName + ": " + e.getMessage(), e);
+        }
+        int exitValue = process.waitFor();
+        if (exitValue != 0) {
+            throw new IOException("Could not unpack the task inputs in pod " + podName + " (exit code " + exitValue +
+                                  "): " + output.toString().trim());
+        }
+        log.info("Streamed " + archive.getFileCount() + " task input files into pod " + podName + '.');
+        metrics.recordInputUpload(archive.getSize());
+    }
+
+    private void checkDeadline(long deadline, String awaited) throws IOException {
+        if (System.currentTimeMillis() > deadline) {
+            throw new IOException("Timed out after " + timeout + " seconds waiting for " + awaited + '.');
+        }
+    }
+
+    private static Map<String, Object> volume(String name, String type, Map<String, Object> source) {
+        Map<String, Object> volume = new LinkedHashMap<>();
+        volume.put("name", name);
+        volume.put(type, source);
+        return volume;
+    }
+
+    private static Map<String, Object> volumeMount(String name, String path) {
+        Map<String, Object> volumeMount = new LinkedHashMap<>();
+        volumeMount.put("name", name);
+        volumeMount.put("mountPath", path);
+        return volumeMount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getList(Map<String, Object> parent, String field) {
+        if (!(parent.get(field) instanceof List)) {
+            parent.put(field, new ArrayList<>());
+        }
+        return (List<Map<String, Object>>) parent.get(field);
+    }
+
+    // Single-quotes a path for sh
+    private static String quote(String path) {
+        return '\'' + path.replace("'", "'\\''") + '\'';
+    }
+}
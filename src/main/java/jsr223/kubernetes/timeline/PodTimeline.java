@@ -0,0 +1,159 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.timeline;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+import lombok.Setter;
+
+
+/**
+ * The startup timeline of a pod: when it was created, scheduled on a node, when its images were pulled, and when its
+ * containers started and finished. The steps which have not happened, or could not be known, are null.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@Getter
+@Setter
+public class PodTimeline {
+
+    private final String podName;
+
+    private Instant created;
+
+    private Instant scheduled;
+
+    // First image pull started, and last one completed; null when the images were already on the node
+    private Instant imagePullStarted;
+
+    private Instant imagePulled;
+
+    // First container started, and last one finished
+    private Instant started;
+
+    private Instant finished;
+
+    // Number of times the scheduler could not place the pod
+    private int failedSchedulings;
+
+    public PodTimeline(String podName) {
+        this.podName = podName;
+    }
+
+    /**
+     * @return Time spent waiting for a node.
+     */
+    public Duration getQueuedDuration() {
+        return between(created, scheduled);
+    }
+
+    public Duration getImagePullDuration() {
+        return between(imagePullStarted, imagePulled);
+    }
+
+    /**
+     * @return Time between the scheduling and the start of the first container, image pulls included.
+     */
+    public Duration getStartupDuration() {
+        return between(scheduled, started);
+    }
+
+    public Duration getRunningDuration() {
+        return between(started, finished);
+    }
+
+    /**
+     * @return The timeline as serializable values, the times as ISO-8601 strings and the durations in milliseconds.
+     */
+    public LinkedHashMap<String, Serializable> toMap() {
+        LinkedHashMap<String, Serializable> map = new LinkedHashMap<>();
+        map.put("pod", podName);
+        putTime(map, "created", created);
+        putTime(map, "scheduled", scheduled);
+        putTime(map, "imagePullStarted", imagePullStarted);
+        putTime(map, "imagePulled", imagePulled);
+        putTime(map, "started", started);
+        putTime(map, "finished", finished);
+        map.put("failedSchedulings", failedSchedulings);
+        putDuration(map, "queuedMillis", getQueuedDuration());
+        putDuration(map, "imagePullMillis", getImagePullDuration());
+        putDuration(map, "startupMillis", getStartupDuration());
+        putDuration(map, "runningMillis", getRunningDuration());
+        return map;
+    }
+
+    /**
+     * @return A one-line summary, each step relative to the creation of the pod.
+     */
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder("Timeline of pod ").append(podName).append(": created");
+        appendStep(summary, "scheduled", scheduled, "queued", getQueuedDuration());
+        if (failedSchedulings > 0) {
+            summary.append(", ").append(failedSchedulings).append(" failed schedulings");
+        }
+        appendStep(summary, "images pulled", imagePulled, "pull", getImagePullDuration());
+        appendStep(summary, "started", started, "startup", getStartupDuration());
+        appendStep(summary, "finished", finished, "ran", getRunningDuration());
+        return summary.toString();
+    }
+
+    private void appendStep(StringBuilder summary, String step, Instant time, String durationName,
+            Duration duration) {
+        summary.append(", ").append(step).append(' ');
+        Duration sinceCreation = between(created, time);
+        summary.append(sinceCreation == null ? "-" : '+' + format(sinceCreation));
+        if (duration != null) {
+            summary.append(" (").append(durationName).append(' ').append(format(duration)).append(')');
+        }
+    }
+
+    private static Duration between(Instant start, Instant end) {
+        return start == null || end == null ? null : Duration.between(start, end);
+    }
+
+    private static String format(Duration duration) {
+        return String.format("%.1fs", duration.toMillis() / 1000.0);
+    }
+
+    private static void putTime(Map<String, Serializable> map, String name, Instant time) {
+        if (time != null) {
+            map.put(name, time.toString());
+        }
+    }
+
+    private static void putDuration(Map<String, Serializable> map, String name, Duration duration) {
+        if (duration != null) {
+            map.put(name, duration.toMillis());
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.timeline;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Builds the startup timelines of the pods of the Pod and Job resources of a task from the pod conditions, container
+ * states and events. Only the pods of the task are read, by name or by job-name label, and their events by involved
+ * object: the other pods and events of the namespace are not listed.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class TimelineCollector {
+
+    private static final Logger log = Logger.getLogger(TimelineCollector.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String JOB_NAME_LABEL = "job-name";
+
+    private static final String POD_EVENTS_FIELD_SELECTOR = "involvedObject.kind=Pod";
+
+    // Above this number of pods in a namespace, their events are read at once rather than pod by pod
+    private static final int MAX_POD_EVENT_READS = 10;
+
+    private final KubernetesCommandRunner commandRunner;
+
+    private final KubernetesCommandCreator commandCreator;
+
+    /**
+     * @return The timelines of the pods of the resources, ordered by creation; empty if they could not be read.
+     */
+    public List<PodTimeline> collect(List<KubernetesResource> resources) throws InterruptedException {
+        // Namespace -> names of the Pod and Job resources
+        Map<String, Set<String>> podNames = new LinkedHashMap<>();
+        Map<String, Set<String>> jobNames = new LinkedHashMap<>();
+        for (KubernetesResource resource : resources) {
+            if ("pod".equalsIgnoreCase(resource.getKind())) {
+                podNames.computeIfAbsent(resource.getNamespace(), k -> new LinkedHashSet<>()).add(resource.getName());
+            } else if ("job".equalsIgnoreCase(resource.getKind())) {
+                jobNames.computeIfAbsent(resource.getNamespace(), k -> new LinkedHashSet<>()).add(resource.getName());
+            }
+        }
+        Set<String> namespaces = new LinkedHashSet<>(podNames.keySet());
+        namespaces.addAll(jobNames.keySet());
+
+        List<PodTimeline> timelines = new ArrayList<>();
+        for (String namespace : namespaces) {
+            timelines.addAll(collect(namespace,
+                                     podNames.getOrDefault(namespace, Collections.emptySet()),
+                                     jobNames.getOrDefault(namespace, Collections.emptySet())));
+        }
+        timelines.sort(Comparator.comparing(PodTimeline::getCreated, Comparator.nullsLast(Comparator.naturalOrder())));
+        return timelines;
+    }
+
+    private List<PodTimeline> collect(String namespace, Set<String> podNames, Set<String> jobNames)
+            throws InterruptedException {
+        List<Map<String, Object>> pods = new ArrayList<>();
+        for (String podName : podNames) {
+            pods.addAll(read(commandCreator.createKubectlGetResourceCommand("pod", podName, namespace),
+                             "pod " + podName));
+        }
+        if (!jobNames.isEmpty()) {
+            pods.addAll(read(commandCreator.createKubectlGetPodsCommand(namespace,
+                                                                        JOB_NAME_LABEL + " in (" +
+                                                                                   String.join(",", jobNames) + ')'),
+                             "the pods of jobs " + jobNames));
+        }
+
+        Map<String, PodTimeline> timelines = new LinkedHashMap<>();
+        for (Map<String, Object> pod : pods) {
+            String name = String.valueOf(getMap(pod, "metadata").get("name"));
+            timelines.put(name, toTimeline(name, pod));
+        }
+        if (timelines.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Map<String, Object>> events = new ArrayList<>();
+        if (timelines.size() <= MAX_POD_EVENT_READS) {
+            for (String podName : timelines.keySet()) {
+                events.addAll(read(commandCreator.createKubectlGetEventsCommand(namespace,
+                                                                                POD_EVENTS_FIELD_SELECTOR +
+                                                                                           ",involvedObject.name=" +
+                                                                                           podName),
+                                   "the events of pod " + podName));
+            }
+        } else {
+            events.addAll(read(commandCreator.createKubectlGetEventsCommand(namespace, POD_EVENTS_FIELD_SELECTOR),
+                               "the pod events of namespace " + namespace));
+        }
+        for (Map<String, Object> event : events) {
+            PodTimeline timeline = timelines.get(getMap(event, "involvedObject").get("name"));
+            if (timeline != null) {
+                addEvent(timeline, event);
+            }
+        }
+        return new ArrayList<>(timelines.values());
+    }
+
+    /**
+     * @return The objects returned by a 'kubectl get -o json', a single one or the items of a list; empty if they
+     * could not be read.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> read(String[] command, String description) throws InterruptedException {
+        try {
+            KubernetesCommandResult result = commandRunner.run(command);
+            if (!result.isSuccessful()) {
+                log.warn("Could not read " + description + ": " + result.getError().trim());
+                return Collections.emptyList();
+            }
+            Map<String, Object> object = MAPPER.readValue(result.getOutput(), Map.class);
+            if (!"List".equals(object.get("kind")) && !(object.get("items") instanceof List)) {
+                return Collections.singletonList(object);
+            }
+            return getList(object, "items");
+        } catch (IOException e) {
+            log.warn("Could not read " + description + ": " + e);
+            return Collections.emptyList();
+        }
+    }
+
+    private static PodTimeline toTimeline(String name, Map<String, Object> pod) {
+        PodTimeline timeline = new PodTimeline(name);
+        timeline.setCreated(parseTime(getMap(pod, "metadata").get("creationTimestamp")));
+        Map<String, Object> status = getMap(pod, "status");
+        for (Map<String, Object> condition : getList(status, "conditions")) {
+            if ("PodScheduled".equals(condition.get("type")) && "True".equals(condition.get("status"))) {
+                timeline.setScheduled(parseTime(condition.get("lastTransitionTime")));
+            }
+        }
+        for (Map<String, Object> containerStatus : getList(status, "containerStatuses")) {
+            Map<String, Object> state = getMap(containerStatus, "state");
+            Map<String, Object> running = getMap(state, "running");
+            Map<String, Object> terminated = getMap(state, "terminated");
+            timeline.setStarted(earliest(timeline.getStarted(),
+                                         parseTime(running.isEmpty() ? terminated.get("startedAt")
+                                                                     : running.get("startedAt"))));
+            timeline.setFinished(latest(timeline.getFinished(), parseTime(terminated.get("finishedAt"))));
+        }
+        return timeline;
+    }
+
+    private static void addEvent(PodTimeline timeline, Map<String, Object> event) {
+        Object reason = event.get("reason");
+        if ("Pulling".equals(reason)) {
+            timeline.setImagePullStarted(earliest(timeline.getImagePullStarted(), getEventTime(event, false)));
+        } else if ("Pulled".equals(reason)) {
+            timeline.setImagePulled(latest(timeline.getImagePulled(), getEventTime(event, true)));
+        } else if ("FailedScheduling".equals(reason)) {
+            Object count = event.get("count");
+            timeline.setFailedSchedulings(timeline.getFailedSchedulings() +
+                                          (count instanceof Number ? ((Number) count).intValue() : 1));
+        } else if ("Scheduled".equals(reason) && timeline.getScheduled() == null) {
+            timeline.setScheduled(getEventTime(event, false));
+        }
+    }
+
+    // The time of an event: its first or last occurrence, or its single occurrence for the events.k8s.io events
+    private static Instant getEventTime(Map<String, Object> event, boolean last) {
+        Instant time = parseTime(event.get(last ? "lastTimestamp" : "firstTimestamp"));
+        if (time == null) {
+            time = parseTime(event.get("eventTime"));
+        }
+        return time == null ? parseTime(getMap(event, "metadata").get("creationTimestamp")) : time;
+    }
+
+    private static Instant parseTime(Object time) {
+        if (!(time instanceof String)) {
+            return null;
+        }
+        try {
+            return Instant.parse((String) time);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Instant earliest(Instant first, Instant second) {
+        return select(first, second, (i1, i2) -> i1.isBefore(i2) ? i1 : i2);
+    }
+
+    private static Instant latest(Instant first, Instant second) {
+        return select(first, second, (i1, i2) -> i1.isAfter(i2) ? i1 : i2);
+    }
+
+    private static Instant select(Instant first, Instant second, BinaryOperator<Instant> selector) {
+        if (first == null || second == null) {
+            return first == null ? second : first;
+        }
+        return selector.apply(first, second);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getMap(Map<String, Object> parent, String field) {
+        Object value = parent.get(field);
+        return value instanceof Map ? (Map<String, Object>) value : Collections.emptyMap();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getList(Map<String, Object> parent, String field) {
+        Object value = parent.get(field);
+        List<Map<String, Object>> list = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object item : (List<Object>) value) {
+                if (item instanceof Map) {
+                    list.add((Map<String, Object>) item);
+                }
+            }
+        }
+        return list;
+    }
+}
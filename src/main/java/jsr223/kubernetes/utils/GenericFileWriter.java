@@ -25,9 +25,11 @@
  */
 package jsr223.kubernetes.utils;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.Writer;
 import java.nio.file.FileAlreadyExistsException;
 
@@ -39,6 +41,35 @@ import java.nio.file.FileAlreadyExistsException;
 public class GenericFileWriter {
 
     public File forceFileToDisk(String fileContent, String filenameAndPath) throws IOException {
+        File resultFile = createNewFile(filenameAndPath);
+
+        // Force file to disk
+        Writer configFileWriter = new FileWriter(resultFile);
+        configFileWriter.write(fileContent);
+        configFileWriter.close();
+
+        return resultFile;
+    }
+
+    /**
+     * Writes the content read from a reader as it comes, without holding it in memory.
+     */
+    public File forceFileToDisk(Reader fileContent, String filenameAndPath) throws IOException {
+        File resultFile = createNewFile(filenameAndPath);
+
+        // Force file to disk
+        try (Writer configFileWriter = new BufferedWriter(new FileWriter(resultFile))) {
+            char[] buffer = new char[8192];
+            int n;
+            while ((n = fileContent.read(buffer)) != -1) {
+                configFileWriter.write(buffer, 0, n);
+            }
+        }
+
+        return resultFile;
+    }
+
+    private File createNewFile(String filenameAndPath) throws IOException {
         File resultFile = new File(filenameAndPath);
         // Write content to file
         if (!resultFile.createNewFile()) {
@@ -47,12 +78,6 @@ public class GenericFileWriter {
                 throw new FileAlreadyExistsException("New file was deleted but still exists: " + filenameAndPath);
             }
         }
-
-        // Force file to disk
-        Writer configFileWriter = new FileWriter(resultFile);
-        configFileWriter.write(fileContent);
-        configFileWriter.close();
-
         return resultFile;
     }
 }
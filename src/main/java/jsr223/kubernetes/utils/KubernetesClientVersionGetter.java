@@ -61,12 +61,8 @@ public class KubernetesClientVersionGetter {
 
         String result = "Unknown"; // Empty string for empty result if version recovery fails
 
-        ProcessBuilder processBuilder = factory.getProcessBuilder(KubernetesPropertyLoader.getInstance()
-                                                                                          .getKubectlCommand(),
-                                                                  "version");
-
         try {
-            Process process = processBuilder.start();
+            Process process = factory.start(KubernetesPropertyLoader.getInstance().getKubectlCommand(), "version");
 
             // Attach stream to std output of process
             StringWriter commandOutput = new StringWriter();
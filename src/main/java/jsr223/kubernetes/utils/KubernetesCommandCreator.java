@@ -57,8 +57,12 @@ package jsr223.kubernetes.utils;
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import jsr223.kubernetes.credentials.ExecCredentialCache;
+import jsr223.kubernetes.discovery.KubectlDiscoveryCache;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 
@@ -75,6 +79,22 @@ public class KubernetesCommandCreator {
 
     public static final String GET_K8S_RESOURCES = "get";
 
+    public static final String APPLY_K8S_RESOURCES = "apply";
+
+    public static final String EXEC_K8S_RESOURCES = "exec";
+
+    public static final String WAIT_K8S_RESOURCES = "wait";
+
+    public static final String NODES_K8S_RESOURCES = "nodes";
+
+    public static final String PODS_K8S_RESOURCES = "pods";
+
+    public static final String RESOURCE_QUOTAS_K8S_RESOURCES = "resourcequotas";
+
+    public static final String EVENTS_K8S_RESOURCES = "events";
+
+    public static final String API_RESOURCES_K8S_RESOURCES = "api-resources";
+
     // kubectl switches
     public static final String FILENAME_PARAM_SWITCH = "-f";
 
@@ -84,6 +104,46 @@ public class KubernetesCommandCreator {
 
     public static final String NAMESPACE_PARAM_SWITCH = "-n";
 
+    public static final String STDIN_FILENAME = "-";
+
+    public static final String IGNORE_NOT_FOUND_SWITCH = "--ignore-not-found";
+
+    public static final String CONTAINER_PARAM_SWITCH = "-c";
+
+    public static final String STDIN_SWITCH = "-i";
+
+    public static final String COMMAND_SEPARATOR = "--";
+
+    public static final String FOR_PARAM_SWITCH = "--for=";
+
+    public static final String TIMEOUT_PARAM_SWITCH = "--timeout=";
+
+    public static final String NO_WAIT_SWITCH = "--wait=false";
+
+    public static final String TIMESTAMPS_SWITCH = "--timestamps";
+
+    public static final String LABEL_PARAM_SWITCH = "-l";
+
+    public static final String POD_NAMES_JSON_PATH = "{.items[*].metadata.name}";
+
+    public static final String ALL_NAMESPACES_SWITCH = "--all-namespaces";
+
+    public static final String FIELD_SELECTOR_PARAM_SWITCH = "--field-selector=";
+
+    // Pods holding their resource requests on their node
+    public static final String ACTIVE_PODS_FIELD_SELECTOR = "status.phase!=Succeeded,status.phase!=Failed";
+
+    public static final String SINCE_TIME_PARAM_SWITCH = "--since-time=";
+
+    public static final String SERVER_SIDE_SWITCH = "--server-side";
+
+    public static final String FORCE_CONFLICTS_SWITCH = "--force-conflicts";
+
+    public static final String FIELD_MANAGER_SWITCH = "--field-manager=";
+
+    // Name of the field manager owning the fields applied by the script engine
+    public static final String FIELD_MANAGER = "proactive";
+
     // kubectl output format
     public static final String NAME_OUTPUT_FORMAT = "name";
 
@@ -91,6 +151,43 @@ public class KubernetesCommandCreator {
 
     public static final String JSON_STATUS_OUTPUT_FORMAT = "jsonpath=\"{..status}\"";
 
+    public static final String JSON_PATH_OUTPUT_FORMAT = "jsonpath=";
+
+    // kubectl global flags, in the --flag=value form so that the kubectl directive stays the first plain argument
+    public static final String CONTEXT_PARAM_SWITCH = "--context=";
+
+    public static final String KUBECONFIG_PARAM_SWITCH = "--kubeconfig=";
+
+    public static final String RAW_PARAM_SWITCH = "--raw=";
+
+    public static final String REQUEST_TIMEOUT_PARAM_SWITCH = "--request-timeout=";
+
+    public static final String CACHE_DIR_PARAM_SWITCH = "--cache-dir=";
+
+    public static final String READINESS_PATH = "/readyz";
+
+    // Usage of the pods of a namespace, read from the metrics server
+    public static final String POD_METRICS_PATH = "/apis/metrics.k8s.io/v1beta1/namespaces/%s/pods";
+
+    // The kubeconfig context the commands target, null for the current context
+    @Getter
+    private String context = null;
+
+    // The kubeconfig file holding the context, null for the kubectl default one
+    @Getter
+    private String kubeconfig = null;
+
+    /**
+     * Creates the commands of a given context of a kubeconfig file.
+     *
+     * @param context    The context the commands target, or null for the current context.
+     * @param kubeconfig The kubeconfig file, or null for the kubectl default one ($KUBECONFIG or ~/.kube/config).
+     */
+    public KubernetesCommandCreator(String context, String kubeconfig) {
+        this.context = context;
+        this.kubeconfig = kubeconfig;
+    }
+
     /**
      * This method creates a bash command to delete the resources specified in the k8s manifest file
      * Command syntax is: "kubectl delete -f [K8S_MANIFEST_FILE]".
@@ -120,6 +217,87 @@ public class KubernetesCommandCreator {
         return command.toArray(new String[command.size()]);
     }
 
+    /**
+     * This method creates a bash command to delete the resources of a manifest, returning as soon as the deletion is
+     * requested. The resources which do not exist (yet) are skipped.
+     * Command syntax is: "kubectl delete -f [FILE] --ignore-not-found --wait=false".
+     *
+     * @param k8sManifestFileNameAndPath Manifest file, or "-" to read the manifest from stdin.
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlDeleteManifestCommand(String k8sManifestFileNameAndPath) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "delete"
+        command.add(STOP_AND_REMOVE_K8S_RESOURCES);
+
+        // Add filename param switch and filename
+        command.add(FILENAME_PARAM_SWITCH);
+        command.add(k8sManifestFileNameAndPath);
+
+        // Missing resources are not an error
+        command.add(IGNORE_NOT_FOUND_SWITCH);
+
+        command.add(NO_WAIT_SWITCH);
+
+        // Make kubectl return the name of the deleted resources
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(NAME_OUTPUT_FORMAT);
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to delete the given resources of a namespace
+     * Command syntax is: "kubectl delete [KIND]/[NAME]... -n [NAMESPACE]".
+     *
+     * @param k8sResourceNamespace Namespace of the resources, or null for cluster-scoped resources.
+     * @param k8sResources         Resources as "kind/name".
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlDeleteResourcesCommand(String k8sResourceNamespace, List<String> k8sResources) {
+        return createKubectlDeleteResourcesCommand(k8sResourceNamespace, k8sResources, true);
+    }
+
+    /**
+     * Same as {@link #createKubectlDeleteResourcesCommand(String, List)}, optionally returning as soon as the
+     * deletion is requested instead of waiting for the resources to be gone.
+     */
+    public String[] createKubectlDeleteResourcesCommand(String k8sResourceNamespace, List<String> k8sResources,
+            boolean waitForDeletion) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "delete"
+        command.add(STOP_AND_REMOVE_K8S_RESOURCES);
+
+        // Add resources
+        command.addAll(k8sResources);
+
+        // Add namespace switch and namespace
+        if (k8sResourceNamespace != null) {
+            command.add(NAMESPACE_PARAM_SWITCH);
+            command.add(k8sResourceNamespace);
+        }
+
+        if (!waitForDeletion) {
+            command.add(NO_WAIT_SWITCH);
+        }
+
+        // Make kubectl return the name of the deleted resources
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(NAME_OUTPUT_FORMAT);
+
+        return command.toArray(new String[command.size()]);
+    }
+
     /**
      * This method creates a bash command to create the resources specified in the k8s manifest file
      * Command syntax is: "kubectl create -f [K8S_MANIFEST_FILE]".
@@ -157,6 +335,21 @@ public class KubernetesCommandCreator {
     private void addKubectlCommand(List<String> command) {
         // Add kubectl command
         command.add(KubernetesPropertyLoader.getInstance().getKubectlCommand());
+
+        // Add the kubeconfig file and context of the targeted cluster, with the cached token of its exec plugin if any
+        String commandKubeconfig = ExecCredentialCache.getInstance().getKubeconfig(kubeconfig, context);
+        if (commandKubeconfig != null) {
+            command.add(KUBECONFIG_PARAM_SWITCH + commandKubeconfig);
+        }
+        if (context != null) {
+            command.add(CONTEXT_PARAM_SWITCH + context);
+        }
+
+        // Share the API discovery cache kept warm by the engine
+        String cacheDirectory = KubectlDiscoveryCache.getInstance().getDirectory();
+        if (cacheDirectory != null) {
+            command.add(CACHE_DIR_PARAM_SWITCH + cacheDirectory);
+        }
     }
 
     public String[] createKubectlLogsCommand(String k8sResourceKind, String k8sResourceName,
@@ -182,6 +375,29 @@ public class KubernetesCommandCreator {
         return command.toArray(new String[command.size()]);
     }
 
+    /**
+     * Creates a command following the logs of a resource, each line prefixed with its RFC3339 timestamp, from the
+     * given time on so that a dropped log stream can be resumed.
+     * Command syntax is: "kubectl logs [KIND]/[NAME] -n [NAMESPACE] -f --timestamps --since-time=[TIME]".
+     *
+     * @param k8sSinceTime RFC3339 timestamp of the first lines to get, or null to get all the logs.
+     */
+    public String[] createKubectlLogsCommand(String k8sResourceKind, String k8sResourceName,
+            String k8sResourceNamespace, String k8sSinceTime) {
+        List<String> command = new ArrayList<>(Arrays.asList(createKubectlLogsCommand(k8sResourceKind,
+                                                                                      k8sResourceName,
+                                                                                      k8sResourceNamespace)));
+
+        // Prefix each line with its timestamp
+        command.add(TIMESTAMPS_SWITCH);
+
+        if (k8sSinceTime != null) {
+            command.add(SINCE_TIME_PARAM_SWITCH + k8sSinceTime);
+        }
+
+        return command.toArray(new String[command.size()]);
+    }
+
     public String[] createKubectlGetStateCommand(String k8sResourceName) {
         List<String> command = new ArrayList<>();
 
@@ -200,4 +416,456 @@ public class KubernetesCommandCreator {
 
         return command.toArray(new String[command.size()]);
     }
+
+    /**
+     * This method creates a bash command to read a field of a single k8s resource
+     * Command syntax is: "kubectl get [KIND]/[NAME] -n [NAMESPACE] -o jsonpath=[JSON_PATH]".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlGetJsonPathCommand(String k8sResourceKind, String k8sResourceName,
+            String k8sResourceNamespace, String jsonPath) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get"
+        command.add(GET_K8S_RESOURCES);
+
+        // Add resource
+        command.add(k8sResourceKind + '/' + k8sResourceName);
+
+        // Add namespace switch and namespace
+        if (k8sResourceNamespace != null) {
+            command.add(NAMESPACE_PARAM_SWITCH);
+            command.add(k8sResourceNamespace);
+        }
+
+        // Make kubectl return the requested field only
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(JSON_PATH_OUTPUT_FORMAT + jsonPath);
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to get a single k8s resource
+     * Command syntax is: "kubectl get [KIND]/[NAME] -n [NAMESPACE] -o json".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlGetResourceCommand(String k8sResourceKind, String k8sResourceName,
+            String k8sResourceNamespace) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get"
+        command.add(GET_K8S_RESOURCES);
+
+        // Add resource
+        command.add(k8sResourceKind + '/' + k8sResourceName);
+
+        // Add namespace switch and namespace
+        command.add(NAMESPACE_PARAM_SWITCH);
+        command.add(k8sResourceNamespace);
+
+        // Make kubectl return the whole resource
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(JSON_OUTPUT_FORMAT);
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to get the live state of the resources of a manifest read from stdin,
+     * ignoring the ones which do not exist
+     * Command syntax is: "kubectl get -f - --ignore-not-found -o json".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlGetManifestResourcesCommand() {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get"
+        command.add(GET_K8S_RESOURCES);
+
+        // Read the manifest from stdin
+        command.add(FILENAME_PARAM_SWITCH);
+        command.add(STDIN_FILENAME);
+
+        // Missing resources are not an error
+        command.add(IGNORE_NOT_FOUND_SWITCH);
+
+        // Make kubectl return the live resources
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(JSON_OUTPUT_FORMAT);
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to server-side apply the resources of a manifest read from stdin
+     * Command syntax is: "kubectl apply --server-side --force-conflicts --field-manager=proactive -f - -o json".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlServerSideApplyCommand() {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "apply"
+        command.add(APPLY_K8S_RESOURCES);
+
+        // Let the API server merge the fields, owned by the script engine field manager
+        command.add(SERVER_SIDE_SWITCH);
+        command.add(FORCE_CONFLICTS_SWITCH);
+        command.add(FIELD_MANAGER_SWITCH + FIELD_MANAGER);
+
+        // Read the manifest from stdin
+        command.add(FILENAME_PARAM_SWITCH);
+        command.add(STDIN_FILENAME);
+
+        // Make kubectl return the applied resources
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(JSON_OUTPUT_FORMAT);
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to run a command in a container of a running pod
+     * Command syntax is: "kubectl exec [-i] [POD] -n [NAMESPACE] [-c CONTAINER] -- [COMMAND]".
+     *
+     * @param k8sContainerName Container in which the command runs, or null for the default container of the pod.
+     * @param withStdin        Whether the standard input is passed to the command.
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlExecCommand(String k8sPodName, String k8sResourceNamespace, String k8sContainerName,
+            boolean withStdin, String... containerCommand) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "exec"
+        command.add(EXEC_K8S_RESOURCES);
+
+        if (withStdin) {
+            command.add(STDIN_SWITCH);
+        }
+
+        // Add pod
+        command.add(k8sPodName);
+
+        // Add namespace switch and namespace
+        command.add(NAMESPACE_PARAM_SWITCH);
+        command.add(k8sResourceNamespace);
+
+        // Add container switch and container
+        if (k8sContainerName != null) {
+            command.add(CONTAINER_PARAM_SWITCH);
+            command.add(k8sContainerName);
+        }
+
+        // Add the command to run in the container
+        command.add(COMMAND_SEPARATOR);
+        command.addAll(Arrays.asList(containerCommand));
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command waiting for a k8s resource to reach a condition
+     * Command syntax is: "kubectl wait [KIND]/[NAME] -n [NAMESPACE] --for=[CONDITION] --timeout=[TIMEOUT]s".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlWaitCommand(String k8sResourceKind, String k8sResourceName,
+            String k8sResourceNamespace, String condition, long timeoutSeconds) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "wait"
+        command.add(WAIT_K8S_RESOURCES);
+
+        // Add resource
+        command.add(k8sResourceKind + '/' + k8sResourceName);
+
+        // Add namespace switch and namespace
+        command.add(NAMESPACE_PARAM_SWITCH);
+        command.add(k8sResourceNamespace);
+
+        // Add condition and timeout
+        command.add(FOR_PARAM_SWITCH + condition);
+        command.add(TIMEOUT_PARAM_SWITCH + timeoutSeconds + 's');
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to get the names of the pods matching a label selector
+     * Command syntax is: "kubectl get pods -n [NAMESPACE] -l [SELECTOR] -o jsonpath={.items[*].metadata.name}".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlGetPodNamesCommand(String k8sResourceNamespace, String k8sLabelSelector) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get pods"
+        command.add(GET_K8S_RESOURCES);
+        command.add(PODS_K8S_RESOURCES);
+
+        // Add namespace switch and namespace
+        command.add(NAMESPACE_PARAM_SWITCH);
+        command.add(k8sResourceNamespace);
+
+        // Add label selector
+        command.add(LABEL_PARAM_SWITCH);
+        command.add(k8sLabelSelector);
+
+        // Only output the pod names, separated by spaces
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(JSON_PATH_OUTPUT_FORMAT + POD_NAMES_JSON_PATH);
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to get the pods matching a label selector
+     * Command syntax is: "kubectl get pods -n [NAMESPACE] -l [SELECTOR] -o json".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlGetPodsCommand(String k8sResourceNamespace, String k8sLabelSelector) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get pods"
+        command.add(GET_K8S_RESOURCES);
+        command.add(PODS_K8S_RESOURCES);
+
+        // Add namespace switch and namespace
+        command.add(NAMESPACE_PARAM_SWITCH);
+        command.add(k8sResourceNamespace);
+
+        // Add label selector
+        command.add(LABEL_PARAM_SWITCH);
+        command.add(k8sLabelSelector);
+
+        // Make kubectl return the pods with their status
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(JSON_OUTPUT_FORMAT);
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to get the nodes of the cluster
+     * Command syntax is: "kubectl get nodes -o json".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlGetNodesCommand() {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get"
+        command.add(GET_K8S_RESOURCES);
+        command.add(NODES_K8S_RESOURCES);
+
+        // Make kubectl return the nodes with their status
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(JSON_OUTPUT_FORMAT);
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to check that the API server of the cluster is ready
+     * Command syntax is: "kubectl get --raw=/readyz --request-timeout=[TIMEOUT]s".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlReadinessCommand(long timeoutInSeconds) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get"
+        command.add(GET_K8S_RESOURCES);
+
+        // Read the readiness endpoint of the API server
+        command.add(RAW_PARAM_SWITCH + READINESS_PATH);
+
+        // Do not wait for an unreachable server longer than the timeout
+        command.add(REQUEST_TIMEOUT_PARAM_SWITCH + timeoutInSeconds + 's');
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to list the API resources of the cluster, which refreshes the API discovery
+     * cache of kubectl.
+     * Command syntax is: "kubectl api-resources -o name --request-timeout=[TIMEOUT]s".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlApiResourcesCommand(long timeoutInSeconds) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "api-resources", which does not use the cached discovery
+        command.add(API_RESOURCES_K8S_RESOURCES);
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(NAME_OUTPUT_FORMAT);
+
+        // Do not wait for an unreachable server longer than the timeout
+        command.add(REQUEST_TIMEOUT_PARAM_SWITCH + timeoutInSeconds + 's');
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to get the resource quotas of a namespace
+     * Command syntax is: "kubectl get resourcequotas -n [NAMESPACE] -o json".
+     *
+     * @param k8sResourceNamespace Namespace of the quotas, or null for the namespace of the context.
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlGetResourceQuotasCommand(String k8sResourceNamespace) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get resourcequotas"
+        command.add(GET_K8S_RESOURCES);
+        command.add(RESOURCE_QUOTAS_K8S_RESOURCES);
+
+        // Add namespace switch and namespace
+        if (k8sResourceNamespace != null) {
+            command.add(NAMESPACE_PARAM_SWITCH);
+            command.add(k8sResourceNamespace);
+        }
+
+        // Make kubectl return the quotas with their usage
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(JSON_OUTPUT_FORMAT);
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to get the pods of all the namespaces which have not terminated
+     * Command syntax is: "kubectl get pods --all-namespaces --field-selector=[ACTIVE_PODS] -o json".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlGetActivePodsCommand() {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get pods"
+        command.add(GET_K8S_RESOURCES);
+        command.add(PODS_K8S_RESOURCES);
+        command.add(ALL_NAMESPACES_SWITCH);
+
+        // Only the pods which are pending or running
+        command.add(FIELD_SELECTOR_PARAM_SWITCH + ACTIVE_PODS_FIELD_SELECTOR);
+
+        // Make kubectl return the pods with their specs
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(JSON_OUTPUT_FORMAT);
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to get the current cpu and memory usage of the containers of all the pods of
+     * a namespace, with their labels, from the metrics API
+     * Command syntax is: "kubectl get --raw=/apis/metrics.k8s.io/v1beta1/namespaces/[NAMESPACE]/pods".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlGetPodMetricsCommand(String k8sResourceNamespace) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get"
+        command.add(GET_K8S_RESOURCES);
+
+        // Read the pod metrics of the namespace, as JSON
+        command.add(RAW_PARAM_SWITCH + String.format(POD_METRICS_PATH, k8sResourceNamespace));
+
+        return command.toArray(new String[command.size()]);
+    }
+
+    /**
+     * This method creates a bash command to get the events matching a field selector
+     * Command syntax is: "kubectl get events -n [NAMESPACE] --field-selector=[SELECTOR] -o json".
+     *
+     * @return A String array which contains the command as a separate @String and each
+     * argument as a separate String.
+     */
+    public String[] createKubectlGetEventsCommand(String k8sResourceNamespace, String k8sFieldSelector) {
+        List<String> command = new ArrayList<>();
+
+        // Add kubectl command
+        addKubectlCommand(command);
+
+        // Add kubectl directive "get events"
+        command.add(GET_K8S_RESOURCES);
+        command.add(EVENTS_K8S_RESOURCES);
+
+        // Add namespace switch and namespace
+        command.add(NAMESPACE_PARAM_SWITCH);
+        command.add(k8sResourceNamespace);
+
+        // Add field selector
+        command.add(FIELD_SELECTOR_PARAM_SWITCH + k8sFieldSelector);
+
+        // Make kubectl return the events with their times
+        command.add(OUTPUT_FORMAT_SWITCH);
+        command.add(JSON_OUTPUT_FORMAT);
+
+        return command.toArray(new String[command.size()]);
+    }
 }
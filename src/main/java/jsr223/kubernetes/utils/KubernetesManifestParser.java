@@ -0,0 +1,112 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+
+
+/**
+ * Splits a multi-document k8s manifest into its documents, in the JVM.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesManifestParser {
+
+    private KubernetesManifestParser() {
+    }
+
+    public static List<KubernetesManifestDocument> parse(String manifest) {
+        Yaml yaml = createYaml();
+        List<KubernetesManifestDocument> documents = new ArrayList<>();
+        for (Object object : yaml.loadAll(manifest)) {
+            if (object == null) {
+                // empty document, e.g. a trailing '---'
+                continue;
+            }
+            if (!(object instanceof Map)) {
+                throw new IllegalArgumentException("Kubernetes manifest document is not a YAML mapping: " + object);
+            }
+            // YAML mappings are read as maps, their keys are strings in kubernetes manifests
+            @SuppressWarnings("unchecked")
+            Map<String, Object> document = (Map<String, Object>) object;
+            if ("List".equals(document.get("kind")) && document.get("items") instanceof List) {
+                // kind: List, flatten its items
+                for (Object item : (List<?>) document.get("items")) {
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> itemDocument = (Map<String, Object>) item;
+                    documents.add(toManifestDocument(yaml, itemDocument));
+                }
+            } else {
+                documents.add(toManifestDocument(yaml, document));
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Serializes a (possibly modified) document back to YAML.
+     */
+    public static KubernetesManifestDocument toManifestDocument(Map<String, Object> document) {
+        return toManifestDocument(createYaml(), document);
+    }
+
+    /**
+     * Joins documents back into a multi-document manifest.
+     */
+    public static String toManifest(List<KubernetesManifestDocument> documents) {
+        StringBuilder manifest = new StringBuilder();
+        for (KubernetesManifestDocument document : documents) {
+            manifest.append(ManifestSweepExpander.DOCUMENT_SEPARATOR).append('\n').append(document.getContent());
+        }
+        return manifest.toString();
+    }
+
+    private static KubernetesManifestDocument toManifestDocument(Yaml yaml, Map<String, Object> document) {
+        Map<?, ?> metadata = document.get("metadata") instanceof Map ? (Map<?, ?>) document.get("metadata")
+                                                                     : Collections.emptyMap();
+        return new KubernetesManifestDocument(BindingUtils.toEmptyStringIfNull(document.get("kind")),
+                                              BindingUtils.toEmptyStringIfNull(metadata.get("name")),
+                                              metadata.get("namespace") == null ? null
+                                                                                : metadata.get("namespace").toString(),
+                                              document,
+                                              yaml.dump(document));
+    }
+
+    private static Yaml createYaml() {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        return KubernetesYaml.create(options);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import javax.script.ScriptException;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import jsr223.kubernetes.metrics.KubernetesFlightRecorder;
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Creates the documents of a manifest by dependency order: documents are grouped by creation tier (namespaces, then
+ * configuration, then services, then workloads), the documents of a tier are created in parallel, and a tier starts
+ * once the previous one is fully created. If any creation fails, exactly the resources created so far are deleted.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class KubernetesParallelResourceCreator {
+
+    private static final Logger log = Logger.getLogger(KubernetesParallelResourceCreator.class);
+
+    @NonNull
+    private KubernetesCommandRunner commandRunner;
+
+    @NonNull
+    private KubernetesCommandCreator commandCreator;
+
+    private final int parallelism;
+
+    public List<KubernetesResource> create(List<KubernetesManifestDocument> documents) throws ScriptException {
+        Map<Integer, List<KubernetesManifestDocument>> tiers = documents.stream()
+                                                                        .collect(Collectors.groupingBy(KubernetesManifestDocument::getCreationTier,
+                                                                                                       TreeMap::new,
+                                                                                                       Collectors.toList()));
+        List<KubernetesResource> createdResources = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                                                                new ThreadFactoryBuilder().setDaemon(true)
+                                                                                          .setNameFormat("k8s-create-%d")
+                                                                                          .build());
+        try {
+            for (List<KubernetesManifestDocument> tier : tiers.values()) {
+                List<String> errors = createTier(executor, tier, createdResources);
+                if (!errors.isEmpty()) {
+                    throw new ScriptException("Kubernetes resources creation has failed, " +
+                                              rollback(createdResources) + '\n' + String.join("\n", errors));
+                }
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            throw new ScriptException("Interrupted when trying to create kubernetes resources, " +
+                                      rollback(createdResources) + "\nException: " + e);
+        } catch (RuntimeException e) {
+            throw new ScriptException("Kubernetes resources creation has failed, " + rollback(createdResources) +
+                                      "\nException: " + e);
+        } finally {
+            executor.shutdown();
+        }
+        return new ArrayList<>(createdResources);
+    }
+
+    private List<String> createTier(ExecutorService executor, List<KubernetesManifestDocument> tier,
+            List<KubernetesResource> createdResources) throws InterruptedException {
+        List<Future<KubernetesCommandResult>> creations = new ArrayList<>();
+        for (KubernetesManifestDocument document : tier) {
+            Callable<KubernetesCommandResult> creation = () -> commandRunner.run(document.getContent(),
+                                                                                 commandCreator.createKubectlCreateCommand(KubernetesCommandCreator.STDIN_FILENAME));
+            creations.add(executor.submit(KubernetesFlightRecorder.withTaskIds(creation)));
+        }
+
+        // Wait for the whole tier, even after a failure, to know exactly which resources exist
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < tier.size(); i++) {
+            String documentName = tier.get(i).getKind() + '/' + tier.get(i).getName();
+            try {
+                KubernetesCommandResult result = creations.get(i).get();
+                if (result.isSuccessful()) {
+                    List<KubernetesResource> resources;
+                    try {
+                        resources = KubernetesResourceParser.parseKubernetesResourceJson(result.getOutput());
+                    } catch (RuntimeException e) {
+                        errors.add("Could not read the creation of " + documentName + ": " + e.getMessage());
+                        // Rolled back under the name of its document, unless the cluster generated it
+                        if (!tier.get(i).getName().isEmpty()) {
+                            createdResources.add(new KubernetesResource(tier.get(i).getKind(),
+                                                                        tier.get(i).getName(),
+                                                                        tier.get(i).getNamespace()));
+                        }
+                        continue;
+                    }
+                    resources.forEach(r -> log.info("Successfully created K8S resource: " + r.getKind() + '/' +
+                                                    r.getName() + " in namespace " + r.getNamespace() + "."));
+                    createdResources.addAll(resources);
+                } else {
+                    errors.add("Could not create " + documentName + ": " + result.getError().trim());
+                }
+            } catch (ExecutionException e) {
+                errors.add("Could not create " + documentName + ": " + e.getCause());
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Deletes the resources created so far.
+     *
+     * @return What was rolled back, to complete the creation failure message.
+     */
+    private String rollback(List<KubernetesResource> createdResources) {
+        // Namespaced resources first, cluster-scoped ones (e.g. their namespace) last
+        Map<String, List<String>> resourcesByNamespace = new LinkedHashMap<>();
+        List<KubernetesResource> resources = new ArrayList<>(createdResources);
+        Collections.reverse(resources);
+        for (KubernetesResource resource : resources) {
+            resourcesByNamespace.computeIfAbsent(resource.getNamespace() == null ? "" : resource.getNamespace(),
+                                                 k -> new ArrayList<>())
+                                .add(resource.getKind() + '/' + resource.getName());
+        }
+        List<String> clusterResources = resourcesByNamespace.remove("");
+        if (clusterResources != null) {
+            resourcesByNamespace.put("", clusterResources);
+        }
+
+        List<String> failedDeletions = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : resourcesByNamespace.entrySet()) {
+            String namespace = entry.getKey().isEmpty() ? null : entry.getKey();
+            try {
+                KubernetesCommandResult result = commandRunner.run(commandCreator.createKubectlDeleteResourcesCommand(namespace,
+                                                                                                                      entry.getValue()));
+                if (result.isSuccessful()) {
+                    log.info("Rolled back K8S resources: " + result.getOutput().trim());
+                } else {
+                    log.warn("Could not roll back K8S resources " + entry.getValue() + ": " +
+                             result.getError().trim());
+                    // kubectl goes on after a failed deletion, and names the deleted resources
+                    for (String resource : entry.getValue()) {
+                        if (!isDeleted(resource, result.getOutput())) {
+                            failedDeletions.add(resource);
+                        }
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                log.warn("Could not roll back K8S resources " + entry.getValue() + ". Exception: " + e);
+                failedDeletions.addAll(entry.getValue());
+            }
+        }
+
+        if (failedDeletions.isEmpty()) {
+            return "the " + createdResources.size() + " resources already created were deleted.";
+        }
+        return "the " + createdResources.size() + " resources already created could not all be deleted, these ones " +
+               "may remain: " + String.join(", ", failedDeletions) + '.';
+    }
+
+    /**
+     * @param resource A resource as given to 'kubectl delete', e.g. Deployment/app.
+     * @param output   The output of 'kubectl delete -o name', a resource per line with the lowercase kind and its
+     *                 group, e.g. deployment.apps/app.
+     */
+    private static boolean isDeleted(String resource, String output) {
+        String kind = resource.substring(0, resource.indexOf('/')).toLowerCase();
+        String name = resource.substring(resource.indexOf('/') + 1);
+        for (String line : output.split("\n")) {
+            int separator = line.trim().indexOf('/');
+            if (separator > 0 && line.trim().substring(separator + 1).equals(name)) {
+                String deletedKind = line.trim().substring(0, separator).toLowerCase();
+                if (deletedKind.equals(kind) || deletedKind.startsWith(kind + '.')) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
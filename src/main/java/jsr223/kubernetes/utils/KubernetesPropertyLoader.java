@@ -26,7 +26,11 @@
 package jsr223.kubernetes.utils;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.apache.log4j.Logger;
 
@@ -49,25 +53,185 @@ public class KubernetesPropertyLoader {
     @Getter
     private final String kubectlConfig;
 
+    // Whether kubectl.config is set, rather than defaulting to the kubeconfig of the user
+    @Getter
+    private final boolean kubectlConfigSet;
+
     @Getter
     private final String kubectlKey;
 
+    // kubeconfig contexts of the clusters the tasks are spread over, empty to only use the current context
+    @Getter
+    private final List<String> kubectlContexts;
+
+    // Maximum age, in seconds, of an idle pod of a warm pool before it gets recycled
+    @Getter
+    private final long warmPoolPodMaxAge;
+
+    // Time, in seconds, after which a warm pool no task has used is closed and its pods deleted
+    @Getter
+    private final long warmPoolMaxIdleTime;
+
+    // Size, in characters, of the in-memory buffer between the log pumps and the task writer, 0 to write directly
+    @Getter
+    private final int logBufferMemorySize;
+
+    // Maximum number of characters spilled to disk when the task writer falls behind the logs
+    @Getter
+    private final long logBufferSpillMaxSize;
+
+    @Getter
+    private final String logBufferSpillDirectory;
+
+    // Maximum compressed size, in bytes, of the task inputs shipped in a ConfigMap; larger inputs are streamed
+    @Getter
+    private final int inputStagingConfigMapMaxSize;
+
+    // Image of the init container unpacking the task inputs, it must provide sh and tar
+    @Getter
+    private final String inputStagingImage;
+
+    // Interval, in seconds, between two reads of the capacity of a cluster by the admission of the tasks
+    @Getter
+    private final long admissionRefreshInterval;
+
+    // Local file keeping the peak resource usage of the task containers
+    @Getter
+    private final String sizingHistoryFile;
+
+    // Number of runs of each task container kept in the resource usage history
+    @Getter
+    private final int sizingHistorySize;
+
+    // Interval, in seconds, between two samplings of the resource usage of the task pods
+    @Getter
+    private final long sizingSampleInterval;
+
+    // Whether the tokens of the exec credential plugins of the kubeconfig are cached, instead of kubectl running the
+    // plugin on each command; null to cache them only when kubectl.config is the kubeconfig kubectl would use anyway
+    @Getter
+    private final Boolean execCredentialCacheEnabled;
+
+    // Time, in seconds, before the expiration of a cached token when it gets refreshed
+    @Getter
+    private final long execCredentialRefreshMargin;
+
+    // Lifetime, in seconds, of a cached token without an expiration
+    @Getter
+    private final long execCredentialDefaultTtl;
+
+    // Maximum time, in seconds, given to an exec credential plugin to return a token
+    @Getter
+    private final long execCredentialTimeout;
+
+    // Node-local kubectl cache directory (API discovery and HTTP responses) shared by the commands of the engine,
+    // empty to let kubectl use the cache directory of the user
+    @Getter
+    private final String kubectlCacheDirectory;
+
+    // Interval, in seconds, between two refreshes of the API discovery cache, 0 to never refresh it
+    @Getter
+    private final long kubectlCacheRefreshInterval;
+
     private final Properties properties;
 
     private KubernetesPropertyLoader() {
-        properties = new Properties();
+        this(loadProperties());
+    }
+
+    KubernetesPropertyLoader(Properties properties) {
+        this.properties = properties;
+
+        // Get property, specify default value
+        this.kubectlCommand = properties.getProperty("kubectl.command", "/usr/local/bin/kubectl");
+        this.kubectlConfig = properties.getProperty("kubectl.config", "~/.kube/config");
+        this.kubectlConfigSet = properties.getProperty("kubectl.config") != null;
+        this.kubectlKey = properties.getProperty("kubectl.key", "~/.kube/config/id_rsa");
+        this.kubectlContexts = Arrays.stream(properties.getProperty("kubectl.contexts", "").split(","))
+                                     .map(String::trim)
+                                     .filter(context -> !context.isEmpty())
+                                     .collect(Collectors.toList());
+        this.warmPoolPodMaxAge = getLongProperty("warm.pool.pod.max.age", 1800);
+        this.warmPoolMaxIdleTime = getLongProperty("warm.pool.max.idle.time", 1800);
+        this.logBufferMemorySize = getIntProperty("log.buffer.memory.size", 1048576);
+        this.logBufferSpillMaxSize = getLongProperty("log.buffer.spill.max.size", 536870912);
+        this.logBufferSpillDirectory = properties.getProperty("log.buffer.spill.directory",
+                                                              System.getProperty("java.io.tmpdir"));
+        this.inputStagingConfigMapMaxSize = getIntProperty("input.staging.configmap.max.size", 786432);
+        this.inputStagingImage = properties.getProperty("input.staging.image", "busybox:1.36");
+        this.admissionRefreshInterval = getLongProperty("admission.refresh.interval", 10);
+        this.sizingHistoryFile = properties.getProperty("sizing.history.file",
+                                                        System.getProperty("user.home") +
+                                                                               "/.proactive/kubernetes-resource-usage-history");
+        this.sizingHistorySize = getIntProperty("sizing.history.size", 20);
+        this.sizingSampleInterval = getLongProperty("sizing.sample.interval", 15);
+        this.execCredentialCacheEnabled = properties.getProperty("exec.credential.cache.enabled") == null ? null
+                                                                                                            : Boolean.valueOf(properties.getProperty("exec.credential.cache.enabled"));
+        this.execCredentialRefreshMargin = getLongProperty("exec.credential.refresh.margin", 60);
+        this.execCredentialDefaultTtl = getLongProperty("exec.credential.default.ttl", 600);
+        this.execCredentialTimeout = getLongProperty("exec.credential.timeout", 60);
+        this.kubectlCacheDirectory = properties.getProperty("kubectl.cache.directory",
+                                                            System.getProperty("java.io.tmpdir") +
+                                                                                       "/proactive-kubectl-cache-" +
+                                                                                       System.getProperty("user.name"))
+                                               .trim();
+        this.kubectlCacheRefreshInterval = getLongProperty("kubectl.cache.refresh.interval", 300);
+    }
+
+    private static Properties loadProperties() {
+        Properties properties = new Properties();
         try {
             log.debug("Load properties from configuration file: " + CONFIGURATION_FILE);
-            properties.load(getClass().getClassLoader().getResourceAsStream(CONFIGURATION_FILE));
+            properties.load(KubernetesPropertyLoader.class.getClassLoader().getResourceAsStream(CONFIGURATION_FILE));
         } catch (IOException | NullPointerException e) {
             log.debug("Configuration file " + CONFIGURATION_FILE + " not found. Standard values will be used.");
             log.trace("Configuration file " + CONFIGURATION_FILE + " not found. Standard values will be used.", e);
         }
+        return properties;
+    }
 
-        // Get property, specify default value
-        this.kubectlCommand = properties.getProperty("kubectl.command", "/usr/local/bin/kubectl");
-        this.kubectlConfig = properties.getProperty("kubectl.config", "~/.kube/config");
-        this.kubectlKey = properties.getProperty("kubectl.key", "~/.kube/config/id_rsa");
+    /**
+     * @return The value of a numeric property, or the default value when it is not set or is not a number.
+     */
+    private long getLongProperty(String name, long defaultValue) {
+        return parseProperty(name, defaultValue, Long::parseLong);
+    }
+
+    private int getIntProperty(String name, int defaultValue) {
+        return parseProperty(name, defaultValue, Integer::parseInt);
+    }
+
+    private <T> T parseProperty(String name, T defaultValue, Function<String, T> parser) {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value '" + value + "' of property " + name + ", the default value " + defaultValue +
+                     " is used.");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * @return The property "kubectl.context.[CONTEXT].[NAME]" of a kubeconfig context, or the default value.
+     */
+    public String getContextProperty(String context, String name, String defaultValue) {
+        return properties.getProperty("kubectl.context." + context + '.' + name, defaultValue);
+    }
+
+    /**
+     * @return The numeric property "kubectl.context.[CONTEXT].[NAME]" of a kubeconfig context, or the default value
+     * when it is not set or is not a number.
+     */
+    public int getContextIntProperty(String context, String name, int defaultValue) {
+        return parseProperty("kubectl.context." + context + '.' + name, defaultValue, Integer::parseInt);
+    }
+
+    public double getContextDoubleProperty(String context, String name, double defaultValue) {
+        return parseProperty("kubectl.context." + context + '.' + name, defaultValue, Double::parseDouble);
     }
 
     public static KubernetesPropertyLoader getInstance() {
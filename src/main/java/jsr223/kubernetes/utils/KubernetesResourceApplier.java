@@ -0,0 +1,194 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.script.ScriptException;
+
+import org.apache.log4j.Logger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Idempotently applies the documents of a manifest. Each document is stamped with a hash of its content; the live
+ * resources are read in one batched call, the documents whose hash matches the live annotation are skipped and the
+ * others are server-side applied in one batched call.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+@RequiredArgsConstructor
+public class KubernetesResourceApplier {
+
+    private static final Logger log = Logger.getLogger(KubernetesResourceApplier.class);
+
+    public static final String MANIFEST_HASH_ANNOTATION = "proactive.activeeon.com/manifest-hash";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @NonNull
+    private KubernetesCommandRunner commandRunner;
+
+    @NonNull
+    private KubernetesCommandCreator commandCreator;
+
+    /**
+     * @return The resources of the manifest, whether they were applied or already up to date.
+     */
+    public List<KubernetesResource> apply(List<KubernetesManifestDocument> documents)
+            throws ScriptException, IOException, InterruptedException {
+        List<KubernetesManifestDocument> stampedDocuments = new ArrayList<>();
+        for (KubernetesManifestDocument document : documents) {
+            stampedDocuments.add(stamp(document));
+        }
+
+        Map<String, String> liveHashes = getLiveHashes(KubernetesManifestParser.toManifest(stampedDocuments));
+
+        List<KubernetesResource> resources = new ArrayList<>();
+        List<KubernetesManifestDocument> changedDocuments = new ArrayList<>();
+        for (KubernetesManifestDocument document : stampedDocuments) {
+            String hash = getHash(document.getObject());
+            if (hash.equals(liveHashes.get(getKey(document.getKind(), document.getName(), document.getNamespace())))) {
+                log.info("K8S resource " + document.getKind() + '/' + document.getName() +
+                         " is unchanged, skipping it.");
+                resources.add(new KubernetesResource(document.getKind(),
+                                                     document.getName(),
+                                                     document.getNamespace()));
+            } else {
+                changedDocuments.add(document);
+            }
+        }
+
+        if (!changedDocuments.isEmpty()) {
+            KubernetesCommandResult result = commandRunner.run(KubernetesManifestParser.toManifest(changedDocuments),
+                                                               commandCreator.createKubectlServerSideApplyCommand());
+            if (!result.isSuccessful()) {
+                throw new ScriptException("Kubernetes resources apply has failed. Exit code " + result.getExitValue() +
+                                          " . \nkubectl output is: " + result.getError());
+            }
+            for (KubernetesResource resource : KubernetesResourceParser.parseKubernetesResourceJson(result.getOutput())) {
+                log.info("Successfully applied K8S resource: " + resource.getKind() + '/' + resource.getName() +
+                         " in namespace " + resource.getNamespace() + ".");
+                resources.add(resource);
+            }
+        }
+        log.info((documents.size() - changedDocuments.size()) + " K8S resources unchanged, " +
+                 changedDocuments.size() + " applied.");
+        return resources;
+    }
+
+    // Adds the hash of the document content as an annotation of the document
+    private KubernetesManifestDocument stamp(KubernetesManifestDocument document) {
+        String hash = Hashing.sha256().hashString(document.getContent(), StandardCharsets.UTF_8).toString();
+        Map<String, Object> object = new LinkedHashMap<>(document.getObject());
+        Map<String, Object> metadata = copyMap(object.get("metadata"));
+        Map<String, Object> annotations = copyMap(metadata.get("annotations"));
+        annotations.put(MANIFEST_HASH_ANNOTATION, hash);
+        metadata.put("annotations", annotations);
+        object.put("metadata", metadata);
+        return KubernetesManifestParser.toManifestDocument(object);
+    }
+
+    // Reads the hash annotation of the live resources, by kind/name (and namespace)
+    private Map<String, String> getLiveHashes(String manifest) throws IOException, InterruptedException {
+        Map<String, String> liveHashes = new HashMap<>();
+        KubernetesCommandResult result = commandRunner.run(manifest,
+                                                           commandCreator.createKubectlGetManifestResourcesCommand());
+        if (!result.isSuccessful() || result.getOutput().trim().isEmpty()) {
+            // e.g. a kind unknown to the cluster yet, apply everything
+            log.debug("Could not read the live K8S resources: " + result.getError());
+            return liveHashes;
+        }
+
+        for (Iterator<?> it = MAPPER.readValues(new JsonFactory().createParser(result.getOutput()), Map.class); it.hasNext();) {
+            Map<?, ?> jsonObject = (Map<?, ?>) it.next();
+            if ("List".equals(jsonObject.get("kind")) && jsonObject.get("items") instanceof List) {
+                for (Object item : (List<?>) jsonObject.get("items")) {
+                    addLiveHash((Map<?, ?>) item, liveHashes);
+                }
+            } else {
+                addLiveHash(jsonObject, liveHashes);
+            }
+        }
+        return liveHashes;
+    }
+
+    private void addLiveHash(Map<?, ?> jsonObject, Map<String, String> liveHashes) {
+        String hash = getHash(jsonObject);
+        if (hash != null) {
+            Map<?, ?> metadata = (Map<?, ?>) jsonObject.get("metadata");
+            String kind = jsonObject.get("kind").toString();
+            String name = metadata.get("name").toString();
+            // documents without namespace are matched by kind/name only
+            liveHashes.put(getKey(kind, name, null), hash);
+            if (metadata.get("namespace") != null) {
+                liveHashes.put(getKey(kind, name, metadata.get("namespace").toString()), hash);
+            }
+        }
+    }
+
+    private static String getHash(Map<?, ?> object) {
+        if (object.get("metadata") instanceof Map) {
+            Object annotations = ((Map<?, ?>) object.get("metadata")).get("annotations");
+            if (annotations instanceof Map) {
+                Object hash = ((Map<?, ?>) annotations).get(MANIFEST_HASH_ANNOTATION);
+                return hash == null ? null : hash.toString();
+            }
+        }
+        return null;
+    }
+
+    // A modifiable copy of a YAML mapping, empty if the value is not a mapping
+    private static Map<String, Object> copyMap(Object value) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        if (value instanceof Map) {
+            ((Map<?, ?>) value).forEach((key, entryValue) -> copy.put(String.valueOf(key), entryValue));
+        }
+        return copy;
+    }
+
+    private static String getKey(String kind, String name, String namespace) {
+        return kind.toLowerCase() + '/' + name + (namespace == null ? "" : '@' + namespace);
+    }
+}
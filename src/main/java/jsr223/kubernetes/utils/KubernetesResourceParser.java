@@ -0,0 +1,84 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jsr223.kubernetes.model.KubernetesResource;
+
+
+/**
+ * Parses the JSON output ('-o json') of kubectl into the list of the resources it describes.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesResourceParser {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private KubernetesResourceParser() {
+    }
+
+    public static List<KubernetesResource> parseKubernetesResourceJson(String resource_json) {
+        List<KubernetesResource> resources = new ArrayList<>();
+        try {
+            for (Iterator<?> it = MAPPER.readValues(JSON_FACTORY.createParser(resource_json), Map.class); it.hasNext();) {
+                // Retrieve created resource(s) info (kind, resource name & namespace)
+                Map<?, ?> jsonObject = (Map<?, ?>) it.next();
+                if ("List".equals(jsonObject.get("kind")) && jsonObject.get("items") instanceof List) {
+                    // Several resources are returned by kubectl as a single List
+                    for (Object item : (List<?>) jsonObject.get("items")) {
+                        resources.add(toKubernetesResource((Map<?, ?>) item));
+                    }
+                } else {
+                    resources.add(toKubernetesResource(jsonObject));
+                }
+            }
+        } catch (Exception jre) {
+            throw new RuntimeException("Could not parse Kubernetes Json Resource : " + jre.getMessage(), jre);
+        }
+        return resources;
+    }
+
+    private static KubernetesResource toKubernetesResource(Map<?, ?> jsonObject) {
+        Map<?, ?> metadataObject = MAPPER.convertValue(jsonObject.get("metadata"), Map.class);
+        String kind = jsonObject.get("kind").toString();
+        String name = metadataObject.get("name").toString();
+        // cluster-scoped resources (e.g. Namespace) have no namespace
+        Object namespace = metadataObject.get("namespace");
+
+        return new KubernetesResource(kind, name, namespace == null ? null : namespace.toString());
+    }
+}
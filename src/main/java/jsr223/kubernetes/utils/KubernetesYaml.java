@@ -0,0 +1,176 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import java.util.regex.Pattern;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.AbstractConstruct;
+import org.yaml.snakeyaml.constructor.Construct;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+
+/**
+ * Creates the YAML parsers of the engine. They only construct the standard YAML types, never a Java class named by a
+ * tag of the document, and they read the scalars the way the YAML parser of kubectl does, so that a document read
+ * then dumped means the same to kubectl:
+ * <ul>
+ * <li>timestamps and base 60 numbers stay strings, e.g. 2024-01-01 or 1:30;</li>
+ * <li>octal integers keep the digits they are written with, e.g. the file mode 0755. SnakeYAML never dumps a number
+ * with a leading zero as a plain scalar, they are dumped as !!int '0755', which kubectl reads as the same integer.</li>
+ * </ul>
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesYaml {
+
+    // Octal integers of YAML 1.1
+    private static final Pattern OCTAL = Pattern.compile("^[-+]?0[0-7_]+$");
+
+    // Base 60 integers and floats of YAML 1.1
+    private static final Pattern SEXAGESIMAL = Pattern.compile("^[-+]?[0-9][0-9_]*(?::[0-5]?[0-9])+(?:\\.[0-9_]*)?$");
+
+    private KubernetesYaml() {
+    }
+
+    public static Yaml create() {
+        return create(new DumperOptions());
+    }
+
+    public static Yaml create(DumperOptions dumperOptions) {
+        LoaderOptions loaderOptions = new LoaderOptions();
+        return new Yaml(new KubernetesConstructor(loaderOptions),
+                        new KubernetesRepresenter(dumperOptions),
+                        dumperOptions,
+                        loaderOptions,
+                        new KubernetesResolver());
+    }
+
+    /**
+     * An octal integer, as written in the document.
+     */
+    public static class OctalNumber extends Number {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String text;
+
+        private final long value;
+
+        OctalNumber(String text) {
+            this.text = text;
+            String digits = text.replace("_", "");
+            this.value = Long.parseLong(digits, 8);
+        }
+
+        @Override
+        public int intValue() {
+            return (int) value;
+        }
+
+        @Override
+        public long longValue() {
+            return value;
+        }
+
+        @Override
+        public float floatValue() {
+            return value;
+        }
+
+        @Override
+        public double doubleValue() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof OctalNumber && ((OctalNumber) other).text.equals(text);
+        }
+
+        @Override
+        public int hashCode() {
+            return text.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private static class KubernetesResolver extends Resolver {
+
+        @Override
+        public Tag resolve(NodeId kind, String value, boolean implicit) {
+            if (kind == NodeId.scalar && implicit &&
+                (TIMESTAMP.matcher(value).matches() || SEXAGESIMAL.matcher(value).matches())) {
+                return Tag.STR;
+            }
+            return super.resolve(kind, value, implicit);
+        }
+    }
+
+    private static class KubernetesConstructor extends SafeConstructor {
+
+        KubernetesConstructor(LoaderOptions loaderOptions) {
+            super(loaderOptions);
+            this.yamlConstructors.put(Tag.INT, new ConstructInteger(this.yamlConstructors.get(Tag.INT)));
+        }
+
+        private class ConstructInteger extends AbstractConstruct {
+
+            private final Construct integerConstruct;
+
+            ConstructInteger(Construct integerConstruct) {
+                this.integerConstruct = integerConstruct;
+            }
+
+            @Override
+            public Object construct(Node node) {
+                String value = constructScalar((ScalarNode) node);
+                return OCTAL.matcher(value).matches() ? new OctalNumber(value) : integerConstruct.construct(node);
+            }
+        }
+    }
+
+    private static class KubernetesRepresenter extends Representer {
+
+        KubernetesRepresenter(DumperOptions dumperOptions) {
+            super(dumperOptions);
+            this.representers.put(OctalNumber.class, data -> representScalar(Tag.INT, data.toString()));
+        }
+    }
+}
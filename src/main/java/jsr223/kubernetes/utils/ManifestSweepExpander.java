@@ -0,0 +1,67 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Expands a k8s manifest template into a single multi-document manifest, one copy per sweep item.
+ * Each copy is substituted with the task variables plus ${SWEEP_INDEX} (0-based) and ${SWEEP_ITEM},
+ * which have to be used in the resource names for the copies not to collide.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ManifestSweepExpander {
+
+    public static final String SWEEP_INDEX_VARIABLE = "SWEEP_INDEX";
+
+    public static final String SWEEP_ITEM_VARIABLE = "SWEEP_ITEM";
+
+    public static final String DOCUMENT_SEPARATOR = "---";
+
+    private ManifestSweepExpander() {
+    }
+
+    public static String expand(String template, Map<String, String> substitutes, List<String> items) {
+        StringBuilder manifest = new StringBuilder();
+        Map<String, String> itemSubstitutes = new HashMap<>(substitutes);
+        for (int index = 0; index < items.size(); index++) {
+            itemSubstitutes.put(SWEEP_INDEX_VARIABLE, String.valueOf(index));
+            itemSubstitutes.put(SWEEP_ITEM_VARIABLE, items.get(index));
+            String document = VariablesSubstitutor.replaceRecursively(template, itemSubstitutes);
+
+            manifest.append(DOCUMENT_SEPARATOR).append('\n').append(document);
+            if (!document.endsWith("\n")) {
+                manifest.append('\n');
+            }
+        }
+        return manifest.toString();
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import static jsr223.kubernetes.utils.VariablesSubstitutor.K8S_MANIFEST_CUSTOM_VAR_SYNTAX_PREF;
+import static jsr223.kubernetes.utils.VariablesSubstitutor.K8S_MANIFEST_CUSTOM_VAR_SYNTAX_SUFF;
+import static jsr223.kubernetes.utils.VariablesSubstitutor.MAXIMUM_DEPTH;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Substitutes the variables of a manifest while it is read, so that a large manifest never has to be held in memory.
+ * The references to unknown variables are left as they are, and the values of the variables are substituted in turn,
+ * down to the same depth as {@link VariablesSubstitutor#replaceRecursively(String, Map)}. Unlike the latter, a
+ * reference made of a substituted value and of the text around it is not substituted.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class VariablesSubstitutingReader extends Reader {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader source;
+
+    private final Map<String, String> substitutes;
+
+    private final int depth;
+
+    // Longest reference to a variable, "${" and "}" included
+    private final int maxReferenceLength;
+
+    // Characters read from the source, from start to end, large enough to hold any reference
+    private final char[] buffer;
+
+    private int start = 0;
+
+    private int end = 0;
+
+    private boolean endOfSource = false;
+
+    // Variable name -> value, its own references substituted
+    private final Map<String, String> substitutedValues = new HashMap<>();
+
+    // Substituted value being read
+    private String pending = null;
+
+    private int pendingPosition = 0;
+
+    public VariablesSubstitutingReader(Reader source, Map<String, String> substitutes) {
+        this(source, substitutes, 1);
+    }
+
+    private VariablesSubstitutingReader(Reader source, Map<String, String> substitutes, int depth) {
+        this.source = source;
+        this.substitutes = substitutes;
+        this.depth = depth;
+        this.maxReferenceLength = substitutes.keySet().stream().mapToInt(String::length).max().orElse(0) +
+                                  K8S_MANIFEST_CUSTOM_VAR_SYNTAX_PREF.length() +
+                                  K8S_MANIFEST_CUSTOM_VAR_SYNTAX_SUFF.length();
+        this.buffer = new char[Math.max(BUFFER_SIZE, 2 * maxReferenceLength)];
+    }
+
+    @Override
+    public int read(char[] output, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        char referenceStart = K8S_MANIFEST_CUSTOM_VAR_SYNTAX_PREF.charAt(0);
+        int count = 0;
+        while (count < length) {
+            if (pending != null) {
+                int copied = Math.min(length - count, pending.length() - pendingPosition);
+                pending.getChars(pendingPosition, pendingPosition + copied, output, offset + count);
+                count += copied;
+                pendingPosition += copied;
+                if (pendingPosition == pending.length()) {
+                    pending = null;
+                }
+                continue;
+            }
+            if (start == end) {
+                // Do not block for more input once some characters are read
+                if (count > 0 || !fill(1)) {
+                    break;
+                }
+            }
+            if (buffer[start] == referenceStart && !substitutes.isEmpty()) {
+                fill(maxReferenceLength);
+                String value = readReference();
+                if (value != null) {
+                    pending = value;
+                    pendingPosition = 0;
+                } else {
+                    output[offset + count++] = buffer[start++];
+                }
+                continue;
+            }
+            // Copy the characters up to the next reference at once
+            int limit = Math.min(end, start + length - count);
+            int next = start;
+            while (next < limit && buffer[next] != referenceStart) {
+                next++;
+            }
+            System.arraycopy(buffer, start, output, offset + count, next - start);
+            count += next - start;
+            start = next;
+        }
+        return count == 0 ? -1 : count;
+    }
+
+    /**
+     * Reads the buffer until it holds the given number of characters, or the source ends.
+     *
+     * @return Whether the buffer holds any character.
+     */
+    private boolean fill(int characters) throws IOException {
+        if (end - start < characters && !endOfSource) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+            while (end < characters) {
+                int n = source.read(buffer, end, buffer.length - end);
+                if (n == -1) {
+                    endOfSource = true;
+                    break;
+                }
+                end += n;
+            }
+        }
+        return end > start;
+    }
+
+    /**
+     * Reads the reference to a known variable at the start of the buffer, if any.
+     *
+     * @return The substituted value of the variable, or null if the buffer does not start with such a reference.
+     */
+    private String readReference() throws IOException {
+        int limit = Math.min(end, start + maxReferenceLength);
+        int nameStart = start + K8S_MANIFEST_CUSTOM_VAR_SYNTAX_PREF.length();
+        if (!matches(K8S_MANIFEST_CUSTOM_VAR_SYNTAX_PREF, start, limit)) {
+            return null;
+        }
+        for (int nameEnd = nameStart; nameEnd < limit; nameEnd++) {
+            if (matches(K8S_MANIFEST_CUSTOM_VAR_SYNTAX_SUFF, nameEnd, limit)) {
+                String name = new String(buffer, nameStart, nameEnd - nameStart);
+                if (!substitutes.containsKey(name)) {
+                    return null;
+                }
+                start = nameEnd + K8S_MANIFEST_CUSTOM_VAR_SYNTAX_SUFF.length();
+                return substitute(name);
+            }
+        }
+        return null;
+    }
+
+    private boolean matches(String syntax, int position, int limit) {
+        if (position + syntax.length() > limit) {
+            return false;
+        }
+        for (int i = 0; i < syntax.length(); i++) {
+            if (buffer[position + i] != syntax.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The values are substituted once per reader, a manifest often refers to the same variables many times
+    private String substitute(String name) throws IOException {
+        String value = substitutes.get(name);
+        if (depth >= MAXIMUM_DEPTH || !value.contains(K8S_MANIFEST_CUSTOM_VAR_SYNTAX_PREF)) {
+            return value;
+        }
+        String substituted = substitutedValues.get(name);
+        if (substituted == null) {
+            substituted = substituteValue(value);
+            substitutedValues.put(name, substituted);
+        }
+        return substituted;
+    }
+
+    private String substituteValue(String value) throws IOException {
+        StringWriter substituted = new StringWriter(value.length());
+        try (Reader reader = new VariablesSubstitutingReader(new StringReader(value), substitutes, depth + 1)) {
+            char[] chunk = new char[1024];
+            int n;
+            while ((n = reader.read(chunk)) != -1) {
+                substituted.write(chunk, 0, n);
+            }
+        }
+        return substituted.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+}
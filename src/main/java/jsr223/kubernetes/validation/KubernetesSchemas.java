@@ -0,0 +1,111 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.validation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Map;
+
+import jsr223.kubernetes.utils.KubernetesYaml;
+
+
+/**
+ * The compact schemas of the common Kubernetes kinds, bundled in the {@value #SCHEMAS_RESOURCE} resource.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class KubernetesSchemas {
+
+    public static final String SCHEMAS_RESOURCE = "jsr223/kubernetes/validation/kubernetes-schemas.yaml";
+
+    // apiVersion/kind -> definition name
+    private final Map<String, String> kinds;
+
+    // definition name -> field -> type
+    private final Map<String, Map<String, String>> definitions;
+
+    @SuppressWarnings("unchecked")
+    private KubernetesSchemas() {
+        try (InputStream input = KubernetesSchemas.class.getClassLoader().getResourceAsStream(SCHEMAS_RESOURCE)) {
+            if (input == null) {
+                throw new IllegalStateException("Kubernetes schemas resource " + SCHEMAS_RESOURCE + " not found");
+            }
+            Map<String, Object> schemas = (Map<String, Object>) KubernetesYaml.create().load(input);
+            kinds = Collections.unmodifiableMap((Map<String, String>) schemas.get("kinds"));
+            definitions = Collections.unmodifiableMap((Map<String, Map<String, String>>) schemas.get("definitions"));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read the Kubernetes schemas resource " + SCHEMAS_RESOURCE, e);
+        }
+    }
+
+    public static KubernetesSchemas getInstance() {
+        return KubernetesSchemasHolder.INSTANCE;
+    }
+
+    /**
+     * @return The definition of a kind, null if it has no schema (e.g. a custom resource).
+     */
+    public Map<String, String> getKindDefinition(String apiVersion, String kind) {
+        String definition = kinds.get(apiVersion + '/' + kind);
+        return definition == null ? null : definitions.get(definition);
+    }
+
+    /**
+     * @return The apiVersion of a kind having a schema, null if there is none.
+     */
+    public String getApiVersion(String kind) {
+        return kinds.keySet()
+                    .stream()
+                    .filter(key -> key.endsWith('/' + kind))
+                    .map(key -> key.substring(0, key.length() - kind.length() - 1))
+                    .findFirst()
+                    .orElse(null);
+    }
+
+    /**
+     * @return Whether some kinds having a schema are served by this apiVersion.
+     */
+    public boolean isKnownApiVersion(String apiVersion) {
+        return kinds.keySet().stream().anyMatch(key -> key.startsWith(apiVersion + '/') &&
+                                                       key.indexOf('/', apiVersion.length() + 1) < 0);
+    }
+
+    public Map<String, String> getDefinition(String name) {
+        return definitions.get(name);
+    }
+
+    /**
+     * Initializes KubernetesSchemas on the first execution of KubernetesSchemas.getInstance(), not before.
+     **/
+    private static class KubernetesSchemasHolder {
+        private static final KubernetesSchemas INSTANCE = new KubernetesSchemas();
+
+        private KubernetesSchemasHolder() {
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.validation;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+
+import jsr223.kubernetes.admission.ResourceQuantity;
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+import jsr223.kubernetes.utils.KubernetesManifestParser;
+import jsr223.kubernetes.utils.KubernetesYaml;
+
+
+/**
+ * Validates the Kubernetes manifests in the JVM against the bundled {@link KubernetesSchemas}, so that a manifest
+ * with a typo fails before any of its resources is created. The documents whose kind has no schema, e.g. custom
+ * resources, are only checked for their apiVersion, kind and name.
+ *
+ * The validation results are cached by manifest hash: the tasks submitting the same manifest are validated once.
+ *
+ * @author ActiveEon Team
+ * @since 19/10/2026
+ */
+public class ManifestValidator {
+
+    private static final Logger log = Logger.getLogger(ManifestValidator.class);
+
+    private static final int CACHE_SIZE = 1024;
+
+    // Errors reported for a manifest, the following ones are dropped
+    private static final int MAX_ERRORS = 20;
+
+    private static final String REQUIRED_SUFFIX = "!";
+
+    private static final String LIST_PREFIX = "[]";
+
+    private static final String MAP_PREFIX = "map[";
+
+    private static final String ENUM_PREFIX = "enum(";
+
+    private static final Pattern DNS_LABEL = Pattern.compile("[a-z0-9]([-a-z0-9]*[a-z0-9])?");
+
+    private static final Pattern DNS_SUBDOMAIN = Pattern.compile("[a-z0-9]([-a-z0-9]*[a-z0-9])?(\\.[a-z0-9]([-a-z0-9]*[a-z0-9])?)*");
+
+    private static final int DNS_LABEL_MAX_LENGTH = 63;
+
+    private static final int DNS_SUBDOMAIN_MAX_LENGTH = 253;
+
+    private final KubernetesSchemas schemas = KubernetesSchemas.getInstance();
+
+    // SHA-256 of the manifest -> validation errors
+    private final Cache<String, List<String>> results = CacheBuilder.newBuilder().maximumSize(CACHE_SIZE).build();
+
+    private ManifestValidator() {
+    }
+
+    public static ManifestValidator getInstance() {
+        return ManifestValidatorHolder.INSTANCE;
+    }
+
+    /**
+     * @param manifest A multi-document manifest, after variables substitution.
+     * @return The errors of the manifest, empty if it is valid.
+     */
+    public List<String> validate(String manifest) {
+        String hash = Hashing.sha256().hashString(manifest, StandardCharsets.UTF_8).toString();
+        List<String> errors = results.getIfPresent(hash);
+        if (errors == null) {
+            errors = Collections.unmodifiableList(validateManifest(manifest));
+            results.put(hash, errors);
+        } else {
+            log.debug("Kubernetes manifest " + hash.substring(0, 16) + " already validated.");
+        }
+        return errors;
+    }
+
+    private List<String> validateManifest(String manifest) {
+        List<String> errors = new ArrayList<>();
+        List<KubernetesManifestDocument> documents;
+        try {
+            documents = KubernetesManifestParser.parse(manifest);
+        } catch (RuntimeException e) {
+            errors.add("Invalid YAML: " + e.getMessage());
+            return errors;
+        }
+        for (KubernetesManifestDocument document : documents) {
+            validateDocument(document, errors);
+        }
+        if (errors.size() > MAX_ERRORS) {
+            int dropped = errors.size() - MAX_ERRORS;
+            errors.subList(MAX_ERRORS, errors.size()).clear();
+            errors.add("... and " + dropped + " other errors");
+        }
+        return errors;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void validateDocument(KubernetesManifestDocument document, List<String> errors) {
+        Map<String, Object> content = document.getObject();
+        String prefix = (document.getKind().isEmpty() ? "<no kind>" : document.getKind()) + '/' +
+                        (document.getName().isEmpty() ? "<no name>" : document.getName()) + ": ";
+        Object apiVersion = content.get("apiVersion");
+        Object kind = content.get("kind");
+        if (!(apiVersion instanceof String) || !(kind instanceof String)) {
+            errors.add(prefix + "apiVersion and kind are required strings");
+            return;
+        }
+        Object metadata = content.get("metadata");
+        if (!(metadata instanceof Map) ||
+            (((Map<String, Object>) metadata).get("name") == null &&
+             ((Map<String, Object>) metadata).get("generateName") == null)) {
+            errors.add(prefix + "metadata.name or metadata.generateName is required");
+        }
+
+        Map<String, String> definition = schemas.getKindDefinition((String) apiVersion, (String) kind);
+        if (definition == null) {
+            String expectedApiVersion = schemas.getApiVersion((String) kind);
+            if (expectedApiVersion != null && schemas.isKnownApiVersion((String) apiVersion)) {
+                errors.add(prefix + "kind " + kind + " is not served by apiVersion " + apiVersion + ", but by " +
+                           expectedApiVersion);
+            }
+            // Custom resources and less common kinds are validated by the API server
+            return;
+        }
+        validateObject(content, definition, "", prefix, errors);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void validateValue(Object value, String type, String path, String prefix, List<String> errors) {
+        if (value == null) {
+            // An empty field is the same as a missing one
+            return;
+        }
+        if (type.startsWith(LIST_PREFIX)) {
+            if (!(value instanceof List)) {
+                errors.add(prefix + path + ": expected a list, got " + describe(value));
+                return;
+            }
+            List<Object> items = (List<Object>) value;
+            for (int i = 0; i < items.size(); i++) {
+                validateValue(items.get(i), type.substring(LIST_PREFIX.length()), path + '[' + i + ']', prefix, errors);
+            }
+        } else if (type.startsWith(MAP_PREFIX)) {
+            if (!(value instanceof Map)) {
+                errors.add(prefix + path + ": expected a mapping, got " + describe(value));
+                return;
+            }
+            String valueType = type.substring(MAP_PREFIX.length(), type.length() - 1);
+            for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+                if (!(entry.getKey() instanceof String)) {
+                    errors.add(prefix + path + ": key " + entry.getKey() + " is not a string, it must be quoted");
+                    continue;
+                }
+                validateValue(entry.getValue(), valueType, path + '.' + entry.getKey(), prefix, errors);
+            }
+        } else if (type.startsWith(ENUM_PREFIX)) {
+            List<String> allowed = Arrays.asList(type.substring(ENUM_PREFIX.length(), type.length() - 1).split("\\|",
+                                                                                                                 -1));
+            if (!allowed.contains(value)) {
+                errors.add(prefix + path + ": unsupported value " + describe(value) + ", expected one of " + allowed);
+            }
+        } else {
+            validateScalar(value, type, path, prefix, errors);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void validateScalar(Object value, String type, String path, String prefix, List<String> errors) {
+        switch (type) {
+            case "string":
+                expect(value instanceof String, value, "a string", path, prefix, errors);
+                break;
+            case "integer":
+                expect(isInteger(value), value, "an integer", path, prefix, errors);
+                break;
+            case "number":
+                expect(value instanceof Number, value, "a number", path, prefix, errors);
+                break;
+            case "boolean":
+                expect(value instanceof Boolean, value, "a boolean", path, prefix, errors);
+                break;
+            case "int-or-string":
+                expect(isInteger(value) || value instanceof String,
+                       value,
+                       "an integer or a string",
+                       path,
+                       prefix,
+                       errors);
+                break;
+            case "quantity":
+                if (value instanceof String || value instanceof Number) {
+                    try {
+                        ResourceQuantity.parse(value.toString());
+                    } catch (NumberFormatException e) {
+                        errors.add(prefix + path + ": invalid resource quantity " + describe(value));
+                    }
+                } else {
+                    errors.add(prefix + path + ": expected a resource quantity, got " + describe(value));
+                }
+                break;
+            case "dns-label":
+                validateName(value, DNS_LABEL, DNS_LABEL_MAX_LENGTH, "a RFC 1123 DNS label", path, prefix, errors);
+                break;
+            case "dns-subdomain":
+                validateName(value,
+                             DNS_SUBDOMAIN,
+                             DNS_SUBDOMAIN_MAX_LENGTH,
+                             "a RFC 1123 DNS subdomain",
+                             path,
+                             prefix,
+                             errors);
+                break;
+            case "object":
+                expect(value instanceof Map, value, "a mapping", path, prefix, errors);
+                break;
+            case "any":
+                break;
+            default:
+                Map<String, String> definition = schemas.getDefinition(type);
+                if (definition == null) {
+                    throw new IllegalStateException("Unknown type " + type + " in the Kubernetes schemas");
+                }
+                if (!(value instanceof Map)) {
+                    errors.add(prefix + path + ": expected a mapping, got " + describe(value));
+                    return;
+                }
+                validateObject((Map<String, Object>) value, definition, path, prefix, errors);
+        }
+    }
+
+    private void validateObject(Map<String, Object> object, Map<String, String> definition, String path,
+            String prefix, List<String> errors) {
+        String fieldPrefix = path.isEmpty() ? "" : path + '.';
+        for (Map.Entry<String, Object> field : object.entrySet()) {
+            String type = definition.get(field.getKey());
+            if (type == null) {
+                errors.add(prefix + fieldPrefix + field.getKey() + ": unknown field");
+            } else {
+                validateValue(field.getValue(),
+                              type.endsWith(REQUIRED_SUFFIX) ? type.substring(0, type.length() - 1) : type,
+                              fieldPrefix + field.getKey(),
+                              prefix,
+                              errors);
+            }
+        }
+        for (Map.Entry<String, String> field : definition.entrySet()) {
+            if (field.getValue().endsWith(REQUIRED_SUFFIX) && object.get(field.getKey()) == null) {
+                errors.add(prefix + fieldPrefix + field.getKey() + ": required field is missing");
+            }
+        }
+    }
+
+    private static void validateName(Object value, Pattern pattern, int maxLength, String description, String path,
+            String prefix, List<String> errors) {
+        if (!(value instanceof String) || ((String) value).length() > maxLength ||
+            !pattern.matcher((String) value).matches()) {
+            errors.add(prefix + path + ": " + describe(value) + " is not " + description +
+                       " (lowercase alphanumeric characters or '-', at most " + maxLength + " characters)");
+        }
+    }
+
+    private static boolean isInteger(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof BigInteger ||
+               value instanceof KubernetesYaml.OctalNumber;
+    }
+
+    private static void expect(boolean valid, Object value, String expected, String path, String prefix,
+            List<String> errors) {
+        if (!valid) {
+            errors.add(prefix + path + ": expected " + expected + ", got " + describe(value));
+        }
+    }
+
+    private static String describe(Object value) {
+        if (value instanceof String) {
+            return '"' + (String) value + '"';
+        }
+        if (value instanceof Map) {
+            return "a mapping";
+        }
+        if (value instanceof List) {
+            return "a list";
+        }
+        return value.getClass().getSimpleName().toLowerCase() + ' ' + value;
+    }
+
+    /**
+     * Initializes ManifestValidator on the first execution of ManifestValidator.getInstance(), not before.
+     **/
+    private static class ManifestValidatorHolder {
+        private static final ManifestValidator INSTANCE = new ManifestValidator();
+
+        private ManifestValidatorHolder() {
+        }
+    }
+}
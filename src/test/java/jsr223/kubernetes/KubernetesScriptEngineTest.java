@@ -0,0 +1,86 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.script.Bindings;
+import javax.script.ScriptContext;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+
+import org.junit.Test;
+
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderFactory;
+
+
+public class KubernetesScriptEngineTest {
+
+    private static final String MANIFEST = "apiVersion: v1\n" + "kind: Pod\n" + "metadata:\n" + "  name: task\n" +
+                                           "spec:\n" + "  containers:\n" + "  - name: main\n" +
+                                           "    image: busybox\n";
+
+    @Test
+    public void testInvalidNumberNamesItsGenericInformation() {
+        Map<String, String> genericInformation = new HashMap<>();
+        genericInformation.put("K8S_SWEEP_SIZE", "ten");
+
+        assertThat(evalAndFail(genericInformation, new HashMap<>()), containsString("K8S_SWEEP_SIZE 'ten'"));
+    }
+
+    @Test
+    public void testEmptySweepIsRejected() {
+        Map<String, String> genericInformation = new HashMap<>();
+        genericInformation.put("K8S_SWEEP_ITEMS", "variables_ITEMS");
+        Map<String, String> variables = new HashMap<>();
+        variables.put("ITEMS", " , ");
+
+        assertThat(evalAndFail(genericInformation, variables), containsString("no item, check K8S_SWEEP_ITEMS"));
+    }
+
+    private static String evalAndFail(Map<String, String> genericInformation, Map<String, String> variables) {
+        KubernetesScriptEngine engine = new KubernetesScriptEngine(mock(KubernetesProcessBuilderFactory.class));
+        Bindings bindings = engine.createBindings();
+        bindings.put("variables", variables);
+        bindings.put("genericInformation", genericInformation);
+        ScriptContext context = new SimpleScriptContext();
+        context.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+        engine.setContext(context);
+        try {
+            engine.eval(MANIFEST, context);
+            fail("The task should have failed");
+            return null;
+        } catch (ScriptException e) {
+            return e.getMessage();
+        }
+    }
+}
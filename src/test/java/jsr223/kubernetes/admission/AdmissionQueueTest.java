@@ -0,0 +1,69 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.admission;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesManifestParser;
+
+
+public class AdmissionQueueTest {
+
+    private static final String MANIFEST = "apiVersion: v1\n" + "kind: Pod\n" + "metadata:\n" + "  name: task\n" +
+                                           "  namespace: ns\n" + "spec:\n" + "  containers:\n" +
+                                           "  - name: main\n" + "    image: busybox\n" + "    resources:\n" +
+                                           "      requests:\n" + "        cpu: 100m\n";
+
+    @Test
+    public void testUnreadableCapacityAdmitsTheTasks() throws Exception {
+        // a quota whose quantity cannot be parsed
+        KubernetesCommandRunner commandRunner = mock(KubernetesCommandRunner.class);
+        when(commandRunner.run((String[]) anyVararg())).thenReturn(new KubernetesCommandResult(0,
+                                                                                               "{\"kind\":\"List\",\"items\":[{\"status\":" +
+                                                                                                  "{\"hard\":{\"requests.cpu\":\"a lot\"}}}]}",
+                                                                                               ""));
+        AdmissionQueue queue = new AdmissionQueue("cluster",
+                                                  commandRunner,
+                                                  new KubernetesCommandCreator(),
+                                                  60000,
+                                                  Runnable::run);
+
+        AdmissionTicket ticket = queue.admit(ResourceRequests.of(KubernetesManifestParser.parse(MANIFEST)), 5000);
+
+        assertThat(ticket, is(notNullValue()));
+        assertThat(queue.getWaitingTasks(), is(0));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.admission;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+
+public class ResourceQuantityTest {
+
+    @Test
+    public void testCpuQuantities() {
+        assertQuantity("2", "2");
+        assertQuantity("1.5", "1.5");
+        assertQuantity("500m", "0.5");
+        assertQuantity("250000u", "0.25");
+        assertQuantity("100000000n", "0.1");
+    }
+
+    @Test
+    public void testBinarySuffixes() {
+        assertQuantity("1Ki", "1024");
+        assertQuantity("128Mi", "134217728");
+        assertQuantity("1.5Gi", "1610612736");
+        assertQuantity("1Ei", "1152921504606846976");
+    }
+
+    @Test
+    public void testDecimalSuffixes() {
+        assertQuantity("1k", "1000");
+        assertQuantity("2G", "2000000000");
+        assertQuantity(" 3M ", "3000000");
+        // a trailing 'E' is the exa suffix, an exponent always ends with digits
+        assertQuantity("2E", "2000000000000000000");
+        assertQuantity("1e3", "1000");
+        assertQuantity("1E3", "1000");
+    }
+
+    @Test
+    public void testInvalidQuantities() {
+        for (String quantity : new String[] { "", " ", "Mi", "a lot", "1 k", "1KI", "1.2.3" }) {
+            try {
+                ResourceQuantity.parse(quantity);
+                fail("Quantity '" + quantity + "' should be invalid");
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    private static void assertQuantity(String quantity, String expected) {
+        assertThat(quantity, ResourceQuantity.parse(quantity).compareTo(new BigDecimal(expected)), is(0));
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.artifacts;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class TarStreamExtractorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testFilesAndDirectoriesAreExtracted() throws IOException {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        addEntry(tar, "out/", '5', "", null);
+        addEntry(tar, "out/result.txt", '0', "done", null);
+        addEntry(tar, "out/run.sh", '0', "#!/bin/sh", null);
+        Path target = temporaryFolder.getRoot().toPath().resolve("pod");
+
+        long files = extract(tar, target);
+
+        assertThat(files, is(2L));
+        assertThat(read(target.resolve("out/result.txt")), is("done"));
+        assertTrue(Files.isExecutable(target.resolve("out/run.sh")));
+    }
+
+    @Test
+    public void testEntriesOutsideOfTheTargetAreSkipped() throws IOException {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        addEntry(tar, "../escaped.txt", '0', "outside", null);
+        addEntry(tar, "out/../../escaped.txt", '0', "outside", null);
+        addEntry(tar, "/absolute.txt", '0', "inside", null);
+        addEntry(tar, "kept.txt", '0', "kept", null);
+        Path target = temporaryFolder.newFolder("pod").toPath();
+
+        long files = extract(tar, target);
+
+        assertThat(files, is(2L));
+        assertFalse(Files.exists(target.resolveSibling("escaped.txt")));
+        // an absolute name is made relative to the target directory
+        assertThat(read(target.resolve("absolute.txt")), is("inside"));
+        assertThat(read(target.resolve("kept.txt")), is("kept"));
+    }
+
+    @Test
+    public void testLinksAreSkipped() throws IOException {
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        addEntry(tar, "symbolic", '2', "", "/etc");
+        addEntry(tar, "hard", '1', "", "/etc/passwd");
+        addEntry(tar, "symbolic/passwd", '0', "through the link", null);
+        Path target = temporaryFolder.newFolder("pod").toPath();
+
+        extract(tar, target);
+
+        assertFalse(Files.isSymbolicLink(target.resolve("symbolic")));
+        assertFalse(Files.exists(target.resolve("hard"), LinkOption.NOFOLLOW_LINKS));
+        // the file is written into a plain directory, never through the link
+        assertTrue(Files.isDirectory(target.resolve("symbolic"), LinkOption.NOFOLLOW_LINKS));
+        assertThat(read(target.resolve("symbolic/passwd")), is("through the link"));
+    }
+
+    @Test
+    public void testLongNamesAreExtracted() throws IOException {
+        String longName = "out/" + new String(new char[150]).replace('\0', 'a') + ".txt";
+        ByteArrayOutputStream tar = new ByteArrayOutputStream();
+        addEntry(tar, "././@LongLink", 'L', longName + '\0', null);
+        addEntry(tar, "truncated", '0', "gnu", null);
+        addEntry(tar, "PaxHeaders/pax", 'x', paxRecord("path", "pax/" + longName.substring(4)), null);
+        addEntry(tar, "truncated", '0', "pax", null);
+        Path target = temporaryFolder.newFolder("pod").toPath();
+
+        long files = extract(tar, target);
+
+        assertThat(files, is(2L));
+        assertThat(read(target.resolve(longName)), is("gnu"));
+        assertThat(read(target.resolve("pax/" + longName.substring(4))), is("pax"));
+    }
+
+    private static long extract(ByteArrayOutputStream tar, Path target) throws IOException {
+        // end of archive: two zero blocks
+        tar.write(new byte[1024]);
+        return TarStreamExtractor.extract(new ByteArrayInputStream(tar.toByteArray()), target);
+    }
+
+    private static void addEntry(ByteArrayOutputStream tar, String name, char type, String content, String linkName)
+            throws IOException {
+        byte[] data = content.getBytes(StandardCharsets.UTF_8);
+        byte[] header = new byte[512];
+        putField(header, 0, name);
+        putField(header, 100, "0000755");
+        putField(header, 124, String.format("%011o", data.length));
+        header[156] = (byte) type;
+        if (linkName != null) {
+            putField(header, 157, linkName);
+        }
+        putField(header, 257, "ustar");
+        tar.write(header);
+        tar.write(data);
+        tar.write(new byte[(512 - data.length % 512) % 512]);
+    }
+
+    private static void putField(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+
+    private static String paxRecord(String key, String value) {
+        String record = ' ' + key + '=' + value + '\n';
+        // the length counts its own digits
+        int length = record.length();
+        while (String.valueOf(length).length() + record.length() != length) {
+            length++;
+        }
+        return length + record;
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.logs;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+
+
+public class ResourceCompletionTest {
+
+    private static final String RUNNING_POD_WITH_TERMINATED_MAIN = "{\"items\":[" +
+                                                                   pod("job-1-old", "2026-10-19T10:00:00Z", "Failed", "1") +
+                                                                   ',' +
+                                                                   pod("job-1-new", "2026-10-19T10:05:00Z", "Running", "0") +
+                                                                   "]}";
+
+    private KubernetesCommandRunner commandRunner;
+
+    private ResourceCompletion completion;
+
+    @Before
+    public void setUp() {
+        commandRunner = mock(KubernetesCommandRunner.class);
+        completion = new ResourceCompletion(commandRunner, new KubernetesCommandCreator());
+    }
+
+    @Test
+    public void testCompleteJob() throws Exception {
+        when(commandRunner.run((String[]) anyVararg())).thenReturn(new KubernetesCommandResult(0, "Complete", ""));
+
+        assertThat(completion.get(new KubernetesResource("Job", "job-1", "ns")), is(true));
+    }
+
+    @Test
+    public void testJobWithSidecarCompletesWithItsStreamedContainer() throws Exception {
+        when(commandRunner.run((String[]) anyVararg())).thenReturn(new KubernetesCommandResult(0, "", ""),
+                                                                   new KubernetesCommandResult(0,
+                                                                                               RUNNING_POD_WITH_TERMINATED_MAIN,
+                                                                                               ""));
+
+        assertThat(completion.get(new KubernetesResource("Job", "job-1", "ns")), is(true));
+    }
+
+    @Test
+    public void testRunningPod() throws Exception {
+        when(commandRunner.run((String[]) anyVararg())).thenReturn(new KubernetesCommandResult(0,
+                                                                                               pod("pod-1",
+                                                                                                   "2026-10-19T10:00:00Z",
+                                                                                                   "Running",
+                                                                                                   null),
+                                                                                               ""));
+
+        assertThat(completion.get(new KubernetesResource("Pod", "pod-1", "ns")), is(nullValue()));
+    }
+
+    @Test
+    public void testPodWithSidecarFailsWithItsStreamedContainer() throws Exception {
+        when(commandRunner.run((String[]) anyVararg())).thenReturn(new KubernetesCommandResult(0,
+                                                                                               pod("pod-1",
+                                                                                                   "2026-10-19T10:00:00Z",
+                                                                                                   "Running",
+                                                                                                   "2"),
+                                                                                               ""));
+
+        assertThat(completion.get(new KubernetesResource("Pod", "pod-1", "ns")), is(false));
+    }
+
+    @Test
+    public void testDeletedPod() throws Exception {
+        when(commandRunner.run((String[]) anyVararg())).thenReturn(new KubernetesCommandResult(1,
+                                                                                               "",
+                                                                                               "Error from server (NotFound): pods \"pod-1\" not found"));
+
+        assertThat(completion.get(new KubernetesResource("Pod", "pod-1", "ns")), is(false));
+    }
+
+    @Test
+    public void testUnreadableStatus() throws Exception {
+        when(commandRunner.run((String[]) anyVararg())).thenReturn(new KubernetesCommandResult(0, "not json", ""));
+
+        assertThat(completion.get(new KubernetesResource("Pod", "pod-1", "ns")), is(nullValue()));
+    }
+
+    @Test
+    public void testDeploymentLogsEndNormally() throws Exception {
+        assertThat(completion.get(new KubernetesResource("Deployment", "app", "ns")), is(true));
+    }
+
+    // A pod whose main container has terminated with the given exit code, or is running if null, beside a sidecar
+    private static String pod(String name, String creationTimestamp, String phase, String exitCode) {
+        String mainState = exitCode == null ? "{'running':{}}" : "{'terminated':{'exitCode':" + exitCode + "}}";
+        return ("{'metadata':{'name':'" + name + "','creationTimestamp':'" + creationTimestamp + "'}," +
+                "'spec':{'containers':[{'name':'main'},{'name':'sidecar'}]}," + "'status':{'phase':'" + phase +
+                "','containerStatuses':[{'name':'main','state':" + mainState + "}," +
+                "{'name':'sidecar','state':{'running':{}}}]}}").replace('\'', '"');
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.logs;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+
+public class ResumableLogStreamTest {
+
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    public void testTimestampsAreRemoved() throws IOException {
+        List<String> consumedLines = new ArrayList<>();
+        ResumableLogStream stream = new ResumableLogStream(consumedLines::add);
+        StringWriter to = new StringWriter();
+
+        long count = stream.pipe(new StringReader("2026-10-19T10:00:00.100000000Z first\n" +
+                                                  "2026-10-19T10:00:01.200000000Z second\n"),
+                                 to,
+                                 "[pod] ");
+
+        assertThat(to.toString(), is("[pod] first" + NL + "[pod] second" + NL));
+        assertThat(count, is(13L));
+        assertThat(stream.getLines(), is(2L));
+        assertThat(consumedLines.toString(), is("[first, second]"));
+        assertThat(stream.getSinceTime(), is("2026-10-19T10:00:01.200000000Z"));
+    }
+
+    @Test
+    public void testResumedConnectionSkipsThePipedLines() throws IOException {
+        ResumableLogStream stream = new ResumableLogStream();
+        StringWriter to = new StringWriter();
+        stream.pipe(new StringReader("2026-10-19T10:00:00.100000000Z one\n" +
+                                     "2026-10-19T10:00:01.200000000Z two\n" +
+                                     "2026-10-19T10:00:01.200000000Z three\n"),
+                    to,
+                    "");
+
+        // --since-time is truncated to the second: the new connection sends the lines of that second again
+        stream.pipe(new StringReader("2026-10-19T10:00:01.200000000Z two\n" +
+                                     "2026-10-19T10:00:01.200000000Z three\n" +
+                                     "2026-10-19T10:00:01.200000000Z four\n" +
+                                     "2026-10-19T10:00:02.000000000Z five\n"),
+                    to,
+                    "");
+
+        assertThat(to.toString(), is("one" + NL + "two" + NL + "three" + NL + "four" + NL + "five" + NL));
+        assertThat(stream.getLines(), is(5L));
+        assertThat(stream.getSinceTime(), is("2026-10-19T10:00:02.000000000Z"));
+    }
+
+    @Test
+    public void testEarlierLinesOfTheResumedSecondAreSkipped() throws IOException {
+        ResumableLogStream stream = new ResumableLogStream();
+        StringWriter to = new StringWriter();
+        stream.pipe(new StringReader("2026-10-19T10:00:01.100000000Z one\n" +
+                                     "2026-10-19T10:00:01.500000000Z two\n"),
+                    to,
+                    "");
+
+        stream.pipe(new StringReader("2026-10-19T10:00:01.100000000Z one\n" +
+                                     "2026-10-19T10:00:01.500000000Z two\n" +
+                                     "2026-10-19T10:00:01.900000000Z three\n"),
+                    to,
+                    "");
+
+        assertThat(to.toString(), is("one" + NL + "two" + NL + "three" + NL));
+    }
+
+    @Test
+    public void testLinesWithoutTimestampArePipedAsIs() throws IOException {
+        ResumableLogStream stream = new ResumableLogStream();
+        StringWriter to = new StringWriter();
+
+        stream.pipe(new StringReader("no timestamp here\n\n2026-10-19T10:00:00Z timed\n"), to, "");
+
+        assertThat(to.toString(), is("no timestamp here" + NL + NL + "timed" + NL));
+        assertThat(stream.getSinceTime(), is("2026-10-19T10:00:00Z"));
+    }
+}
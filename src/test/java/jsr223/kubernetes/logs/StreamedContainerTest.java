@@ -0,0 +1,113 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.logs;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+public class StreamedContainerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void testFirstContainerIsStreamedByDefault() throws IOException {
+        Map<String, Object> pod = pod("", "{'name':'main','state':{'running':{}}}");
+
+        assertThat(StreamedContainer.getName(pod), is("main"));
+    }
+
+    @Test
+    public void testDefaultContainerAnnotationIsStreamed() throws IOException {
+        Map<String, Object> pod = pod("'annotations':{'kubectl.kubernetes.io/default-container':'sidecar'}",
+                                      "{'name':'sidecar','state':{'running':{}}}");
+
+        assertThat(StreamedContainer.getName(pod), is("sidecar"));
+    }
+
+    @Test
+    public void testUnknownDefaultContainerAnnotationIsIgnored() throws IOException {
+        Map<String, Object> pod = pod("'annotations':{'kubectl.kubernetes.io/default-container':'other'}", "");
+
+        assertThat(StreamedContainer.getName(pod), is("main"));
+    }
+
+    @Test
+    public void testRunningContainerHasNotTerminated() throws IOException {
+        Map<String, Object> pod = pod("", "{'name':'main','state':{'running':{}}}");
+
+        assertThat(StreamedContainer.getTermination(pod), is(nullValue()));
+    }
+
+    @Test
+    public void testTerminatedContainerBesideRunningSidecar() throws IOException {
+        Map<String, Object> pod = pod("",
+                                      "{'name':'sidecar','state':{'running':{}}}," +
+                                          "{'name':'main','state':{'terminated':{'exitCode':0}}}");
+
+        assertThat(StreamedContainer.getTermination(pod), is(true));
+    }
+
+    @Test
+    public void testFailedContainer() throws IOException {
+        Map<String, Object> pod = pod("", "{'name':'main','state':{'terminated':{'exitCode':3}}}");
+
+        assertThat(StreamedContainer.getTermination(pod), is(false));
+    }
+
+    @Test
+    public void testPodWithoutStatus() throws IOException {
+        Map<String, Object> pod = MAPPER.readValue("{\"spec\":{\"containers\":[{\"name\":\"main\"}]}}", Map.class);
+
+        assertThat(StreamedContainer.getTermination(pod), is(nullValue()));
+    }
+
+    @Test
+    public void testSidecarStillRunningOnceStreamedContainerHasTerminated() throws IOException {
+        Map<String, Object> pod = pod("",
+                                      "{'name':'main','state':{'terminated':{'exitCode':0}}}," +
+                                          "{'name':'sidecar','state':{'running':{'startedAt':'2026-10-19T10:00:00Z'}}}");
+
+        assertThat(StreamedContainer.isRunning(pod, "sidecar"), is(true));
+        assertThat(StreamedContainer.isRunning(pod, null), is(false));
+        assertThat(StreamedContainer.isRunning(pod, "unknown"), is(false));
+    }
+
+    // A pod with the containers main and sidecar
+    private static Map<String, Object> pod(String metadata, String containerStatuses) throws IOException {
+        String json = "{'metadata':{" + metadata + "},'spec':{'containers':[{'name':'main'},{'name':'sidecar'}]}," +
+                      "'status':{'phase':'Running','containerStatuses':[" + containerStatuses + "]}}";
+        return MAPPER.readValue(json.replace('\'', '"'), Map.class);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.pool;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.processbuilder.MeteredProcess;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesManifestParser;
+import jsr223.kubernetes.utils.KubernetesPropertyLoader;
+
+
+public class WarmPodPoolTest {
+
+    private static final String POD_TEMPLATE = "apiVersion: v1\n" + "kind: Pod\n" + "metadata:\n" + "  name: task\n" +
+                                               "  namespace: ns\n" + "spec:\n" + "  containers:\n" +
+                                               "  - name: main\n" + "    image: busybox\n";
+
+    // The kubectl verbs run by the pool
+    private final List<String> verbs = new CopyOnWriteArrayList<>();
+
+    private KubernetesCommandRunner commandRunner;
+
+    @Before
+    public void setUp() throws Exception {
+        commandRunner = mock(KubernetesCommandRunner.class);
+        when(commandRunner.run((String[]) anyVararg())).thenAnswer(this::run);
+        when(commandRunner.run(anyString(), (String[]) anyVararg())).thenAnswer(this::run);
+    }
+
+    @Test
+    public void testPoolIsNotIdleWhileItsPodIsBusy() throws Exception {
+        WarmPodPool pool = createPool(1);
+
+        pool.touch();
+        String podName = pool.acquire(1, TimeUnit.SECONDS);
+
+        assertThat(podName, is(notNullValue()));
+        assertThat(pool.isIdleSince(System.currentTimeMillis() + 1000), is(false));
+
+        pool.release(podName);
+        assertThat(pool.isIdleSince(System.currentTimeMillis() + 1000), is(true));
+        assertThat(pool.isIdleSince(System.currentTimeMillis() - 60000), is(false));
+    }
+
+    @Test
+    public void testCloseDeletesTheIdlePods() throws Exception {
+        WarmPodPool pool = createPool(2);
+        assertThat(count("create"), is(2L));
+
+        pool.close();
+
+        assertThat(count("delete"), is(1L));
+        // a closed pool is not replenished
+        pool.recycle();
+        assertThat(count("create"), is(2L));
+    }
+
+    @Test
+    public void testReleasedPodIsReplaced() throws Exception {
+        WarmPodPool pool = createPool(1);
+
+        pool.release(pool.acquire(1, TimeUnit.SECONDS));
+
+        assertThat(count("delete"), is(1L));
+        assertThat(count("create"), is(2L));
+    }
+
+    @Test(timeout = 10000)
+    public void testTemplateErrorFailsTheWaitingTask() throws Exception {
+        // the pod cannot be created from a template without containers
+        WarmPodPool pool = createPool(POD_TEMPLATE.substring(0, POD_TEMPLATE.indexOf("  containers:")), 1);
+
+        try {
+            pool.acquire(300, TimeUnit.SECONDS);
+            throw new AssertionError("The pod should not have been acquired");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof RuntimeException, is(true));
+        }
+        assertThat(count("create"), is(0L));
+    }
+
+    @Test
+    public void testTemplateIdentity() {
+        String identity = getTemplateIdentity(POD_TEMPLATE);
+
+        // the pods of a pool have their own names
+        assertThat(getTemplateIdentity(POD_TEMPLATE.replace("name: task", "name: other-task")), is(identity));
+        assertThat(getTemplateIdentity(POD_TEMPLATE.replace("busybox", "alpine")), is(not(identity)));
+        assertThat(getTemplateIdentity(POD_TEMPLATE.replace("namespace: ns", "namespace: other")),
+                   is(not(identity)));
+        assertThat(getTemplateIdentity(POD_TEMPLATE.replace("  namespace: ns\n", "")),
+                   is(getTemplateIdentity(POD_TEMPLATE.replace("namespace: ns", "namespace: default"))));
+    }
+
+    private static String getTemplateIdentity(String podTemplate) {
+        return WarmPodPool.getTemplateIdentity(KubernetesManifestParser.parse(podTemplate).get(0));
+    }
+
+    private WarmPodPool createPool(int size) {
+        return createPool(POD_TEMPLATE, size);
+    }
+
+    private WarmPodPool createPool(String podTemplate, int size) {
+        WarmPodPool pool = new WarmPodPool("key",
+                                           KubernetesManifestParser.parse(podTemplate).get(0),
+                                           size,
+                                           TimeUnit.HOURS.toMillis(1),
+                                           commandRunner,
+                                           new KubernetesCommandCreator(),
+                                           MoreExecutors.newDirectExecutorService());
+        pool.ensureTargetSize(size);
+        return pool;
+    }
+
+    private KubernetesCommandResult run(InvocationOnMock invocation) {
+        // the varargs of the command are expanded, after the input of the command if any
+        List<String> arguments = new ArrayList<>();
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof String[]) {
+                arguments.addAll(Arrays.asList((String[]) argument));
+            } else {
+                arguments.add((String) argument);
+            }
+        }
+        int kubectl = arguments.indexOf(KubernetesPropertyLoader.getInstance().getKubectlCommand());
+        verbs.add(MeteredProcess.getVerb(arguments.subList(kubectl, arguments.size()).toArray(new String[0])));
+        return new KubernetesCommandResult(0, "", "");
+    }
+
+    private long count(String verb) {
+        return verbs.stream().filter(verb::equals).count();
+    }
+}
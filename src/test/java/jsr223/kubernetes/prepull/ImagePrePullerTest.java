@@ -0,0 +1,73 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.prepull;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+public class ImagePrePullerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    public void testPodNotStartedYetIsNotPulled() throws Exception {
+        assertThat(ImagePrePuller.isPulled(pod("{\"phase\":\"Pending\"}")), is(false));
+    }
+
+    @Test
+    public void testPullingImageIsNotPulled() throws Exception {
+        assertThat(ImagePrePuller.isPulled(pod("{\"containerStatuses\":[" +
+                                               "{\"name\":\"pre-pull-0\",\"imageID\":\"sha256:1\"}," +
+                                               "{\"name\":\"pre-pull-1\",\"imageID\":\"\"," +
+                                               "\"state\":{\"waiting\":{\"reason\":\"ContainerCreating\"}}}]}")),
+                   is(false));
+        assertThat(ImagePrePuller.isPulled(pod("{\"containerStatuses\":[{\"name\":\"pre-pull-0\"," +
+                                               "\"state\":{\"waiting\":{\"reason\":\"ImagePullBackOff\"}}}]}")),
+                   is(false));
+    }
+
+    @Test
+    public void testContainersFailingAfterThePullArePulled() throws Exception {
+        // a distroless image without the command: started and failed, or failed at creation
+        assertThat(ImagePrePuller.isPulled(pod("{\"containerStatuses\":[" +
+                                               "{\"name\":\"pre-pull-0\",\"imageID\":\"sha256:1\"," +
+                                               "\"state\":{\"terminated\":{\"reason\":\"StartError\"}}}," +
+                                               "{\"name\":\"pre-pull-1\",\"imageID\":\"\"," +
+                                               "\"state\":{\"waiting\":{\"reason\":\"CreateContainerError\"}}}]}")),
+                   is(true));
+    }
+
+    private static Map<String, Object> pod(String status) throws Exception {
+        return MAPPER.readValue("{\"kind\":\"Pod\",\"status\":" + status + '}', Map.class);
+    }
+}
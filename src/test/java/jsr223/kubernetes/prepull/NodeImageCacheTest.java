@@ -0,0 +1,84 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.prepull;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+
+
+public class NodeImageCacheTest {
+
+    // A node as reported by 'kubectl get nodes -o json'
+    private static final String NODES = "{\"items\":[{\"metadata\":{\"name\":\"node-1\"},\"spec\":{}," +
+                                        "\"status\":{\"images\":[" +
+                                        "{\"names\":[\"docker.io/library/nginx@sha256:abc\"," +
+                                        "\"docker.io/library/nginx:latest\"]}," +
+                                        "{\"names\":[\"docker.io/bitnami/redis:7.2\"]}," +
+                                        "{\"names\":[\"registry.example.com:5000/team/app:1.0\"]}]}}]}";
+
+    @Test
+    public void testNormalize() {
+        assertThat(NodeImageCache.normalize("nginx"), is("docker.io/library/nginx:latest"));
+        assertThat(NodeImageCache.normalize("nginx:1.25"), is("docker.io/library/nginx:1.25"));
+        assertThat(NodeImageCache.normalize("library/nginx"), is("docker.io/library/nginx:latest"));
+        assertThat(NodeImageCache.normalize("bitnami/redis:7.2"), is("docker.io/bitnami/redis:7.2"));
+        assertThat(NodeImageCache.normalize("index.docker.io/nginx"), is("docker.io/library/nginx:latest"));
+        assertThat(NodeImageCache.normalize("nginx:1.25@sha256:abc"), is("docker.io/library/nginx@sha256:abc"));
+        assertThat(NodeImageCache.normalize("registry.example.com:5000/team/app"),
+                   is("registry.example.com:5000/team/app:latest"));
+        assertThat(NodeImageCache.normalize("localhost/app:dev"), is("localhost/app:dev"));
+    }
+
+    @Test
+    public void testShortNamesMatchTheNodeImages() throws Exception {
+        KubernetesCommandRunner commandRunner = mock(KubernetesCommandRunner.class);
+        when(commandRunner.run((String[]) anyVararg())).thenReturn(new KubernetesCommandResult(0, NODES, ""));
+        NodeImageCache cache = new NodeImageCache(commandRunner, new KubernetesCommandCreator(null, null), 60000);
+
+        assertThat(cache.getMissingImages(Arrays.asList("nginx",
+                                                        "nginx@sha256:abc",
+                                                        "bitnami/redis:7.2",
+                                                        "registry.example.com:5000/team/app:1.0",
+                                                        "nginx:1.25",
+                                                        "redis:7.2"))
+                        .toString(),
+                   is("[nginx:1.25, redis:7.2]"));
+
+        cache.markWarm(Arrays.asList("nginx:1.25"));
+        assertThat(cache.getMissingImages(Arrays.asList("docker.io/library/nginx:1.25")).isEmpty(), is(true));
+    }
+}
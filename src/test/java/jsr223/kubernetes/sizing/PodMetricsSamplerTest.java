@@ -0,0 +1,165 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.sizing;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+
+
+public class PodMetricsSamplerTest {
+
+    private static final String NAMESPACE_METRICS = "{\"kind\":\"PodMetricsList\",\"items\":[" +
+                                                    podMetrics("task-pod", null, "main", "250m", "64Mi") + ',' +
+                                                    podMetrics("task-job-x7k2p", "task-job", "worker", "1", "1Gi") +
+                                                    ',' + podMetrics("other-pod", null, "other", "2", "2Gi") +
+                                                    ',' +
+                                                    podMetrics("task-job-q9z4r", "task-job", "helper", "x", "1Mi") +
+                                                    "]}";
+
+    private final PodMetricsSampler sampler = PodMetricsSampler.getInstance();
+
+    private final KubernetesCommandCreator commandCreator = new KubernetesCommandCreator();
+
+    private KubernetesCommandRunner commandRunner;
+
+    // Namespace -> pod metrics served by the stub kubectl, a missing namespace fails
+    private final Map<String, String> podMetrics = new HashMap<>();
+
+    // Namespaces whose pod metrics were read
+    private final List<String> reads = new ArrayList<>();
+
+    @Before
+    public void stubKubectl() throws Exception {
+        commandRunner = mock(KubernetesCommandRunner.class);
+        when(commandRunner.run((String[]) anyVararg())).thenAnswer(this::getPodMetrics);
+    }
+
+    @Test
+    public void testPodsOfTheTaskAreSampled() throws Exception {
+        podMetrics.put("ns", NAMESPACE_METRICS);
+        PodUsageSubscription subscription = sampler.subscribe(commandRunner,
+                                                              commandCreator,
+                                                              Arrays.asList(new KubernetesResource("Pod",
+                                                                                                   "task-pod",
+                                                                                                   "ns"),
+                                                                            new KubernetesResource("Job",
+                                                                                                   "task-job",
+                                                                                                   "ns"),
+                                                                            new KubernetesResource("Service",
+                                                                                                   "other-pod",
+                                                                                                   "ns")));
+
+        subscription.finish();
+
+        // the pod of another task is not sampled, nor the container with an invalid usage
+        assertThat(subscription.getPeakUsages().toString(),
+                   is("{main=cpu=250m, memory=67108864, worker=cpu=1000m, memory=1073741824}"));
+        assertThat(reads.toString(), is("[ns]"));
+    }
+
+    @Test
+    public void testOnlyTheNamespacesOfTheTaskAreRead() throws Exception {
+        podMetrics.put("ns", NAMESPACE_METRICS);
+        podMetrics.put("other", NAMESPACE_METRICS);
+        PodUsageSubscription otherSubscription = sampler.subscribe(commandRunner,
+                                                                   commandCreator,
+                                                                   Arrays.asList(new KubernetesResource("Pod",
+                                                                                                        "other-pod",
+                                                                                                        "other")));
+        PodUsageSubscription subscription = sampler.subscribe(commandRunner,
+                                                              commandCreator,
+                                                              Arrays.asList(new KubernetesResource("Pod",
+                                                                                                   "task-pod",
+                                                                                                   "ns")));
+
+        subscription.finish();
+        assertThat(reads.toString(), is("[ns]"));
+
+        otherSubscription.finish();
+        assertThat(reads.toString(), is("[ns, other]"));
+        assertThat(otherSubscription.getPeakUsages().keySet().toString(), is("[other]"));
+
+        // closed subscriptions are not sampled anymore
+        subscription.finish();
+        assertThat(reads.toString(), is("[ns, other]"));
+    }
+
+    @Test
+    public void testUnavailableMetricsAreSkipped() throws Exception {
+        PodUsageSubscription subscription = sampler.subscribe(commandRunner,
+                                                              commandCreator,
+                                                              Arrays.asList(new KubernetesResource("Pod",
+                                                                                                   "task-pod",
+                                                                                                   "missing")));
+
+        subscription.finish();
+
+        assertThat(reads.toString(), is("[missing]"));
+        assertThat(subscription.getStatistics().isEmpty(), is(true));
+    }
+
+    // Answers 'kubectl get --raw /apis/metrics.k8s.io/v1beta1/namespaces/<namespace>/pods'
+    private KubernetesCommandResult getPodMetrics(InvocationOnMock invocation) {
+        for (Object argument : invocation.getArguments()) {
+            String path = String.valueOf(argument);
+            if (path.contains("/namespaces/")) {
+                String namespace = path.substring(path.indexOf("/namespaces/") + 12, path.lastIndexOf("/pods"));
+                reads.add(namespace);
+                return podMetrics.containsKey(namespace) ? new KubernetesCommandResult(0,
+                                                                                       podMetrics.get(namespace),
+                                                                                       "")
+                                                         : new KubernetesCommandResult(1,
+                                                                                       "",
+                                                                                       "Error from server (NotFound)");
+            }
+        }
+        throw new IllegalArgumentException("Unexpected command " + Arrays.toString(invocation.getArguments()));
+    }
+
+    private static String podMetrics(String name, String jobName, String container, String cpu, String memory) {
+        return "{\"metadata\":{\"name\":\"" + name + "\"" +
+               (jobName != null ? ",\"labels\":{\"job-name\":\"" + jobName + "\"}" : "") + "},\"containers\":[" +
+               "{\"name\":\"" + container + "\",\"usage\":{\"cpu\":\"" + cpu + "\",\"memory\":\"" + memory + "\"}}]}";
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.sizing;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class ResourceUsageHistoryTest {
+
+    private static final String KEY = ResourceUsageHistory.getKey("workflow", "task", "main");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRunsAreAppendedAndLoaded() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("history");
+        ResourceUsageHistory history = new ResourceUsageHistory(file, 2);
+        for (int run = 1; run <= 3; run++) {
+            history.record(Collections.singletonMap(KEY, new ContainerUsage(100 * run, 1000 * run)));
+        }
+
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8).size(), is(3));
+        List<ContainerUsage> usages = new ResourceUsageHistory(file, 2).getUsages(KEY);
+        assertThat(usages.toString(), is("[cpu=200m, memory=2000, cpu=300m, memory=3000]"));
+    }
+
+    @Test
+    public void testFileIsCompacted() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("history");
+        ResourceUsageHistory history = new ResourceUsageHistory(file, 20);
+        for (int run = 1; run <= 2500; run++) {
+            history.record(Collections.singletonMap(KEY, new ContainerUsage(run, run)));
+        }
+
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8).size() <= 1000, is(true));
+        List<ContainerUsage> usages = new ResourceUsageHistory(file, 20).getUsages(KEY);
+        assertThat(usages.size(), is(20));
+        assertThat(usages.get(19).getCpuMillicores(), is(2500L));
+    }
+
+    @Test
+    public void testHalfWrittenLineIsSkipped() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("history");
+        ResourceUsageHistory history = new ResourceUsageHistory(file, 20);
+        history.record(Collections.singletonMap(KEY, new ContainerUsage(100, 1000)));
+        Files.write(file, (KEY + "\t200\t20").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Files.write(file, "x\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        List<ContainerUsage> usages = new ResourceUsageHistory(file, 20).getUsages(KEY);
+        assertThat(usages.toString(), is("[cpu=100m, memory=1000]"));
+    }
+}
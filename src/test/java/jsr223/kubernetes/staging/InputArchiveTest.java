@@ -0,0 +1,144 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.staging;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jsr223.kubernetes.artifacts.TarStreamExtractor;
+
+
+public class InputArchiveTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Path dataDirectory;
+
+    private Path configFile;
+
+    @Before
+    public void createInputs() throws IOException {
+        dataDirectory = temporaryFolder.newFolder("data", "sets").toPath();
+        write(dataDirectory.resolve("a.csv"), "1,2");
+        write(dataDirectory.resolve("nested/b.csv"), "3,4");
+        configFile = write(temporaryFolder.getRoot().toPath().resolve("config.yaml"), "key: value");
+    }
+
+    @Test
+    public void testInputsAreArchivedUnderTheirFileName() throws IOException {
+        Path target = temporaryFolder.newFolder("target").toPath();
+
+        try (InputArchive archive = InputArchive.build(Arrays.asList(dataDirectory, configFile))) {
+            assertThat(archive.getFileCount(), is(3));
+            assertThat(archive.getSize(), is(Files.size(archive.getFile())));
+            assertThat(extract(archive, target), is(3L));
+        }
+
+        assertThat(read(target.resolve("sets/a.csv")), is("1,2"));
+        assertThat(read(target.resolve("sets/nested/b.csv")), is("3,4"));
+        assertThat(read(target.resolve("config.yaml")), is("key: value"));
+    }
+
+    @Test
+    public void testSameInputsGiveTheSameHash() throws IOException {
+        String hash;
+        try (InputArchive archive = InputArchive.build(Collections.singletonList(dataDirectory))) {
+            hash = archive.getHash();
+        }
+        // neither the modification times nor a new build change the content
+        Files.setLastModifiedTime(dataDirectory.resolve("a.csv"), FileTime.fromMillis(0));
+        try (InputArchive archive = InputArchive.build(Collections.singletonList(dataDirectory))) {
+            assertThat(archive.getHash(), is(hash));
+        }
+
+        write(dataDirectory.resolve("a.csv"), "1,3");
+        try (InputArchive archive = InputArchive.build(Collections.singletonList(dataDirectory))) {
+            assertThat(archive.getHash(), is(not(hash)));
+        }
+    }
+
+    @Test
+    public void testLongNamesAreArchived() throws IOException {
+        String longName = new String(new char[120]).replace('\0', 'a') + ".csv";
+        write(dataDirectory.resolve(longName), "5,6");
+        Path target = temporaryFolder.newFolder("target").toPath();
+
+        try (InputArchive archive = InputArchive.build(Collections.singletonList(dataDirectory))) {
+            extract(archive, target);
+        }
+
+        assertThat(read(target.resolve("sets/" + longName)), is("5,6"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingInputFails() throws IOException {
+        InputArchive.build(Collections.singletonList(temporaryFolder.getRoot().toPath().resolve("missing")));
+    }
+
+    @Test
+    public void testCloseDeletesTheArchive() throws IOException {
+        InputArchive archive = InputArchive.build(Collections.singletonList(configFile));
+        assertTrue(Files.exists(archive.getFile()));
+
+        archive.close();
+
+        assertFalse(Files.exists(archive.getFile()));
+    }
+
+    private static long extract(InputArchive archive, Path target) throws IOException {
+        try (InputStream tar = new GZIPInputStream(Files.newInputStream(archive.getFile()))) {
+            return TarStreamExtractor.extract(tar, target);
+        }
+    }
+
+    private static Path write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.staging;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.processbuilder.KubernetesProcessBuilderFactory;
+import jsr223.kubernetes.processbuilder.MeteredProcess;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+import jsr223.kubernetes.utils.KubernetesPropertyLoader;
+
+
+public class InputStagerTest {
+
+    private static final String MANIFEST = "apiVersion: v1\n" + "kind: Pod\n" + "metadata:\n" + "  name: task\n" +
+                                           "  namespace: ns\n" + "spec:\n" + "  containers:\n" +
+                                           "  - name: main\n" + "    image: busybox\n";
+
+    private static final String JOB_MANIFEST = "apiVersion: batch/v1\n" + "kind: Job\n" + "metadata:\n" +
+                                               "  name: task-job\n" + "  namespace: ns\n" + "spec:\n" +
+                                               "  backoffLimit: 0\n" + "  template:\n" + "    spec:\n" +
+                                               "      restartPolicy: Never\n" + "      containers:\n" +
+                                               "      - name: main\n" + "        image: busybox\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    // The kubectl verbs run by the stager
+    private final List<String> verbs = new ArrayList<>();
+
+    private KubernetesCommandRunner commandRunner;
+
+    private InputArchive archive;
+
+    private boolean configMapDeleted = false;
+
+    // The pods listed for the job, in turn; the last one is listed from then on
+    private List<String> jobPods = Collections.singletonList("");
+
+    private int jobPodListings = 0;
+
+    private final KubernetesProcessBuilderFactory processBuilderFactory = mock(KubernetesProcessBuilderFactory.class);
+
+    @Before
+    public void setUp() throws Exception {
+        commandRunner = mock(KubernetesCommandRunner.class);
+        when(commandRunner.run((String[]) anyVararg())).thenAnswer(this::run);
+        when(commandRunner.run(anyString(), (String[]) anyVararg())).thenAnswer(this::run);
+
+        // Inputs of their own, the uploaded ConfigMaps are remembered by all the stagers of the JVM
+        File input = folder.newFile("input.txt");
+        Files.write(input.toPath(), UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        archive = InputArchive.build(Collections.singletonList(input.toPath()));
+    }
+
+    @After
+    public void tearDown() {
+        archive.close();
+    }
+
+    @Test
+    public void testUploadedConfigMapIsReused() throws Exception {
+        createStager("context").prepare(MANIFEST);
+        createStager("context").prepare(MANIFEST);
+
+        assertThat(verbs, is(Arrays.asList("create", "get")));
+    }
+
+    @Test
+    public void testConfigMapIsUploadedToEachCluster() throws Exception {
+        createStager("context").prepare(MANIFEST);
+        createStager("other-context").prepare(MANIFEST);
+
+        assertThat(verbs, is(Arrays.asList("create", "create")));
+    }
+
+    @Test
+    public void testDeletedConfigMapIsUploadedAgain() throws Exception {
+        createStager("context").prepare(MANIFEST);
+        configMapDeleted = true;
+        createStager("context").prepare(MANIFEST);
+
+        assertThat(verbs, is(Arrays.asList("create", "get", "create")));
+    }
+
+    @Test
+    public void testArchiveIsStreamedIntoJobPodCreatedLater() throws Exception {
+        archive = buildLargeArchive();
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        Process process = mock(Process.class);
+        when(process.getOutputStream()).thenReturn(streamed);
+        when(process.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(process.getErrorStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        when(process.waitFor()).thenReturn(0);
+        when(processBuilderFactory.start((String[]) anyVararg())).thenReturn(process);
+        jobPods = Arrays.asList("", "task-job-abc12");
+
+        InputStager stager = createStager("context");
+        stager.prepare(JOB_MANIFEST);
+        stager.upload(Collections.singletonList(new KubernetesResource("Job", "task-job", "ns")));
+
+        assertThat(stager.isUploadNeeded(), is(true));
+        assertThat(jobPodListings, is(2));
+        assertThat((long) streamed.size(), is(archive.getSize()));
+    }
+
+    @Test
+    public void testStreamedInputsAreRejectedForJobsRetryingPods() throws Exception {
+        archive = buildLargeArchive();
+
+        try {
+            createStager("context").prepare(JOB_MANIFEST.replace("  backoffLimit: 0\n", ""));
+            fail("A job retrying its failed pods must not be streamed into");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), containsString("job task-job may create several"));
+        }
+        try {
+            createStager("context").prepare(JOB_MANIFEST.replace("  backoffLimit: 0\n",
+                                                                 "  backoffLimit: 0\n  completions: 3\n"));
+            fail("A job completing several pods must not be streamed into");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), containsString("job task-job may create several"));
+        }
+    }
+
+    // Random content does not compress, the archive is too large for a ConfigMap
+    private InputArchive buildLargeArchive() throws IOException {
+        archive.close();
+        byte[] content = new byte[KubernetesPropertyLoader.getInstance().getInputStagingConfigMapMaxSize() + 1024];
+        new Random().nextBytes(content);
+        File input = folder.newFile("large-input.bin");
+        Files.write(input.toPath(), content);
+        return InputArchive.build(Collections.singletonList(input.toPath()));
+    }
+
+    private InputStager createStager(String context) {
+        return new InputStager(processBuilderFactory,
+                               commandRunner,
+                               new KubernetesCommandCreator(context, null),
+                               archive,
+                               "/inputs",
+                               60);
+    }
+
+    private KubernetesCommandResult run(InvocationOnMock invocation) {
+        // the varargs of the command are expanded, after the input of the command if any
+        List<String> arguments = new ArrayList<>();
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof String[]) {
+                arguments.addAll(Arrays.asList((String[]) argument));
+            } else {
+                arguments.add((String) argument);
+            }
+        }
+        int kubectl = arguments.indexOf(KubernetesPropertyLoader.getInstance().getKubectlCommand());
+        String verb = MeteredProcess.getVerb(arguments.subList(kubectl, arguments.size()).toArray(new String[0]));
+        verbs.add(verb);
+        if ("get".equals(verb) && configMapDeleted) {
+            configMapDeleted = false;
+            return new KubernetesCommandResult(1, "", "Error from server (NotFound): configmaps not found");
+        }
+        if ("get".equals(verb) && arguments.contains("job-name=task-job")) {
+            String pods = jobPods.get(Math.min(jobPodListings, jobPods.size() - 1));
+            jobPodListings++;
+            return new KubernetesCommandResult(0, pods, "");
+        }
+        if ("get".equals(verb) && arguments.contains("pod/task-job-abc12")) {
+            // the inputs init container is running
+            return new KubernetesCommandResult(0, "2026-10-19T00:00:00Z", "");
+        }
+        return new KubernetesCommandResult(0, "", "");
+    }
+}
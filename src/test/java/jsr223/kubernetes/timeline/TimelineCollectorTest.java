@@ -0,0 +1,104 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.timeline;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import jsr223.kubernetes.model.KubernetesResource;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.utils.KubernetesCommandCreator;
+
+
+public class TimelineCollectorTest {
+
+    private static final String JOB_POD = "{\"kind\":\"List\",\"items\":[{\"kind\":\"Pod\",\"metadata\":{\"name\":" +
+                                          "\"job-pod\",\"creationTimestamp\":\"2026-10-19T10:00:00Z\"},\"status\":" +
+                                          "{\"conditions\":[{\"type\":\"PodScheduled\",\"status\":\"True\"," +
+                                          "\"lastTransitionTime\":\"2026-10-19T10:00:01Z\"}]}}]}";
+
+    private static final String JOB_POD_EVENTS = "{\"kind\":\"List\",\"items\":[{\"kind\":\"Event\",\"reason\":" +
+                                                 "\"Pulled\",\"involvedObject\":{\"kind\":\"Pod\",\"name\":" +
+                                                 "\"job-pod\"},\"lastTimestamp\":\"2026-10-19T10:00:05Z\"}]}";
+
+    // The commands run by the collector
+    private final List<List<String>> commands = new ArrayList<>();
+
+    private KubernetesCommandRunner commandRunner;
+
+    @Before
+    public void setUp() throws Exception {
+        commandRunner = mock(KubernetesCommandRunner.class);
+        when(commandRunner.run((String[]) anyVararg())).thenAnswer(this::run);
+    }
+
+    @Test
+    public void testOnlyTheTaskPodsAndTheirEventsAreRead() throws Exception {
+        List<PodTimeline> timelines = new TimelineCollector(commandRunner,
+                                                            new KubernetesCommandCreator()).collect(Arrays.asList(new KubernetesResource("Job",
+                                                                                                                                         "job",
+                                                                                                                                         "ns"),
+                                                                                                                  new KubernetesResource("Service",
+                                                                                                                                         "service",
+                                                                                                                                         "ns")));
+
+        assertThat(timelines.size(), is(1));
+        assertThat(timelines.get(0).getPodName(), is("job-pod"));
+        assertThat(timelines.get(0).getScheduled(), is(Instant.parse("2026-10-19T10:00:01Z")));
+        assertThat(timelines.get(0).getImagePulled(), is(Instant.parse("2026-10-19T10:00:05Z")));
+
+        assertThat(commands.size(), is(2));
+        assertThat(commands.get(0), hasItem("job-name in (job)"));
+        assertThat(commands.get(1), hasItem("--field-selector=involvedObject.kind=Pod,involvedObject.name=job-pod"));
+        for (List<String> command : commands) {
+            assertThat(command, not(hasItem("pods,events")));
+        }
+    }
+
+    private KubernetesCommandResult run(InvocationOnMock invocation) {
+        List<String> command = new ArrayList<>();
+        for (Object argument : invocation.getArguments()) {
+            command.add((String) argument);
+        }
+        commands.add(command);
+        return new KubernetesCommandResult(0, command.contains("events") ? JOB_POD_EVENTS : JOB_POD, "");
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.script.ScriptException;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+import jsr223.kubernetes.processbuilder.KubernetesCommandResult;
+import jsr223.kubernetes.processbuilder.KubernetesCommandRunner;
+import jsr223.kubernetes.processbuilder.MeteredProcess;
+
+
+public class KubernetesParallelResourceCreatorTest {
+
+    private static final String MANIFEST = "apiVersion: v1\n" + "kind: Namespace\n" + "metadata:\n" +
+                                           "  name: ns\n" + "---\n" + "apiVersion: v1\n" + "kind: Pod\n" +
+                                           "metadata:\n" + "  name: task\n" + "  namespace: ns\n" + "spec:\n" +
+                                           "  containers:\n" + "  - name: main\n" + "    image: busybox\n";
+
+    private static final String CONFIGURED_MANIFEST = "apiVersion: v1\n" + "kind: ConfigMap\n" + "metadata:\n" +
+                                                     "  name: settings\n" + "  namespace: ns\n" + "---\n" +
+                                                     "apiVersion: v1\n" + "kind: Secret\n" + "metadata:\n" +
+                                                     "  name: token\n" + "  namespace: ns\n" + "---\n" +
+                                                     "apiVersion: v1\n" + "kind: Pod\n" + "metadata:\n" +
+                                                     "  name: task\n" + "  namespace: ns\n" + "spec:\n" +
+                                                     "  containers:\n" + "  - name: main\n" +
+                                                     "    image: busybox\n";
+
+    // The output of the creation of the pod, null for an error
+    private String podCreationOutput;
+
+    // The resources kubectl fails to delete
+    private final Set<String> undeletableResources = new HashSet<>();
+
+    // The resources of the deletions, in order
+    private final List<String> deletedResources = new ArrayList<>();
+
+    private KubernetesCommandRunner commandRunner;
+
+    @Before
+    public void setUp() throws Exception {
+        commandRunner = mock(KubernetesCommandRunner.class);
+        when(commandRunner.run((String[]) anyVararg())).thenAnswer(this::run);
+        when(commandRunner.run(anyString(), (String[]) anyVararg())).thenAnswer(this::run);
+    }
+
+    @Test
+    public void testFailedTierRollsBackTheEarlierTiers() throws Exception {
+        podCreationOutput = null;
+
+        String message = createAndFail();
+
+        assertThat(deletedResources, is(Arrays.asList("Namespace/ns")));
+        assertThat(message, containsString("the 1 resources already created were deleted."));
+        assertThat(message, containsString("Could not create Pod/task: quota exceeded"));
+    }
+
+    @Test
+    public void testUnreadableCreationIsRolledBack() throws Exception {
+        podCreationOutput = "not json";
+
+        createAndFail();
+
+        // the pod is deleted under the name of its document, before its namespace
+        assertThat(deletedResources, is(Arrays.asList("Pod/task", "Namespace/ns")));
+    }
+
+    @Test
+    public void testFailedDeletionsAreReported() throws Exception {
+        podCreationOutput = null;
+        undeletableResources.add("Namespace/ns");
+
+        String message = createAndFail();
+
+        assertThat(message, not(containsString("were deleted")));
+        assertThat(message, containsString("these ones may remain: Namespace/ns."));
+    }
+
+    @Test
+    public void testOnlyTheRemainingResourcesAreReported() throws Exception {
+        podCreationOutput = null;
+        undeletableResources.add("Secret/token");
+
+        String message = createAndFail(CONFIGURED_MANIFEST);
+
+        // both are deleted by a single command, which deletes the config map then fails
+        assertThat(deletedResources.size(), is(2));
+        assertThat(message, containsString("these ones may remain: Secret/token."));
+    }
+
+    private String createAndFail() {
+        return createAndFail(MANIFEST);
+    }
+
+    private String createAndFail(String manifest) {
+        try {
+            new KubernetesParallelResourceCreator(commandRunner,
+                                                  new KubernetesCommandCreator(),
+                                                  2).create(KubernetesManifestParser.parse(manifest));
+            fail("The creation should have failed");
+            return null;
+        } catch (ScriptException e) {
+            return e.getMessage();
+        }
+    }
+
+    private KubernetesCommandResult run(InvocationOnMock invocation) {
+        // the varargs of the command are expanded, after the input of the command if any
+        List<String> arguments = new ArrayList<>();
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof String[]) {
+                arguments.addAll(Arrays.asList((String[]) argument));
+            } else {
+                arguments.add((String) argument);
+            }
+        }
+        int kubectl = arguments.indexOf(KubernetesPropertyLoader.getInstance().getKubectlCommand());
+        List<String> command = arguments.subList(kubectl, arguments.size());
+        String verb = MeteredProcess.getVerb(command.toArray(new String[0]));
+        if ("delete".equals(verb)) {
+            // 'kubectl delete -o name' prints the deleted resources, and goes on after a failed deletion
+            StringBuilder output = new StringBuilder();
+            StringBuilder error = new StringBuilder();
+            for (String argument : command.subList(1, command.size())) {
+                if (argument.contains("/") && !argument.startsWith("-")) {
+                    deletedResources.add(argument);
+                    if (undeletableResources.contains(argument)) {
+                        error.append("Error from server (Forbidden): ").append(argument).append('\n');
+                    } else {
+                        output.append(argument.toLowerCase()).append('\n');
+                    }
+                }
+            }
+            return new KubernetesCommandResult(error.length() == 0 ? 0 : 1, output.toString(), error.toString());
+        }
+        KubernetesManifestDocument document = KubernetesManifestParser.parse(arguments.get(0)).get(0);
+        if ("Pod".equals(document.getKind())) {
+            return podCreationOutput == null ? new KubernetesCommandResult(1, "", "quota exceeded")
+                                             : new KubernetesCommandResult(0, podCreationOutput, "");
+        }
+        return new KubernetesCommandResult(0,
+                                           "{\"kind\":\"" + document.getKind() + "\",\"metadata\":{\"name\":\"" +
+                                              document.getName() + "\"" +
+                                              (document.getNamespace() != null ? ",\"namespace\":\"" +
+                                                                                 document.getNamespace() + '"'
+                                                                               : "") +
+                                              "}}",
+                                           "");
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+
+public class KubernetesPropertyLoaderTest {
+
+    @Test
+    public void testInvalidNumbersFallBackToTheDefaultValues() {
+        Properties properties = new Properties();
+        properties.setProperty("sizing.history.size", "twenty");
+        properties.setProperty("kubectl.cache.refresh.interval", "5m");
+        properties.setProperty("kubectl.context.east.capacity", "");
+        properties.setProperty("kubectl.context.east.weight", "heavy");
+
+        KubernetesPropertyLoader loader = new KubernetesPropertyLoader(properties);
+
+        assertThat(loader.getSizingHistorySize(), is(20));
+        assertThat(loader.getKubectlCacheRefreshInterval(), is(300L));
+        assertThat(loader.getContextIntProperty("east", "capacity", 0), is(0));
+        assertThat(loader.getContextDoubleProperty("east", "weight", 1), is(1.0));
+    }
+
+    @Test
+    public void testNumbersAreTrimmed() {
+        Properties properties = new Properties();
+        properties.setProperty("sizing.history.size", "5 ");
+        properties.setProperty("kubectl.context.east.max.pending.tasks", "12");
+
+        KubernetesPropertyLoader loader = new KubernetesPropertyLoader(properties);
+
+        assertThat(loader.getSizingHistorySize(), is(5));
+        assertThat(loader.getContextIntProperty("east", "max.pending.tasks", 0), is(12));
+    }
+}
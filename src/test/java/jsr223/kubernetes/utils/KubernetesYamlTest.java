@@ -0,0 +1,78 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import jsr223.kubernetes.model.KubernetesManifestDocument;
+
+
+public class KubernetesYamlTest {
+
+    @Test
+    public void testJavaClassesAreNotConstructed() {
+        try {
+            KubernetesYaml.create().load("file: !!java.io.File [\"/tmp\"]\n");
+            fail("The Java class should not have been constructed");
+        } catch (YAMLException e) {
+            assertThat(e.getMessage(), containsString("java.io.File"));
+        }
+    }
+
+    @Test
+    public void testScalarsKeepTheirMeaningForKubectl() {
+        KubernetesManifestDocument document = KubernetesManifestParser.parse("kind: ConfigMap\n" + "data:\n" +
+                                                                             "  day: 2024-01-01\n" +
+                                                                             "  time: 2024-01-01T10:00:00Z\n" +
+                                                                             "  duration: 1:30\n" +
+                                                                             "  quoted: '0755'\n" +
+                                                                             "  count: 42\n" + "mode: 0755\n")
+                                                                      .get(0);
+
+        Map<String, Object> data = (Map<String, Object>) document.getObject().get("data");
+        assertThat(data.get("day"), is((Object) "2024-01-01"));
+        assertThat(data.get("time"), is((Object) "2024-01-01T10:00:00Z"));
+        assertThat(data.get("duration"), is((Object) "1:30"));
+        assertThat(data.get("quoted"), is((Object) "0755"));
+        assertThat(data.get("count"), is((Object) 42));
+        assertThat(((Number) document.getObject().get("mode")).intValue(), is(493));
+
+        // the octal integer keeps its digits, the string that looks like one stays a string
+        assertThat(document.getContent(),
+                   is("kind: ConfigMap\n" + "data:\n" + "  day: 2024-01-01\n" + "  time: 2024-01-01T10:00:00Z\n" +
+                      "  duration: 1:30\n" + "  quoted: '0755'\n" + "  count: 42\n" + "mode: !!int '0755'\n"));
+        assertThat(KubernetesManifestParser.parse(document.getContent()).get(0).getObject(),
+                   is(document.getObject()));
+    }
+}
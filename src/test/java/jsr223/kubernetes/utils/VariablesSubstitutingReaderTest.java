@@ -0,0 +1,114 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.utils;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+
+public class VariablesSubstitutingReaderTest {
+
+    private static final Map<String, String> VARIABLES = new HashMap<>();
+
+    static {
+        VARIABLES.put("IMAGE", "busybox:${TAG}");
+        VARIABLES.put("TAG", "1.36");
+        VARIABLES.put("PA_TASK_ID", "42");
+    }
+
+    @Test
+    public void testKnownReferencesAreSubstituted() throws IOException {
+        String manifest = "image: ${IMAGE}\nname: task-${PA_TASK_ID}\nunknown: ${OTHER}\nempty: ${}\nprice: $5 {}\n";
+
+        assertThat(substitute(new StringReader(manifest), 64),
+                   is("image: busybox:1.36\nname: task-42\nunknown: ${OTHER}\nempty: ${}\nprice: $5 {}\n"));
+    }
+
+    @Test
+    public void testReferencesSplitAcrossBufferBoundaries() throws IOException {
+        // the reference straddles the end of the 8192 characters buffer of the reader
+        for (int padding = 8180; padding < 8200; padding++) {
+            String manifest = repeat('x', padding) + "${PA_TASK_ID}" + repeat('y', 10);
+            String expected = repeat('x', padding) + "42" + repeat('y', 10);
+
+            assertThat(substitute(new StringReader(manifest), 4096), is(expected));
+            // the source gives a few characters at a time, the reference is split across its reads
+            assertThat(substitute(new TrickleReader(manifest, 3), 7), is(expected));
+        }
+    }
+
+    @Test
+    public void testSameResultAsTheInMemorySubstitution() throws IOException {
+        StringBuilder manifest = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            manifest.append("- image: ${IMAGE}\n  id: ${PA_TASK_ID}-").append(i).append(" $${TAG}\n");
+        }
+
+        assertThat(substitute(new TrickleReader(manifest.toString(), 5), 1000),
+                   is(VariablesSubstitutor.replaceRecursively(manifest.toString(), VARIABLES)));
+    }
+
+    private static String substitute(Reader source, int chunkSize) throws IOException {
+        StringWriter substituted = new StringWriter();
+        try (Reader reader = new VariablesSubstitutingReader(source, VARIABLES)) {
+            char[] chunk = new char[chunkSize];
+            int n;
+            while ((n = reader.read(chunk)) != -1) {
+                substituted.write(chunk, 0, n);
+            }
+        }
+        return substituted.toString();
+    }
+
+    private static String repeat(char c, int count) {
+        return new String(new char[count]).replace('\0', c);
+    }
+
+    // Returns at most a few characters per read, like a slow stream
+    private static class TrickleReader extends StringReader {
+
+        private final int maxRead;
+
+        TrickleReader(String content, int maxRead) {
+            super(content);
+            this.maxRead = maxRead;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            return super.read(buffer, offset, Math.min(length, maxRead));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * ProActive Parallel Suite(TM):
+ * The Open Source library for parallel and distributed
+ * Workflows & Scheduling, Orchestration, Cloud Automation
+ * and Big Data Analysis on Enterprise Grids & Clouds.
+ *
+ * Copyright (c) 2007 - 2017 ActiveEon
+ * Contact: contact@activeeon.com
+ *
+ * This library is free software: you can redistribute it and/or
+ * modify it under the terms of the GNU Affero General Public License
+ * as published by the Free Software Foundation: version 3 of
+ * the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * If needed, contact us to obtain a release under GPL Version 2 or 3
+ * or a different license than the AGPL.
+ */
+package jsr223.kubernetes.validation;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+
+public class ManifestValidatorTest {
+
+    private static final String POD = "apiVersion: v1\n" + "kind: Pod\n" + "metadata:\n" + "  name: task\n" +
+                                      "spec:\n" + "  restartPolicy: Never\n" + "  containers:\n" +
+                                      "  - name: main\n" + "    image: busybox\n" + "    resources:\n" +
+                                      "      requests:\n" + "        cpu: 500m\n" + "        memory: 128Mi\n";
+
+    private final ManifestValidator validator = ManifestValidator.getInstance();
+
+    @Test
+    public void testValidManifest() {
+        assertThat(validator.validate(POD + "---\n" + POD.replace("name: task", "name: other")).toString(), is("[]"));
+    }
+
+    @Test
+    public void testYamlScalarsReadAsKubectlDoes() {
+        // a date is a string for kubectl, an octal number an integer
+        assertThat(validator.validate("apiVersion: v1\nkind: ConfigMap\nmetadata:\n  name: dates\n" +
+                                      "data: {day: 2024-01-01}\n").toString(),
+                   is("[]"));
+        assertThat(validator.validate(POD.replace("  restartPolicy: Never\n",
+                                                  "  restartPolicy: Never\n  terminationGracePeriodSeconds: 010\n"))
+                            .toString(),
+                   is("[]"));
+    }
+
+    @Test
+    public void testUnknownField() {
+        assertThat(validator.validate(POD.replace("containers:", "contianers:")).toString(),
+                   is("[Pod/task: spec.contianers: unknown field, " +
+                      "Pod/task: spec.containers: required field is missing]"));
+    }
+
+    @Test
+    public void testInvalidValues() {
+        List<String> errors = validator.validate(POD.replace("Never", "Sometimes")
+                                                    .replace("name: main", "name: Main_Container")
+                                                    .replace("500m", "half")
+                                                    .replace("image: busybox", "image: [busybox]"));
+
+        assertThat(errors, hasItem(containsString("spec.restartPolicy: unsupported value \"Sometimes\"")));
+        assertThat(errors, hasItem(containsString("spec.containers[0].name: \"Main_Container\" is not a RFC 1123")));
+        assertThat(errors,
+                   hasItem("Pod/task: spec.containers[0].resources.requests.cpu: invalid resource quantity \"half\""));
+        assertThat(errors, hasItem("Pod/task: spec.containers[0].image: expected a string, got a list"));
+    }
+
+    @Test
+    public void testApiVersionOfTheKind() {
+        assertThat(validator.validate("apiVersion: v1\nkind: Deployment\nmetadata:\n  name: app\n").toString(),
+                   is("[Deployment/app: kind Deployment is not served by apiVersion v1, but by apps/v1]"));
+    }
+
+    @Test
+    public void testCustomResourcesAreOnlyCheckedForTheirName() {
+        assertThat(validator.validate("apiVersion: example.com/v1\nkind: Widget\nmetadata:\n  name: w\n" +
+                                      "spec:\n  anything: [1, 2]\n").toString(),
+                   is("[]"));
+        assertThat(validator.validate("apiVersion: example.com/v1\nkind: Widget\nspec: {}\n").toString(),
+                   is("[Widget/<no name>: metadata.name or metadata.generateName is required]"));
+    }
+
+    @Test
+    public void testInvalidYaml() {
+        List<String> errors = validator.validate("apiVersion: v1\nkind: [Pod\n");
+
+        assertThat(errors.size(), is(1));
+        assertThat(errors.get(0), containsString("Invalid YAML"));
+    }
+
+    @Test
+    public void testErrorsAreCachedByManifest() {
+        String manifest = POD.replace("image:", "imag:");
+
+        assertThat(validator.validate(manifest), sameInstance(validator.validate(manifest)));
+    }
+}